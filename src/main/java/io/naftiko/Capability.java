@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -30,6 +31,8 @@ import io.naftiko.spec.util.ExecutionContext;
 import io.naftiko.engine.consumes.ClientAdapter;
 import io.naftiko.engine.consumes.ConsumesImportResolver;
 import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.consumes.http.HttpClientConnectors;
+import io.naftiko.engine.consumes.http.OperationIndex;
 import io.naftiko.engine.exposes.ServerAdapter;
 import io.naftiko.engine.exposes.control.ControlServerAdapter;
 import io.naftiko.engine.exposes.mcp.McpServerAdapter;
@@ -37,6 +40,9 @@ import io.naftiko.engine.exposes.rest.RestServerAdapter;
 import io.naftiko.engine.exposes.skill.SkillServerAdapter;
 import io.naftiko.engine.observability.TelemetryBootstrap;
 import io.naftiko.engine.util.BindingResolver;
+import io.naftiko.engine.util.PrecompiledSpec;
+import io.naftiko.engine.util.Resolver;
+import io.naftiko.engine.util.SpecPrecompiler;
 import io.naftiko.spec.NaftikoSpec;
 import io.naftiko.spec.consumes.ClientSpec;
 import io.naftiko.spec.consumes.http.HttpClientSpec;
@@ -63,6 +69,10 @@ public class Capability {
     private volatile List<Aggregate> aggregates;
     private volatile Map<String, Object> bindings;
     private volatile ScriptingManagementSpec scriptingSpec;
+    private final HttpClientConnectors httpClientConnectors = new HttpClientConnectors();
+    private volatile OperationIndex operationIndex;
+    private volatile PrecompiledSpec precompiledSpec;
+    private final AtomicBoolean templatesReleased = new AtomicBoolean();
 
     public Capability(NaftikoSpec spec) throws Exception {
         this(spec, null);
@@ -148,6 +158,13 @@ public class Capability {
                 this.clientAdapters.add(new HttpClientAdapter(this, (HttpClientSpec) clientSpec));
             }
         }
+
+        // Index consumed operations once so call resolution never scans the adapters
+        this.operationIndex = OperationIndex.of(clientAdapters);
+
+        // Compile every declared template once so the request path never parses them. Last, so
+        // that a capability failing to load leaves no pinned templates behind.
+        this.precompiledSpec = new SpecPrecompiler(operationIndex).precompile(spec);
     }
 
     public NaftikoSpec getSpec() {
@@ -174,6 +191,27 @@ public class Capability {
         return scriptingSpec;
     }
 
+    /**
+     * Returns the index of consumed HTTP operations by namespace and operation name.
+     */
+    public OperationIndex getOperationIndex() {
+        return operationIndex;
+    }
+
+    /**
+     * Returns the output mapping plans compiled from this capability's spec at load time.
+     */
+    public PrecompiledSpec getPrecompiledSpec() {
+        return precompiledSpec;
+    }
+
+    /**
+     * Returns the pooled HTTP client connectors shared by the adapters of this capability.
+     */
+    public HttpClientConnectors getHttpClientConnectors() {
+        return httpClientConnectors;
+    }
+
     /**
      * Look up an aggregate function by ref key ({@code "namespace.functionName"}).
      *
@@ -231,12 +269,21 @@ public class Capability {
                 ? spec.getInfo().getLabel() : "unknown";
         TelemetryBootstrap.get().getMetrics().capabilityStopped(capabilityName);
 
-        for (ServerAdapter adapter : getServerAdapters()) {
-            adapter.stop();
-        }
+        try {
+            for (ServerAdapter adapter : getServerAdapters()) {
+                adapter.stop();
+            }
 
-        for (ClientAdapter adapter : getClientAdapters()) {
-            adapter.stop();
+            for (ClientAdapter adapter : getClientAdapters()) {
+                adapter.stop();
+            }
+        } finally {
+            // Unpin the templates declared by this capability, once even if stopped again
+            if (templatesReleased.compareAndSet(false, true)) {
+                for (String template : precompiledSpec.getTemplates()) {
+                    Resolver.releaseMustacheTemplate(template);
+                }
+            }
         }
     }
 
@@ -112,6 +112,21 @@ public class ScriptingCommand implements Callable<Integer> {
             if (stats.has("lastExecutionAt")) {
                 System.out.println("    Last Run:   " + stats.get("lastExecutionAt").asText());
             }
+            if (stats.has("inFlight")) {
+                System.out.println("    In Flight:  " + stats.path("inFlight").asInt());
+                System.out.println("    Timeouts:   " + stats.path("timeouts").asLong());
+            }
+            JsonNode contextPool = stats.path("contextPool");
+            if (!contextPool.isMissingNode()) {
+                System.out.println("    Contexts:   " + contextPool.path("size").asInt()
+                        + " (" + contextPool.path("idle").asInt() + " idle)");
+                System.out.println("    Hit Rate:   "
+                        + String.format("%.1f", contextPool.path("hitRate").asDouble() * 100)
+                        + " %");
+                System.out.println("    Avg Wait:   "
+                        + String.format("%.2f", contextPool.path("averageWaitMs").asDouble())
+                        + " ms");
+            }
         }
 
         return 0;
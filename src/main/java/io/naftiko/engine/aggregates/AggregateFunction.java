@@ -13,14 +13,23 @@
  */
 package io.naftiko.engine.aggregates;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import org.restlet.Response;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.naftiko.engine.consumes.http.RetryPolicy;
 import io.naftiko.engine.observability.TelemetryBootstrap;
+import io.naftiko.engine.util.BufferedResponse;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.DelimitedOptions;
 import io.naftiko.engine.util.OperationStepExecutor;
 import io.naftiko.engine.util.Resolver;
+import io.naftiko.engine.util.ResponseCache;
 import io.naftiko.spec.aggregates.AggregateFunctionSpec;
 import io.naftiko.spec.InputParameterSpec;
 import io.naftiko.spec.OutputParameterSpec;
@@ -37,18 +46,43 @@ import io.opentelemetry.context.Scope;
  * <p>Holds the spec data (from YAML) plus the {@link OperationStepExecutor} needed to actually
  * run the function. Adapters (MCP tools, REST operations) that reference an aggregate function
  * delegate execution here instead of duplicating the function's fields.</p>
+ *
+ * <p>A function declaring {@code semantics.cacheable: true} with a {@code ttl} keeps its
+ * successful results in memory for that many seconds, keyed by its input parameters.</p>
  */
 public class AggregateFunction {
 
+    static final int MAX_CACHED_RESULTS = 1024;
+
+    static final long MAX_CACHED_BYTES = 16L * 1024 * 1024;
+
+    private static final ObjectMapper KEY_MAPPER = new ObjectMapper();
+
     private final AggregateFunctionSpec spec;
     private final OperationStepExecutor stepExecutor;
     private final String namespace;
+    private final ResponseCache<CachedResult> results;
 
     AggregateFunction(AggregateFunctionSpec spec, OperationStepExecutor stepExecutor,
             String namespace) {
         this.spec = spec;
         this.stepExecutor = stepExecutor;
         this.namespace = namespace;
+        this.results = ttl(spec) > 0
+                ? new ResponseCache<>("function", MAX_CACHED_RESULTS, MAX_CACHED_BYTES)
+                : null;
+    }
+
+    /**
+     * @return the lifetime in seconds of cached results, or 0 when results are not cached
+     */
+    private static int ttl(AggregateFunctionSpec spec) {
+        SemanticsSpec semantics = spec.getSemantics();
+        if (semantics == null || !Boolean.TRUE.equals(semantics.getCacheable())
+                || semantics.getTtl() == null) {
+            return 0;
+        }
+        return Math.max(0, semantics.getTtl());
     }
 
     public String getName() {
@@ -97,14 +131,23 @@ public class AggregateFunction {
      *   <li><b>Simple call</b> — call defined: single HTTP dispatch</li>
      * </ol>
      *
+     * <p>A function {@code timeout} starts a {@link Deadline} for its steps and calls, within
+     * the deadline of the adapter operation that delegates to it. A function declaring
+     * {@code semantics.safe} or {@code semantics.idempotent} lets its calls of any method be
+     * retried.</p>
+     *
      * @param parameters resolved input parameters (merged with adapter-level 'with')
      * @return a transport-neutral {@link FunctionResult}
      */
     public FunctionResult execute(Map<String, Object> parameters) throws Exception {
         String ref = namespace + "." + spec.getName();
         Span span = TelemetryBootstrap.get().startAggregateFunctionSpan(ref);
-        try (Scope scope = span.makeCurrent()) {
-            return doExecute(parameters);
+        try (Scope scope = span.makeCurrent();
+                Scope deadline = Deadline.start(spec.getTimeout());
+                Scope steps = OperationStepExecutor.limitStepParallelism(
+                        spec.getStepParallelism());
+                Scope retries = RetryPolicy.declareIdempotent(isIdempotent())) {
+            return results != null ? executeCached(parameters) : doExecute(parameters);
         } catch (Exception e) {
             TelemetryBootstrap.recordError(span, e);
             throw e;
@@ -113,6 +156,105 @@ public class AggregateFunction {
         }
     }
 
+    /**
+     * Serve a fresh cached result for the same parameters, or execute the function and cache its
+     * result when it succeeded.
+     */
+    FunctionResult executeCached(Map<String, Object> parameters) throws Exception {
+        String key;
+        try {
+            key = KEY_MAPPER.writeValueAsString(
+                    parameters != null ? new TreeMap<>(parameters) : Map.of());
+        } catch (JsonProcessingException e) {
+            // Parameters that cannot be serialized cannot be compared either
+            return doExecute(parameters);
+        }
+
+        long now = System.currentTimeMillis();
+        ResponseCache.Entry<CachedResult> cached = results.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            results.hit();
+            return cached.value().toResult();
+        }
+        results.miss();
+
+        FunctionResult result = doExecute(parameters);
+        CachedResult cacheable = CachedResult.of(result);
+        if (cacheable != null) {
+            results.put(key, cacheable, cacheable.weight(), now + ttl(spec) * 1000L);
+        }
+        return result;
+    }
+
+    /**
+     * A function result held in memory, its upstream response buffered so that every hit gets an
+     * entity of its own. The client request, and the credentials it carries, are not kept.
+     *
+     * @param call the adapter and operation of the last call, without its request, or null when
+     *        the function made no call
+     */
+    record CachedResult(OperationStepExecutor.HandlingContext call, BufferedResponse response,
+            String mappedOutput, JsonNode mockOutput) {
+
+        /**
+         * @return the cacheable copy of a result, or null when the upstream call did not succeed
+         */
+        static CachedResult of(FunctionResult result) throws IOException {
+            OperationStepExecutor.HandlingContext context = result.lastContext;
+            OperationStepExecutor.HandlingContext call = null;
+            BufferedResponse response = null;
+            if (context != null) {
+                if (context.clientResponse != null) {
+                    if (context.clientResponse.getStatus() == null
+                            || !context.clientResponse.getStatus().isSuccess()) {
+                        return null;
+                    }
+                    response = BufferedResponse.of(context.clientResponse);
+                }
+                call = new OperationStepExecutor.HandlingContext();
+                call.clientAdapter = context.clientAdapter;
+                call.clientOperation = context.clientOperation;
+            }
+            return new CachedResult(call, response, result.mappedOutput, result.mockOutput);
+        }
+
+        long weight() {
+            long weight = response != null ? response.size() : 0;
+            if (mappedOutput != null) {
+                weight += mappedOutput.length();
+            }
+            if (mockOutput != null) {
+                weight += mockOutput.toString().length();
+            }
+            return weight;
+        }
+
+        FunctionResult toResult() {
+            OperationStepExecutor.HandlingContext copy = null;
+            if (call != null) {
+                copy = new OperationStepExecutor.HandlingContext();
+                copy.clientAdapter = call.clientAdapter;
+                copy.clientOperation = call.clientOperation;
+                if (response != null) {
+                    copy.clientResponse = new Response(null);
+                    response.applyTo(copy.clientResponse);
+                }
+            }
+            return new FunctionResult(copy, mappedOutput, mockOutput);
+        }
+
+    }
+
+    /**
+     * @return true when the semantics declare that calling the function twice has the effect of
+     *         calling it once
+     */
+    private boolean isIdempotent() {
+        SemanticsSpec semantics = spec.getSemantics();
+        return semantics != null && (Boolean.TRUE.equals(semantics.getSafe())
+                || Boolean.TRUE.equals(semantics.getIdempotent()));
+    }
+
     FunctionResult doExecute(Map<String, Object> parameters) throws Exception {
         Map<String, Object> merged = new HashMap<>();
         if (parameters != null) {
@@ -132,13 +274,14 @@ public class AggregateFunction {
             return new FunctionResult(null, null, mockRoot);
         }
 
-        // Covers both orchestrated and simple-call paths
-        stepExecutor.setExposeNamespace(namespace);
+        // The executor is shared by every function, so the namespace is passed with each call
+        boolean safe = spec.getSemantics() != null
+                && Boolean.TRUE.equals(spec.getSemantics().getSafe());
 
         // Orchestrated mode
         if (isOrchestrated) {
             OperationStepExecutor.StepExecutionResult stepResult =
-                    stepExecutor.executeSteps(spec.getSteps(), merged);
+                    stepExecutor.executeSteps(spec.getSteps(), merged, namespace, safe);
 
             if (spec.getMappings() != null && !spec.getMappings().isEmpty()) {
                 String mapped = stepExecutor.resolveStepMappings(
@@ -154,7 +297,7 @@ public class AggregateFunction {
         // Simple call mode
         OperationStepExecutor.HandlingContext found =
                 stepExecutor.execute(spec.getCall(), spec.getSteps(), merged,
-                        "Function '" + spec.getName() + "'");
+                        "Function '" + spec.getName() + "'", namespace, safe);
 
         // Apply output parameter mappings if defined on the function
         if (spec.getOutputParameters() != null && !spec.getOutputParameters().isEmpty()
@@ -166,7 +309,8 @@ public class AggregateFunction {
             String outputSchema = found.clientOperation != null
                     ? found.clientOperation.getOutputSchema() : null;
             String mapped = stepExecutor.applyOutputMappings(responseText,
-                    spec.getOutputParameters(), outputRawFormat, outputSchema);
+                    spec.getOutputParameters(), outputRawFormat, outputSchema,
+                    DelimitedOptions.of(found.clientOperation));
             if (mapped != null) {
                 return new FunctionResult(found, mapped, null);
             }
@@ -29,8 +29,7 @@ import io.naftiko.spec.consumes.http.DigestAuthenticationSpec;
 import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
 import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
 import io.naftiko.spec.consumes.http.HttpClientSpec;
-import static org.restlet.data.Protocol.HTTP;
-import static org.restlet.data.Protocol.HTTPS;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
@@ -38,11 +37,35 @@ import java.util.Map;
  */
 public class HttpClientAdapter extends ClientAdapter {
 
+    private final HttpClientConnectors connectors;
+
     private final Client httpClient;
 
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Retry policies of the operations declaring their own, null when retries are disabled.
+     */
+    private final Map<HttpClientOperationSpec, RetryPolicy> operationRetryPolicies;
+
+    private final RetryBudget retryBudget;
+
     public HttpClientAdapter(Capability capability, HttpClientSpec spec) {
         super(capability, spec);
-        this.httpClient = new Client(HTTP, HTTPS);
+        // Share the capability's pooled connectors; a standalone adapter gets its own
+        this.connectors = capability != null ? capability.getHttpClientConnectors()
+                : new HttpClientConnectors();
+        this.httpClient = connectors.client(spec.getConnector());
+        this.retryPolicy = RetryPolicy.of(spec.getRetry());
+        this.retryBudget = RetryBudget.of(spec.getRetry());
+        this.operationRetryPolicies = new IdentityHashMap<>();
+        for (HttpClientResourceSpec resource : spec.getResources()) {
+            for (HttpClientOperationSpec operation : resource.getOperations()) {
+                if (operation.getRetry() != null) {
+                    operationRetryPolicies.put(operation, RetryPolicy.of(operation.getRetry()));
+                }
+            }
+        }
     }
 
     public HttpClientSpec getHttpClientSpec() {
@@ -156,18 +179,41 @@ public class HttpClientAdapter extends ClientAdapter {
         }
     }
 
+    /**
+     * @param operation the called operation, or null
+     * @return the retry policy of the operation, or else of the adapter, or null when calls are
+     *         not retried
+     */
+    public RetryPolicy getRetryPolicy(HttpClientOperationSpec operation) {
+        if (operation == null || operation.getRetry() == null) {
+            return retryPolicy;
+        }
+        if (operationRetryPolicies.containsKey(operation)) {
+            return operationRetryPolicies.get(operation);
+        }
+        // Operations added after the adapter was built are not precomputed
+        return RetryPolicy.of(operation.getRetry());
+    }
+
+    /**
+     * @return the retry budget shared by the calls of this adapter
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
     public Client getHttpClient() {
         return httpClient;
     }
 
     @Override
     public void start() throws Exception {
-        getHttpClient().start();
+        connectors.start(getHttpClient());
     }
 
     @Override
     public void stop() throws Exception {
-        getHttpClient().stop();
+        connectors.stop(getHttpClient());
     }
 
 }
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import static org.restlet.data.Protocol.HTTP;
+import static org.restlet.data.Protocol.HTTPS;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.restlet.Client;
+import org.restlet.Context;
+import io.naftiko.spec.consumes.http.HttpClientConnectorSpec;
+
+/**
+ * Pooled HTTP client connectors shared by the adapters of a capability.
+ *
+ * <p>Adapters declaring the same {@link HttpClientConnectorSpec} settings get the same Restlet
+ * {@link Client}, so they share its connection pool. A connector is started by its first user and
+ * stopped when its last user stops.</p>
+ */
+public class HttpClientConnectors {
+
+    /**
+     * Connector parameter names read by the Restlet HTTP client helper.
+     */
+    static final String MAX_CONNECTIONS_PER_DESTINATION = "maxConnectionsPerDestination";
+    static final String MAX_REQUESTS_QUEUED_PER_DESTINATION = "maxRequestsQueuedPerDestination";
+    static final String CONNECT_TIMEOUT = "connectTimeout";
+    static final String IDLE_TIMEOUT = "idleTimeout";
+    static final String DESTINATION_IDLE_TIMEOUT = "destinationIdleTimeout";
+    static final String TRANSPORT_MODE = "httpClientTransportMode";
+
+    private final Map<Map<String, String>, Client> clients = new HashMap<>();
+    private final Map<Client, Integer> users = new IdentityHashMap<>();
+
+    /**
+     * @param spec the connector settings (may be null for the defaults)
+     * @return the shared client for these settings, created on first use but not started
+     */
+    public synchronized Client client(HttpClientConnectorSpec spec) {
+        return clients.computeIfAbsent(parameters(spec), HttpClientConnectors::newClient);
+    }
+
+    /**
+     * Start a client obtained from {@link #client}, unless another user already started it.
+     */
+    public synchronized void start(Client client) throws Exception {
+        int count = users.getOrDefault(client, 0);
+        if (count == 0) {
+            client.start();
+        }
+        users.put(client, count + 1);
+    }
+
+    /**
+     * Stop a client obtained from {@link #client} once its last user stops.
+     */
+    public synchronized void stop(Client client) throws Exception {
+        Integer count = users.get(client);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            users.put(client, count - 1);
+        } else {
+            users.remove(client);
+            client.stop();
+        }
+    }
+
+    /**
+     * @return the number of distinct connectors created
+     */
+    synchronized int size() {
+        return clients.size();
+    }
+
+    /**
+     * Translate connector settings into Restlet client parameters. The read timeout becomes the
+     * connector idle timeout, which Restlet also uses as the maximum wait for a response.
+     *
+     * @param spec the connector settings (may be null)
+     * @return the parameters, sorted by name
+     */
+    static Map<String, String> parameters(HttpClientConnectorSpec spec) {
+        Map<String, String> parameters = new TreeMap<>();
+        if (spec == null) {
+            return parameters;
+        }
+        put(parameters, MAX_CONNECTIONS_PER_DESTINATION, "maxConnectionsPerRoute",
+                spec.getMaxConnectionsPerRoute());
+        put(parameters, MAX_REQUESTS_QUEUED_PER_DESTINATION, "maxQueuedRequestsPerRoute",
+                spec.getMaxQueuedRequestsPerRoute());
+        put(parameters, CONNECT_TIMEOUT, "connectTimeout", spec.getConnectTimeout());
+        put(parameters, IDLE_TIMEOUT, "readTimeout", spec.getReadTimeout());
+        put(parameters, DESTINATION_IDLE_TIMEOUT, "idleTimeout", spec.getIdleTimeout());
+        if (Boolean.TRUE.equals(spec.getHttp2())) {
+            parameters.put(TRANSPORT_MODE, "HTTP2");
+        }
+        return parameters;
+    }
+
+    private static void put(Map<String, String> parameters, String name, String setting,
+            Integer value) {
+        if (value == null) {
+            return;
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(
+                    "HTTP connector setting must not be negative. Provided " + setting + ": "
+                            + value);
+        }
+        parameters.put(name, value.toString());
+    }
+
+    private static Client newClient(Map<String, String> parameters) {
+        Client client = new Client(new Context(), List.of(HTTP, HTTPS));
+        parameters.forEach((name, value) -> client.getContext().getParameters().add(name, value));
+        return client;
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import io.naftiko.engine.consumes.ClientAdapter;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
+
+/**
+ * Immutable index of the consumed HTTP operations of a capability, keyed by adapter namespace and
+ * operation name.
+ *
+ * <p>When several adapters share a namespace, or several operations of an adapter share a name,
+ * the first one in declaration order wins, as with a linear scan of the adapters.</p>
+ */
+public final class OperationIndex {
+
+    /**
+     * An indexed operation.
+     *
+     * @param adapter the adapter declaring the operation
+     * @param operation the operation
+     * @param resourceUri the adapter base URI followed by the resource path, still templated
+     */
+    public record Entry(HttpClientAdapter adapter, HttpClientOperationSpec operation,
+            String resourceUri) {
+    }
+
+    private final Map<String, Map<String, Entry>> entries;
+
+    private OperationIndex(Map<String, Map<String, Entry>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Index the operations of the HTTP adapters in the given list.
+     *
+     * @param adapters the client adapters, in declaration order
+     * @return the index
+     */
+    public static OperationIndex of(List<ClientAdapter> adapters) {
+        Map<String, Map<String, Entry>> byNamespace = new HashMap<>();
+
+        for (ClientAdapter adapter : adapters) {
+            if (!(adapter instanceof HttpClientAdapter httpAdapter)
+                    || httpAdapter.getHttpClientSpec().getNamespace() == null) {
+                continue;
+            }
+            Map<String, Entry> operations = byNamespace.computeIfAbsent(
+                    httpAdapter.getHttpClientSpec().getNamespace(), ns -> new HashMap<>());
+            String baseUri = httpAdapter.getHttpClientSpec().getBaseUri();
+
+            for (HttpClientResourceSpec resource : httpAdapter.getHttpClientSpec().getResources()) {
+                String resourceUri = baseUri + resource.getPath();
+                for (HttpClientOperationSpec op : resource.getOperations()) {
+                    if (op.getName() != null) {
+                        operations.putIfAbsent(op.getName(),
+                                new Entry(httpAdapter, op, resourceUri));
+                    }
+                }
+            }
+        }
+
+        Map<String, Map<String, Entry>> frozen = new HashMap<>();
+        byNamespace.forEach((namespace, operations) -> frozen.put(namespace,
+                Map.copyOf(operations)));
+        return new OperationIndex(Map.copyOf(frozen));
+    }
+
+    /**
+     * @param namespace the adapter namespace
+     * @param operation the operation name
+     * @return the indexed operation, or null if none matches
+     */
+    public Entry find(String namespace, String operation) {
+        if (namespace == null || operation == null) {
+            return null;
+        }
+        Map<String, Entry> operations = entries.get(namespace);
+        return operations != null ? operations.get(operation) : null;
+    }
+
+    /**
+     * @return the number of indexed operations
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, Entry> operations : entries.values()) {
+            size += operations.size();
+        }
+        return size;
+    }
+
+}
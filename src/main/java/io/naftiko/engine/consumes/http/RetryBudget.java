@@ -0,0 +1,79 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import io.naftiko.spec.consumes.http.HttpClientRetrySpec;
+
+/**
+ * Token bucket bounding the retries sent to the upstream API of a consumed adapter.
+ *
+ * <p>Each call earns {@code budgetRatio} of a token and each retry spends a whole one, up to
+ * {@code budget} saved tokens. While the upstream API is healthy the bucket stays full; once it
+ * fails for most calls, retries drop to about {@code budgetRatio} of the call rate instead of
+ * multiplying the load on an API already struggling.</p>
+ */
+public final class RetryBudget {
+
+    static final int DEFAULT_BUDGET = 10;
+    static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+    private final double capacity;
+    private final double ratio;
+    private double tokens;
+
+    RetryBudget(double capacity, double ratio) {
+        this.capacity = Math.max(0, capacity);
+        this.ratio = Math.max(0, ratio);
+        this.tokens = this.capacity;
+    }
+
+    /**
+     * @param spec the retry settings of the adapter, or null for the defaults
+     * @return the retry budget, starting full
+     */
+    public static RetryBudget of(HttpClientRetrySpec spec) {
+        Integer budget = spec != null ? spec.getBudget() : null;
+        Double ratio = spec != null ? spec.getBudgetRatio() : null;
+        return new RetryBudget(budget != null ? budget : DEFAULT_BUDGET,
+                ratio != null ? ratio : DEFAULT_BUDGET_RATIO);
+    }
+
+    /**
+     * Earn the share of a token of a call.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    /**
+     * Spend a token on a retry.
+     *
+     * @return true when a token was available, false when the retry must not be sent
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * @return the number of tokens left
+     */
+    synchronized double tokens() {
+        return tokens;
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import io.naftiko.engine.util.DeadlineExceededException;
+import io.naftiko.spec.consumes.http.HttpClientRetrySpec;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+
+/**
+ * When and how soon a failed call to a consumed adapter is sent again.
+ *
+ * <p>A call is retried when its response status is listed in {@code retryOn}, or when it failed
+ * with an exception listed in {@code retryOnExceptions}. Connector errors, such as a refused
+ * connection or a read timeout, count as {@link IOException}. Retries back off exponentially with
+ * full jitter: the delay before retry {@code n} is drawn uniformly between zero and
+ * {@code min(maxDelay, initialDelay * multiplier^(n-1))}, so that clients failing together do not
+ * retry together.</p>
+ *
+ * <p>Only idempotent calls are retried, since a retried call may reach the upstream API twice:
+ * calls with an idempotent method, and calls made while an aggregate function declaring
+ * {@code semantics.safe} or {@code semantics.idempotent} is running.</p>
+ */
+public final class RetryPolicy {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final int DEFAULT_INITIAL_DELAY = 100;
+    static final int DEFAULT_MAX_DELAY = 2000;
+    static final double DEFAULT_MULTIPLIER = 2.0;
+    static final List<Integer> DEFAULT_RETRY_ON = List.of(502, 503, 504);
+    static final List<String> DEFAULT_RETRY_ON_EXCEPTIONS = List.of(IOException.class.getName());
+
+    private static final Set<Method> IDEMPOTENT_METHODS = Set.of(Method.GET, Method.HEAD,
+            Method.OPTIONS, Method.PUT, Method.DELETE, Method.TRACE);
+
+    private static final ContextKey<Boolean> IDEMPOTENT = ContextKey.named("naftiko-idempotent");
+
+    private final int maxAttempts;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final Set<Integer> retryOn;
+    private final Set<String> retryOnExceptions;
+
+    private RetryPolicy(HttpClientRetrySpec spec) {
+        this.maxAttempts = orDefault(spec.getMaxAttempts(), DEFAULT_MAX_ATTEMPTS);
+        this.initialDelay = Math.max(0, orDefault(spec.getInitialDelay(), DEFAULT_INITIAL_DELAY));
+        this.maxDelay = Math.max(0, orDefault(spec.getMaxDelay(), DEFAULT_MAX_DELAY));
+        this.multiplier = spec.getMultiplier() != null ? Math.max(1.0, spec.getMultiplier())
+                : DEFAULT_MULTIPLIER;
+        this.retryOn = new HashSet<>(
+                spec.getRetryOn() != null ? spec.getRetryOn() : DEFAULT_RETRY_ON);
+        this.retryOnExceptions = new HashSet<>(spec.getRetryOnExceptions() != null
+                ? spec.getRetryOnExceptions() : DEFAULT_RETRY_ON_EXCEPTIONS);
+    }
+
+    /**
+     * @param spec the declared retry settings, or null
+     * @return the retry policy, or null when the settings allow a single attempt
+     */
+    public static RetryPolicy of(HttpClientRetrySpec spec) {
+        if (spec == null || orDefault(spec.getMaxAttempts(), DEFAULT_MAX_ATTEMPTS) <= 1) {
+            return null;
+        }
+        return new RetryPolicy(spec);
+    }
+
+    /**
+     * Declare the calls made by the current work idempotent, whatever their method.
+     *
+     * @param idempotent true when the calls may be retried
+     * @return the scope to close once the work completes
+     */
+    public static Scope declareIdempotent(boolean idempotent) {
+        return idempotent ? Context.current().with(IDEMPOTENT, true).makeCurrent() : Scope.noop();
+    }
+
+    /**
+     * @param method the method of a call
+     * @return true when a call with this method may be sent again in the current context
+     */
+    public static boolean isIdempotent(Method method) {
+        return IDEMPOTENT_METHODS.contains(method)
+                || Boolean.TRUE.equals(Context.current().get(IDEMPOTENT));
+    }
+
+    /**
+     * @return the maximum number of attempts of a call, the first one included
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param status the response status of the last attempt, or null
+     * @param error the exception thrown by the last attempt, or null
+     * @return true when the outcome of the last attempt calls for a retry
+     */
+    public boolean shouldRetry(Status status, Throwable error) {
+        if (error != null) {
+            return matches(error);
+        }
+        if (status == null) {
+            return false;
+        }
+        if (retryOn.contains(status.getCode())) {
+            return true;
+        }
+        if (status.isConnectorError()) {
+            return status.getThrowable() != null ? matches(status.getThrowable())
+                    : matches(IOException.class);
+        }
+        return false;
+    }
+
+    /**
+     * @param retry the number of the retry, starting at 1
+     * @return a random delay in milliseconds to wait before the retry
+     */
+    public long delayMillis(int retry) {
+        double bound = initialDelay * Math.pow(multiplier, Math.max(0, retry - 1));
+        long cap = (long) Math.min(maxDelay, bound);
+        return cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0;
+    }
+
+    private boolean matches(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException) {
+                // The time left belongs to the caller
+                return false;
+            }
+            if (matches(cause.getClass())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            if (retryOnExceptions.contains(c.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int orDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+}
@@ -30,7 +30,6 @@ import org.restlet.data.ChallengeRequest;
 import org.restlet.data.ChallengeScheme;
 import org.restlet.data.MediaType;
 import org.restlet.data.Method;
-import org.restlet.data.Protocol;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -45,6 +44,7 @@ import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import io.naftiko.engine.consumes.http.HttpClientConnectors;
 import io.naftiko.spec.consumes.http.OAuth2AuthenticationSpec;
 
 /**
@@ -67,6 +67,7 @@ public class OAuth2AuthenticationRestlet extends Restlet {
 
     private final OAuth2AuthenticationSpec spec;
     private final Restlet next;
+    private final HttpClientConnectors connectors;
     private final Client httpClient;
 
     private volatile JWKSet cachedJwkSet;
@@ -78,18 +79,33 @@ public class OAuth2AuthenticationRestlet extends Restlet {
     private final Object jwkRefreshLock = new Object();
 
     public OAuth2AuthenticationRestlet(OAuth2AuthenticationSpec spec, Restlet next) {
-        this(spec, next, null);
+        this(spec, next, null, null);
+    }
+
+    /**
+     * Creates the restlet fetching AS metadata and JWKS through the capability's pooled HTTP
+     * client connectors.
+     */
+    public OAuth2AuthenticationRestlet(OAuth2AuthenticationSpec spec, Restlet next,
+            HttpClientConnectors connectors) {
+        this(spec, next, null, connectors);
     }
 
     /**
      * Test constructor — allows injecting a pre-loaded JWK set to bypass AS metadata discovery.
      */
     protected OAuth2AuthenticationRestlet(OAuth2AuthenticationSpec spec, Restlet next, JWKSet jwkSet) {
+        this(spec, next, jwkSet, null);
+    }
+
+    protected OAuth2AuthenticationRestlet(OAuth2AuthenticationSpec spec, Restlet next, JWKSet jwkSet,
+            HttpClientConnectors connectors) {
         this.spec = spec;
         this.next = next;
-        this.httpClient = new Client(Protocol.HTTP, Protocol.HTTPS);
+        this.connectors = connectors != null ? connectors : new HttpClientConnectors();
+        this.httpClient = this.connectors.client(null);
         try {
-            this.httpClient.start();
+            this.connectors.start(httpClient);
         } catch (Exception e) {
             throw new IllegalStateException("Failed to start HTTP client", e);
         }
@@ -104,7 +120,7 @@ public class OAuth2AuthenticationRestlet extends Restlet {
     @Override
     public void stop() throws Exception {
         if (httpClient != null) {
-            httpClient.stop();
+            connectors.stop(httpClient);
         }
         super.stop();
     }
@@ -148,7 +148,8 @@ public abstract class ServerAdapter extends Adapter {
      * adapter-specific variant (e.g. MCP's Protected Resource Metadata extension).
      */
     protected Restlet createOAuth2Restlet(OAuth2AuthenticationSpec oauth2, Restlet next) {
-        return new OAuth2AuthenticationRestlet(oauth2, next);
+        return new OAuth2AuthenticationRestlet(oauth2, next,
+                getCapability().getHttpClientConnectors());
     }
 
     private Restlet buildChallengeAuthenticator(AuthenticationSpec authentication, Restlet next) {
@@ -16,6 +16,8 @@ package io.naftiko.engine.exposes.control;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.naftiko.engine.scripting.PolyglotContextPool;
+import io.naftiko.engine.scripting.ScriptThreads;
 import io.naftiko.spec.exposes.control.ScriptingManagementSpec;
 import java.net.URI;
 import java.util.ArrayList;
@@ -34,7 +36,8 @@ import org.slf4j.LoggerFactory;
 /**
  * Control Port resource for scripting governance.
  *
- * <p>{@code GET /scripting} returns the current scripting configuration and execution stats.
+ * <p>{@code GET /scripting} returns the current scripting configuration and execution stats,
+ * including those of the polyglot context pool.
  * {@code PUT /scripting} updates configuration at runtime — takes effect on the next script
  * execution.</p>
  */
@@ -83,6 +86,18 @@ public class ScriptingResource extends ServerResource {
         if (scripting.getLastExecutionAt() != null) {
             stats.put("lastExecutionAt", scripting.getLastExecutionAt());
         }
+        stats.put("inFlight", ScriptThreads.getInFlight());
+        stats.put("timeouts", ScriptThreads.getTimeouts());
+
+        PolyglotContextPool pool = PolyglotContextPool.get();
+        ObjectNode contextPool = MAPPER.createObjectNode();
+        contextPool.put("size", pool.getSize());
+        contextPool.put("idle", pool.getIdle());
+        contextPool.put("hits", pool.getHits());
+        contextPool.put("misses", pool.getMisses());
+        contextPool.put("hitRate", Math.round(pool.getHitRate() * 10000.0) / 10000.0);
+        contextPool.put("averageWaitMs", Math.round(pool.getAverageWaitMs() * 100.0) / 100.0);
+        stats.set("contextPool", contextPool);
         root.set("stats", stats);
 
         return new StringRepresentation(root.toString(), MediaType.APPLICATION_JSON);
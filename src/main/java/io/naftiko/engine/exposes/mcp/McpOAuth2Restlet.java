@@ -26,6 +26,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.nimbusds.jose.jwk.JWKSet;
+import io.naftiko.engine.consumes.http.HttpClientConnectors;
 import io.naftiko.engine.exposes.OAuth2AuthenticationRestlet;
 import io.naftiko.spec.consumes.http.OAuth2AuthenticationSpec;
 
@@ -46,14 +47,24 @@ public class McpOAuth2Restlet extends OAuth2AuthenticationRestlet {
     private final String metadataJson;
 
     public McpOAuth2Restlet(OAuth2AuthenticationSpec spec, Restlet next) {
-        this(spec, next, null);
+        this(spec, next, null, null);
+    }
+
+    public McpOAuth2Restlet(OAuth2AuthenticationSpec spec, Restlet next,
+            HttpClientConnectors connectors) {
+        this(spec, next, null, connectors);
     }
 
     /**
      * Test constructor — allows injecting a pre-loaded JWK set.
      */
     McpOAuth2Restlet(OAuth2AuthenticationSpec spec, Restlet next, JWKSet jwkSet) {
-        super(spec, next, jwkSet);
+        this(spec, next, jwkSet, null);
+    }
+
+    private McpOAuth2Restlet(OAuth2AuthenticationSpec spec, Restlet next, JWKSet jwkSet,
+            HttpClientConnectors connectors) {
+        super(spec, next, jwkSet, connectors);
 
         URI resourceUri = URI.create(spec.getResource());
         String resourcePath = resourceUri.getPath();
@@ -124,7 +124,7 @@ public class McpServerAdapter extends ServerAdapter {
 
     @Override
     protected Restlet createOAuth2Restlet(OAuth2AuthenticationSpec oauth2, Restlet next) {
-        return new McpOAuth2Restlet(oauth2, next);
+        return new McpOAuth2Restlet(oauth2, next, getCapability().getHttpClientConnectors());
     }
 
     /**
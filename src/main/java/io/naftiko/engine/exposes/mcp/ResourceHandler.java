@@ -28,8 +28,11 @@ import org.restlet.Context;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import io.naftiko.Capability;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.DelimitedOptions;
 import io.naftiko.engine.util.OperationStepExecutor;
 import io.naftiko.spec.exposes.mcp.McpServerResourceSpec;
+import io.opentelemetry.context.Scope;
 
 /**
  * Handles MCP resource reads by serving either dynamic (HTTP-backed) or static (file-backed)
@@ -256,11 +259,15 @@ public class ResourceHandler {
         Map<String, Object> parameters = new HashMap<>(templateParams);
         OperationStepExecutor.mergeWithParameters(spec.getWith(), parameters, namespace);
 
-        OperationStepExecutor.HandlingContext found =
-                stepExecutor.execute(spec.getCall(), spec.getSteps(), parameters,
-                        "Resource '" + spec.getName() + "'");
-
-        String text = extractContent(spec, found);
+        String text;
+        try (Scope deadline = Deadline.start(spec.getTimeout());
+                Scope steps = OperationStepExecutor.limitStepParallelism(
+                        spec.getStepParallelism())) {
+            OperationStepExecutor.HandlingContext found =
+                    stepExecutor.execute(spec.getCall(), spec.getSteps(), parameters,
+                            "Resource '" + spec.getName() + "'");
+            text = extractContent(spec, found);
+        }
         String mimeType = spec.getMimeType() != null ? spec.getMimeType() : "application/json";
         return List.of(ResourceContent.text(uri, mimeType, text));
     }
@@ -283,7 +290,8 @@ public class ResourceHandler {
         String outputSchema = found.clientOperation != null
                 ? found.clientOperation.getOutputSchema() : null;
         String mapped = stepExecutor.applyOutputMappings(responseText,
-                spec.getOutputParameters(), outputRawFormat, outputSchema);
+                spec.getOutputParameters(), outputRawFormat, outputSchema,
+                DelimitedOptions.of(found.clientOperation));
         return mapped != null ? mapped : responseText;
     }
 
@@ -24,6 +24,8 @@ import io.naftiko.Capability;
 import io.naftiko.engine.aggregates.AggregateFunction;
 import io.naftiko.engine.aggregates.FunctionResult;
 import io.naftiko.engine.observability.TelemetryBootstrap;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.DelimitedOptions;
 import io.naftiko.engine.util.OperationStepExecutor;
 import io.naftiko.engine.util.Resolver;
 import io.naftiko.spec.exposes.mcp.McpServerToolSpec;
@@ -135,6 +137,16 @@ public class ToolHandler {
             }
         }
 
+        // The tool timeout bounds everything the tool does, its aggregate function included
+        try (Scope deadline = Deadline.start(toolSpec.getTimeout());
+                Scope steps = OperationStepExecutor.limitStepParallelism(
+                        toolSpec.getStepParallelism())) {
+            return executeTool(toolSpec, toolName, parameters);
+        }
+    }
+
+    private McpSchema.CallToolResult executeTool(McpServerToolSpec toolSpec, String toolName,
+            Map<String, Object> parameters) throws Exception {
         // Delegate to aggregate function when ref is set
         if (toolSpec.getRef() != null) {
             return executeViaAggregate(toolSpec, toolName, parameters);
@@ -276,7 +288,8 @@ public class ToolHandler {
         String outputSchema = found.clientOperation != null
                 ? found.clientOperation.getOutputSchema() : null;
         String mapped = stepExecutor.applyOutputMappings(responseText,
-                toolSpec.getOutputParameters(), outputRawFormat, outputSchema);
+                toolSpec.getOutputParameters(), outputRawFormat, outputSchema,
+                DelimitedOptions.of(found.clientOperation));
         if (mapped != null) {
             return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(mapped)),
                     isError, null, null);
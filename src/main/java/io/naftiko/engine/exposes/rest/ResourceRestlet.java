@@ -17,8 +17,11 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.data.CharacterSet;
 import org.restlet.data.MediaType;
 import org.restlet.data.Status;
+import org.restlet.representation.Representation;
+import org.restlet.representation.WriterRepresentation;
 import io.naftiko.Capability;
 import io.naftiko.engine.aggregates.AggregateFunction;
 import io.naftiko.engine.aggregates.FunctionResult;
@@ -28,7 +31,14 @@ import io.naftiko.engine.observability.RestletHeaderGetter;
 import io.naftiko.engine.observability.TelemetryBootstrap;
 import io.naftiko.engine.util.OperationStepExecutor;
 import io.naftiko.engine.util.Converter;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.DeadlineExceededException;
+import io.naftiko.engine.util.OutputMappingPlan;
+import io.naftiko.engine.util.PrecompiledSpec;
+import io.naftiko.engine.util.RecordReader;
+import io.naftiko.engine.util.RecordStreamer;
 import io.naftiko.engine.util.Resolver;
+import io.naftiko.engine.util.StreamingProjection;
 import io.naftiko.spec.OutputParameterSpec;
 import io.naftiko.spec.exposes.rest.RestServerForwardSpec;
 import io.naftiko.spec.exposes.rest.RestServerOperationSpec;
@@ -40,6 +50,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -116,123 +127,156 @@ public class ResourceRestlet extends Restlet {
      * response to indicate a bad request and marks the context as handled.
      */
     private boolean handleFromOperationSpec(Request request, Response response) {
-        OperationStepExecutor.HandlingContext found = null;
-
         for (RestServerOperationSpec serverOp : getResourceSpec().getOperations()) {
 
             if (serverOp.getMethod().equals(request.getMethod().getName())) {
+                // The operation timeout bounds everything the operation does
+                try (Scope deadline = Deadline.start(serverOp.getTimeout());
+                        Scope steps = OperationStepExecutor.limitStepParallelism(
+                                serverOp.getStepParallelism())) {
+                    if (handleOperation(serverOp, request, response)) {
+                        return true;
+                    }
+                }
+            }
+        }
 
-                // Build request-scoped input parameter map (resource + operation)
-                Map<String, Object> inputParameters =
-                    stepExecutor.resolveInputParametersFromRequest(request, getServerSpec(),
-                        getResourceSpec(), serverOp);
+        return false;
+    }
 
-                // Include operation-level 'with' parameters for template resolution
-                OperationStepExecutor.mergeWithParameters(serverOp.getWith(), inputParameters,
-                        getServerSpec().getNamespace());
+    /**
+     * Handle a request with an operation of the matching method.
+     *
+     * @return false when the operation produced nothing to send back
+     */
+    private boolean handleOperation(RestServerOperationSpec serverOp, Request request,
+            Response response) {
+        OperationStepExecutor.HandlingContext found = null;
 
-                // Delegate to aggregate function when ref is set
-                if (serverOp.getRef() != null) {
-                    return executeViaAggregate(serverOp, request, response, inputParameters);
-                }
+        // Build request-scoped input parameter map (resource + operation)
+        Map<String, Object> inputParameters =
+            stepExecutor.resolveInputParametersFromRequest(request, getServerSpec(),
+                getResourceSpec(), serverOp);
 
-                if (serverOp.getCall() != null) {
-                    try {
-                        found = stepExecutor.findClientRequestFor(serverOp.getCall(),
-                                inputParameters);
-                    } catch (IllegalArgumentException e) {
-                        Context.getCurrentLogger().warning("Error resolving request parameters: " + e);
-                        response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
-                        response.setEntity("Error resolving request parameters: " + e.getMessage(),
-                                MediaType.TEXT_PLAIN);
-                        return true;
-                    }
+        // Include operation-level 'with' parameters for template resolution
+        OperationStepExecutor.mergeWithParameters(serverOp.getWith(), inputParameters,
+                getServerSpec().getNamespace());
 
-                    if (found != null) {
-                        try {
-                            // Send the request to the target endpoint
-                            found.handle();
-                            response.setStatus(found.clientResponse.getStatus());
-                        } catch (Exception e) {
-                            Context.getCurrentLogger().warning("Error while handling HTTP client call in call mode: " + e);
-                            response.setStatus(Status.SERVER_ERROR_INTERNAL);
-                            response.setEntity(
-                                    "Error while handling an HTTP client call\n\n" + e.toString(),
-                                    MediaType.TEXT_PLAIN);
-                            return true;
-                        }
+        // Delegate to aggregate function when ref is set
+        if (serverOp.getRef() != null) {
+            return executeViaAggregate(serverOp, request, response, inputParameters);
+        }
 
-                        sendResponse(serverOp, response, found);
-                        return true;
-                    } else if (canBuildMockResponse(serverOp)) {
-                        // No HTTP client adapter found, use mock mode with static values
-                        sendMockResponse(serverOp, response, inputParameters);
-                        return true;
-                    } else {
-                        response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
-                        response.setEntity("Invalid call format: "
-                                + (serverOp.getCall() != null ? serverOp.getCall().getOperation()
-                                        : "null"),
-                                MediaType.TEXT_PLAIN);
-                        return true;
-                    }
-                } else {
-                    // Orchestrated mode - execute steps in sequence
-                    try {
-                        OperationStepExecutor.StepExecutionResult stepResult =
-                                stepExecutor.executeSteps(serverOp.getSteps(), inputParameters);
-                        found = stepResult.lastContext;
-
-                        // Apply step output mappings if defined
-                        if (serverOp.getMappings() != null
-                                && !serverOp.getMappings().isEmpty()) {
-                            String mapped = stepExecutor.resolveStepMappings(
-                                    serverOp.getMappings(), stepResult.stepContext);
-                            if (mapped != null) {
-                                response.setStatus(Status.SUCCESS_OK);
-                                response.setEntity(mapped, MediaType.APPLICATION_JSON);
-                                response.commit();
-                                return true;
-                            }
-                        }
-                    } catch (IllegalArgumentException e) {
-                        Context.getCurrentLogger().warning("Invalid argument in orchestrated steps: " + e);
-                        response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
-                        response.setEntity(e.getMessage(), MediaType.TEXT_PLAIN);
-                        return true;
-                    } catch (RuntimeException e) {
-                        Context.getCurrentLogger().warning("Error while handling orchestrated steps: " + e);
-                        response.setStatus(Status.SERVER_ERROR_INTERNAL);
-                        response.setEntity(
-                                "Error while handling an HTTP client call\n\n" + e.toString(),
-                                MediaType.TEXT_PLAIN);
-                        return true;
-                    } catch (IOException e) {
-                        Context.getCurrentLogger().warning("Error resolving step output mappings: " + e);
-                        response.setStatus(Status.SERVER_ERROR_INTERNAL);
-                        response.setEntity(
-                                "Error resolving step output mappings\n\n" + e.toString(),
-                                MediaType.TEXT_PLAIN);
-                        return true;
-                    }
+        if (serverOp.getCall() != null) {
+            try {
+                found = stepExecutor.findClientRequestFor(serverOp.getCall(),
+                        inputParameters);
+            } catch (IllegalArgumentException e) {
+                Context.getCurrentLogger().warning("Error resolving request parameters: " + e);
+                response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
+                response.setEntity("Error resolving request parameters: " + e.getMessage(),
+                        MediaType.TEXT_PLAIN);
+                return true;
+            }
 
-                    if (found != null) {
-                        // Return the response based on the last client request
-                        response.setStatus(found.clientResponse.getStatus());
-                        sendResponse(serverOp, response, found);
-                        return true;
-                    } else if (canBuildMockResponse(serverOp)) {
-                        // No HTTP client adapter found, use mock mode with static values
-                        sendMockResponse(serverOp, response, inputParameters);
+            if (found != null) {
+                try {
+                    // Send the request to the target endpoint, through the cache and coalescer
+                    OperationStepExecutor.send(found, false);
+                    response.setStatus(found.clientResponse.getStatus());
+                } catch (DeadlineExceededException e) {
+                    sendDeadlineExceeded(response, e);
+                    return true;
+                } catch (Exception e) {
+                    Context.getCurrentLogger().warning("Error while handling HTTP client call in call mode: " + e);
+                    response.setStatus(Status.SERVER_ERROR_INTERNAL);
+                    response.setEntity(
+                            "Error while handling an HTTP client call\n\n" + e.toString(),
+                            MediaType.TEXT_PLAIN);
+                    return true;
+                }
+
+                sendResponse(serverOp, response, found);
+                return true;
+            } else if (canBuildMockResponse(serverOp)) {
+                // No HTTP client adapter found, use mock mode with static values
+                sendMockResponse(serverOp, response, inputParameters);
+                return true;
+            } else {
+                response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
+                response.setEntity("Invalid call format: "
+                        + (serverOp.getCall() != null ? serverOp.getCall().getOperation()
+                                : "null"),
+                        MediaType.TEXT_PLAIN);
+                return true;
+            }
+        } else {
+            // Orchestrated mode - execute steps in sequence
+            try {
+                OperationStepExecutor.StepExecutionResult stepResult =
+                        stepExecutor.executeSteps(serverOp.getSteps(), inputParameters);
+                found = stepResult.lastContext;
+
+                // Apply step output mappings if defined
+                if (serverOp.getMappings() != null
+                        && !serverOp.getMappings().isEmpty()) {
+                    String mapped = stepExecutor.resolveStepMappings(
+                            serverOp.getMappings(), stepResult.stepContext);
+                    if (mapped != null) {
+                        response.setStatus(Status.SUCCESS_OK);
+                        response.setEntity(mapped, MediaType.APPLICATION_JSON);
+                        response.commit();
                         return true;
                     }
                 }
+            } catch (IllegalArgumentException e) {
+                Context.getCurrentLogger().warning("Invalid argument in orchestrated steps: " + e);
+                response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
+                response.setEntity(e.getMessage(), MediaType.TEXT_PLAIN);
+                return true;
+            } catch (DeadlineExceededException e) {
+                sendDeadlineExceeded(response, e);
+                return true;
+            } catch (RuntimeException e) {
+                Context.getCurrentLogger().warning("Error while handling orchestrated steps: " + e);
+                response.setStatus(Status.SERVER_ERROR_INTERNAL);
+                response.setEntity(
+                        "Error while handling an HTTP client call\n\n" + e.toString(),
+                        MediaType.TEXT_PLAIN);
+                return true;
+            } catch (IOException e) {
+                Context.getCurrentLogger().warning("Error resolving step output mappings: " + e);
+                response.setStatus(Status.SERVER_ERROR_INTERNAL);
+                response.setEntity(
+                        "Error resolving step output mappings\n\n" + e.toString(),
+                        MediaType.TEXT_PLAIN);
+                return true;
+            }
+
+            if (found != null) {
+                // Return the response based on the last client request
+                response.setStatus(found.clientResponse.getStatus());
+                sendResponse(serverOp, response, found);
+                return true;
+            } else if (canBuildMockResponse(serverOp)) {
+                // No HTTP client adapter found, use mock mode with static values
+                sendMockResponse(serverOp, response, inputParameters);
+                return true;
             }
         }
 
         return false;
     }
 
+    /**
+     * Answer {@code 504 Gateway Timeout} when the operation ran out of time.
+     */
+    private static void sendDeadlineExceeded(Response response, DeadlineExceededException e) {
+        Context.getCurrentLogger().warning("Operation exceeded its deadline: " + e.getMessage());
+        response.setStatus(Status.SERVER_ERROR_GATEWAY_TIMEOUT);
+        response.setEntity(e.getMessage(), MediaType.TEXT_PLAIN);
+    }
+
     /**
      * Execute an operation by delegating to its referenced aggregate function.
      */
@@ -279,6 +323,9 @@ public class ResourceRestlet extends Restlet {
             response.setStatus(Status.CLIENT_ERROR_BAD_REQUEST);
             response.setEntity(e.getMessage(), MediaType.TEXT_PLAIN);
             return true;
+        } catch (DeadlineExceededException e) {
+            sendDeadlineExceeded(response, e);
+            return true;
         } catch (Exception e) {
             Context.getCurrentLogger().warning("Error in aggregate function call: " + e);
             response.setStatus(Status.SERVER_ERROR_INTERNAL);
@@ -381,9 +428,12 @@ public class ResourceRestlet extends Restlet {
         // Apply output mappings if present or forward the raw entity
         if (serverOp.getOutputParameters() != null && !serverOp.getOutputParameters().isEmpty()) {
             try {
-                String mapped = mapOutputParameters(serverOp, found);
+                Representation streamed = streamOutputParameters(serverOp, found, response);
+                String mapped = streamed == null ? mapOutputParameters(serverOp, found) : null;
 
-                if (mapped != null) {
+                if (streamed != null) {
+                    response.setEntity(streamed);
+                } else if (mapped != null) {
                     response.setEntity(mapped, MediaType.APPLICATION_JSON);
                 } else {
                     response.setEntity(found.clientResponse.getEntity());
@@ -479,6 +529,68 @@ public class ResourceRestlet extends Restlet {
         }
     }
 
+    /**
+     * Return a JSON entity that maps a multi-record client response (delimited rows, Avro container
+     * records, length-delimited Protobuf messages) record by record while it is written to the
+     * client, or null when the response must be mapped as a whole.
+     * 
+     * Applies when the first body output parameter is an array over the whole response. Records
+     * are read from the upstream entity only as the returned entity is written, so neither the
+     * records nor the mapped array are held in memory. The stream header and the first record are
+     * read and mapped up front, so that their failures are answered with an error status. A later
+     * failure happens once the response is committed: the connection is then aborted, so that the
+     * client sees a broken transfer rather than a well-formed but truncated array.
+     */
+    Representation streamOutputParameters(RestServerOperationSpec serverOp,
+            OperationStepExecutor.HandlingContext found, Response response) throws IOException {
+        if (found == null || found.clientResponse == null
+                || found.clientResponse.getEntity() == null
+                || !RecordStreamer.isRecordStream(found.clientOperation)) {
+            return null;
+        }
+
+        for (OutputParameterSpec outputParameter : serverOp.getOutputParameters()) {
+            if ("body".equalsIgnoreCase(inOrDefault(outputParameter))) {
+                OutputMappingPlan plan = precompiledSpec().plan(outputParameter);
+                if (!plan.isRowStreamable()) {
+                    return null;
+                }
+
+                RecordReader records = RecordStreamer.prefetch(
+                        RecordStreamer.open(found.clientOperation,
+                                found.clientResponse.getEntity()),
+                        plan);
+                WriterRepresentation entity = new WriterRepresentation(MediaType.APPLICATION_JSON) {
+
+                    @Override
+                    public void write(Writer writer) throws IOException {
+                        try (RecordReader reader = records) {
+                            RecordStreamer.write(reader, plan, writer);
+                        } catch (IOException | RuntimeException e) {
+                            response.abort();
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public void release() {
+                        try {
+                            records.close();
+                        } catch (IOException e) {
+                            Context.getCurrentLogger().fine("Failed to close record stream: " + e);
+                        }
+                        super.release();
+                    }
+
+                };
+                entity.setCharacterSet(CharacterSet.UTF_8);
+                return entity;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Map client response to the operation's declared outputParameters and return a JSON string to
      * send to the client. Returns null when mapping could not be applied and the caller should fall
@@ -495,15 +607,20 @@ public class ResourceRestlet extends Restlet {
 
         String outputRawFormat = found.clientOperation != null
                 ? found.clientOperation.getOutputRawFormat() : null;
-        String outputSchema = found.clientOperation != null
-                ? found.clientOperation.getOutputSchema() : null;
-        JsonNode root = Converter.convertToJson(outputRawFormat, outputSchema,
-                found.clientResponse.getEntity());
+        // Plain JSON with simple mappings is projected while streaming the upstream body
+        StreamingProjection projection = StreamingProjection.supportsFormat(outputRawFormat)
+                ? precompiledSpec().projection(serverOp.getOutputParameters())
+                : null;
+        JsonNode root = projection != null
+                ? projection.read(found.clientResponse.getEntity().getReader())
+                : Converter.convertToJson(found.clientOperation,
+                        found.clientResponse.getEntity());
 
         for (OutputParameterSpec outputParameter : serverOp.getOutputParameters()) {
             if ("body".equalsIgnoreCase(inOrDefault(outputParameter))) {
                 ObjectMapper mapper = new ObjectMapper();
-                JsonNode mapped = Resolver.resolveOutputMappings(outputParameter, root, mapper);
+                JsonNode mapped =
+                        precompiledSpec().plan(outputParameter).execute(root, mapper, null);
 
                 if (mapped != null && !(mapped instanceof NullNode)) {
                     return mapper.writeValueAsString(mapped);
@@ -524,6 +641,15 @@ public class ResourceRestlet extends Restlet {
         return in == null ? "body" : in;
     }
 
+    /**
+     * Return the output mapping plans compiled for the capability at load time.
+     */
+    PrecompiledSpec precompiledSpec() {
+        return capability != null && capability.getPrecompiledSpec() != null
+                ? capability.getPrecompiledSpec()
+                : PrecompiledSpec.EMPTY;
+    }
+
     public Capability getCapability() {
         return capability;
     }
@@ -35,7 +35,14 @@ public class EngineMetrics {
     private final DoubleHistogram stepDuration;
     private final LongCounter httpClientTotal;
     private final DoubleHistogram httpClientDuration;
+    private final LongCounter httpClientCoalescing;
+    private final LongCounter httpClientRetries;
+    private final LongCounter cacheHits;
+    private final LongCounter cacheMisses;
+    private final LongCounter cacheEvictions;
     private final LongUpDownCounter capabilityActive;
+    private final LongUpDownCounter scriptInFlight;
+    private final LongCounter scriptTimeouts;
 
     EngineMetrics(Meter meter) {
         this.requestTotal = meter.counterBuilder("naftiko.request.total")
@@ -65,9 +72,40 @@ public class EngineMetrics {
                 .setUnit("s")
                 .build();
 
+        this.httpClientCoalescing = meter.counterBuilder("naftiko.http.client.coalescing")
+                .setDescription("Total number of coalescable outbound HTTP client calls, by "
+                        + "whether they originated an upstream exchange or were served by one "
+                        + "in flight")
+                .build();
+
+        this.httpClientRetries = meter.counterBuilder("naftiko.http.client.retries")
+                .setDescription("Total number of outbound HTTP client retries, by whether they "
+                        + "were sent or denied by the retry budget of the adapter")
+                .build();
+
+        this.cacheHits = meter.counterBuilder("naftiko.cache.hits")
+                .setDescription("Total number of requests served from a response cache")
+                .build();
+
+        this.cacheMisses = meter.counterBuilder("naftiko.cache.misses")
+                .setDescription("Total number of requests that missed a response cache")
+                .build();
+
+        this.cacheEvictions = meter.counterBuilder("naftiko.cache.evictions")
+                .setDescription("Total number of entries evicted from a response cache")
+                .build();
+
         this.capabilityActive = meter.upDownCounterBuilder("naftiko.capability.active")
                 .setDescription("Number of active capabilities")
                 .build();
+
+        this.scriptInFlight = meter.upDownCounterBuilder("naftiko.script.inflight")
+                .setDescription("Number of script step executions in progress")
+                .build();
+
+        this.scriptTimeouts = meter.counterBuilder("naftiko.script.timeouts")
+                .setDescription("Total number of script step executions that timed out")
+                .build();
     }
 
     /**
@@ -127,6 +165,56 @@ public class EngineMetrics {
         httpClientDuration.record(durationSec, attrs);
     }
 
+    /**
+     * Record an outbound HTTP client call eligible for coalescing.
+     *
+     * @param coalesced true when the call was served by an exchange already in flight, false
+     *        when it originated the exchange
+     */
+    public void recordHttpClientCoalescing(String method, String host, boolean coalesced) {
+        Attributes attrs = Attributes.of(
+                TelemetryBootstrap.ATTR_HTTP_METHOD, method,
+                io.opentelemetry.api.common.AttributeKey.stringKey("server.address"), host,
+                io.opentelemetry.api.common.AttributeKey.stringKey("coalescing.role"),
+                coalesced ? "coalesced" : "originated");
+        httpClientCoalescing.add(1, attrs);
+    }
+
+    /**
+     * Record a retry of an outbound HTTP client call.
+     *
+     * @param sent true when the retry was sent, false when the retry budget denied it
+     */
+    public void recordHttpClientRetry(String method, String host, boolean sent) {
+        Attributes attrs = Attributes.of(
+                TelemetryBootstrap.ATTR_HTTP_METHOD, method,
+                io.opentelemetry.api.common.AttributeKey.stringKey("server.address"), host,
+                io.opentelemetry.api.common.AttributeKey.stringKey("retry.outcome"),
+                sent ? "retried" : "throttled");
+        httpClientRetries.add(1, attrs);
+    }
+
+    /**
+     * Record a request served from a response cache.
+     */
+    public void recordCacheHit(String cache) {
+        cacheHits.add(1, cacheAttributes(cache));
+    }
+
+    /**
+     * Record a request that missed a response cache.
+     */
+    public void recordCacheMiss(String cache) {
+        cacheMisses.add(1, cacheAttributes(cache));
+    }
+
+    /**
+     * Record entries evicted from a response cache.
+     */
+    public void recordCacheEvictions(String cache, long count) {
+        cacheEvictions.add(count, cacheAttributes(cache));
+    }
+
     /**
      * Increment active capability count (call on start).
      */
@@ -144,4 +232,35 @@ public class EngineMetrics {
                 TelemetryBootstrap.ATTR_CAPABILITY, capabilityName);
         capabilityActive.add(-1, attrs);
     }
+
+    /**
+     * Increment the in-flight script count (call when a script step starts).
+     */
+    public void scriptStarted(String language) {
+        scriptInFlight.add(1, scriptAttributes(language));
+    }
+
+    /**
+     * Decrement the in-flight script count (call when a script step ends).
+     */
+    public void scriptFinished(String language) {
+        scriptInFlight.add(-1, scriptAttributes(language));
+    }
+
+    /**
+     * Record a script step that exceeded its timeout.
+     */
+    public void recordScriptTimeout(String language) {
+        scriptTimeouts.add(1, scriptAttributes(language));
+    }
+
+    private static Attributes cacheAttributes(String cache) {
+        return Attributes.of(io.opentelemetry.api.common.AttributeKey.stringKey("cache.name"),
+                cache != null ? cache : "unknown");
+    }
+
+    private static Attributes scriptAttributes(String language) {
+        return Attributes.of(io.opentelemetry.api.common.AttributeKey.stringKey("script.language"),
+                language != null ? language : "unknown");
+    }
 }
@@ -50,9 +50,13 @@ public class TelemetryBootstrap {
     public static final AttributeKey<String> ATTR_STEP_MATCH = AttributeKey.stringKey("naftiko.step.match");
     public static final AttributeKey<String> ATTR_STEP_SCRIPT_FILE = AttributeKey.stringKey("naftiko.step.script.file");
     public static final AttributeKey<String> ATTR_STEP_SCRIPT_LANGUAGE = AttributeKey.stringKey("naftiko.step.script.language");
+    public static final AttributeKey<Long> ATTR_STEP_BUDGET_MS = AttributeKey.longKey("naftiko.step.budget_ms");
+    public static final AttributeKey<Long> ATTR_STEP_ELAPSED_MS = AttributeKey.longKey("naftiko.step.elapsed_ms");
     public static final AttributeKey<String> ATTR_HTTP_METHOD = AttributeKey.stringKey("http.request.method");
     public static final AttributeKey<String> ATTR_HTTP_URL = AttributeKey.stringKey("url.full");
     public static final AttributeKey<Long> ATTR_HTTP_STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+    public static final AttributeKey<Long> ATTR_HTTP_RESEND_COUNT = AttributeKey.longKey("http.request.resend_count");
+    public static final AttributeKey<Long> ATTR_HTTP_RETRY_DELAY_MS = AttributeKey.longKey("naftiko.http.retry.delay_ms");
     public static final AttributeKey<String> ATTR_AGGREGATE_REF = AttributeKey.stringKey("naftiko.aggregate.ref");
 
     private static final TelemetryBootstrap NOOP = new TelemetryBootstrap(OpenTelemetry.noop());
@@ -317,6 +321,20 @@ public class TelemetryBootstrap {
         return builder.startSpan();
     }
 
+    /**
+     * Start an INTERNAL span for a for-each step, parent of the client spans of its calls.
+     */
+    public Span startStepForEachSpan(int stepIndex, String call, String namespace) {
+        SpanBuilder builder = tracer.spanBuilder("step.forEach")
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(ATTR_STEP_INDEX, stepIndex)
+                .setAttribute(ATTR_STEP_CALL, call != null ? call : "unknown");
+        if (namespace != null) {
+            builder.setAttribute(ATTR_NAMESPACE, namespace);
+        }
+        return builder.startSpan();
+    }
+
     /**
      * Start an INTERNAL span for a lookup step.
      */
@@ -388,6 +406,35 @@ public class TelemetryBootstrap {
         }
     }
 
+    /**
+     * Record on a step span the time the step had left before its deadline, and the time it used.
+     *
+     * @param budgetMs the remaining time in milliseconds when the step started, or a negative
+     *        value when no deadline applied, in which case nothing is recorded
+     * @param startNanos the {@link System#nanoTime()} at which the step started
+     */
+    public static void recordStepBudget(Span span, long budgetMs, long startNanos) {
+        if (span != null && budgetMs >= 0) {
+            span.setAttribute(ATTR_STEP_BUDGET_MS, budgetMs);
+            span.setAttribute(ATTR_STEP_ELAPSED_MS, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Record on a client span that a call is sent again, as an event per retry.
+     *
+     * @param retry the number of the retry, starting at 1
+     * @param statusCode the response status code of the failed attempt, or 0 when it threw
+     * @param delayMs the time in milliseconds waited before the retry
+     */
+    public static void recordRetry(Span span, int retry, int statusCode, long delayMs) {
+        if (span != null) {
+            span.setAttribute(ATTR_HTTP_RESEND_COUNT, retry);
+            span.addEvent("http.client.retry", Attributes.of(ATTR_HTTP_RESEND_COUNT, (long) retry,
+                    ATTR_HTTP_STATUS_CODE, (long) statusCode, ATTR_HTTP_RETRY_DELAY_MS, delayMs));
+        }
+    }
+
     /**
      * End a span safely.
      */
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.AnnotationNode;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
+import org.codehaus.groovy.transform.ThreadInterruptibleASTTransformation;
+import groovy.transform.ThreadInterrupt;
+
+/**
+ * Compilation customizer that makes Groovy scripts stop when their thread is interrupted.
+ *
+ * <p>It applies the {@link ThreadInterrupt} transformation, which checks the interrupt flag at the
+ * start of every loop, closure and method. Script steps run on virtual threads, and a script that
+ * ignored interrupts would keep its carrier thread busy after a timeout. The transformation
+ * inserts calls on {@code java.lang.Thread}, which {@link SecureASTCustomizer} rejects, so this
+ * customizer must be registered after it in the same phase: the sandbox checks the script as
+ * written, then the checks are added.</p>
+ */
+class GroovyInterruptCustomizer extends CompilationCustomizer {
+
+    GroovyInterruptCustomizer() {
+        super(CompilePhase.CANONICALIZATION);
+    }
+
+    @Override
+    public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) {
+        AnnotationNode annotation = new AnnotationNode(ClassHelper.make(ThreadInterrupt.class));
+        new ThreadInterruptibleASTTransformation()
+                .visit(new ASTNode[] {annotation, classNode}, source);
+    }
+
+}
@@ -0,0 +1,359 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyHashMap;
+import org.graalvm.polyglot.proxy.ProxyIterator;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.naftiko.engine.util.FormatMappers;
+import io.naftiko.engine.util.JsonNodeView;
+
+/**
+ * Read-only polyglot views over the values bound into a script context.
+ *
+ * <p>Objects are exposed as members and as hash entries, so that both {@code obj.name} in
+ * JavaScript and {@code obj['name']} in Python read them. Arrays are exposed as arrays. Children
+ * are wrapped when the guest reads them, and scalars are handed over as strings, numbers and
+ * booleans, so nothing is copied up front. Any attempt to write through a view fails.</p>
+ *
+ * <p>A view returned by the guest, alone or nested in a guest value, is unwrapped by
+ * {@link #unwrap} to the host value it wraps instead of being walked again.</p>
+ */
+final class JsonProxy {
+
+    private JsonProxy() {}
+
+    /**
+     * @param value a JSON node, map, list, array or scalar
+     * @return the value to hand to a guest: a view for structured values, a scalar otherwise
+     */
+    static Object of(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof JsonNode node) {
+            return of(node);
+        }
+        JsonNode viewed = JsonNodeView.nodeOf(value);
+        if (viewed != null) {
+            return of(viewed);
+        }
+        if (value instanceof String || value instanceof Boolean || value instanceof Integer
+                || value instanceof Long || value instanceof Double || value instanceof Float
+                || value instanceof Short || value instanceof Byte) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return new MapObject(map);
+        }
+        if (value instanceof List<?> list) {
+            return new ListArray(list);
+        }
+        if (value instanceof BigInteger || value instanceof BigDecimal) {
+            return number((Number) value);
+        }
+        if (value instanceof Character) {
+            return value.toString();
+        }
+        return of(FormatMappers.json().valueToTree(value));
+    }
+
+    /**
+     * @param proxy a proxy returned by a guest
+     * @return the JSON node of a view, or null when the proxy is not one
+     */
+    static JsonNode unwrap(Object proxy) {
+        return proxy instanceof View view ? view.toJson() : null;
+    }
+
+    private static Object of(JsonNode node) {
+        if (node.isObject()) {
+            return new NodeObject(node);
+        }
+        if (node.isArray()) {
+            return new NodeArray(node);
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNumber()) {
+            return number(node.numberValue());
+        }
+        if (node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        return node.asText();
+    }
+
+    private static Object number(Number number) {
+        if (number instanceof BigInteger integer) {
+            return integer.bitLength() < 64 ? (Object) integer.longValue() : integer.doubleValue();
+        }
+        if (number instanceof BigDecimal) {
+            return number.doubleValue();
+        }
+        return number;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Script context is read-only");
+    }
+
+    /**
+     * A view that can be turned back into JSON.
+     */
+    private interface View {
+
+        JsonNode toJson();
+
+    }
+
+    /**
+     * Object view, read through members and hash entries alike.
+     */
+    private abstract static class ObjectView implements View, ProxyObject, ProxyHashMap {
+
+        abstract boolean has(String key);
+
+        abstract Object get(String key);
+
+        abstract List<String> keys();
+
+        @Override
+        public Object getMember(String key) {
+            return of(get(key));
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return ProxyArray.fromList(new ArrayList<>(keys()));
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return has(key);
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeMember(String key) {
+            throw readOnly();
+        }
+
+        @Override
+        public long getHashSize() {
+            return keys().size();
+        }
+
+        @Override
+        public boolean hasHashEntry(Value key) {
+            return key.isString() && has(key.asString());
+        }
+
+        @Override
+        public Object getHashValue(Value key) {
+            return key.isString() ? of(get(key.asString())) : null;
+        }
+
+        @Override
+        public void putHashEntry(Value key, Value value) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeHashEntry(Value key) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object getHashEntriesIterator() {
+            Iterator<String> keys = keys().iterator();
+            return new ProxyIterator() {
+
+                @Override
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+
+                @Override
+                public Object getNext() {
+                    String key = keys.next();
+                    return ProxyArray.fromArray(key, getMember(key));
+                }
+
+            };
+        }
+
+    }
+
+    /**
+     * Array view.
+     */
+    private abstract static class ArrayView implements View, ProxyArray {
+
+        abstract Object element(int index);
+
+        @Override
+        public Object get(long index) {
+            if (index < 0 || index >= getSize()) {
+                throw new ArrayIndexOutOfBoundsException((int) index);
+            }
+            return of(element((int) index));
+        }
+
+        @Override
+        public void set(long index, Value value) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean remove(long index) {
+            throw readOnly();
+        }
+
+    }
+
+    private static final class NodeObject extends ObjectView {
+
+        private final JsonNode node;
+
+        NodeObject(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        boolean has(String key) {
+            return node.has(key);
+        }
+
+        @Override
+        Object get(String key) {
+            return node.get(key);
+        }
+
+        @Override
+        List<String> keys() {
+            List<String> keys = new ArrayList<>(node.size());
+            node.fieldNames().forEachRemaining(keys::add);
+            return keys;
+        }
+
+        @Override
+        public JsonNode toJson() {
+            return node;
+        }
+
+    }
+
+    private static final class NodeArray extends ArrayView {
+
+        private final JsonNode node;
+
+        NodeArray(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        Object element(int index) {
+            return node.get(index);
+        }
+
+        @Override
+        public long getSize() {
+            return node.size();
+        }
+
+        @Override
+        public JsonNode toJson() {
+            return node;
+        }
+
+    }
+
+    private static final class MapObject extends ObjectView {
+
+        private final Map<?, ?> map;
+
+        MapObject(Map<?, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        boolean has(String key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        Object get(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        List<String> keys() {
+            List<String> keys = new ArrayList<>(map.size());
+            for (Object key : map.keySet()) {
+                keys.add(String.valueOf(key));
+            }
+            return keys;
+        }
+
+        @Override
+        public JsonNode toJson() {
+            return FormatMappers.json().valueToTree(map);
+        }
+
+    }
+
+    private static final class ListArray extends ArrayView {
+
+        private final List<?> list;
+
+        ListArray(List<?> list) {
+            this.list = list;
+        }
+
+        @Override
+        Object element(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public long getSize() {
+            return list.size();
+        }
+
+        @Override
+        public JsonNode toJson() {
+            return FormatMappers.json().valueToTree(list);
+        }
+
+    }
+
+}
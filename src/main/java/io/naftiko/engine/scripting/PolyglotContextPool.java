@@ -0,0 +1,416 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.naftiko.engine.util.FormatMappers;
+
+/**
+ * Bounded pools of polyglot contexts, one per language, statement limit and script.
+ *
+ * <p>A pooled context has already evaluated the dependencies of its script. Only JavaScript
+ * contexts are reused, and only while nothing a request could write to survives it: once the
+ * dependencies are evaluated, the values they export are frozen deeply and their global bindings
+ * made read-only, and the built-in objects and prototypes are recorded. When a context is
+ * released, every global added since is removed; a context whose globals cannot be removed, whose
+ * dependency bindings were reassigned or whose built-ins were changed is closed instead of being
+ * pooled. Contexts of other languages, whose module state cannot be verified, are closed after
+ * each use. Statement counters are reset on every lease. At most {@link #MAX_CONTEXTS_PER_SCRIPT}
+ * contexts exist per script, so further callers wait for one to be released.</p>
+ */
+public final class PolyglotContextPool {
+
+    static final int MAX_CONTEXTS_PER_SCRIPT = 8;
+
+    static final int MAX_SCRIPTS = 256;
+
+    /**
+     * The only language whose contexts are reused.
+     */
+    static final String REUSABLE_LANGUAGE = "js";
+
+    /**
+     * Freezes the exports of the dependencies and returns a function telling whether the
+     * dependency bindings and the built-ins are still as they were. Internal, so that it does not
+     * count against the statement limit of the script.
+     */
+    private static final Source LOCKDOWN = Source.newBuilder(REUSABLE_LANGUAGE, """
+            (function (exportNames) {
+              'use strict';
+              const global = globalThis;
+              const read = (name) => (0, eval)(name);
+              const exported = JSON.parse(exportNames);
+              const intrinsics = new Set();
+              const addIntrinsic = (value) => {
+                while (value !== null && (typeof value === 'object' || typeof value === 'function')
+                    && !intrinsics.has(value)) {
+                  intrinsics.add(value);
+                  if (typeof value === 'function' && value.prototype) {
+                    addIntrinsic(value.prototype);
+                  }
+                  value = Object.getPrototypeOf(value);
+                }
+              };
+              const names = Reflect.ownKeys(global).filter((name) => !exported.includes(name));
+              const bindings = names.map((name) => [name, global[name]]);
+              bindings.forEach(([, value]) => addIntrinsic(value));
+              [function* () {}, async function () {}, async function* () {}]
+                  .forEach(addIntrinsic);
+
+              const frozen = new Set();
+              const freeze = (value) => {
+                if (value === null || (typeof value !== 'object' && typeof value !== 'function')
+                    || intrinsics.has(value) || frozen.has(value)) {
+                  return;
+                }
+                frozen.add(value);
+                Object.freeze(value);
+                for (const key of Reflect.ownKeys(value)) {
+                  const descriptor = Reflect.getOwnPropertyDescriptor(value, key);
+                  if ('value' in descriptor) {
+                    freeze(descriptor.value);
+                  }
+                }
+                freeze(Object.getPrototypeOf(value));
+              };
+              const exports = exported.map((name) => [name, read(name)]);
+              for (const [name, value] of exports) {
+                const descriptor = Reflect.getOwnPropertyDescriptor(global, name);
+                if (descriptor && (descriptor.configurable || descriptor.writable)) {
+                  Object.defineProperty(global, name, { writable: false, configurable: false });
+                }
+                freeze(value);
+              }
+
+              const records = [];
+              for (const target of intrinsics) {
+                const keys = Reflect.ownKeys(target);
+                const properties = keys.map((key) => [key, Reflect.getOwnPropertyDescriptor(target, key)]);
+                records.push([target, keys.length, Object.getPrototypeOf(target), properties]);
+              }
+              const same = (a, b) => b !== undefined && Object.is(a.value, b.value)
+                  && a.get === b.get && a.set === b.set;
+              return function () {
+                for (const [target, size, prototype, properties] of records) {
+                  if (Reflect.ownKeys(target).length !== size
+                      || Object.getPrototypeOf(target) !== prototype) {
+                    return false;
+                  }
+                  for (const [key, descriptor] of properties) {
+                    if (!same(descriptor, Reflect.getOwnPropertyDescriptor(target, key))) {
+                      return false;
+                    }
+                  }
+                }
+                return bindings.every(([name, value]) => Object.is(global[name], value))
+                    && exports.every(([name, value]) => Object.is(read(name), value));
+              };
+            })
+            """, "naftiko-lockdown.js").internal(true).buildLiteral();
+
+    private static final PolyglotContextPool INSTANCE = new PolyglotContextPool();
+
+    private final Map<Key, Pool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    PolyglotContextPool() {}
+
+    /**
+     * @return the process-wide pool
+     */
+    public static PolyglotContextPool get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Identity of the contexts that can run a script: its language, statement limit, main source
+     * and dependency sources. A changed script file yields new sources, hence a new pool.
+     */
+    record Key(String language, long statementLimit, Source main, List<Source> dependencies) {
+
+        /**
+         * @return true when the other key runs the same script with the same limit and
+         *         dependencies, possibly from other versions of their files
+         */
+        boolean sameScript(Key other) {
+            return language.equals(other.language) && statementLimit == other.statementLimit
+                    && main.getName().equals(other.main.getName())
+                    && names(dependencies).equals(names(other.dependencies));
+        }
+
+        private static List<String> names(List<Source> sources) {
+            return sources.stream().map(Source::getName).toList();
+        }
+
+    }
+
+    /**
+     * A context leased from the pool.
+     */
+    static final class Lease {
+
+        private final Key key;
+        private final Pool pool;
+        private final Context context;
+        private final Set<String> baseline;
+        private final Value intact;
+
+        private Lease(Key key, Pool pool, Context context, Set<String> baseline, Value intact) {
+            this.key = key;
+            this.pool = pool;
+            this.context = context;
+            this.baseline = baseline;
+            this.intact = intact;
+        }
+
+        Context context() {
+            return context;
+        }
+
+    }
+
+    private static final class Pool {
+
+        private final Semaphore permits = new Semaphore(MAX_CONTEXTS_PER_SCRIPT, true);
+        private final Deque<Lease> idle = new ConcurrentLinkedDeque<>();
+
+    }
+
+    /**
+     * Lease a context for a script, waiting up to the given time for one to become available.
+     *
+     * @param key the script
+     * @param timeoutMs the maximum wait in milliseconds, or 0 to wait indefinitely
+     * @param factory creates a sandboxed context, in which the script dependencies are then
+     *        evaluated
+     * @return the lease, to be handed back to {@link #release}
+     * @throws TimeoutException if no context became available in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Lease lease(Key key, long timeoutMs, Supplier<Context> factory)
+            throws TimeoutException, InterruptedException {
+        Pool pool = pools.get(key);
+        if (pool == null) {
+            retire(key);
+            if (pools.size() < MAX_SCRIPTS) {
+                pool = pools.computeIfAbsent(key, k -> new Pool());
+            }
+        }
+
+        if (pool != null) {
+            long start = System.nanoTime();
+            boolean acquired;
+            if (timeoutMs > 0) {
+                acquired = pool.permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } else {
+                pool.permits.acquire();
+                acquired = true;
+            }
+            waitNanos.addAndGet(System.nanoTime() - start);
+            if (!acquired) {
+                throw new TimeoutException("No script context available after " + timeoutMs
+                        + " ms");
+            }
+
+            Lease lease = pool.idle.pollFirst();
+            if (lease != null) {
+                hits.incrementAndGet();
+                lease.context.resetLimits();
+                return lease;
+            }
+        }
+
+        misses.incrementAndGet();
+        Context context = null;
+        try {
+            context = factory.get();
+            Value bindings = context.getBindings(key.language());
+            Set<String> initial = Set.copyOf(bindings.getMemberKeys());
+            for (Source dependency : key.dependencies()) {
+                context.eval(dependency);
+            }
+            Value intact = null;
+            if (pool != null && REUSABLE_LANGUAGE.equals(key.language())) {
+                List<String> exports = bindings.getMemberKeys().stream()
+                        .filter(name -> !initial.contains(name)).toList();
+                intact = context.eval(LOCKDOWN).execute(toJson(exports));
+            }
+            Set<String> baseline = Set.copyOf(bindings.getMemberKeys());
+            size.incrementAndGet();
+            return new Lease(key, pool, context, baseline, intact);
+        } catch (RuntimeException | Error e) {
+            if (context != null) {
+                context.close(true);
+            }
+            if (pool != null) {
+                pool.permits.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a lease back. A reusable context is reset to its baseline and pooled; any other
+     * context is closed.
+     *
+     * @param lease the lease
+     * @param reusable false when the context failed, timed out or was cancelled
+     */
+    void release(Lease lease, boolean reusable) {
+        if (reusable && lease.pool != null && reset(lease)) {
+            lease.pool.idle.addFirst(lease);
+        } else {
+            close(lease);
+        }
+        if (lease.pool != null) {
+            lease.pool.permits.release();
+        }
+    }
+
+    /**
+     * Close every idle context.
+     */
+    public void clear() {
+        for (Pool pool : pools.values()) {
+            Lease lease;
+            while ((lease = pool.idle.pollFirst()) != null) {
+                close(lease);
+            }
+        }
+        pools.values().removeIf(pool -> pool.idle.isEmpty()
+                && pool.permits.availablePermits() == MAX_CONTEXTS_PER_SCRIPT);
+    }
+
+    /**
+     * @return the number of open contexts, leased or idle
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of idle contexts
+     */
+    public int getIdle() {
+        int idle = 0;
+        for (Pool pool : pools.values()) {
+            idle += pool.idle.size();
+        }
+        return idle;
+    }
+
+    /**
+     * @return the number of leases served by an idle context
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of leases that created a context
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the share of leases served by an idle context, between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * @return the average time spent waiting for a context, in milliseconds
+     */
+    public double getAverageWaitMs() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (waitNanos.get() / 1_000_000.0) / total;
+    }
+
+    /**
+     * Close the idle contexts of earlier versions of a script, and forget their pools once no
+     * context of theirs is leased.
+     */
+    private void retire(Key key) {
+        for (Map.Entry<Key, Pool> entry : pools.entrySet()) {
+            Key other = entry.getKey();
+            if (other.sameScript(key)) {
+                Pool pool = entry.getValue();
+                Lease lease;
+                while ((lease = pool.idle.pollFirst()) != null) {
+                    close(lease);
+                }
+                if (pool.permits.availablePermits() == MAX_CONTEXTS_PER_SCRIPT) {
+                    pools.remove(other, pool);
+                }
+            }
+        }
+    }
+
+    private static boolean reset(Lease lease) {
+        if (lease.intact == null) {
+            return false;
+        }
+        try {
+            Value bindings = lease.context.getBindings(lease.key.language());
+            for (String name : bindings.getMemberKeys()) {
+                if (!lease.baseline.contains(name)) {
+                    bindings.removeMember(name);
+                }
+            }
+            return lease.intact.execute().asBoolean();
+        } catch (RuntimeException e) {
+            // Globals such as top-level declarations cannot be removed
+            return false;
+        }
+    }
+
+    private static String toJson(List<String> names) {
+        try {
+            return FormatMappers.json().writeValueAsString(names);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize global names", e);
+        }
+    }
+
+    private void close(Lease lease) {
+        size.decrementAndGet();
+        try {
+            lease.context.close(true);
+        } catch (RuntimeException ignored) {
+            // Already closed by a timeout
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+
+/**
+ * Process-wide caches for script steps.
+ *
+ * <p>One polyglot {@link Engine} is kept per language, so that every context built from it shares
+ * the parsed and compiled code of the scripts it has already run. Script files are read once and
+ * kept with their modification time and size; a file changed on disk is read again on its next
+ * use. Their polyglot {@link Source} is built once per language, which is what lets the engine
+ * recognise the same script across contexts.</p>
+ *
+ * <p>Groovy script files are compiled once into a {@link Script} class, in a class loader of their
+ * own. The class is kept with the content hash of the file and the sandbox configuration it was
+ * compiled with; when the file content changes, the script is compiled again and the class loader
+ * of the previous version is closed, so that its classes can be unloaded. At most
+ * {@link #MAX_GROOVY_SCRIPTS} classes are kept: once full, the least recently used script is
+ * evicted and its class loader closed in the same way.</p>
+ */
+final class ScriptCache {
+
+    static final int MAX_SIZE = 4096;
+
+    static final int MAX_GROOVY_SCRIPTS = 256;
+
+    private static final Map<String, Engine> ENGINES = new ConcurrentHashMap<>();
+
+    private static final Map<Path, ScriptFile> FILES = new ConcurrentHashMap<>();
+
+    private static final String FUNCTION = "js-function";
+
+    /**
+     * Compiled Groovy scripts in access order, guarded by the map itself.
+     */
+    private static final LinkedHashMap<Path, GroovyScript> GROOVY_SCRIPTS =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private ScriptCache() {}
+
+    /**
+     * Content of a script file as of a given modification time and size.
+     */
+    private record ScriptFile(FileTime modified, long size, String text,
+            Map<String, Source> sources) {
+    }
+
+    /**
+     * Groovy script class compiled from a file content with a sandbox configuration.
+     */
+    private record GroovyScript(String text, String hash, CompilerConfiguration config,
+            Class<? extends Script> type, GroovyClassLoader loader) {
+    }
+
+    /**
+     * @param language the polyglot language id
+     * @return the shared engine of the language, created on first use
+     */
+    static Engine engine(String language) {
+        return ENGINES.computeIfAbsent(language, id -> {
+            Engine.Builder builder = Engine.newBuilder(id)
+                    .option("engine.WarnInterpreterOnly", "false");
+            if ("python".equals(id)) {
+                builder.option("python.ForceImportSite", "false");
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * @param path the resolved script file
+     * @return the text of the file, read again only when it changed
+     * @throws IOException if the file cannot be read
+     */
+    static String text(Path path) throws IOException {
+        return file(path).text();
+    }
+
+    /**
+     * @param language the polyglot language id
+     * @param path the resolved script file
+     * @return the source of the file for that language, rebuilt only when the file changed
+     * @throws IOException if the file cannot be read
+     */
+    static Source source(String language, Path path) throws IOException {
+        ScriptFile file = file(path);
+        return file.sources().computeIfAbsent(language, id -> Source
+                .newBuilder(id, file.text(), path.toString()).buildLiteral());
+    }
+
+    /**
+     * Source of a JavaScript file wrapped in a function, so that its top-level declarations stay
+     * local to one call. The function returns an empty array when the script leaves
+     * {@code result} undefined, and an array holding {@code result} otherwise. The script starts
+     * on the first line, so line numbers are unchanged.
+     *
+     * @param path the resolved script file
+     * @return the source evaluating to that function
+     * @throws IOException if the file cannot be read
+     */
+    static Source function(Path path) throws IOException {
+        ScriptFile file = file(path);
+        return file.sources().computeIfAbsent(FUNCTION, id -> Source.newBuilder("js",
+                "(function () {" + file.text()
+                        + "\n;return typeof result === 'undefined' ? [] : [result];\n})",
+                path.toString()).buildLiteral());
+    }
+
+    /**
+     * @param path the resolved Groovy script file
+     * @param config the sandbox configuration to compile with
+     * @return the script class, compiled again only when the file content or configuration
+     *         changed
+     * @throws IOException if the file cannot be read
+     */
+    static Class<? extends Script> groovy(Path path, CompilerConfiguration config)
+            throws IOException {
+        String text = file(path).text();
+        GroovyScript script;
+        synchronized (GROOVY_SCRIPTS) {
+            script = GROOVY_SCRIPTS.get(path);
+        }
+        if (script != null && script.text() == text && script.config() == config) {
+            return script.type();
+        }
+
+        String hash = hash(text);
+        if (script != null && script.hash().equals(hash) && script.config() == config) {
+            // The file was read again but its content is unchanged
+            synchronized (GROOVY_SCRIPTS) {
+                GROOVY_SCRIPTS.replace(path, script,
+                        new GroovyScript(text, hash, config, script.type(), script.loader()));
+            }
+            return script.type();
+        }
+
+        // Compile outside the lock, so that other scripts are served meanwhile
+        GroovyScript compiled = compile(text, hash, config);
+        List<GroovyScript> unloaded = new ArrayList<>();
+        synchronized (GROOVY_SCRIPTS) {
+            GroovyScript previous = GROOVY_SCRIPTS.put(path, compiled);
+            if (previous != null) {
+                unloaded.add(previous);
+            }
+            Iterator<GroovyScript> eldest = GROOVY_SCRIPTS.values().iterator();
+            while (GROOVY_SCRIPTS.size() > MAX_GROOVY_SCRIPTS) {
+                unloaded.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        unloaded.forEach(ScriptCache::unload);
+        return compiled.type();
+    }
+
+    /**
+     * Clear all cached script files and unload the compiled Groovy scripts. Engines are kept.
+     */
+    static void clear() {
+        FILES.clear();
+        List<GroovyScript> unloaded;
+        synchronized (GROOVY_SCRIPTS) {
+            unloaded = new ArrayList<>(GROOVY_SCRIPTS.values());
+            GROOVY_SCRIPTS.clear();
+        }
+        unloaded.forEach(ScriptCache::unload);
+    }
+
+    /**
+     * @return the number of cached script files
+     */
+    static int size() {
+        return FILES.size();
+    }
+
+    /**
+     * @return the number of compiled Groovy scripts kept
+     */
+    static int groovySize() {
+        synchronized (GROOVY_SCRIPTS) {
+            return GROOVY_SCRIPTS.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GroovyScript compile(String text, String hash, CompilerConfiguration config) {
+        GroovyClassLoader loader =
+                new GroovyClassLoader(ScriptCache.class.getClassLoader(), config);
+        GroovyCodeSource codeSource = new GroovyCodeSource(text,
+                "Script_" + hash.substring(0, 16) + ".groovy", GroovyShell.DEFAULT_CODE_BASE);
+        codeSource.setCachable(false);
+        Class<? extends Script> type = (Class<? extends Script>) loader.parseClass(codeSource);
+        return new GroovyScript(text, hash, config, type, loader);
+    }
+
+    private static void unload(GroovyScript script) {
+        script.loader().clearCache();
+        try {
+            script.loader().close();
+        } catch (IOException ignored) {
+            // Nothing was opened from a URL
+        }
+    }
+
+    private static String hash(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ScriptFile file(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        ScriptFile file = FILES.get(path);
+        if (file != null && file.modified().equals(attributes.lastModifiedTime())
+                && file.size() == attributes.size()) {
+            return file;
+        }
+
+        file = new ScriptFile(attributes.lastModifiedTime(), attributes.size(),
+                Files.readString(path, StandardCharsets.UTF_8), new ConcurrentHashMap<>());
+        if (FILES.size() < MAX_SIZE || FILES.containsKey(path)) {
+            FILES.put(path, file);
+        }
+        return file;
+    }
+
+}
@@ -14,27 +14,26 @@
 package io.naftiko.engine.scripting;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.EnvironmentAccess;
 import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.io.IOAccess;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -47,7 +46,9 @@ import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.JsonNodeView;
 import io.naftiko.engine.util.Resolver;
 import io.naftiko.engine.util.SafePathResolver;
 import io.naftiko.engine.util.StepExecutionContext;
@@ -58,11 +59,14 @@ import io.naftiko.spec.exposes.control.ScriptingManagementSpec;
  * Executor for script operation steps.
  *
  * <p>Executes JavaScript and Python scripts in a sandboxed GraalVM polyglot context and Groovy
- * scripts via {@link GroovyShell} with AST security restrictions. Scripts are loaded from external
- * files referenced by a {@code file:///} URI directory and a relative file path.</p>
+ * scripts compiled with AST security restrictions. Scripts are loaded from external files
+ * referenced by a {@code file:///} URI directory and a relative file path. Script files, compiled
+ * Groovy scripts and polyglot engines are cached across executions by {@link ScriptCache}.</p>
  *
  * <p>The executor injects previous step outputs and runtime parameters into the script context as
- * a {@code context} binding. The script must assign its output to a {@code result} variable.</p>
+ * a {@code context} binding. The script must assign its output to a {@code result} variable.
+ * JavaScript and Python scripts read a read-only {@link JsonProxy} view of the bindings rather
+ * than a copy.</p>
  *
  * <p>When a {@link ScriptingManagementSpec} is configured via the Control Port, the executor
  * uses its settings for defaults, limits, allowed languages, and the enabled toggle. The Control
@@ -95,6 +99,12 @@ public class ScriptStepExecutor {
             "groovy", "groovy"
     );
 
+    private static final CompilerConfiguration GROOVY_SANDBOX = sandboxConfiguration();
+
+    private static final Source PYTHON_RESULT = Source.create("python", "result");
+
+    private static final Predicate<Source> COUNTED_SOURCES = source -> !source.isInternal();
+
     private static final boolean SCRIPTING_PERMITTED =
             !"false".equalsIgnoreCase(System.getenv("NAFTIKO_SCRIPTING"));
 
@@ -183,21 +193,31 @@ public class ScriptStepExecutor {
             timeoutMs = scriptingSpec.getTimeout();
         }
 
-        String mainSource = readScript(locationUri, file, scriptStep.getName());
+        // The watchdog fires no later than the deadline of the step
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.check("Script step '" + scriptStep.getName() + "'");
+            timeoutMs = (int) Math.min(timeoutMs, deadline.remainingMillis());
+        }
 
-        Map<String, Object> bindings =
-                buildBindings(runtimeParameters, stepContext, scriptStep.getWith());
+        boolean isGroovy = "groovy".equals(language);
+        String polyglotId = LANGUAGE_ID_MAP.getOrDefault(language, language);
+        Source mainPolyglotSource = isGroovy ? null
+                : readSource(polyglotId, locationUri, file, scriptStep.getName(), true);
+
+        Map<String, Object> bindings = isGroovy
+                ? buildBindings(runtimeParameters, stepContext, scriptStep.getWith())
+                : buildProxyBindings(runtimeParameters, stepContext, scriptStep.getWith());
 
         long startNanos = System.nanoTime();
         boolean error = false;
+        ScriptThreads.started(language);
         try {
             JsonNode result;
-            if ("groovy".equals(language)) {
-                result = executeGroovy(mainSource, bindings, scriptStep, locationUri,
-                        timeoutMs);
+            if (isGroovy) {
+                result = executeGroovy(file, bindings, scriptStep, locationUri, timeoutMs);
             } else {
-                String polyglotId = LANGUAGE_ID_MAP.getOrDefault(language, language);
-                result = executePolyglot(polyglotId, mainSource, bindings, scriptStep,
+                result = executePolyglot(polyglotId, mainPolyglotSource, bindings, scriptStep,
                         locationUri, statementLimit, timeoutMs);
             }
             return result;
@@ -205,87 +225,85 @@ public class ScriptStepExecutor {
             error = true;
             throw e;
         } finally {
+            ScriptThreads.finished(language);
             if (scriptingSpec != null) {
                 scriptingSpec.recordExecution(System.nanoTime() - startNanos, error);
             }
         }
     }
 
-    private JsonNode executePolyglot(String language, String mainSource,
+    /**
+     * Run a script in a sandboxed context leased from {@link PolyglotContextPool}. Contexts are
+     * built from the shared engine of their language and have already evaluated the script
+     * dependencies; a context is only returned to the pool after a successful run. The
+     * bindings are exposed as a read-only {@link JsonProxy} view, so step outputs are not copied
+     * into the guest.
+     */
+    private JsonNode executePolyglot(String language, Source mainSource,
             Map<String, Object> bindings, OperationStepScriptSpec scriptStep,
             String locationUri, long statementLimit, int timeoutMs) {
 
-        boolean isPython = "python".equals(language);
-
-        Context.Builder builder = Context.newBuilder(language)
-                .allowAllAccess(false)
-                .allowHostAccess(HostAccess.NONE)
-                .allowIO(IOAccess.NONE)
-                .allowCreateThread(false)
-                .allowCreateProcess(false)
-                .allowEnvironmentAccess(EnvironmentAccess.NONE)
-                .allowNativeAccess(false)
-                .option("engine.WarnInterpreterOnly", "false")
-                .resourceLimits(ResourceLimits.newBuilder()
-                        .statementLimit(statementLimit, null)
-                        .build());
-
-        if (isPython) {
-            builder.option("python.ForceImportSite", "false");
+        List<Source> dependencies = new ArrayList<>();
+        if (scriptStep.getDependencies() != null) {
+            for (String depPath : scriptStep.getDependencies()) {
+                dependencies.add(readSource(language, locationUri, depPath,
+                        scriptStep.getName(), false));
+            }
         }
 
-        try (Context context = builder.build()) {
+        PolyglotContextPool pool = PolyglotContextPool.get();
+        PolyglotContextPool.Key key =
+                new PolyglotContextPool.Key(language, statementLimit, mainSource, dependencies);
+        PolyglotContextPool.Lease lease = null;
+        boolean reusable = false;
+
+        try {
+            lease = pool.lease(key, timeoutMs,
+                    () -> newPolyglotContext(language, statementLimit));
+            Context context = lease.context();
 
             // Schedule a watchdog that cancels the context after the timeout
-            ScheduledExecutorService watchdog = null;
             ScheduledFuture<?> timeoutTask = null;
             if (timeoutMs > 0) {
-                watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
-                    Thread t = new Thread(r, "script-timeout-watchdog");
-                    t.setDaemon(true);
-                    return t;
-                });
-                timeoutTask = watchdog.schedule(() -> context.close(true), timeoutMs,
-                        TimeUnit.MILLISECONDS);
+                timeoutTask = ScriptThreads.schedule(() -> context.close(true), timeoutMs);
             }
 
             try {
-                // Inject bindings
-                String bindingsJson = mapper.writeValueAsString(bindings);
-                if (isPython) {
-                    injectPythonBindings(context, language, bindingsJson);
+                context.getBindings(language).putMember("context", JsonProxy.of(bindings));
+                Value resultValue;
+                if ("python".equals(language)) {
+                    context.eval(mainSource);
+                    resultValue = extractPolyglotResult(context, language);
                 } else {
-                    context.eval(language, "var context = " + bindingsJson + ";");
-                }
-
-                // Evaluate dependent scripts in order
-                List<String> dependencies = scriptStep.getDependencies();
-                if (dependencies != null) {
-                    for (String depPath : dependencies) {
-                        String depSource =
-                                readScript(locationUri, depPath, scriptStep.getName());
-                        context.eval(language, depSource);
-                    }
+                    Value results = context.eval(mainSource).execute();
+                    // Distinguish "no result assigned" from "result = null"
+                    resultValue = results.getArraySize() == 0 ? null
+                            : results.getArrayElement(0);
                 }
 
-                // Evaluate main script
-                context.eval(language, mainSource);
-
-                // Extract result — distinguish "no result assigned" from "result = null"
-                if (!isPython && !context.getBindings(language).hasMember("result")) {
-                    return null;
-                }
-                Value resultValue = extractPolyglotResult(context, language, isPython);
-                return resultValue == null ? null : convertPolyglotValue(resultValue);
+                JsonNode result = resultValue == null ? null : convertPolyglotValue(resultValue);
+                reusable = true;
+                return result;
             } finally {
-                if (timeoutTask != null) {
-                    timeoutTask.cancel(false);
-                }
-                if (watchdog != null) {
-                    watchdog.shutdownNow();
+                if (timeoutTask != null && !timeoutTask.cancel(false)) {
+                    // The watchdog already closed the context
+                    reusable = false;
                 }
             }
 
+        } catch (TimeoutException e) {
+            ScriptThreads.timedOut(language);
+            throw new IllegalArgumentException(
+                    "Script step '" + scriptStep.getName()
+                            + "' exceeded the timeout limit ("
+                            + timeoutMs + " ms) waiting for a script context",
+                    e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException(
+                    "Script step '" + scriptStep.getName()
+                            + "' was interrupted",
+                    e);
         } catch (PolyglotException e) {
             if (e.isResourceExhausted()) {
                 throw new IllegalArgumentException(
@@ -295,6 +313,7 @@ public class ScriptStepExecutor {
                         e);
             }
             if (e.isCancelled()) {
+                ScriptThreads.timedOut(language);
                 throw new IllegalArgumentException(
                         "Script step '" + scriptStep.getName()
                                 + "' exceeded the timeout limit ("
@@ -303,109 +322,80 @@ public class ScriptStepExecutor {
             }
             throw new IllegalArgumentException(
                     "Script step '" + scriptStep.getName() + "' failed: " + e.getMessage(), e);
-        } catch (IOException e) {
-            throw new IllegalArgumentException(
-                    "Script step '" + scriptStep.getName()
-                            + "' failed to serialize bindings: " + e.getMessage(),
-                    e);
         } catch (Exception e) {
             if (e instanceof IllegalArgumentException) {
                 throw e;
             }
             throw new IllegalArgumentException(
                     "Script step '" + scriptStep.getName() + "' failed: " + e.getMessage(), e);
+        } finally {
+            if (lease != null) {
+                pool.release(lease, reusable);
+            }
         }
     }
 
     /**
-     * Injects bindings into a Python context. Python cannot parse JSON literals as native syntax,
-     * so the JSON string is passed as a binding variable and parsed via {@code json.loads()}.
+     * Build a sandboxed context from the shared engine of a language. Internal sources of the
+     * engine do not count against the statement limit.
      */
-    private void injectPythonBindings(Context context, String language, String bindingsJson) {
-        context.getBindings(language).putMember("__ctx_json", bindingsJson);
-        context.eval(language, "import json as __json\n"
-                + "context = __json.loads(__ctx_json)\n"
-                + "del __ctx_json\n"
-                + "del __json");
+    private static Context newPolyglotContext(String language, long statementLimit) {
+        return Context.newBuilder(language)
+                .engine(ScriptCache.engine(language))
+                .allowAllAccess(false)
+                .allowHostAccess(HostAccess.NONE)
+                .allowIO(IOAccess.NONE)
+                .allowCreateThread(false)
+                .allowCreateProcess(false)
+                .allowEnvironmentAccess(EnvironmentAccess.NONE)
+                .allowNativeAccess(false)
+                .resourceLimits(ResourceLimits.newBuilder()
+                        .statementLimit(statementLimit, COUNTED_SOURCES)
+                        .build())
+                .build();
     }
 
     /**
-     * Extracts the {@code result} variable from the polyglot context. Python uses different scoping
+     * Extracts the {@code result} variable from a Python context. Python uses different scoping
      * — module-level variables are not exposed via {@code getBindings()}, so we evaluate
      * {@code result} as an expression instead.
      */
-    private Value extractPolyglotResult(Context context, String language, boolean isPython) {
-        if (isPython) {
-            try {
-                return context.eval(language, "result");
-            } catch (PolyglotException e) {
-                if (e.isGuestException()) {
-                    return null;
-                }
-                throw e;
+    private Value extractPolyglotResult(Context context, String language) {
+        try {
+            return context.eval(PYTHON_RESULT);
+        } catch (PolyglotException e) {
+            if (e.isGuestException()) {
+                return null;
             }
+            throw e;
         }
-        return context.getBindings(language).getMember("result");
     }
 
-    private JsonNode executeGroovy(String mainSource, Map<String, Object> bindings,
+    /**
+     * Run a Groovy script and its dependencies, compiled once by {@link ScriptCache}, with a fresh
+     * binding. Dependencies run first against the same binding, so the variables they assign are
+     * visible to the main script.
+     */
+    private JsonNode executeGroovy(String file, Map<String, Object> bindings,
             OperationStepScriptSpec scriptStep, String locationUri, int timeoutMs) {
 
-        CompilerConfiguration config = new CompilerConfiguration();
-        SecureASTCustomizer secure = new SecureASTCustomizer();
-        secure.setDisallowedImports(List.of("java.io.**", "java.nio.**",
-                "java.net.**", "java.lang.Process", "java.lang.Runtime"));
-        secure.setDisallowedStarImports(List.of("java.io.", "java.nio.", "java.net.",
-                "java.lang.reflect.", "javax."));
-        secure.setDisallowedStaticImports(List.of(
-                "java.lang.System.*", "java.lang.Runtime.*",
-                "java.lang.ProcessBuilder.*"));
-        secure.setDisallowedStaticStarImports(List.of(
-                "java.lang.System.", "java.lang.Runtime.",
-                "java.lang.ProcessBuilder.", "java.lang.reflect."));
-        secure.setIndirectImportCheckEnabled(true);
-        secure.setPackageAllowed(false);
-        secure.setMethodDefinitionAllowed(true);
-
-        // Block dangerous receivers — prevents FQN access to System, Runtime, Process,
-        // reflection, classloading, threading, and scripting/compilation APIs.
-        secure.setDisallowedReceivers(List.of(
-                "java.lang.System",
-                "java.lang.Runtime",
-                "java.lang.ProcessBuilder",
-                "java.lang.Process",
-                "java.lang.Thread",
-                "java.lang.ThreadGroup",
-                "java.lang.ClassLoader",
-                "java.lang.reflect.Field",
-                "java.lang.reflect.Method",
-                "java.lang.reflect.Constructor",
-                "java.lang.reflect.Proxy",
-                "java.lang.Class",
-                "groovy.lang.GroovyShell",
-                "groovy.lang.GroovyClassLoader",
-                "groovy.util.Eval",
-                "javax.script.ScriptEngineManager",
-                "org.codehaus.groovy.runtime.InvokerHelper"
-        ));
-
-        // Block dangerous method calls that bypass static receiver checks at runtime:
-        // - execute/execute(String[]): Groovy GDK adds these to String for process execution
-        // - getClass: prevents dynamic reflection access via any object
-        // - forName/getDeclaredMethod/getDeclaredField: Class reflection methods
-        secure.addExpressionCheckers(new GroovySandboxExpressionChecker());
-        config.addCompilationCustomizers(secure);
-
         Binding binding = new Binding();
         binding.setVariable("context", bindings);
 
-        GroovyShell shell = new GroovyShell(binding, config);
-
         try {
+            List<Class<? extends Script>> scripts = new ArrayList<>();
+            List<String> dependencies = scriptStep.getDependencies();
+            if (dependencies != null) {
+                for (String depPath : dependencies) {
+                    scripts.add(readGroovy(locationUri, depPath, scriptStep.getName()));
+                }
+            }
+            scripts.add(readGroovy(locationUri, file, scriptStep.getName()));
+
             if (timeoutMs > 0) {
-                executeGroovyWithTimeout(shell, mainSource, scriptStep, locationUri, timeoutMs);
+                executeGroovyWithTimeout(scripts, binding, scriptStep, timeoutMs);
             } else {
-                executeGroovyDirect(shell, mainSource, scriptStep, locationUri);
+                executeGroovyDirect(scripts, binding);
             }
         } catch (IllegalArgumentException e) {
             throw e;
@@ -426,34 +416,26 @@ public class ScriptStepExecutor {
         return mapper.convertValue(resultValue, JsonNode.class);
     }
 
-    private void executeGroovyDirect(GroovyShell shell, String mainSource,
-            OperationStepScriptSpec scriptStep, String locationUri) {
-        List<String> dependencies = scriptStep.getDependencies();
-        if (dependencies != null) {
-            for (String depPath : dependencies) {
-                String depSource = readScript(locationUri, depPath, scriptStep.getName());
-                shell.evaluate(depSource);
-            }
+    private void executeGroovyDirect(List<Class<? extends Script>> scripts, Binding binding) {
+        for (Class<? extends Script> script : scripts) {
+            InvokerHelper.createScript(script, binding).run();
         }
-        shell.evaluate(mainSource);
     }
 
-    private void executeGroovyWithTimeout(GroovyShell shell, String mainSource,
-            OperationStepScriptSpec scriptStep, String locationUri, int timeoutMs) {
+    private void executeGroovyWithTimeout(List<Class<? extends Script>> scripts, Binding binding,
+            OperationStepScriptSpec scriptStep, int timeoutMs) {
 
-        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "groovy-script-executor");
-            t.setDaemon(true);
-            return t;
+        Future<?> future = ScriptThreads.submit(() -> {
+            executeGroovyDirect(scripts, binding);
+            return null;
         });
 
-        Future<?> future = executor.submit(
-                () -> executeGroovyDirect(shell, mainSource, scriptStep, locationUri));
-
         try {
             future.get(timeoutMs, TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
+            // Interrupting the script stops it at its next loop, closure or method entry
             future.cancel(true);
+            ScriptThreads.timedOut("groovy");
             throw new IllegalArgumentException(
                     "Script step '" + scriptStep.getName()
                             + "' exceeded the timeout limit ("
@@ -469,13 +451,12 @@ public class ScriptStepExecutor {
                             + (cause != null ? cause.getMessage() : e.getMessage()),
                     cause != null ? cause : e);
         } catch (InterruptedException e) {
+            future.cancel(true);
             Thread.currentThread().interrupt();
             throw new IllegalArgumentException(
                     "Script step '" + scriptStep.getName()
                             + "' was interrupted",
                     e);
-        } finally {
-            executor.shutdownNow();
         }
     }
 
@@ -489,10 +470,10 @@ public class ScriptStepExecutor {
             bindings.putAll(runtimeParameters);
         }
 
-        // Add step outputs (converted to plain Java objects)
+        // Add step outputs (as lazy views over their JSON nodes)
         if (stepContext != null) {
             for (Map.Entry<String, JsonNode> entry : stepContext.getAllStepOutputs().entrySet()) {
-                bindings.put(entry.getKey(), mapper.convertValue(entry.getValue(), Object.class));
+                bindings.put(entry.getKey(), JsonNodeView.of(entry.getValue()));
             }
         }
 
@@ -512,10 +493,122 @@ public class ScriptStepExecutor {
         return bindings;
     }
 
-    private String readScript(String locationUri, String relativePath, String stepName) {
+    /**
+     * Bindings for polyglot scripts. Step outputs are kept as JSON nodes, to be read through a
+     * {@link JsonProxy} view. {@code with} templates are still resolved against plain Java
+     * objects, which are only built when a template needs them.
+     */
+    Map<String, Object> buildProxyBindings(Map<String, Object> runtimeParameters,
+            StepExecutionContext stepContext, Map<String, Object> with) {
+
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        if (runtimeParameters != null) {
+            bindings.putAll(runtimeParameters);
+        }
+        if (stepContext != null) {
+            bindings.putAll(stepContext.getAllStepOutputs());
+        }
+
+        if (with != null) {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            Map<String, Object> scope = null;
+            for (Map.Entry<String, Object> entry : with.entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof String template && template.contains("{{")) {
+                    if (scope == null) {
+                        scope = buildBindings(runtimeParameters, stepContext, null);
+                        scope.putAll(resolved);
+                    }
+                    value = Resolver.resolveMustacheTemplate(template, scope);
+                }
+                resolved.put(entry.getKey(), value);
+                if (scope != null) {
+                    scope.put(entry.getKey(), value);
+                }
+            }
+            bindings.putAll(resolved);
+        }
+
+        return bindings;
+    }
+
+    /**
+     * Compiler configuration enforcing the Groovy sandbox. It is applied when a script is
+     * compiled, which happens once per script content.
+     */
+    private static CompilerConfiguration sandboxConfiguration() {
+        CompilerConfiguration config = new CompilerConfiguration();
+        SecureASTCustomizer secure = new SecureASTCustomizer();
+        secure.setDisallowedImports(List.of("java.io.**", "java.nio.**",
+                "java.net.**", "java.lang.Process", "java.lang.Runtime"));
+        secure.setDisallowedStarImports(List.of("java.io.", "java.nio.", "java.net.",
+                "java.lang.reflect.", "javax."));
+        secure.setDisallowedStaticImports(List.of(
+                "java.lang.System.*", "java.lang.Runtime.*",
+                "java.lang.ProcessBuilder.*"));
+        secure.setDisallowedStaticStarImports(List.of(
+                "java.lang.System.", "java.lang.Runtime.",
+                "java.lang.ProcessBuilder.", "java.lang.reflect."));
+        secure.setIndirectImportCheckEnabled(true);
+        secure.setPackageAllowed(false);
+        secure.setMethodDefinitionAllowed(true);
+
+        // Block dangerous receivers — prevents FQN access to System, Runtime, Process,
+        // reflection, classloading, threading, and scripting/compilation APIs.
+        secure.setDisallowedReceivers(List.of(
+                "java.lang.System",
+                "java.lang.Runtime",
+                "java.lang.ProcessBuilder",
+                "java.lang.Process",
+                "java.lang.Thread",
+                "java.lang.ThreadGroup",
+                "java.lang.ClassLoader",
+                "java.lang.reflect.Field",
+                "java.lang.reflect.Method",
+                "java.lang.reflect.Constructor",
+                "java.lang.reflect.Proxy",
+                "java.lang.Class",
+                "groovy.lang.GroovyShell",
+                "groovy.lang.GroovyClassLoader",
+                "groovy.util.Eval",
+                "javax.script.ScriptEngineManager",
+                "org.codehaus.groovy.runtime.InvokerHelper"
+        ));
+
+        // Block dangerous method calls that bypass static receiver checks at runtime:
+        // - execute/execute(String[]): Groovy GDK adds these to String for process execution
+        // - getClass: prevents dynamic reflection access via any object
+        // - forName/getDeclaredMethod/getDeclaredField: Class reflection methods
+        secure.addExpressionCheckers(new GroovySandboxExpressionChecker());
+        config.addCompilationCustomizers(secure, new GroovyInterruptCustomizer());
+        return config;
+
+    }
+
+    private Class<? extends Script> readGroovy(String locationUri, String relativePath,
+            String stepName) {
+        Path resolved = SafePathResolver.resolveAndValidate(locationUri, relativePath);
+        try {
+            return ScriptCache.groovy(resolved, GROOVY_SANDBOX);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Script step '" + stepName + "' cannot read file '"
+                            + relativePath + "' from location '" + locationUri
+                            + "': " + e.getMessage(),
+                    e);
+        }
+    }
+
+    /**
+     * Read a polyglot source. A JavaScript main script is wrapped in a function so that it leaves
+     * no global declarations behind in a pooled context.
+     */
+    private Source readSource(String language, String locationUri, String relativePath,
+            String stepName, boolean main) {
         Path resolved = SafePathResolver.resolveAndValidate(locationUri, relativePath);
         try {
-            return Files.readString(resolved, StandardCharsets.UTF_8);
+            return main && "js".equals(language) ? ScriptCache.function(resolved)
+                    : ScriptCache.source(language, resolved);
         } catch (IOException e) {
             throw new IllegalArgumentException(
                     "Script step '" + stepName + "' cannot read file '"
@@ -529,6 +622,13 @@ public class ScriptStepExecutor {
         if (value == null || value.isNull()) {
             return NullNode.instance;
         }
+        if (value.isProxyObject()) {
+            // A view over the bindings, handed back as is
+            JsonNode node = JsonProxy.unwrap(value.asProxyObject());
+            if (node != null) {
+                return node;
+            }
+        }
         if (value.isBoolean()) {
             return BooleanNode.valueOf(value.asBoolean());
         }
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import io.naftiko.engine.observability.TelemetryBootstrap;
+
+/**
+ * Threads shared by all script steps: virtual threads to run scripts that need a thread of their
+ * own, and a single timer thread for timeout watchdogs.
+ *
+ * <p>Also counts the scripts in flight and the scripts that timed out, for the
+ * {@code /scripting} Control Port endpoint and the engine metrics.</p>
+ */
+public final class ScriptThreads {
+
+    private static final ExecutorService RUNNER = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("naftiko-script-", 0).factory());
+
+    private static final ScheduledThreadPoolExecutor TIMER = newTimer();
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static final AtomicLong TIMEOUTS = new AtomicLong();
+
+    private ScriptThreads() {}
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "script-timeout-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        // Most watchdogs are cancelled long before they fire
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Run a task on a new virtual thread.
+     */
+    static <T> Future<T> submit(Callable<T> task) {
+        return RUNNER.submit(task);
+    }
+
+    /**
+     * Run a watchdog once the given delay has elapsed, unless cancelled before.
+     */
+    static ScheduledFuture<?> schedule(Runnable watchdog, long delayMs) {
+        return TIMER.schedule(watchdog, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    static void started(String language) {
+        IN_FLIGHT.incrementAndGet();
+        TelemetryBootstrap.get().getMetrics().scriptStarted(language);
+    }
+
+    static void finished(String language) {
+        IN_FLIGHT.decrementAndGet();
+        TelemetryBootstrap.get().getMetrics().scriptFinished(language);
+    }
+
+    static void timedOut(String language) {
+        TIMEOUTS.incrementAndGet();
+        TelemetryBootstrap.get().getMetrics().recordScriptTimeout(language);
+    }
+
+    /**
+     * @return the number of script executions in progress
+     */
+    public static int getInFlight() {
+        return IN_FLIGHT.get();
+    }
+
+    /**
+     * @return the number of script executions that exceeded their timeout
+     */
+    public static long getTimeouts() {
+        return TIMEOUTS.get();
+    }
+
+}
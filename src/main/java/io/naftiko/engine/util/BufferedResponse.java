@@ -0,0 +1,118 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.restlet.Response;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.Header;
+import org.restlet.data.MediaType;
+import org.restlet.data.Status;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+
+/**
+ * Status, headers and entity of a completed upstream exchange, held in memory so that it can be
+ * copied into any number of responses.
+ *
+ * <p>Every copy gets an entity of its own, since Restlet releases an entity once it is written.
+ * Textual entities are copied as strings and binary ones as bytes.</p>
+ *
+ * @param status the response status
+ * @param headers the raw response headers
+ * @param content the entity bytes, or null when the response had no entity
+ * @param mediaType the entity media type (may be null)
+ * @param characterSet the entity character set (may be null)
+ */
+public record BufferedResponse(Status status, List<Header> headers, byte[] content,
+        MediaType mediaType, CharacterSet characterSet) {
+
+    /**
+     * Buffer a response, replacing its entity with a buffered copy so that it can still be read.
+     *
+     * @param response the response
+     * @return the buffered response
+     * @throws IOException if the entity cannot be read
+     */
+    public static BufferedResponse of(Response response) throws IOException {
+        List<Header> headers = new ArrayList<>(response.getHeaders());
+        Representation entity = response.getEntity();
+        if (entity == null || !entity.isAvailable()) {
+            return new BufferedResponse(response.getStatus(), headers, null, null, null);
+        }
+        byte[] content;
+        try (InputStream stream = entity.getStream()) {
+            content = stream != null ? stream.readAllBytes() : new byte[0];
+        }
+        BufferedResponse buffered = new BufferedResponse(response.getStatus(), headers, content,
+                entity.getMediaType(), entity.getCharacterSet());
+        response.setEntity(buffered.entity());
+        return buffered;
+    }
+
+    /**
+     * Copy this response into another one.
+     *
+     * @param response the response to fill
+     */
+    public void applyTo(Response response) {
+        response.setStatus(status);
+        response.getHeaders().addAll(headers);
+        response.setEntity(entity());
+    }
+
+    /**
+     * @return the number of entity bytes
+     */
+    public int size() {
+        return content != null ? content.length : 0;
+    }
+
+    /**
+     * @return a new entity holding the buffered content, or null when there is none
+     */
+    public Representation entity() {
+        if (content == null) {
+            return null;
+        }
+        if (!isText()) {
+            return new ByteArrayRepresentation(content, mediaType);
+        }
+        Charset charset = characterSet != null && characterSet.toCharset() != null
+                ? characterSet.toCharset() : StandardCharsets.UTF_8;
+        StringRepresentation text =
+                new StringRepresentation(new String(content, charset), mediaType);
+        if (characterSet != null) {
+            text.setCharacterSet(characterSet);
+        }
+        return text;
+    }
+
+    private boolean isText() {
+        if (characterSet != null || mediaType == null) {
+            return true;
+        }
+        String type = mediaType.getName();
+        return type.startsWith("text/") || type.contains("json") || type.contains("xml")
+                || type.contains("yaml") || type.contains("csv") || type.contains("javascript")
+                || type.equals(MediaType.APPLICATION_WWW_FORM.getName());
+    }
+
+}
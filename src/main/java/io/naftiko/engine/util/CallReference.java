@@ -0,0 +1,76 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@code namespace.operation} reference to a consumed operation, as written in the {@code call}
+ * of an exposed operation or of an orchestration step.
+ *
+ * <p>References are tokenized once and cached by their text. Those declared in a capability spec
+ * are registered up front by {@link SpecPrecompiler}; others are cached on first use up to
+ * {@link #MAX_SIZE} entries, beyond which they are tokenized per call.</p>
+ *
+ * @param namespace the consumed adapter namespace
+ * @param operation the consumed operation name
+ */
+public record CallReference(String namespace, String operation) {
+
+    static final int MAX_SIZE = 4096;
+
+    /**
+     * Cached result for text that is not made of exactly two segments.
+     */
+    private static final CallReference INVALID = new CallReference(null, null);
+
+    private static final Map<String, CallReference> REFERENCES = new ConcurrentHashMap<>();
+
+    /**
+     * @param call the call text (may be null)
+     * @return the reference, or null unless the text has exactly two dot-separated segments
+     */
+    public static CallReference parse(String call) {
+        if (call == null) {
+            return null;
+        }
+        CallReference reference = REFERENCES.get(call);
+        if (reference == null) {
+            reference = tokenize(call);
+            if (REFERENCES.size() < MAX_SIZE) {
+                REFERENCES.putIfAbsent(call, reference);
+            }
+        }
+        return reference == INVALID ? null : reference;
+    }
+
+    /**
+     * Tokenize and cache a reference ahead of time.
+     *
+     * @param call the call text (ignored when null)
+     */
+    public static void register(String call) {
+        if (call != null) {
+            REFERENCES.computeIfAbsent(call, CallReference::tokenize);
+        }
+    }
+
+    private static CallReference tokenize(String call) {
+        // Same segments as String.split("\\."), which drops trailing empty segments
+        String[] tokens = call.split("\\.");
+        return tokens.length == 2 ? new CallReference(tokens[0], tokens[1]) : INVALID;
+    }
+
+}
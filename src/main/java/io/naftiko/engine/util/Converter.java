@@ -16,37 +16,28 @@ package io.naftiko.engine.util;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
-import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
-import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
-import com.fasterxml.jackson.dataformat.avro.AvroMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
-import com.fasterxml.jackson.databind.MappingIterator;
 import org.apache.avro.Schema;
-import org.apache.avro.io.DatumReader;
+import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
 import org.restlet.representation.Representation;
-import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
-import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
 import org.commonmark.Extension;
@@ -80,6 +71,12 @@ public class Converter {
     /** Convert various formats to JSON */
     public static JsonNode convertToJson(String format, String schema, Representation entity)
             throws IOException {
+        return convertToJson(format, schema, entity, DelimitedOptions.DEFAULT);
+    }
+
+    /** Convert various formats to JSON, reading delimited formats with the given options */
+    public static JsonNode convertToJson(String format, String schema, Representation entity,
+            DelimitedOptions options) throws IOException {
         ConversionFormat fmt = ConversionFormat.fromLabel(format);
 
         if (fmt == null && format != null) {
@@ -108,12 +105,12 @@ public class Converter {
                 yield Converter.convertAvroToJson(entity.getStream(), schema);
             }
             case YAML -> Converter.convertYamlToJson(entity.getReader());
-            case CSV -> Converter.convertDelimitedToJson(entity.getReader(), ',');
-            case TSV -> Converter.convertDelimitedToJson(entity.getReader(), '\t');
-            case PSV -> Converter.convertDelimitedToJson(entity.getReader(), '|');
+            case CSV -> Converter.convertDelimitedToJson(entity.getReader(), ',', options);
+            case TSV -> Converter.convertDelimitedToJson(entity.getReader(), '\t', options);
+            case PSV -> Converter.convertDelimitedToJson(entity.getReader(), '|', options);
             case HTML -> Converter.convertHtmlToJson(entity.getReader(), schema);
             case MARKDOWN -> Converter.convertMarkdownToJson(entity.getReader(), schema);
-            case JSON -> new ObjectMapper().readTree(entity.getReader());
+            case JSON -> FormatMappers.json().readTree(entity.getReader());
         };
     }
 
@@ -132,6 +129,22 @@ public class Converter {
      */
     public static JsonNode convertToJson(String format, String schema, String text)
             throws IOException {
+        return convertToJson(format, schema, text, DelimitedOptions.DEFAULT);
+    }
+
+    /**
+     * Convert a text-based response to a JSON tree, reading delimited formats with the given
+     * options.
+     *
+     * @param format the declared {@code outputRawFormat} (may be {@code null} for JSON)
+     * @param schema the declared {@code outputSchema} (used by HTML/Markdown selectors)
+     * @param text   the raw response body as a string
+     * @param options the row limit and column typing for CSV, TSV and PSV
+     * @return the parsed JSON tree
+     * @throws IOException if parsing or conversion fails
+     */
+    public static JsonNode convertToJson(String format, String schema, String text,
+            DelimitedOptions options) throws IOException {
         ConversionFormat fmt = ConversionFormat.fromLabel(format);
 
         if (fmt == null && format != null) {
@@ -146,15 +159,15 @@ public class Converter {
         return switch (fmt) {
             case XML -> Converter.convertXmlToJson(new StringReader(text));
             case YAML -> Converter.convertYamlToJson(new StringReader(text));
-            case CSV -> Converter.convertDelimitedToJson(new StringReader(text), ',');
-            case TSV -> Converter.convertDelimitedToJson(new StringReader(text), '\t');
-            case PSV -> Converter.convertDelimitedToJson(new StringReader(text), '|');
+            case CSV -> Converter.convertDelimitedToJson(new StringReader(text), ',', options);
+            case TSV -> Converter.convertDelimitedToJson(new StringReader(text), '\t', options);
+            case PSV -> Converter.convertDelimitedToJson(new StringReader(text), '|', options);
             case HTML -> Converter.convertHtmlToJson(new StringReader(text), schema);
             case MARKDOWN -> Converter.convertMarkdownToJson(new StringReader(text), schema);
             case PROTOBUF, AVRO -> throw new IOException(fmt.label
                     + " format cannot be converted from a text string; "
                     + "use the Representation-based overload instead");
-            case JSON -> new ObjectMapper().readTree(text);
+            case JSON -> FormatMappers.json().readTree(text);
         };
     }
 
@@ -166,8 +179,7 @@ public class Converter {
      * @throws IOException if XML parsing fails
      */
     public static JsonNode convertXmlToJson(Reader xmlReader) throws IOException {
-        XmlMapper xmlMapper = new XmlMapper();
-        return xmlMapper.readTree(xmlReader);
+        return FormatMappers.mapper(ConversionFormat.XML).readTree(xmlReader);
     }
 
     /**
@@ -179,8 +191,7 @@ public class Converter {
      * @throws IOException if YAML parsing fails
      */
     public static JsonNode convertYamlToJson(Reader yamlReader) throws IOException {
-        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-        return yamlMapper.readTree(yamlReader);
+        return FormatMappers.mapper(ConversionFormat.YAML).readTree(yamlReader);
     }
 
     /**
@@ -196,21 +207,24 @@ public class Converter {
      */
     public static JsonNode convertDelimitedToJson(Reader reader, char separator)
             throws IOException {
-        CsvMapper csvMapper = new CsvMapper();
-        CsvSchema schema = CsvSchema.emptySchema().withHeader().withColumnSeparator(separator);
-
-        MappingIterator<JsonNode> it =
-                csvMapper.readerFor(JsonNode.class).with(schema).readValues(reader);
-
-        ObjectMapper mapper = new ObjectMapper();
-        ArrayNode arr = mapper.createArrayNode();
+        return convertDelimitedToJson(reader, separator, DelimitedOptions.DEFAULT);
+    }
 
-        while (it.hasNext()) {
-            JsonNode row = it.next();
-            arr.add(row);
+    /**
+     * Convert delimited text input to a JsonNode (array of objects), reading at most the
+     * configured number of rows and optionally typing numeric and boolean cells.
+     *
+     * @param reader Reader containing delimited data
+     * @param separator the column separator character
+     * @param options the row limit and column typing
+     * @return JsonNode (ArrayNode) representing parsed rows
+     * @throws IOException if parsing fails
+     */
+    public static JsonNode convertDelimitedToJson(Reader reader, char separator,
+            DelimitedOptions options) throws IOException {
+        try (RecordReader rows = DelimitedStreamer.rows(reader, separator, options)) {
+            return RecordStreamer.readAll(rows);
         }
-
-        return arr;
     }
 
     /**
@@ -235,7 +249,7 @@ public class Converter {
      */
     public static JsonNode convertHtmlToJson(Reader htmlReader, String cssSelector)
             throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper mapper = FormatMappers.json();
         ObjectNode result = mapper.createObjectNode();
         ArrayNode tables = mapper.createArrayNode();
 
@@ -280,7 +294,7 @@ public class Converter {
      */
     public static JsonNode convertMarkdownToJson(Reader markdownReader, String sectionFilter)
             throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper mapper = FormatMappers.json();
         ObjectNode result = mapper.createObjectNode();
 
         String markdown = readFully(markdownReader).replace("\r\n", "\n");
@@ -298,8 +312,8 @@ public class Converter {
 
     /**
      * Convert Protocol Buffer input stream to JsonNode using Jackson Protobuf support. Loads the
-     * proto schema file from local filesystem or classpath resources and uses it to deserialize the
-     * binary data.
+     * proto schema file from local filesystem or classpath resources, caching the parsed schema until
+     * the file changes, and uses it to deserialize the binary data.
      * 
      * Schema resolution order: 1. Local filesystem: {schemaFilename} (path relative to current
      * working directory) 2. Classpath resource: {schemaFilename} (resource path)
@@ -316,19 +330,8 @@ public class Converter {
     public static JsonNode convertProtobufToJson(InputStream protoBufInputStream,
             String schemaFilename) throws IOException {
         try {
-            InputStream schemaInputStream = loadSchemaFile(schemaFilename);
-
-            if (schemaInputStream == null) {
-                throw new IOException("Proto schema file not found: " + schemaFilename
-                        + " (searched in current directory and classpath)");
-            }
-
-            // Parse the schema
-            ProtobufSchema schema = ProtobufSchemaLoader.std.load(schemaInputStream);
-
-            // Create a ProtobufMapper with the schema and deserialize the binary data to JsonNode
-            ProtobufMapper mapper = new ProtobufMapper();
-            return mapper.readerFor(JsonNode.class).with(schema).readValue(protoBufInputStream);
+            // Deserialize with the reader bound to the cached schema
+            return SchemaCache.protobuf(schemaFilename).reader().readValue(protoBufInputStream);
         } catch (IOException e) {
             throw new IOException("Failed to deserialize Protocol Buffer: " + e.getMessage(), e);
         }
@@ -336,7 +339,8 @@ public class Converter {
 
     /**
      * Convert Avro binary data to JsonNode using Jackson Avro support. Loads the Avro schema file
-     * from local filesystem or classpath resources and uses it to deserialize the binary data.
+     * from local filesystem or classpath resources, caching the parsed schema until the file
+     * changes, and uses it to deserialize the binary data.
      * 
      * Schema resolution order: 1. Local filesystem: {schemaFilename} (path relative to current
      * working directory) 2. Classpath resource: {schemaFilename} (resource path)
@@ -352,29 +356,93 @@ public class Converter {
     public static JsonNode convertAvroToJson(InputStream avroInputStream, String schemaFilename)
             throws IOException {
         try {
-            InputStream schemaInputStream = loadSchemaFile(schemaFilename);
-
-            if (schemaInputStream == null) {
-                throw new IOException("Avro schema file not found: " + schemaFilename
-                        + " (searched in current directory and classpath)");
-            }
-
-            // Parse the Avro schema
-            Schema schema = new Schema.Parser().parse(schemaInputStream);
+            SchemaCache.AvroEntry schema = SchemaCache.avro(schemaFilename);
 
             // Decode the Avro binary data
             Decoder decoder = DecoderFactory.get().binaryDecoder(avroInputStream, null);
-            DatumReader<GenericRecord> datumReader = new GenericDatumReader<>(schema);
-            GenericRecord record = datumReader.read(null, decoder);
+            GenericRecord record = schema.reader().read(null, decoder);
 
-            // Convert GenericRecord to JsonNode using AvroMapper
-            AvroMapper mapper = new AvroMapper();
-            return mapper.valueToTree(record);
+            return convertAvroDatumToJson(record);
         } catch (IOException e) {
             throw new IOException("Failed to deserialize Avro data: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Convert a decoded Avro datum (record, array, map, string, bytes, enum, fixed or primitive) to
+     * a JsonNode, using each record's schema for field names and order.
+     *
+     * @param datum the datum produced by a generic datum reader (may be null)
+     * @return the JsonNode for the datum
+     */
+    public static JsonNode convertAvroDatumToJson(Object datum) {
+        JsonNodeFactory factory = FormatMappers.json().getNodeFactory();
+        if (datum == null) {
+            return factory.nullNode();
+        } else if (datum instanceof GenericRecord record) {
+            ObjectNode node = factory.objectNode();
+            for (Schema.Field field : record.getSchema().getFields()) {
+                node.set(field.name(), convertAvroDatumToJson(record.get(field.pos())));
+            }
+            return node;
+        } else if (datum instanceof Map<?, ?> map) {
+            ObjectNode node = factory.objectNode();
+            map.forEach((key, value) -> node.set(String.valueOf(key),
+                    convertAvroDatumToJson(value)));
+            return node;
+        } else if (datum instanceof Collection<?> items) {
+            ArrayNode node = factory.arrayNode(items.size());
+            for (Object item : items) {
+                node.add(convertAvroDatumToJson(item));
+            }
+            return node;
+        } else if (datum instanceof ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return factory.binaryNode(bytes);
+        } else if (datum instanceof GenericFixed fixed) {
+            return factory.binaryNode(fixed.bytes());
+        } else if (datum instanceof Boolean value) {
+            return factory.booleanNode(value);
+        } else if (datum instanceof Integer value) {
+            return factory.numberNode(value);
+        } else if (datum instanceof Long value) {
+            return factory.numberNode(value);
+        } else if (datum instanceof Float value) {
+            return factory.numberNode(value);
+        } else if (datum instanceof Double value) {
+            return factory.numberNode(value);
+        } else if (datum instanceof BigDecimal value) {
+            return factory.numberNode(value);
+        }
+        // Utf8, String, enum symbols and any other value keep their text form
+        return factory.textNode(datum.toString());
+    }
+
+    /**
+     * Convert a consumed operation's response to JSON, honouring its declared
+     * {@code outputRawFormat}, {@code outputSchema}, delimited options and
+     * {@code outputFraming}. Multi-record responses become an array of records.
+     *
+     * @param operation the consumed operation (may be null for JSON)
+     * @param entity the response entity
+     * @return the parsed JSON tree
+     * @throws IOException if parsing or conversion fails
+     */
+    public static JsonNode convertToJson(HttpClientOperationSpec operation, Representation entity)
+            throws IOException {
+        if (operation == null) {
+            return convertToJson(null, null, entity);
+        }
+        try (RecordReader records = RecordStreamer.open(operation, entity)) {
+            if (records != null) {
+                return RecordStreamer.readAll(records);
+            }
+        }
+        return convertToJson(operation.getOutputRawFormat(), operation.getOutputSchema(), entity,
+                DelimitedOptions.of(operation));
+    }
+
     /**
      * Load a schema file from local filesystem or classpath resources. Attempts to load from local
      * filesystem first, then falls back to classpath resources.
@@ -415,7 +483,7 @@ public class Converter {
                 int max = Integer.parseInt(maxLength);
                 String s = node.asText();
                 if (s.length() > max) {
-                    return new ObjectMapper().getNodeFactory().textNode(s.substring(0, max));
+                    return TextNode.valueOf(s.substring(0, max));
                 }
             } catch (NumberFormatException nfe) {
                 // ignore invalid maxLength
@@ -427,54 +495,15 @@ public class Converter {
 
     /**
      * Simple JSON path extractor supporting paths like $.a.b[0].c — where $ refers to the provided
-     * root node (not the entire document unless that is the root).
+     * root node (not the entire document unless that is the root). Compiled expressions are shared
+     * through {@link JsonPathRegistry}.
      * 
      * @param root The root JsonNode to extract from
      * @param mapping The JSONPath expression
      * @return The extracted JsonNode, or NullNode if path not found
      */
     public static JsonNode jsonPathExtract(JsonNode root, String mapping) {
-        if (mapping == null || mapping.isEmpty()) {
-            return NullNode.instance;
-        }
-
-        String m = mapping.trim();
-
-        if (m.equals("$") || m.equals("$.")) {
-            return root == null ? NullNode.instance : root;
-        }
-
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            Configuration config =
-                    Configuration.builder().jsonProvider(new JacksonJsonNodeJsonProvider(mapper))
-                            .mappingProvider(new JacksonMappingProvider(mapper)).build();
-            return JsonPath.using(config).parse(root).read(m, JsonNode.class);
-        } catch (PathNotFoundException pnfe) {
-            return NullNode.instance;
-        } catch (Exception e) {
-            // If the path contains properties with spaces, try to fix it by converting to bracket
-            // notation
-            if (e.getMessage() != null && e.getMessage().contains("bracket notion")) {
-                String fixedMapping = fixJsonPathWithSpaces(m);
-
-                if (!fixedMapping.equals(m)) {
-                    try {
-                        ObjectMapper mapper = new ObjectMapper();
-                        Configuration config = Configuration.builder()
-                                .jsonProvider(new JacksonJsonNodeJsonProvider(mapper))
-                                .mappingProvider(new JacksonMappingProvider(mapper)).build();
-                        return JsonPath.using(config).parse(root).read(fixedMapping,
-                                JsonNode.class);
-                    } catch (Exception e2) {
-                        logger.debug("JSONPath bracket-notation retry also failed for path '{}': {}", fixedMapping, e2.getMessage(), e2);
-                        return NullNode.instance;
-                    }
-                }
-            }
-            // For any other exception, return null
-            return NullNode.instance;
-        }
+        return JsonPathRegistry.read(root, mapping);
     }
 
     /**
@@ -740,7 +769,8 @@ public class Converter {
                 body = markdown.substring(endIndex + 5);
 
                 if (!yamlBlock.isBlank()) {
-                    JsonNode parsed = new ObjectMapper(new YAMLFactory()).readTree(yamlBlock);
+                    JsonNode parsed =
+                            FormatMappers.mapper(ConversionFormat.YAML).readTree(yamlBlock);
                     if (parsed != null && parsed.isObject()) {
                         frontMatter = (ObjectNode) parsed;
                     }
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.ImplicitContextKeyed;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Point in time by which the work done for a request must complete.
+ *
+ * <p>An exposed operation or aggregate function with a {@code timeout} starts a deadline, and a
+ * step with a {@code timeout} narrows it for its own duration; a nested deadline never extends the
+ * one around it. The deadline travels in the OpenTelemetry {@link Context}, so it follows the work
+ * onto the virtual threads that run steps, for-each calls and outbound calls, which already carry
+ * the trace context. Outbound calls and script watchdogs take the remaining time as their
+ * timeout.</p>
+ */
+public final class Deadline implements ImplicitContextKeyed {
+
+    private static final ContextKey<Deadline> KEY = ContextKey.named("naftiko-deadline");
+
+    /**
+     * Marks a context in which no deadline applies, for background work started by a request.
+     */
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private static final ExecutorService CALL_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("naftiko-call-", 0).factory());
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @return the deadline of the current context, or null when none applies
+     */
+    public static Deadline current() {
+        Deadline deadline = Context.current().get(KEY);
+        return deadline != NONE ? deadline : null;
+    }
+
+    /**
+     * The deadline of work that must complete within a timeout, and within the current deadline.
+     *
+     * @param timeoutMs the timeout in milliseconds, or null for none
+     * @return the earlier of the current deadline and the timeout from now, or null when neither
+     *         applies
+     */
+    public static Deadline within(Integer timeoutMs) {
+        Deadline current = current();
+        if (timeoutMs == null || timeoutMs <= 0) {
+            return current;
+        }
+        long expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        if (current != null && current.expiresAtNanos - expiresAtNanos <= 0) {
+            return current;
+        }
+        return new Deadline(expiresAtNanos);
+    }
+
+    /**
+     * Make the deadline of work with a timeout current, as {@link #within(Integer)}.
+     *
+     * @param timeoutMs the timeout in milliseconds, or null for none
+     * @return the scope to close once the work completes
+     */
+    public static Scope start(Integer timeoutMs) {
+        Deadline deadline = within(timeoutMs);
+        return deadline != null && deadline != current() ? deadline.makeCurrent() : Scope.noop();
+    }
+
+    /**
+     * @param context a context
+     * @return the context without its deadline, for work that outlives the request
+     */
+    public static Context detach(Context context) {
+        return context.with(NONE);
+    }
+
+    /**
+     * @return the time left in milliseconds, rounded up, or 0 once the deadline has passed
+     */
+    public long remainingMillis() {
+        long remaining = remainingNanos();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining + 999_999) : 0;
+    }
+
+    /**
+     * @return the time left in nanoseconds, negative once the deadline has passed
+     */
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /**
+     * @return true once the deadline has passed
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Fail when the deadline has passed, before starting more work.
+     *
+     * @param work what was about to start, for the error message
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(String work) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(work + " was not started: deadline exceeded");
+        }
+    }
+
+    /**
+     * Run blocking work on a virtual thread and wait for it until the deadline, interrupting it
+     * when the deadline passes first.
+     *
+     * <p>Interrupted work may go on until it notices, after this method has thrown, so it must not
+     * write into state that the caller reads once the deadline has passed.</p>
+     *
+     * @param work what runs, for the error message
+     * @param task the blocking work
+     * @throws DeadlineExceededException if the deadline passes before the work completes
+     */
+    public void run(String work, Runnable task) {
+        check(work);
+        Future<?> future = CALL_THREADS.submit(Context.current().wrap(task));
+        try {
+            future.get(remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new DeadlineExceededException(work + " was cancelled: deadline exceeded", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + work, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(work + " failed", e.getCause());
+        }
+    }
+
+    @Override
+    public Context storeInContext(Context context) {
+        return context.with(KEY, this);
+    }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+
+/**
+ * Reading options for delimited (CSV, TSV, PSV) responses, as declared on the consumed operation.
+ *
+ * @param rowLimit maximum number of rows read, or -1 for no limit
+ * @param typedColumns whether numeric and boolean cells become JSON numbers and booleans
+ */
+public record DelimitedOptions(int rowLimit, boolean typedColumns) {
+
+    /**
+     * Read every row and keep cells as strings.
+     */
+    public static final DelimitedOptions DEFAULT = new DelimitedOptions(-1, false);
+
+    /**
+     * @param operation the consumed operation (may be null)
+     * @return the options declared on the operation, {@link #DEFAULT} when none are
+     */
+    public static DelimitedOptions of(HttpClientOperationSpec operation) {
+        if (operation == null || (operation.getOutputRowLimit() == null
+                && operation.getOutputTypedColumns() == null)) {
+            return DEFAULT;
+        }
+        Integer limit = operation.getOutputRowLimit();
+        return new DelimitedOptions(limit != null && limit >= 0 ? limit : -1,
+                Boolean.TRUE.equals(operation.getOutputTypedColumns()));
+    }
+
+    /**
+     * @param rowsRead the number of rows read so far
+     * @return true when no further row should be read
+     */
+    public boolean isLimitReached(int rowsRead) {
+        return rowLimit >= 0 && rowsRead >= rowLimit;
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.regex.Pattern;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Row-by-row conversion of delimited (CSV, TSV, PSV) responses.
+ *
+ * <p>When the output mapping is an array over the whole response ({@code mapping: "$"}), each row
+ * is read, mapped through the array {@code items} and written to the output before the next row
+ * is read, so memory use is bounded by a single row instead of the whole export. Other mappings
+ * go through {@link Converter#convertDelimitedToJson(Reader, char, DelimitedOptions)}, which
+ * honours the same {@link DelimitedOptions}.</p>
+ */
+public final class DelimitedStreamer {
+
+    /**
+     * Integers without leading zeros, so identifiers such as {@code 00042} stay strings.
+     */
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]*)");
+
+    private static final Pattern DECIMAL =
+            Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private DelimitedStreamer() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * @param format the declared {@code outputRawFormat} (may be null)
+     * @return the column separator for a delimited format, or null for any other format
+     */
+    public static Character separator(String format) {
+        ConversionFormat fmt = ConversionFormat.fromLabel(format);
+        if (fmt == null) {
+            return null;
+        }
+        return switch (fmt) {
+            case CSV -> ',';
+            case TSV -> '\t';
+            case PSV -> '|';
+            default -> null;
+        };
+    }
+
+    /**
+     * Map delimited rows through an array plan and write them as a JSON array.
+     *
+     * @param reader the delimited source with a header row, closed once read
+     * @param separator the column separator
+     * @param plan a plan for which {@link OutputMappingPlan#isRowStreamable()} is true
+     * @param options the row limit and column typing
+     * @param writer the destination, flushed but not closed
+     * @throws IOException if the source cannot be parsed or the destination written
+     */
+    public static void write(Reader reader, char separator, OutputMappingPlan plan,
+            DelimitedOptions options, Writer writer) throws IOException {
+        try (RecordReader rows = rows(reader, separator, options)) {
+            RecordStreamer.write(rows, plan, writer);
+        }
+    }
+
+    /**
+     * Open a reader returning one object per row, up to the row limit.
+     *
+     * @param reader the delimited source with a header row
+     * @param separator the column separator
+     * @param options the row limit and column typing
+     * @return the row reader, closing the source when closed
+     * @throws IOException if the source cannot be read
+     */
+    static RecordReader rows(Reader reader, char separator, DelimitedOptions options)
+            throws IOException {
+        MappingIterator<JsonNode> rows =
+                FormatMappers.delimitedReader(separator).readValues(reader);
+        return RecordStreamer.limit(new RecordReader() {
+
+            @Override
+            public JsonNode next() throws IOException {
+                if (!rows.hasNextValue()) {
+                    return null;
+                }
+                JsonNode row = rows.nextValue();
+                return options.typedColumns() ? typeColumns(row) : row;
+            }
+
+            @Override
+            public void close() throws IOException {
+                rows.close();
+            }
+
+        }, options.rowLimit());
+    }
+
+    /**
+     * Replace numeric and boolean text cells of a row with typed values, in place.
+     *
+     * @param row a row read from a delimited source
+     * @return the same row
+     */
+    static JsonNode typeColumns(JsonNode row) {
+        if (row instanceof ObjectNode) {
+            for (Map.Entry<String, JsonNode> cell : row.properties()) {
+                JsonNode typed = cell.getValue().isTextual()
+                        ? typed(cell.getValue().textValue())
+                        : null;
+                if (typed != null) {
+                    cell.setValue(typed);
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * @return the number or boolean written in a cell, or null when the cell is plain text
+     */
+    static JsonNode typed(String text) {
+        if (INTEGER.matcher(text).matches()) {
+            try {
+                return LongNode.valueOf(Long.parseLong(text));
+            } catch (NumberFormatException e) {
+                return BigIntegerNode.valueOf(new BigInteger(text));
+            }
+        }
+        if (DECIMAL.matcher(text).matches()) {
+            return DoubleNode.valueOf(Double.parseDouble(text));
+        }
+        if ("true".equals(text) || "false".equals(text)) {
+            return BooleanNode.valueOf(Boolean.parseBoolean(text));
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Shared, pre-configured Jackson mappers for every {@link ConversionFormat}.
+ *
+ * <p>Building a Jackson mapper is expensive and each instance keeps its own serializer and
+ * deserializer caches, so conversions reuse one mapper per format instead of creating a new one per
+ * call. Mappers are never reconfigured after construction, which makes them safe to share across
+ * threads; delimited readers are immutable {@link ObjectReader} instances cached per separator.</p>
+ *
+ * <p>HTML and Markdown are parsed by dedicated libraries and only need the JSON mapper to build
+ * result nodes.</p>
+ */
+public final class FormatMappers {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ProtobufMapper PROTOBUF_MAPPER = new ProtobufMapper();
+    private static final AvroMapper AVRO_MAPPER = new AvroMapper();
+
+    private static final Map<ConversionFormat, ObjectMapper> MAPPERS =
+            new EnumMap<>(ConversionFormat.class);
+
+    private static final Map<Character, ObjectReader> DELIMITED_READERS =
+            new ConcurrentHashMap<>();
+
+    static {
+        MAPPERS.put(ConversionFormat.JSON, JSON_MAPPER);
+        MAPPERS.put(ConversionFormat.XML, XML_MAPPER);
+        MAPPERS.put(ConversionFormat.YAML, YAML_MAPPER);
+        MAPPERS.put(ConversionFormat.CSV, CSV_MAPPER);
+        MAPPERS.put(ConversionFormat.TSV, CSV_MAPPER);
+        MAPPERS.put(ConversionFormat.PSV, CSV_MAPPER);
+        MAPPERS.put(ConversionFormat.HTML, JSON_MAPPER);
+        MAPPERS.put(ConversionFormat.MARKDOWN, JSON_MAPPER);
+        MAPPERS.put(ConversionFormat.PROTOBUF, PROTOBUF_MAPPER);
+        MAPPERS.put(ConversionFormat.AVRO, AVRO_MAPPER);
+    }
+
+    private FormatMappers() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * @param format the conversion format, must not be null
+     * @return the shared mapper for this format
+     */
+    public static ObjectMapper mapper(ConversionFormat format) {
+        return MAPPERS.get(format);
+    }
+
+    /**
+     * @return the shared JSON mapper, also used to build result nodes
+     */
+    public static ObjectMapper json() {
+        return JSON_MAPPER;
+    }
+
+    /**
+     * Return the shared reader for delimited text with a header row, reading one
+     * {@link JsonNode} per row.
+     *
+     * @param separator the column separator character
+     * @return the shared reader for this separator
+     */
+    public static ObjectReader delimitedReader(char separator) {
+        return DELIMITED_READERS.computeIfAbsent(separator,
+                sep -> CSV_MAPPER.readerFor(JsonNode.class).with(
+                        CsvSchema.emptySchema().withHeader().withColumnSeparator(sep)));
+    }
+
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Header;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.representation.Representation;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+
+/**
+ * HTTP caching of consumed {@code GET} calls, honouring the cache headers of the upstream API.
+ *
+ * <p>Caching is opt-in: it applies to the calls of an adapter or operation declaring
+ * {@code cache: true}, the operation setting replacing the adapter one. Operations whose responses
+ * are streamed as records or delimited rows are never cached, and neither is a response whose
+ * {@code Content-Length} is unknown or above {@link #MAX_ENTRY_BYTES}, so that caching never
+ * buffers a large payload in memory.</p>
+ *
+ * <p>A {@code 200} response is stored when the upstream allows it. {@code Cache-Control:
+ * s-maxage} or {@code max-age}, less the {@code Age} of the response, or else {@code Expires},
+ * make it fresh for that long. An {@code ETag} or {@code Last-Modified} validator lets it be stored
+ * without a lifetime. {@code no-store} and {@code Vary: *} keep a response out of the cache, while
+ * {@code no-cache} stores it but revalidates it on every use.</p>
+ *
+ * <p>A fresh response is served without calling the upstream API. A stale one is revalidated with
+ * {@code If-None-Match} and {@code If-Modified-Since}; on {@code 304 Not Modified} the stored
+ * entity is served again with a renewed lifetime, so an unchanged payload is not downloaded
+ * twice. Responses are keyed by the call identity of {@link RequestCoalescer}: method, resolved
+ * URI, headers, credentials and body. Calls the cache does not answer go through the
+ * coalescer.</p>
+ */
+final class HttpCache {
+
+    static final int MAX_ENTRIES = 4096;
+
+    static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    static final long MAX_ENTRY_BYTES = 1024L * 1024;
+
+    static final ResponseCache<BufferedResponse> CACHE =
+            new ResponseCache<>("http", MAX_ENTRIES, MAX_BYTES);
+
+    private HttpCache() {}
+
+    /**
+     * Whether and until when a response may be cached.
+     *
+     * @param store false when the response must not be stored
+     * @param expiresAt the time in milliseconds since the epoch until which it is fresh, or null
+     *        when the headers give no lifetime
+     */
+    record Freshness(boolean store, Long expiresAt) {
+    }
+
+    /**
+     * Handle a client call, from the cache when a fresh response is stored for it.
+     *
+     * @param context the client call
+     * @param safe true when the caller declares every call it makes safe to share
+     */
+    static void handle(HandlingContext context, boolean safe) {
+        Request request = context.clientRequest;
+        String key = request != null && Method.GET.equals(request.getMethod())
+                && isCached(context) ? RequestCoalescer.identity(request) : null;
+        if (key == null) {
+            RequestCoalescer.handle(context, safe);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        ResponseCache.Entry<BufferedResponse> cached = CACHE.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            CACHE.hit();
+            cached.value().applyTo(context.clientResponse);
+            return;
+        }
+        if (cached != null) {
+            addValidators(request, cached.value().headers());
+        }
+
+        RequestCoalescer.handle(context, safe);
+
+        Response response = context.clientResponse;
+        if (cached != null && Status.REDIRECTION_NOT_MODIFIED.equals(response.getStatus())) {
+            CACHE.hit();
+            Freshness renewed = freshness(new ArrayList<>(response.getHeaders()), now);
+            if (renewed.expiresAt() == null) {
+                renewed = freshness(cached.value().headers(), now);
+            }
+            context.clientResponse = new Response(request);
+            cached.value().applyTo(context.clientResponse);
+            CACHE.put(key, cached.value(), cached.weight(),
+                    renewed.expiresAt() != null ? renewed.expiresAt() : now);
+            return;
+        }
+
+        CACHE.miss();
+        store(key, response, now);
+    }
+
+    /**
+     * @return true when the adapter or operation of a call opts in to caching and its response is
+     *         not streamed
+     */
+    static boolean isCached(HandlingContext context) {
+        HttpClientOperationSpec operation = context.clientOperation;
+        Boolean cache = operation != null ? operation.getCache() : null;
+        if (cache == null && context.clientAdapter != null) {
+            cache = context.clientAdapter.getHttpClientSpec().getCache();
+        }
+        return Boolean.TRUE.equals(cache) && !RecordStreamer.isRecordStream(operation);
+    }
+
+    /**
+     * Store a response fetched from the upstream API when its headers allow it, and forget any
+     * earlier response otherwise.
+     */
+    private static void store(String key, Response response, long now) {
+        if (!Status.SUCCESS_OK.equals(response.getStatus())) {
+            return;
+        }
+        long size = response.getEntity() != null ? response.getEntity().getSize() : 0;
+        if (size == Representation.UNKNOWN_SIZE || size > MAX_ENTRY_BYTES) {
+            // Buffering would read a payload of unknown or large size into memory
+            CACHE.remove(key);
+            return;
+        }
+        List<Header> headers = new ArrayList<>(response.getHeaders());
+        Freshness freshness = freshness(headers, now);
+        boolean validated = header(headers, "ETag") != null
+                || header(headers, "Last-Modified") != null;
+        if (!freshness.store() || (freshness.expiresAt() == null && !validated)) {
+            CACHE.remove(key);
+            return;
+        }
+        try {
+            BufferedResponse buffered = BufferedResponse.of(response);
+            CACHE.put(key, buffered, buffered.size(),
+                    freshness.expiresAt() != null ? freshness.expiresAt() : now);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot buffer the upstream response", e);
+        }
+    }
+
+    /**
+     * Read the cache headers of a response.
+     *
+     * @param headers the response headers
+     * @param now the current time in milliseconds since the epoch
+     * @return whether the response may be stored, and until when it is fresh
+     */
+    static Freshness freshness(List<Header> headers, long now) {
+        String vary = header(headers, "Vary");
+        if (vary != null && vary.trim().equals("*")) {
+            return new Freshness(false, null);
+        }
+
+        boolean noStore = false;
+        boolean noCache = false;
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        String cacheControl = header(headers, "Cache-Control");
+        if (cacheControl != null) {
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                String[] parts = directive.trim().split("=", 2);
+                String value = parts.length > 1 ? parts[1].trim().replace("\"", "") : null;
+                switch (parts[0]) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> noCache = true;
+                    case "max-age" -> maxAge = seconds(value);
+                    case "s-maxage" -> sharedMaxAge = seconds(value);
+                    default -> {
+                        // Other directives do not affect a cache keyed by credentials
+                    }
+                }
+            }
+        }
+
+        if (noStore) {
+            return new Freshness(false, null);
+        }
+        if (noCache) {
+            return new Freshness(true, now);
+        }
+
+        Long lifetime = sharedMaxAge != null ? sharedMaxAge : maxAge;
+        if (lifetime != null) {
+            Long age = seconds(header(headers, "Age"));
+            long remaining = Math.max(0, lifetime - (age != null ? age : 0));
+            return new Freshness(true, now + remaining * 1000);
+        }
+
+        String expires = header(headers, "Expires");
+        if (expires != null) {
+            Long expiresAt = date(expires);
+            Long date = date(header(headers, "Date"));
+            if (expiresAt == null) {
+                // Invalid dates, such as 0, mean already expired
+                return new Freshness(true, now);
+            }
+            return new Freshness(true, now + Math.max(0,
+                    expiresAt - (date != null ? date : now)));
+        }
+        return new Freshness(true, null);
+    }
+
+    private static void addValidators(Request request, List<Header> headers) {
+        String etag = header(headers, "ETag");
+        if (etag != null) {
+            Tag tag = Tag.parse(etag);
+            if (tag != null) {
+                List<Tag> noneMatch = new ArrayList<>();
+                noneMatch.add(tag);
+                request.getConditions().setNoneMatch(noneMatch);
+            }
+        }
+        Long lastModified = date(header(headers, "Last-Modified"));
+        if (lastModified != null) {
+            request.getConditions().setModifiedSince(new Date(lastModified));
+        }
+    }
+
+    private static String header(List<Header> headers, String name) {
+        for (Header header : headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Long seconds(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only {@link Map} and {@link java.util.List} views over a JSON node, so that step outputs
+ * can be used as template parameters without converting them to Java objects first.
+ *
+ * <p>Objects are seen as maps and arrays as lists, as {@code ObjectMapper.convertValue} would
+ * produce them, but children are only converted when they are read: a template reading one field
+ * of a large payload converts that field alone. Views serialize back to their node.</p>
+ */
+public final class JsonNodeView {
+
+    private JsonNodeView() {}
+
+    /**
+     * @param node a JSON node, may be null
+     * @return a map view of an object, a list view of an array, or the Java value of a scalar
+     */
+    public static Object of(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        if (node.isObject()) {
+            return new ObjectView(node);
+        }
+        if (node.isArray()) {
+            return new ArrayView(node);
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isPojo()) {
+            return ((com.fasterxml.jackson.databind.node.POJONode) node).getPojo();
+        }
+        return node.asText();
+    }
+
+    /**
+     * @param value a value, possibly a view
+     * @return the node behind a view, or null when the value is not one
+     */
+    public static JsonNode nodeOf(Object value) {
+        if (value instanceof ObjectView view) {
+            return view.node;
+        }
+        if (value instanceof ArrayView view) {
+            return view.node;
+        }
+        return null;
+    }
+
+    private static final class ObjectView extends AbstractMap<String, Object> {
+
+        private final JsonNode node;
+
+        ObjectView(JsonNode node) {
+            this.node = node;
+        }
+
+        @JsonValue
+        JsonNode node() {
+            return node;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String name ? of(node.get(name)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && node.has(name);
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return node.isEmpty();
+        }
+
+        @Override
+        public java.util.Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                    return new Iterator<>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return fields.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            Map.Entry<String, JsonNode> field = fields.next();
+                            return new SimpleImmutableEntry<>(field.getKey(),
+                                    of(field.getValue()));
+                        }
+
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return node.size();
+                }
+
+            };
+        }
+
+    }
+
+    private static final class ArrayView extends AbstractList<Object> implements RandomAccess {
+
+        private final JsonNode node;
+
+        ArrayView(JsonNode node) {
+            this.node = node;
+        }
+
+        @JsonValue
+        JsonNode node() {
+            return node;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= node.size()) {
+                throw new IndexOutOfBoundsException(
+                        "Index " + index + " out of bounds for length " + node.size());
+            }
+            return of(node.get(index));
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+
+    }
+
+}
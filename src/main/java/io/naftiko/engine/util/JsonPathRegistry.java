@@ -0,0 +1,194 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+/**
+ * Thread-safe registry of compiled JsonPath expressions keyed by their mapping text.
+ *
+ * <p>Every expression is compiled once against a single shared Jayway {@link Configuration}.
+ * Mappings whose property names contain spaces are rewritten to bracket notation with
+ * {@link Converter#fixJsonPathWithSpaces(String)} at compile time, and expressions that cannot be
+ * compiled at all are remembered as such, so the request path never re-parses a mapping.</p>
+ *
+ * <p>Mappings declared in a capability spec are registered up front by {@link SpecPrecompiler}.
+ * Expressions first seen at runtime are compiled on demand and cached up to {@link #MAX_SIZE}
+ * entries; beyond that they are compiled per call rather than growing the registry.</p>
+ */
+public class JsonPathRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonPathRegistry.class);
+
+    static final int MAX_SIZE = 4096;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Configuration CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(MAPPER))
+            .mappingProvider(new JacksonMappingProvider(MAPPER))
+            .build();
+
+    private static final ParseContext PARSE_CONTEXT = JsonPath.using(CONFIGURATION);
+
+    private static final Map<String, CompiledPath> PATHS = new ConcurrentHashMap<>();
+
+    private JsonPathRegistry() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * Compile and register a mapping ahead of time.
+     *
+     * @param mapping the JsonPath expression (ignored when null, empty or a root selector)
+     */
+    public static void register(String mapping) {
+        if (mapping == null || isRootSelector(mapping.trim())) {
+            return;
+        }
+        String m = mapping.trim();
+        PATHS.computeIfAbsent(m, JsonPathRegistry::compile);
+    }
+
+    /**
+     * Evaluate a mapping against a root node.
+     *
+     * @param root the node {@code $} refers to
+     * @param mapping the JsonPath expression
+     * @return the extracted node, or {@link NullNode} when the path is missing or invalid
+     */
+    public static JsonNode read(JsonNode root, String mapping) {
+        if (mapping == null || mapping.isEmpty()) {
+            return NullNode.instance;
+        }
+
+        String m = mapping.trim();
+
+        if (isRootSelector(m)) {
+            return root == null ? NullNode.instance : root;
+        }
+
+        return read(root, lookup(m));
+    }
+
+    /**
+     * Evaluate an already compiled expression against a root node.
+     *
+     * @param root the node {@code $} refers to
+     * @param compiled the compiled expression, as returned by {@link #lookup(String)}
+     * @return the extracted node, or {@link NullNode} when the path is missing or invalid
+     */
+    static JsonNode read(JsonNode root, CompiledPath compiled) {
+        if (root == null || compiled.path() == null) {
+            return NullNode.instance;
+        }
+
+        try {
+            JsonNode result = PARSE_CONTEXT.parse(root).read(compiled.path(), JsonNode.class);
+            return result == null ? NullNode.instance : result;
+        } catch (PathNotFoundException pnfe) {
+            return NullNode.instance;
+        } catch (RuntimeException e) {
+            logger.debug("JSONPath evaluation failed for path '{}': {}", compiled.expression(),
+                    e.getMessage(), e);
+            return NullNode.instance;
+        }
+    }
+
+    /**
+     * @param mapping the JsonPath expression
+     * @return true when the mapping has been compiled and registered
+     */
+    public static boolean isRegistered(String mapping) {
+        return mapping != null && PATHS.containsKey(mapping.trim());
+    }
+
+    /**
+     * @return the number of registered expressions
+     */
+    public static int size() {
+        return PATHS.size();
+    }
+
+    /**
+     * @return the shared Jayway configuration used for every evaluation
+     */
+    public static Configuration getConfiguration() {
+        return CONFIGURATION;
+    }
+
+    static CompiledPath lookup(String m) {
+        CompiledPath compiled = PATHS.get(m);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        compiled = compile(m);
+        if (PATHS.size() < MAX_SIZE) {
+            CompiledPath existing = PATHS.putIfAbsent(m, compiled);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return compiled;
+    }
+
+    static CompiledPath compile(String m) {
+        try {
+            return new CompiledPath(m, JsonPath.compile(m));
+        } catch (InvalidPathException e) {
+            // If the path contains properties with spaces, fix it once by converting to bracket
+            // notation instead of retrying on every evaluation
+            if (e.getMessage() != null && e.getMessage().contains("bracket notion")) {
+                String fixedMapping = Converter.fixJsonPathWithSpaces(m);
+
+                if (!fixedMapping.equals(m)) {
+                    try {
+                        return new CompiledPath(fixedMapping, JsonPath.compile(fixedMapping));
+                    } catch (InvalidPathException e2) {
+                        logger.debug("JSONPath bracket-notation rewrite also failed for path '{}': {}",
+                                fixedMapping, e2.getMessage(), e2);
+                        return new CompiledPath(fixedMapping, null);
+                    }
+                }
+            }
+            logger.debug("Invalid JSONPath '{}': {}", m, e.getMessage(), e);
+            return new CompiledPath(m, null);
+        }
+    }
+
+    private static boolean isRootSelector(String m) {
+        return m.isEmpty() || m.equals("$") || m.equals("$.");
+    }
+
+    /**
+     * A compiled expression, or a {@code null} path when the expression is invalid.
+     */
+    record CompiledPath(String expression, JsonPath path) {
+    }
+
+}
@@ -13,6 +13,7 @@
  */
 package io.naftiko.engine.util;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,48 @@ public class LookupExecutor {
         return null;
     }
 
+    /**
+     * Execute a lookup against a hash index built by {@link #index}.
+     * 
+     * @param index The entries of the index step keyed by their match field value
+     * @param lookupValue The value to match
+     * @param outputFields Fields to extract from the matched entry
+     * @return The matched entry with only the specified fields, or null if no match found
+     */
+    public static JsonNode executeLookup(Map<String, JsonNode> index, String lookupValue,
+            List<String> outputFields) {
+        if (index == null || lookupValue == null) {
+            return null;
+        }
+        return extractFields(index.get(lookupValue), outputFields);
+    }
+
+    /**
+     * Build a hash index over an array of entries, so that each lookup value costs a single
+     * probe instead of a scan. When several entries share a value the first one is kept, as the
+     * scan in {@link #executeLookup(JsonNode, String, String, List)} would find it first.
+     * 
+     * @param arrayNode The output data of the index step
+     * @param matchField The field name to index
+     * @return The entries keyed by the text of their match field, or null if not an array
+     */
+    public static Map<String, JsonNode> index(JsonNode arrayNode, String matchField) {
+        if (arrayNode == null || !arrayNode.isArray() || matchField == null) {
+            return null;
+        }
+
+        Map<String, JsonNode> index = new HashMap<>(Math.max(16, arrayNode.size() * 4 / 3 + 1));
+        for (JsonNode entry : arrayNode) {
+            if (entry.isObject()) {
+                JsonNode matchNodeValue = entry.get(matchField);
+                if (matchNodeValue != null) {
+                    index.putIfAbsent(matchNodeValue.asText(), entry);
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * Perform lookup in an array of objects/entries.
      */
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+/**
+ * Bounded, thread-safe cache of compiled Mustache templates keyed by template text.
+ *
+ * <p>Templates declared in a capability spec are {@linkplain #precompile(String) precompiled} at
+ * load time and pinned until every capability that declared them has
+ * {@linkplain #release(String) released} them on stop. Pins are bounded too: past the limit a
+ * declared template is cached like any other. Templates first seen on the request path are
+ * compiled on demand and kept in a bounded secondary map; once that map is full an arbitrary entry
+ * is evicted to make room, so ad-hoc template text can never grow the cache without limit.</p>
+ *
+ * <p>Compiled JMustache {@link Template} instances are immutable and safe to execute concurrently.
+ * </p>
+ */
+public class MustacheTemplateCache {
+
+    static final int DEFAULT_MAX_SIZE = 2048;
+
+    static final int DEFAULT_MAX_PINNED = 8192;
+
+    /**
+     * Shared compiler. {@code escapeHTML(false)}: templates here produce JSON bodies or URI
+     * strings, never HTML. {@code defaultValue("")}: missing and null variables render as empty.
+     */
+    private static final Mustache.Compiler COMPILER =
+            Mustache.compiler().escapeHTML(false).defaultValue("");
+
+    /**
+     * A pinned template and the number of capabilities that declared it.
+     */
+    private record Pinned(Template template, int owners) {
+    }
+
+    private final int maxSize;
+    private final int maxPinned;
+    private final Map<String, Pinned> pinned;
+    private final Map<String, Template> dynamic;
+
+    public MustacheTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public MustacheTemplateCache(int maxSize) {
+        this(maxSize, DEFAULT_MAX_PINNED);
+    }
+
+    public MustacheTemplateCache(int maxSize, int maxPinned) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(
+                    "MustacheTemplateCache size must be at least 1, got: " + maxSize);
+        }
+        if (maxPinned < 0) {
+            throw new IllegalArgumentException(
+                    "MustacheTemplateCache pinned size must not be negative, got: " + maxPinned);
+        }
+        this.maxSize = maxSize;
+        this.maxPinned = maxPinned;
+        this.pinned = new ConcurrentHashMap<>();
+        this.dynamic = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Compile a template once and pin it so that it is not evicted until released. Each successful
+     * call must be matched by one call to {@link #release(String)}.
+     *
+     * @param template the template text (ignored when null or free of Mustache tags)
+     * @return true when the template was pinned for the caller, false when it was ignored or only
+     *         cached because the pinned templates are at their limit
+     */
+    public synchronized boolean precompile(String template) {
+        if (!isTemplate(template)) {
+            return false;
+        }
+
+        Pinned existing = pinned.get(template);
+        if (existing != null) {
+            pinned.put(template, new Pinned(existing.template(), existing.owners() + 1));
+            return true;
+        }
+
+        if (pinned.size() >= maxPinned) {
+            get(template);
+            return false;
+        }
+
+        Template compiled = dynamic.remove(template);
+        pinned.put(template, new Pinned(compiled != null ? compiled : COMPILER.compile(template),
+                1));
+        return true;
+    }
+
+    /**
+     * Release one pin taken by {@link #precompile(String)}. The template is dropped once no
+     * capability holds it any more.
+     *
+     * @param template the template text
+     */
+    public synchronized void release(String template) {
+        Pinned existing = template != null ? pinned.get(template) : null;
+        if (existing == null) {
+            return;
+        }
+        if (existing.owners() > 1) {
+            pinned.put(template, new Pinned(existing.template(), existing.owners() - 1));
+        } else {
+            pinned.remove(template);
+        }
+    }
+
+    /**
+     * Return the compiled form of a template, compiling and caching it on first use.
+     *
+     * @param template the template text, must not be null
+     * @return the compiled template
+     */
+    public Template get(String template) {
+        Pinned pin = pinned.get(template);
+        if (pin != null) {
+            return pin.template();
+        }
+
+        Template compiled = dynamic.get(template);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        compiled = COMPILER.compile(template);
+        if (dynamic.size() >= maxSize) {
+            Iterator<String> keys = dynamic.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        Template existing = dynamic.putIfAbsent(template, compiled);
+        return existing != null ? existing : compiled;
+    }
+
+    /**
+     * @return the number of compiled templates currently held (pinned and dynamic)
+     */
+    public int size() {
+        return pinned.size() + dynamic.size();
+    }
+
+    /**
+     * @param template the template text
+     * @return true when the template has been compiled and is still cached
+     */
+    public boolean contains(String template) {
+        return template != null
+                && (pinned.containsKey(template) || dynamic.containsKey(template));
+    }
+
+    /**
+     * @param template the template text
+     * @return true when the template is pinned by at least one capability
+     */
+    boolean isPinned(String template) {
+        return template != null && pinned.containsKey(template);
+    }
+
+    /**
+     * Drop all cached templates, pinned ones included.
+     */
+    public synchronized void clear() {
+        pinned.clear();
+        dynamic.clear();
+    }
+
+    /**
+     * Text without an opening Mustache delimiter renders to itself and never needs compiling.
+     */
+    static boolean isTemplate(String text) {
+        return text != null && text.contains("{{");
+    }
+
+}
@@ -14,10 +14,24 @@
 package io.naftiko.engine.util;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.restlet.Request;
@@ -25,6 +39,8 @@ import org.restlet.Response;
 import org.restlet.data.MediaType;
 import org.restlet.data.Method;
 import org.restlet.data.Reference;
+import org.restlet.data.Status;
+import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,8 +48,10 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.naftiko.Capability;
-import io.naftiko.engine.consumes.ClientAdapter;
 import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.engine.consumes.http.RetryBudget;
+import io.naftiko.engine.consumes.http.RetryPolicy;
 import io.naftiko.engine.observability.RestletHeaderSetter;
 import io.naftiko.engine.observability.TelemetryBootstrap;
 import io.naftiko.engine.scripting.ScriptStepExecutor;
@@ -46,10 +64,12 @@ import io.naftiko.spec.exposes.rest.RestServerResourceSpec;
 import io.naftiko.spec.exposes.rest.RestServerSpec;
 import io.naftiko.spec.util.OperationStepSpec;
 import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepForEachSpec;
 import io.naftiko.spec.util.OperationStepLookupSpec;
 import io.naftiko.spec.scripting.OperationStepScriptSpec;
 import io.naftiko.spec.util.StepOutputMappingSpec;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.context.Scope;
 
 /**
@@ -66,10 +86,35 @@ public class OperationStepExecutor {
 
     private static final Logger logger = LoggerFactory.getLogger(OperationStepExecutor.class);
 
+    /**
+     * Steps of one execution running at once unless the operation sets {@code stepParallelism}.
+     */
+    static final int DEFAULT_STEP_PARALLELISM = 8;
+
+    private static final ContextKey<Integer> STEP_PARALLELISM =
+            ContextKey.named("naftiko-step-parallelism");
+
+    /**
+     * Calls a for-each step makes at once unless it sets {@code parallelism}.
+     */
+    static final int DEFAULT_FOR_EACH_PARALLELISM = 8;
+
+    /**
+     * Elements a for-each step accepts unless it sets {@code maxItems}.
+     */
+    static final int DEFAULT_FOR_EACH_MAX_ITEMS = 1000;
+
+    private static final String FOR_EACH_FAIL = "fail";
+    private static final String FOR_EACH_SKIP = "skip";
+    private static final String FOR_EACH_COLLECT = "collect";
+
+    private static final ExecutorService STEP_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("naftiko-step-", 0).factory());
+
     private final Capability capability;
     private final ObjectMapper mapper;
     private final ScriptStepExecutor scriptExecutor;
-    private volatile String exposeNamespace;
+    private final String exposeNamespace;
 
     public OperationStepExecutor(Capability capability) {
         this(capability, null);
@@ -89,19 +134,6 @@ public class OperationStepExecutor {
         return scriptExecutor;
     }
 
-    /**
-     * Override the expose namespace after construction.
-     *
-     * <p>This setter exists for {@link io.naftiko.engine.aggregates.AggregateFunction}, which
-     * shares a single {@code OperationStepExecutor} across multiple aggregate functions that may
-     * belong to different namespaces. The function sets its own namespace before each execution.
-     * Handlers whose namespace is known at construction time should use
-     * {@link #OperationStepExecutor(Capability, String)} instead.</p>
-     */
-    public void setExposeNamespace(String exposeNamespace) {
-        this.exposeNamespace = exposeNamespace;
-    }
-
     /**
      * Build a map of input parameter values for a given request and operation by evaluating
      * server-level, resource-level and operation-level InputParameterSpec entries.
@@ -159,7 +191,8 @@ public class OperationStepExecutor {
     }
 
     /**
-     * Execute a sequence of orchestrated operation steps.
+     * Execute a sequence of orchestrated operation steps. Steps that do not reference each other
+     * run concurrently (see {@link StepPlan}); the outputs are the same as in declaration order.
      * 
      * @param steps the list of operation steps to execute
      * @param baseParameters the base parameters for template resolution
@@ -168,6 +201,39 @@ public class OperationStepExecutor {
      */
     public StepExecutionResult executeSteps(List<OperationStepSpec> steps,
             Map<String, Object> baseParameters) {
+        return executeSteps(steps, baseParameters, false);
+    }
+
+    /**
+     * Execute a sequence of orchestrated operation steps, as {@link #executeSteps(List, Map)}.
+     *
+     * @param steps the list of operation steps to execute
+     * @param baseParameters the base parameters for template resolution
+     * @param safe true when the caller declares the whole sequence safe, which lets calls of any
+     *        method to a coalescing adapter share identical exchanges in flight (see
+     *        {@link RequestCoalescer}); {@code GET} calls are cached as {@link HttpCache} allows
+     * @return the final HandlingContext from the last executed step, or null if no steps executed
+     * @throws IllegalArgumentException if step execution fails
+     */
+    public StepExecutionResult executeSteps(List<OperationStepSpec> steps,
+            Map<String, Object> baseParameters, boolean safe) {
+        return executeSteps(steps, baseParameters, exposeNamespace, safe);
+    }
+
+    /**
+     * Execute a sequence of orchestrated operation steps on behalf of an expose namespace, as
+     * {@link #executeSteps(List, Map, boolean)}. The executor keeps no state about the call, so
+     * callers in different namespaces can share it concurrently.
+     *
+     * @param steps the list of operation steps to execute
+     * @param baseParameters the base parameters for template resolution
+     * @param namespace the expose namespace that qualifies references in {@code with} blocks
+     * @param safe true when the caller declares the whole sequence safe
+     * @return the final HandlingContext from the last executed step, or null if no steps executed
+     * @throws IllegalArgumentException if step execution fails
+     */
+    public StepExecutionResult executeSteps(List<OperationStepSpec> steps,
+            Map<String, Object> baseParameters, String namespace, boolean safe) {
         HandlingContext lastContext = null;
         StepExecutionContext stepContext = new StepExecutionContext();
         Map<String, Object> runtimeParameters = new ConcurrentHashMap<>();
@@ -180,167 +246,446 @@ public class OperationStepExecutor {
             return new StepExecutionResult(lastContext, stepContext);
         }
 
+        StepPlan plan = stepPlan(steps);
+        int parallelism = stepParallelism();
+        if (plan.isParallel() && parallelism > 1) {
+            return executeStepsConcurrently(steps, plan, parallelism, runtimeParameters,
+                    namespace, safe);
+        }
+
         for (int stepIndex = 0; stepIndex < steps.size(); stepIndex++) {
-            OperationStepSpec step = steps.get(stepIndex);
-            switch (step) {
-                case OperationStepCallSpec callStep -> {
-                    TelemetryBootstrap telemetry = TelemetryBootstrap.get();
-                    Span stepSpan = telemetry
-                            .startStepCallSpan(stepIndex, callStep.getCall(), exposeNamespace);
-                    long stepStartNanos = System.nanoTime();
-                    try (Scope stepScope = stepSpan.makeCurrent()) {
-                        lastContext = executeCallStep(callStep, runtimeParameters);
-
-                        if (lastContext == null) {
-                            throw new IllegalArgumentException("Invalid call format: "
-                                    + (callStep.getCall() != null ? callStep.getCall() : "null"));
-                        }
+            StepResult result =
+                    executeStep(stepIndex, steps.get(stepIndex), runtimeParameters, stepContext,
+                            namespace, safe);
+            if (result.context() != null) {
+                lastContext = result.context();
+            }
+        }
+
+        return new StepExecutionResult(lastContext, stepContext);
+    }
+
+    /**
+     * Match one lookup value, through the hash index when the index step output has one.
+     */
+    private static JsonNode lookup(JsonNode indexData, Map<String, JsonNode> lookupIndex,
+            OperationStepLookupSpec lookupStep, String lookupValue) {
+        if (lookupIndex != null) {
+            return LookupExecutor.executeLookup(lookupIndex, lookupValue,
+                    lookupStep.getOutputParameters());
+        }
+        return LookupExecutor.executeLookup(indexData, lookupStep.getMatch(), lookupValue,
+                lookupStep.getOutputParameters());
+    }
+
+    /**
+     * Bound the number of independent steps running at once in the current context, typically
+     * to the {@code stepParallelism} of the operation being handled.
+     *
+     * @param parallelism the maximum number of steps running at once, or null for the default;
+     *        1 runs the steps one after the other
+     * @return the scope to close once the operation completes
+     */
+    public static Scope limitStepParallelism(Integer parallelism) {
+        return parallelism != null
+                ? io.opentelemetry.context.Context.current()
+                        .with(STEP_PARALLELISM, Math.max(1, parallelism)).makeCurrent()
+                : Scope.noop();
+    }
+
+    private static int stepParallelism() {
+        Integer parallelism = io.opentelemetry.context.Context.current().get(STEP_PARALLELISM);
+        return parallelism != null ? parallelism : DEFAULT_STEP_PARALLELISM;
+    }
 
+    /**
+     * Return the dependency plan of a step list, as analysed when the capability was loaded.
+     */
+    StepPlan stepPlan(List<OperationStepSpec> steps) {
+        return precompiledSpec().stepPlan(steps,
+                capability != null ? capability.getOperationIndex() : null);
+    }
+
+    /**
+     * Return the output mapping plans compiled for the capability at load time.
+     */
+    PrecompiledSpec precompiledSpec() {
+        return capability != null && capability.getPrecompiledSpec() != null
+                ? capability.getPrecompiledSpec()
+                : PrecompiledSpec.EMPTY;
+    }
+
+    /**
+     * Run steps on virtual threads as soon as the steps they depend on have completed, with at
+     * most {@code parallelism} running at once. Each step sees the base parameters and the
+     * outputs of its dependencies only. Once a step fails no further step is started, and the
+     * failure of the earliest failed step is thrown after the running ones complete.
+     */
+    private StepExecutionResult executeStepsConcurrently(List<OperationStepSpec> steps,
+            StepPlan plan, int parallelism, Map<String, Object> baseParameters, String namespace,
+            boolean safe) {
+        int size = steps.size();
+        StepResult[] results = new StepResult[size];
+        RuntimeException[] failures = new RuntimeException[size];
+        int[] waiting = new int[size];
+        List<List<Integer>> dependents = new ArrayList<>(size);
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+
+        for (int stepIndex = 0; stepIndex < size; stepIndex++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int stepIndex = 0; stepIndex < size; stepIndex++) {
+            waiting[stepIndex] = plan.dependencies(stepIndex).length;
+            for (int dependency : plan.dependencies(stepIndex)) {
+                dependents.get(dependency).add(stepIndex);
+            }
+            if (waiting[stepIndex] == 0) {
+                ready.add(stepIndex);
+            }
+        }
+
+        io.opentelemetry.context.Context parentContext = io.opentelemetry.context.Context.current();
+        Deadline deadline = Deadline.current();
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(STEP_THREADS);
+        List<Future<Integer>> futures = new ArrayList<>(size);
+        int running = 0;
+        boolean failed = false;
+
+        try {
+            while (true) {
+                while (!failed && running < parallelism && !ready.isEmpty()) {
+                    int stepIndex = ready.poll();
+                    OperationStepSpec step = steps.get(stepIndex);
+                    Map<String, Object> parameters = new ConcurrentHashMap<>(baseParameters);
+                    StepExecutionContext visible = new StepExecutionContext();
+                    for (int dependency : plan.dependencies(stepIndex)) {
+                        exposeStepResult(steps.get(dependency), results[dependency], parameters,
+                                visible);
+                    }
+                    futures.add(completion.submit(parentContext.wrap(() -> {
                         try {
-                            lastContext.handle();
-                        } catch (Exception e) {
-                            throw new IllegalStateException(
-                                    "Error while handling an HTTP client call", e);
+                            results[stepIndex] =
+                                    executeStep(stepIndex, step, parameters, visible,
+                                            namespace, safe);
+                        } catch (RuntimeException e) {
+                            failures[stepIndex] = e;
                         }
+                        return stepIndex;
+                    })));
+                    running++;
+                }
+                if (running == 0) {
+                    break;
+                }
 
-                        // Store call output for lookup references when response is valid JSON
-                        if (lastContext.clientResponse != null
-                                && lastContext.clientResponse.getEntity() != null) {
-                            try {
-                                if (!(lastContext.clientResponse
-                                        .getEntity() instanceof StringRepresentation)) {
-                                    lastContext.clientResponse
-                                            .setEntity(new StringRepresentation(
-                                                    lastContext.clientResponse.getEntity()
-                                                            .getText(),
-                                                    lastContext.clientResponse.getEntity()
-                                                            .getMediaType()));
-                                }
-
-                                JsonNode rawOutput = mapper.readTree(
-                                        lastContext.clientResponse.getEntity().getReader());
-                                JsonNode stepOutput =
-                                        resolveStepOutput(lastContext, rawOutput);
-                                stepContext.storeStepOutput(callStep.getName(), stepOutput);
-                                addStepOutputToParameters(runtimeParameters,
-                                        callStep.getName(), stepOutput);
-                            } catch (IOException ignoreJsonParseError) {
-                                logger.debug("Step output is not JSON; skipping lookup index update", ignoreJsonParseError);
-                            }
+                Future<Integer> next = deadline != null
+                        ? completion.poll(deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                        : completion.take();
+                if (next == null) {
+                    futures.forEach(future -> future.cancel(true));
+                    throw new DeadlineExceededException(
+                            "Running steps were cancelled: deadline exceeded");
+                }
+                int done = next.get();
+                running--;
+                if (failures[done] != null) {
+                    failed = true;
+                } else {
+                    for (int dependent : dependents.get(done)) {
+                        if (--waiting[dependent] == 0) {
+                            ready.add(dependent);
                         }
-                    } catch (Exception e) {
-                        TelemetryBootstrap.recordError(stepSpan, e);
-                        throw e;
-                    } finally {
-                        double stepDurationSec =
-                                (System.nanoTime() - stepStartNanos) / 1_000_000_000.0;
-                        telemetry.getMetrics().recordStep(
-                                "call", exposeNamespace, stepDurationSec);
-                        TelemetryBootstrap.endSpan(stepSpan);
                     }
                 }
-                case OperationStepLookupSpec lookupStep -> {
-                    TelemetryBootstrap lookupTelemetry = TelemetryBootstrap.get();
-                    Span stepSpan = lookupTelemetry
-                            .startStepLookupSpan(stepIndex, lookupStep.getMatch());
-                    long lookupStartNanos = System.nanoTime();
-                    try (Scope stepScope = stepSpan.makeCurrent()) {
-                        JsonNode indexData = stepContext.getStepOutput(lookupStep.getIndex());
-
-                        if (indexData == null) {
-                            throw new IllegalArgumentException(
-                                    "Lookup step references non-existent step: "
-                                            + lookupStep.getIndex());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing steps", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error while executing steps", e.getCause());
+        }
+
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        HandlingContext lastContext = null;
+        StepExecutionContext stepContext = new StepExecutionContext();
+        for (int stepIndex = 0; stepIndex < size; stepIndex++) {
+            StepResult result = results[stepIndex];
+            if (result.context() != null) {
+                lastContext = result.context();
+            }
+            exposeStepResult(steps.get(stepIndex), result, null, stepContext);
+        }
+        return new StepExecutionResult(lastContext, stepContext);
+    }
+
+    /**
+     * Make a completed step's output visible to a later step, as {@link #executeStep} does.
+     */
+    private void exposeStepResult(OperationStepSpec step, StepResult result,
+            Map<String, Object> runtimeParameters, StepExecutionContext stepContext) {
+        if (result.output() == null) {
+            return;
+        }
+        if (result.indexes() != null) {
+            stepContext.storeStepOutput(step.getName(), result.output(), result.indexes());
+        } else {
+            stepContext.storeStepOutput(step.getName(), result.output());
+        }
+        if (result.parameter()) {
+            addStepOutputToParameters(runtimeParameters, step.getName(), result.output());
+        }
+    }
+
+    /**
+     * Execute a single step within the current deadline, narrowed by the step {@code timeout}. A
+     * step is not started once the deadline has passed, and a step failing after it has passed
+     * fails with a {@link DeadlineExceededException}.
+     */
+    private StepResult executeStep(int stepIndex, OperationStepSpec step,
+            Map<String, Object> runtimeParameters, StepExecutionContext stepContext,
+            String namespace, boolean safe) {
+        Deadline deadline = Deadline.within(step.getTimeout());
+        if (deadline == null) {
+            return executeStep(stepIndex, step, runtimeParameters, stepContext, namespace, safe,
+                    -1);
+        }
+        deadline.check("Step '" + step.getName() + "'");
+        try (Scope deadlineScope = deadline.makeCurrent()) {
+            return executeStep(stepIndex, step, runtimeParameters, stepContext, namespace, safe,
+                    deadline.remainingMillis());
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("Step '" + step.getName()
+                        + "' failed after its deadline: " + e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Execute a single step against the parameters and step outputs visible to it, storing its
+     * output into both.
+     *
+     * @param budgetMs the time left before the deadline when the step starts, or -1 without one
+     */
+    private StepResult executeStep(int stepIndex, OperationStepSpec step,
+            Map<String, Object> runtimeParameters, StepExecutionContext stepContext,
+            String namespace, boolean safe, long budgetMs) {
+        switch (step) {
+            case OperationStepCallSpec callStep -> {
+                TelemetryBootstrap telemetry = TelemetryBootstrap.get();
+                Span stepSpan = telemetry
+                        .startStepCallSpan(stepIndex, callStep.getCall(), namespace);
+                long stepStartNanos = System.nanoTime();
+                try (Scope stepScope = stepSpan.makeCurrent()) {
+                    HandlingContext context =
+                            executeCallStep(callStep, runtimeParameters, namespace);
+
+                    if (context == null) {
+                        throw new IllegalArgumentException("Invalid call format: "
+                                + (callStep.getCall() != null ? callStep.getCall() : "null"));
+                    }
+
+                    // Reference data is shared across requests for its ttl
+                    String identity = callStep.getTtl() != null && callStep.getTtl() > 0
+                            ? RequestCoalescer.identity(context.clientRequest) : null;
+                    if (identity != null) {
+                        Map<String, Object> snapshot = new HashMap<>(runtimeParameters);
+                        ReferenceDataCache.ReferenceData data = ReferenceDataCache.fetch(
+                                callStep.getCall() + "\n" + identity, callStep.getTtl(), context,
+                                () -> executeCallStep(callStep, snapshot, namespace),
+                                call -> loadReferenceData(call, safe));
+                        if (data != null) {
+                            stepContext.storeStepOutput(callStep.getName(), data.output(),
+                                    data.indexes());
+                            addStepOutputToParameters(runtimeParameters, callStep.getName(),
+                                    data.output());
+                            return new StepResult(context, data.output(), true, data.indexes());
                         }
+                    } else {
+                        handleCall(context, safe);
+                    }
 
-                        String resolvedLookupValue = Resolver.resolveMustacheTemplate(
-                                lookupStep.getLookupValue(), runtimeParameters);
-
-                        // Resolve lookup value from step context (JsonPath) when applicable
-                        JsonNode lookupValueNode = resolveJsonPathFromStepContext(
-                                lookupStep.getLookupValue(), stepContext);
-
-                        JsonNode lookupResult;
-                        if (lookupValueNode != null && lookupValueNode.isArray()) {
-                            // Multi-value lookup: collect results into an array
-                            ArrayNode resultArray = mapper.createArrayNode();
-                            for (JsonNode item : lookupValueNode) {
-                                JsonNode match = LookupExecutor.executeLookup(indexData,
-                                        lookupStep.getMatch(), item.asText(),
-                                        lookupStep.getOutputParameters());
-                                if (match != null) {
-                                    resultArray.add(match);
-                                }
+                    // Store call output for lookup references when response is valid JSON
+                    if (context.clientResponse != null
+                            && context.clientResponse.getEntity() != null) {
+                        try {
+                            if (!(context.clientResponse
+                                    .getEntity() instanceof StringRepresentation)) {
+                                context.clientResponse
+                                        .setEntity(new StringRepresentation(
+                                                context.clientResponse.getEntity()
+                                                        .getText(),
+                                                context.clientResponse.getEntity()
+                                                        .getMediaType()));
                             }
-                            lookupResult = resultArray.isEmpty() ? null : resultArray;
-                        } else if (lookupValueNode != null) {
-                            lookupResult = LookupExecutor.executeLookup(indexData,
-                                    lookupStep.getMatch(), lookupValueNode.asText(),
-                                    lookupStep.getOutputParameters());
-                        } else {
-                            lookupResult = LookupExecutor.executeLookup(indexData,
-                                    lookupStep.getMatch(), resolvedLookupValue,
-                                    lookupStep.getOutputParameters());
-                        }
 
-                        if (lookupResult != null) {
-                            stepContext.storeStepOutput(lookupStep.getName(), lookupResult);
+                            JsonNode rawOutput = mapper.readTree(
+                                    context.clientResponse.getEntity().getReader());
+                            JsonNode stepOutput =
+                                    resolveStepOutput(context, rawOutput);
+                            stepContext.storeStepOutput(callStep.getName(), stepOutput);
+                            addStepOutputToParameters(runtimeParameters,
+                                    callStep.getName(), stepOutput);
+                            return new StepResult(context, stepOutput, true);
+                        } catch (IOException ignoreJsonParseError) {
+                            logger.debug("Step output is not JSON; skipping lookup index update", ignoreJsonParseError);
                         }
-                    } catch (Exception e) {
-                        TelemetryBootstrap.recordError(stepSpan, e);
-                        throw e;
-                    } finally {
-                        double lookupDurationSec =
-                                (System.nanoTime() - lookupStartNanos) / 1_000_000_000.0;
-                        lookupTelemetry.getMetrics().recordStep(
-                                "lookup", exposeNamespace, lookupDurationSec);
-                        TelemetryBootstrap.endSpan(stepSpan);
                     }
+                    return new StepResult(context, null, false);
+                } catch (Exception e) {
+                    TelemetryBootstrap.recordError(stepSpan, e);
+                    throw e;
+                } finally {
+                    double stepDurationSec =
+                            (System.nanoTime() - stepStartNanos) / 1_000_000_000.0;
+                    telemetry.getMetrics().recordStep(
+                            "call", namespace, stepDurationSec);
+                    TelemetryBootstrap.recordStepBudget(stepSpan, budgetMs, stepStartNanos);
+                    TelemetryBootstrap.endSpan(stepSpan);
+                }
+            }
+            case OperationStepForEachSpec forEachStep -> {
+                TelemetryBootstrap forEachTelemetry = TelemetryBootstrap.get();
+                Span stepSpan = forEachTelemetry
+                        .startStepForEachSpan(stepIndex, forEachStep.getCall(), namespace);
+                long forEachStartNanos = System.nanoTime();
+                try (Scope stepScope = stepSpan.makeCurrent()) {
+                    ArrayNode forEachResult = executeForEachStep(forEachStep, runtimeParameters,
+                            stepContext, namespace, safe);
+                    stepContext.storeStepOutput(forEachStep.getName(), forEachResult);
+                    addStepOutputToParameters(runtimeParameters, forEachStep.getName(),
+                            forEachResult);
+                    return new StepResult(null, forEachResult, true);
+                } catch (Exception e) {
+                    TelemetryBootstrap.recordError(stepSpan, e);
+                    throw e;
+                } finally {
+                    double forEachDurationSec =
+                            (System.nanoTime() - forEachStartNanos) / 1_000_000_000.0;
+                    forEachTelemetry.getMetrics().recordStep(
+                            "forEach", namespace, forEachDurationSec);
+                    TelemetryBootstrap.recordStepBudget(stepSpan, budgetMs, forEachStartNanos);
+                    TelemetryBootstrap.endSpan(stepSpan);
                 }
-                case OperationStepScriptSpec scriptStep -> {
-                    ScriptStepExecutor.requireScriptingPermitted(
-                            scriptStep.getName(), scriptExecutor.getScriptingSpec());
-                    TelemetryBootstrap scriptTelemetry = TelemetryBootstrap.get();
-                    String effectiveScriptLanguage = scriptStep.getLanguage();
-                    if ((effectiveScriptLanguage == null
-                            || effectiveScriptLanguage.isBlank())
-                            && scriptExecutor.getScriptingSpec() != null) {
-                        effectiveScriptLanguage =
-                                scriptExecutor.getScriptingSpec().getDefaultLanguage();
+            }
+            case OperationStepLookupSpec lookupStep -> {
+                TelemetryBootstrap lookupTelemetry = TelemetryBootstrap.get();
+                Span stepSpan = lookupTelemetry
+                        .startStepLookupSpan(stepIndex, lookupStep.getMatch());
+                long lookupStartNanos = System.nanoTime();
+                try (Scope stepScope = stepSpan.makeCurrent()) {
+                    JsonNode indexData = stepContext.getStepOutput(lookupStep.getIndex());
+
+                    if (indexData == null) {
+                        throw new IllegalArgumentException(
+                                "Lookup step references non-existent step: "
+                                        + lookupStep.getIndex());
                     }
-                    Span stepSpan = scriptTelemetry.startStepScriptSpan(
-                            stepIndex, scriptStep.getFile(),
-                            effectiveScriptLanguage == null
-                                    || effectiveScriptLanguage.isBlank()
-                                            ? "unknown"
-                                            : effectiveScriptLanguage);
-                    long scriptStartNanos = System.nanoTime();
-                    try (Scope stepScope = stepSpan.makeCurrent()) {
-                        JsonNode scriptResult = scriptExecutor.execute(
-                                scriptStep, runtimeParameters, stepContext);
-                        if (scriptResult != null) {
-                            stepContext.storeStepOutput(scriptStep.getName(), scriptResult);
-                            addStepOutputToParameters(
-                                    runtimeParameters, scriptStep.getName(), scriptResult);
+
+                    String resolvedLookupValue = Resolver.resolveMustacheTemplate(
+                            lookupStep.getLookupValue(), runtimeParameters);
+
+                    // Resolve lookup value from step context (JsonPath) when applicable
+                    JsonNode lookupValueNode = resolveJsonPathFromStepContext(
+                            lookupStep.getLookupValue(), stepContext);
+
+                    // Array outputs are hash-indexed once per match field and reused
+                    Map<String, JsonNode> lookupIndex = stepContext
+                            .getLookupIndex(lookupStep.getIndex(), lookupStep.getMatch());
+
+                    JsonNode lookupResult;
+                    if (lookupValueNode != null && lookupValueNode.isArray()) {
+                        // Multi-value lookup: collect results into an array
+                        ArrayNode resultArray = mapper.createArrayNode();
+                        for (JsonNode item : lookupValueNode) {
+                            JsonNode match = lookup(indexData, lookupIndex,
+                                    lookupStep, item.asText());
+                            if (match != null) {
+                                resultArray.add(match);
+                            }
                         }
-                    } catch (Exception e) {
-                        TelemetryBootstrap.recordError(stepSpan, e);
-                        throw e;
-                    } finally {
-                        double scriptDurationSec =
-                                (System.nanoTime() - scriptStartNanos) / 1_000_000_000.0;
-                        scriptTelemetry.getMetrics().recordStep(
-                                "script", exposeNamespace, scriptDurationSec);
-                        TelemetryBootstrap.endSpan(stepSpan);
+                        lookupResult = resultArray.isEmpty() ? null : resultArray;
+                    } else if (lookupValueNode != null) {
+                        lookupResult = lookup(indexData, lookupIndex, lookupStep,
+                                lookupValueNode.asText());
+                    } else {
+                        lookupResult = lookup(indexData, lookupIndex, lookupStep,
+                                resolvedLookupValue);
+                    }
+
+                    if (lookupResult != null) {
+                        stepContext.storeStepOutput(lookupStep.getName(), lookupResult);
                     }
+                    return new StepResult(null, lookupResult, false);
+                } catch (Exception e) {
+                    TelemetryBootstrap.recordError(stepSpan, e);
+                    throw e;
+                } finally {
+                    double lookupDurationSec =
+                            (System.nanoTime() - lookupStartNanos) / 1_000_000_000.0;
+                    lookupTelemetry.getMetrics().recordStep(
+                            "lookup", namespace, lookupDurationSec);
+                    TelemetryBootstrap.recordStepBudget(stepSpan, budgetMs, lookupStartNanos);
+                    TelemetryBootstrap.endSpan(stepSpan);
                 }
-                default -> {
-                    // Ignore unsupported step types
+            }
+            case OperationStepScriptSpec scriptStep -> {
+                ScriptStepExecutor.requireScriptingPermitted(
+                        scriptStep.getName(), scriptExecutor.getScriptingSpec());
+                TelemetryBootstrap scriptTelemetry = TelemetryBootstrap.get();
+                String effectiveScriptLanguage = scriptStep.getLanguage();
+                if ((effectiveScriptLanguage == null
+                        || effectiveScriptLanguage.isBlank())
+                        && scriptExecutor.getScriptingSpec() != null) {
+                    effectiveScriptLanguage =
+                            scriptExecutor.getScriptingSpec().getDefaultLanguage();
                 }
+                Span stepSpan = scriptTelemetry.startStepScriptSpan(
+                        stepIndex, scriptStep.getFile(),
+                        effectiveScriptLanguage == null
+                                || effectiveScriptLanguage.isBlank()
+                                        ? "unknown"
+                                        : effectiveScriptLanguage);
+                long scriptStartNanos = System.nanoTime();
+                try (Scope stepScope = stepSpan.makeCurrent()) {
+                    JsonNode scriptResult = scriptExecutor.execute(
+                            scriptStep, runtimeParameters, stepContext);
+                    if (scriptResult != null) {
+                        stepContext.storeStepOutput(scriptStep.getName(), scriptResult);
+                        addStepOutputToParameters(
+                                runtimeParameters, scriptStep.getName(), scriptResult);
+                    }
+                    return new StepResult(null, scriptResult, true);
+                } catch (Exception e) {
+                    TelemetryBootstrap.recordError(stepSpan, e);
+                    throw e;
+                } finally {
+                    double scriptDurationSec =
+                            (System.nanoTime() - scriptStartNanos) / 1_000_000_000.0;
+                    scriptTelemetry.getMetrics().recordStep(
+                            "script", namespace, scriptDurationSec);
+                    TelemetryBootstrap.recordStepBudget(stepSpan, budgetMs, scriptStartNanos);
+                    TelemetryBootstrap.endSpan(stepSpan);
+                }
+            }
+            default -> {
+                // Ignore unsupported step types
+                return new StepResult(null, null, false);
             }
         }
-
-        return new StepExecutionResult(lastContext, stepContext);
     }
 
     /**
@@ -385,30 +730,266 @@ public class OperationStepExecutor {
      * Execute a single call step.
      */
     private HandlingContext executeCallStep(OperationStepCallSpec callStep,
-            Map<String, Object> baseParameters) {
+            Map<String, Object> baseParameters, String namespace) {
+        return prepareCall(callStep.getCall(), callStep.getWith(), baseParameters, namespace);
+    }
+
+    /**
+     * Build the client call of a step from its consumed operation reference and 'with' block.
+     */
+    private HandlingContext prepareCall(String call, Map<String, Object> with,
+            Map<String, Object> baseParameters, String namespace) {
         // Merge step-level 'with' parameters with base parameters
         Map<String, Object> stepParams = new ConcurrentHashMap<>(baseParameters);
 
-        mergeWithParameters(callStep.getWith(), stepParams, exposeNamespace);
+        mergeWithParameters(with, stepParams, namespace);
 
-        if (callStep.getCall() != null) {
-            String[] tokens = callStep.getCall().split("\\.");
-            if (tokens.length == 2) {
-                try {
-                    return findClientRequestFor(tokens[0], tokens[1], stepParams);
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException(
-                            "Error resolving request parameters: " + e.getMessage(), e);
-                }
+        CallReference reference = CallReference.parse(call);
+        if (reference != null) {
+            try {
+                return findClientRequestFor(reference.namespace(), reference.operation(),
+                        stepParams);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Error resolving request parameters: " + e.getMessage(), e);
             }
         }
 
         return null;
     }
 
+    /**
+     * Call the consumed operation of a for-each step once per element of its items, with at most
+     * {@code parallelism} calls in flight on virtual threads, and collect the outputs in element
+     * order. With {@code onError: fail} the first failure stops starting new calls and fails the
+     * step; {@code skip} leaves failed elements out and {@code collect} puts an {@code index} and
+     * {@code error} object in their place. Running out of time before the {@link Deadline} fails
+     * the step whatever the policy.
+     */
+    private ArrayNode executeForEachStep(OperationStepForEachSpec step,
+            Map<String, Object> runtimeParameters, StepExecutionContext stepContext,
+            String namespace, boolean safe) {
+        String onError = step.getOnError() != null ? step.getOnError() : FOR_EACH_FAIL;
+        if (!FOR_EACH_FAIL.equals(onError) && !FOR_EACH_SKIP.equals(onError)
+                && !FOR_EACH_COLLECT.equals(onError)) {
+            throw new IllegalArgumentException("For-each step '" + step.getName()
+                    + "' has an invalid onError policy: " + onError);
+        }
+        if (CallReference.parse(step.getCall()) == null) {
+            throw new IllegalArgumentException("Invalid call format: "
+                    + (step.getCall() != null ? step.getCall() : "null"));
+        }
+
+        JsonNode items = resolveForEachItems(step.getItems(), runtimeParameters, stepContext);
+        if (items == null) {
+            throw new IllegalArgumentException("For-each step '" + step.getName()
+                    + "' items do not resolve: " + step.getItems());
+        }
+        if (!items.isArray()) {
+            throw new IllegalArgumentException("For-each step '" + step.getName()
+                    + "' items do not resolve to an array: " + step.getItems());
+        }
+        int size = items.size();
+        int maxItems = step.getMaxItems() != null ? step.getMaxItems()
+                : DEFAULT_FOR_EACH_MAX_ITEMS;
+        if (size > maxItems) {
+            throw new IllegalArgumentException("For-each step '" + step.getName() + "' has "
+                    + size + " items, more than its maximum of " + maxItems);
+        }
+
+        String as = step.getAs() != null && !step.getAs().isBlank() ? step.getAs() : "item";
+        int parallelism = step.getParallelism() != null ? Math.max(1, step.getParallelism())
+                : DEFAULT_FOR_EACH_PARALLELISM;
+        boolean failFast = FOR_EACH_FAIL.equals(onError);
+        JsonNode[] outputs = new JsonNode[size];
+        RuntimeException[] failures = new RuntimeException[size];
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicBoolean failed = new AtomicBoolean();
+        io.opentelemetry.context.Context parentContext = io.opentelemetry.context.Context.current();
+        Deadline deadline = Deadline.current();
+        List<Future<?>> futures = new ArrayList<>(size);
+
+        try {
+            for (int itemIndex = 0; itemIndex < size; itemIndex++) {
+                if (deadline == null) {
+                    permits.acquire();
+                } else if (!permits.tryAcquire(deadline.remainingNanos(),
+                        TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                if ((failFast && failed.get()) || (deadline != null && deadline.isExpired())) {
+                    permits.release();
+                    break;
+                }
+                int index = itemIndex;
+                Map<String, Object> itemParameters = new ConcurrentHashMap<>(runtimeParameters);
+                Object item = JsonNodeView.of(items.get(index));
+                if (item != null) {
+                    itemParameters.put(as, item);
+                }
+                futures.add(STEP_THREADS.submit(parentContext.wrap(() -> {
+                    try {
+                        outputs[index] = executeForEachCall(step, itemParameters, namespace,
+                                safe);
+                    } catch (RuntimeException e) {
+                        failures[index] = e;
+                        failed.set(true);
+                    } finally {
+                        permits.release();
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                if (deadline != null) {
+                    future.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+                } else {
+                    future.get();
+                }
+            }
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new DeadlineExceededException("For-each step '" + step.getName()
+                    + "' was cancelled: deadline exceeded", e);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing steps", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error while executing steps", e.getCause());
+        }
+
+        // Running out of time fails the step whatever its onError policy
+        if (futures.size() < size && !(failFast && failed.get())) {
+            throw new DeadlineExceededException("For-each step '" + step.getName()
+                    + "' did not start every call before its deadline");
+        }
+
+        ArrayNode result = mapper.createArrayNode();
+        for (int itemIndex = 0; itemIndex < size; itemIndex++) {
+            RuntimeException failure = failures[itemIndex];
+            if (failure instanceof DeadlineExceededException) {
+                throw failure;
+            }
+            if (failure == null) {
+                if (outputs[itemIndex] != null) {
+                    result.add(outputs[itemIndex]);
+                }
+            } else if (failFast) {
+                throw new IllegalStateException("For-each step '" + step.getName()
+                        + "' failed for item " + itemIndex + ": " + failure.getMessage(),
+                        failure);
+            } else if (FOR_EACH_COLLECT.equals(onError)) {
+                ObjectNode error = result.addObject();
+                error.put("index", itemIndex);
+                error.put("error", failure.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the array a for-each step iterates: a step output path, or an input parameter.
+     *
+     * @return the resolved value, or null when the path names nothing
+     */
+    private JsonNode resolveForEachItems(String items, Map<String, Object> runtimeParameters,
+            StepExecutionContext stepContext) {
+        JsonNode resolved = resolveJsonPathFromStepContext(items, stepContext);
+        if (resolved == null && items != null && items.startsWith("$.")) {
+            Object parameter = runtimeParameters.get(items.substring(2));
+            if (parameter != null) {
+                JsonNode viewed = JsonNodeView.nodeOf(parameter);
+                resolved = viewed != null ? viewed : mapper.valueToTree(parameter);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Make the call of one for-each element and read its output, failing on an error status.
+     */
+    private JsonNode executeForEachCall(OperationStepForEachSpec step,
+            Map<String, Object> itemParameters, String namespace, boolean safe) {
+        HandlingContext context =
+                prepareCall(step.getCall(), step.getWith(), itemParameters, namespace);
+        if (context == null) {
+            throw new IllegalArgumentException("Invalid call format: " + step.getCall());
+        }
+        handleCall(context, safe);
+
+        Response response = context.clientResponse;
+        if (response.getStatus() != null && response.getStatus().isError()) {
+            throw new IllegalStateException("Call " + step.getCall() + " returned "
+                    + response.getStatus().getCode());
+        }
+        if (response.getEntity() == null) {
+            return NullNode.instance;
+        }
+        String text;
+        try {
+            text = response.getEntity().getText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the response of " + step.getCall(), e);
+        }
+        if (text == null) {
+            return NullNode.instance;
+        }
+        try {
+            return resolveStepOutput(context, mapper.readTree(text));
+        } catch (IOException notJson) {
+            return mapper.getNodeFactory().textNode(text);
+        }
+    }
+
+    /**
+     * Handle a step call through the HTTP cache and the coalescer.
+     */
+    private static void handleCall(HandlingContext context, boolean safe) {
+        try {
+            HttpCache.handle(context, safe);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error while handling an HTTP client call", e);
+        }
+    }
+
+    /**
+     * Handle a reference data call and read its mapped output, buffering the response so that it
+     * can be served again.
+     *
+     * @return the reference data, or null when the call failed or did not return JSON
+     */
+    private ReferenceDataCache.ReferenceData loadReferenceData(HandlingContext context,
+            boolean safe) {
+        handleCall(context, safe);
+        Response response = context.clientResponse;
+        if (response == null || response.getStatus() == null
+                || !response.getStatus().isSuccess() || response.getEntity() == null) {
+            return null;
+        }
+        try {
+            BufferedResponse buffered = BufferedResponse.of(response);
+            if (buffered.content() == null) {
+                return null;
+            }
+            JsonNode rawOutput = mapper.readTree(buffered.content());
+            return new ReferenceDataCache.ReferenceData(buffered,
+                    resolveStepOutput(context, rawOutput));
+        } catch (IOException e) {
+            logger.debug("Reference data is not JSON; not caching it", e);
+            return null;
+        }
+    }
+
     /**
      * Expose each step JSON output under the step name so downstream templates can reference
-     * fields with syntax like {{step-name.field}}.
+     * fields with syntax like {{step-name.field}}. The output is exposed through a
+     * {@link JsonNodeView} rather than copied, so only the fields templates read are converted.
      */
     public void addStepOutputToParameters(Map<String, Object> runtimeParameters, String stepName,
             JsonNode stepOutput) {
@@ -416,8 +997,10 @@ public class OperationStepExecutor {
             return;
         }
 
-        Object converted = mapper.convertValue(stepOutput, Object.class);
-        runtimeParameters.put(stepName, converted);
+        Object view = JsonNodeView.of(stepOutput);
+        if (view != null) {
+            runtimeParameters.put(stepName, view);
+        }
     }
 
     /**
@@ -449,8 +1032,8 @@ public class OperationStepExecutor {
                         .getOutputParameters()) {
                     if (outputParameter.getName() != null
                             && !outputParameter.getName().isBlank()) {
-                        JsonNode mapped = Resolver.resolveOutputMappings(outputParameter, element,
-                                mapper);
+                        JsonNode mapped = precompiledSpec().plan(outputParameter)
+                                .execute(element, mapper, null);
                         if (mapped != null) {
                             augmented.set(outputParameter.getName(), mapped);
                         }
@@ -465,7 +1048,8 @@ public class OperationStepExecutor {
         JsonNode unnamed = null;
 
         for (OutputParameterSpec outputParameter : context.clientOperation.getOutputParameters()) {
-            JsonNode mapped = Resolver.resolveOutputMappings(outputParameter, rawOutput, mapper);
+            JsonNode mapped =
+                    precompiledSpec().plan(outputParameter).execute(rawOutput, mapper, null);
 
             if (mapped == null) {
                 mapped = NullNode.instance;
@@ -490,6 +1074,15 @@ public class OperationStepExecutor {
      */
     public HandlingContext findClientRequestFor(ServerCallSpec call,
             Map<String, Object> requestParams) {
+        return findClientRequestFor(call, requestParams, exposeNamespace);
+    }
+
+    /**
+     * Find and construct a client request context for a call specification, resolving
+     * references qualified by the given expose namespace.
+     */
+    public HandlingContext findClientRequestFor(ServerCallSpec call,
+            Map<String, Object> requestParams, String namespace) {
 
         if (call == null) {
             return null;
@@ -501,14 +1094,11 @@ public class OperationStepExecutor {
             merged.putAll(requestParams);
         }
 
-        mergeWithParameters(call.getWith(), merged, exposeNamespace);
-
-        if (call.getOperation() != null) {
-            String[] tokens = call.getOperation().split("\\.");
+        mergeWithParameters(call.getWith(), merged, namespace);
 
-            if (tokens.length == 2) {
-                return findClientRequestFor(tokens[0], tokens[1], merged);
-            }
+        CallReference reference = CallReference.parse(call.getOperation());
+        if (reference != null) {
+            return findClientRequestFor(reference.namespace(), reference.operation(), merged);
         }
 
         return null;
@@ -520,106 +1110,97 @@ public class OperationStepExecutor {
      */
     public HandlingContext findClientRequestFor(String clientNamespace, String clientOpName,
             Map<String, Object> parameters) {
+        OperationIndex.Entry entry =
+                capability.getOperationIndex().find(clientNamespace, clientOpName);
+        if (entry == null) {
+            return null;
+        }
 
-        for (ClientAdapter adapter : capability.getClientAdapters()) {
-            if (adapter instanceof HttpClientAdapter) {
-                HttpClientAdapter clientAdapter = (HttpClientAdapter) adapter;
-
-                if (clientAdapter.getHttpClientSpec().getNamespace().equals(clientNamespace)) {
-                    HttpClientOperationSpec clientOp = clientAdapter.getOperationSpec(clientOpName);
-
-                    if (clientOp != null) {
-                        String clientResUri = clientAdapter.getHttpClientSpec().getBaseUri()
-                                + clientOp.getParentResource().getPath();
-
-                        // Resolve Mustache templates
-                        clientResUri = Resolver.resolveMustacheTemplate(clientResUri, parameters);
-
-                        // Validate all templates are resolved
-                        if (clientResUri.contains("{{") && clientResUri.contains("}}")) {
-                            throw new IllegalArgumentException(
-                                    "Unresolved template parameters in URI: " + clientResUri
-                                            + ". Available parameters: "
-                                            + (parameters != null ? parameters.keySet() : "none"));
-                        }
-
-                        HandlingContext ctx = new HandlingContext();
-                        ctx.clientRequest = new Request();
-                        ctx.clientAdapter = clientAdapter;
-                        ctx.clientOperation = clientOp;
-                        ctx.clientResponse = new Response(ctx.clientRequest);
-
-                        ctx.clientRequest.setMethod(Method.valueOf(clientOp.getMethod()));
-                        ctx.clientRequest.setResourceRef(new Reference(
-                                Resolver.resolveMustacheTemplate(clientResUri, parameters)));
-
-                        // Apply client-level and operation-level input parameters
-                        // NOTE: setResourceRef must be called first so that query params
-                        // (in: query) are appended to the correct base URI, not to null.
-                        Resolver.resolveInputParametersToRequest(ctx.clientRequest,
-                                clientAdapter.getHttpClientSpec().getInputParameters(), parameters);
-                        Resolver.resolveInputParametersToRequest(ctx.clientRequest,
-                                clientOp.getInputParameters(), parameters);
-
-                        if (clientOp.getBody() != null) {
-                            String resolvedBody;
-                            MediaType bodyMediaType = MediaType.APPLICATION_JSON;
-
-                            Object bodySpec = clientOp.getBody();
-                            if (bodySpec instanceof String) {
-                                // Legacy: plain Mustache template string
-                                resolvedBody = Resolver.resolveMustacheTemplate(
-                                        (String) bodySpec, parameters);
-                            } else {
-                                // Structured {type, data} RequestBody object
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> bodyMap = (Map<String, Object>) bodySpec;
-                                String bodyType = String.valueOf(
-                                        bodyMap.getOrDefault("type", "json"));
-                                Object data = bodyMap.get("data");
-                                String dataStr;
-                                try {
-                                    dataStr = mapper.writeValueAsString(data);
-                                } catch (IOException e) {
-                                    throw new IllegalArgumentException(
-                                        "Invalid structured body data for operation: "
-                                            + clientNamespace + "." + clientOpName,
-                                        e);
-                                }
-                                resolvedBody = Resolver.resolveMustacheTemplate(
-                                        dataStr, parameters);
-                                if ("formUrlEncoded".equalsIgnoreCase(bodyType)) {
-                                    bodyMediaType = MediaType.APPLICATION_WWW_FORM;
-                                } else if ("xml".equalsIgnoreCase(bodyType)) {
-                                    bodyMediaType = MediaType.APPLICATION_XML;
-                                } else if ("sparql".equalsIgnoreCase(bodyType)) {
-                                    bodyMediaType = MediaType.valueOf(
-                                            "application/sparql-query");
-                                }
-                            }
+        HttpClientAdapter clientAdapter = entry.adapter();
+        HttpClientOperationSpec clientOp = entry.operation();
 
-                            if (resolvedBody.contains("{{") && resolvedBody.contains("}}")) {
-                                throw new IllegalArgumentException(
-                                        "Unresolved template parameters in body: " + resolvedBody
-                                                + ". Available parameters: "
-                                                + (parameters != null ? parameters.keySet()
-                                                        : "none"));
-                            }
+        // Resolve Mustache templates
+        String clientResUri = Resolver.resolveMustacheTemplate(entry.resourceUri(), parameters);
 
-                            ctx.clientRequest.setEntity(resolvedBody, bodyMediaType);
-                        }
+        // Validate all templates are resolved
+        if (clientResUri.contains("{{") && clientResUri.contains("}}")) {
+            throw new IllegalArgumentException(
+                    "Unresolved template parameters in URI: " + clientResUri
+                            + ". Available parameters: "
+                            + (parameters != null ? parameters.keySet() : "none"));
+        }
 
-                        // Set authentication and headers
-                        ctx.clientAdapter.setChallengeResponse(null, ctx.clientRequest,
-                                ctx.clientRequest.getResourceRef().toString(), parameters);
-                        ctx.clientAdapter.setHeaders(ctx.clientRequest);
-                        return ctx;
-                    }
+        HandlingContext ctx = new HandlingContext();
+        ctx.clientRequest = new Request();
+        ctx.clientAdapter = clientAdapter;
+        ctx.clientOperation = clientOp;
+        ctx.clientResponse = new Response(ctx.clientRequest);
+
+        ctx.clientRequest.setMethod(Method.valueOf(clientOp.getMethod()));
+        ctx.clientRequest.setResourceRef(new Reference(
+                Resolver.resolveMustacheTemplate(clientResUri, parameters)));
+
+        // Apply client-level and operation-level input parameters
+        // NOTE: setResourceRef must be called first so that query params
+        // (in: query) are appended to the correct base URI, not to null.
+        Resolver.resolveInputParametersToRequest(ctx.clientRequest,
+                clientAdapter.getHttpClientSpec().getInputParameters(), parameters);
+        Resolver.resolveInputParametersToRequest(ctx.clientRequest,
+                clientOp.getInputParameters(), parameters);
+
+        if (clientOp.getBody() != null) {
+            String resolvedBody;
+            MediaType bodyMediaType = MediaType.APPLICATION_JSON;
+
+            Object bodySpec = clientOp.getBody();
+            if (bodySpec instanceof String) {
+                // Legacy: plain Mustache template string
+                resolvedBody = Resolver.resolveMustacheTemplate(
+                        (String) bodySpec, parameters);
+            } else {
+                // Structured {type, data} RequestBody object
+                @SuppressWarnings("unchecked")
+                Map<String, Object> bodyMap = (Map<String, Object>) bodySpec;
+                String bodyType = String.valueOf(
+                        bodyMap.getOrDefault("type", "json"));
+                Object data = bodyMap.get("data");
+                String dataStr;
+                try {
+                    dataStr = mapper.writeValueAsString(data);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException(
+                        "Invalid structured body data for operation: "
+                            + clientNamespace + "." + clientOpName,
+                        e);
+                }
+                resolvedBody = Resolver.resolveMustacheTemplate(
+                        dataStr, parameters);
+                if ("formUrlEncoded".equalsIgnoreCase(bodyType)) {
+                    bodyMediaType = MediaType.APPLICATION_WWW_FORM;
+                } else if ("xml".equalsIgnoreCase(bodyType)) {
+                    bodyMediaType = MediaType.APPLICATION_XML;
+                } else if ("sparql".equalsIgnoreCase(bodyType)) {
+                    bodyMediaType = MediaType.valueOf(
+                            "application/sparql-query");
                 }
             }
+
+            if (resolvedBody.contains("{{") && resolvedBody.contains("}}")) {
+                throw new IllegalArgumentException(
+                        "Unresolved template parameters in body: " + resolvedBody
+                                + ". Available parameters: "
+                                + (parameters != null ? parameters.keySet()
+                                        : "none"));
+            }
+
+            ctx.clientRequest.setEntity(resolvedBody, bodyMediaType);
         }
 
-        return null;
+        // Set authentication and headers
+        ctx.clientAdapter.setChallengeResponse(null, ctx.clientRequest,
+                ctx.clientRequest.getResourceRef().toString(), parameters);
+        ctx.clientAdapter.setHeaders(ctx.clientRequest);
+        return ctx;
     }
 
     /**
@@ -641,22 +1222,58 @@ public class OperationStepExecutor {
      */
     public HandlingContext execute(ServerCallSpec call, List<OperationStepSpec> steps,
             Map<String, Object> parameters, String entityLabel) throws Exception {
+        return execute(call, steps, parameters, entityLabel, false);
+    }
+
+    /**
+     * Execute either a simple call or a sequence of steps, as
+     * {@link #execute(ServerCallSpec, List, Map, String)}.
+     *
+     * @param safe true when the caller declares the execution safe, which lets calls of any
+     *        method to a coalescing adapter share identical exchanges in flight
+     */
+    public HandlingContext execute(ServerCallSpec call, List<OperationStepSpec> steps,
+            Map<String, Object> parameters, String entityLabel, boolean safe) throws Exception {
+        return execute(call, steps, parameters, entityLabel, exposeNamespace, safe);
+    }
+
+    /**
+     * Execute either a simple call or a sequence of steps on behalf of an expose namespace, as
+     * {@link #execute(ServerCallSpec, List, Map, String, boolean)}.
+     *
+     * @param namespace the expose namespace that qualifies references in {@code with} blocks
+     */
+    public HandlingContext execute(ServerCallSpec call, List<OperationStepSpec> steps,
+            Map<String, Object> parameters, String entityLabel, String namespace, boolean safe)
+            throws Exception {
         if (call != null) {
-            HandlingContext found = findClientRequestFor(call, parameters);
+            HandlingContext found = findClientRequestFor(call, parameters, namespace);
             if (found == null) {
                 throw new IllegalArgumentException(
                         "Invalid call for " + entityLabel + ": " + call.getOperation());
             }
-            found.handle();
+            HttpCache.handle(found, safe);
             return found;
         } else if (steps != null && !steps.isEmpty()) {
-            return executeSteps(steps, parameters).lastContext;
+            return executeSteps(steps, parameters, namespace, safe).lastContext;
         } else {
             throw new IllegalArgumentException(
                     entityLabel + " has neither call nor steps defined");
         }
     }
 
+    /**
+     * Send a call found by {@link #findClientRequestFor(ServerCallSpec, Map)} through the HTTP
+     * cache and the coalescer, like the calls made by {@link #execute}.
+     *
+     * @param context the client call to send
+     * @param safe true when the caller declares the call safe to share with identical exchanges
+     *        in flight
+     */
+    public static void send(HandlingContext context, boolean safe) {
+        HttpCache.handle(context, safe);
+    }
+
     /**
      * Resolve step output mappings into a composite JSON object.
      *
@@ -784,7 +1401,8 @@ public class OperationStepExecutor {
      *
      * <p>When {@code outputRawFormat} is non-null (e.g. {@code "xml"}), the response text
      * is converted to a JSON tree via {@link Converter#convertToJson(String, String, String)}
-     * before mappings are applied. When {@code null}, the text is parsed as JSON directly.</p>
+     * before mappings are applied. When {@code null}, the text is parsed as JSON directly, through
+     * a {@link StreamingProjection} when the mappings allow it.</p>
      *
      * @param responseText     the raw HTTP response body
      * @param outputParameters the list of output parameter specs to try
@@ -795,15 +1413,49 @@ public class OperationStepExecutor {
     public String applyOutputMappings(String responseText,
             List<OutputParameterSpec> outputParameters,
             String outputRawFormat, String outputSchema) throws IOException {
+        return applyOutputMappings(responseText, outputParameters, outputRawFormat, outputSchema,
+                DelimitedOptions.DEFAULT);
+    }
+
+    /**
+     * Apply output parameter mappings, reading delimited formats with the given options.
+     *
+     * <p>For CSV, TSV and PSV responses whose first output parameter is an array over the whole
+     * response, rows are mapped and written one at a time by {@link DelimitedStreamer} instead of
+     * building the full row tree first.</p>
+     *
+     * @param responseText     the raw HTTP response body
+     * @param outputParameters the list of output parameter specs to try
+     * @param outputRawFormat  the declared format (may be {@code null} for JSON)
+     * @param outputSchema     the declared schema (used by HTML/Markdown selectors)
+     * @param options          the row limit and column typing for delimited formats
+     * @return the first mapped JSON string, or {@code null} if none matched
+     */
+    public String applyOutputMappings(String responseText,
+            List<OutputParameterSpec> outputParameters, String outputRawFormat,
+            String outputSchema, DelimitedOptions options) throws IOException {
         if (responseText == null || responseText.isEmpty()) {
             return null;
         }
         if (outputParameters == null || outputParameters.isEmpty()) {
             return null;
         }
-        JsonNode root = Converter.convertToJson(outputRawFormat, outputSchema, responseText);
+        Character separator = DelimitedStreamer.separator(outputRawFormat);
+        OutputParameterSpec first = outputParameters.get(0);
+        OutputMappingPlan firstPlan = first != null ? precompiledSpec().plan(first) : null;
+        if (separator != null && firstPlan != null && firstPlan.isRowStreamable()) {
+            StringWriter writer = new StringWriter();
+            DelimitedStreamer.write(new StringReader(responseText), separator, firstPlan,
+                    options, writer);
+            return writer.toString();
+        }
+        StreamingProjection projection = StreamingProjection.supportsFormat(outputRawFormat)
+                ? precompiledSpec().projection(outputParameters)
+                : null;
+        JsonNode root = projection != null ? projection.read(responseText)
+                : Converter.convertToJson(outputRawFormat, outputSchema, responseText, options);
         for (OutputParameterSpec outputParam : outputParameters) {
-            JsonNode mapped = Resolver.resolveOutputMappings(outputParam, root, mapper);
+            JsonNode mapped = precompiledSpec().plan(outputParam).execute(root, mapper, null);
             if (mapped != null && !(mapped instanceof NullNode)) {
                 return mapper.writeValueAsString(mapped);
             }
@@ -820,6 +1472,10 @@ public class OperationStepExecutor {
         public Request clientRequest;
         public Response clientResponse;
 
+        /**
+         * Send the call to the upstream API, within the current deadline, and send it again while
+         * the retry policy of the operation asks for it and the call is idempotent.
+         */
         @SuppressWarnings("null") // OTel SDK interop
         public void handle() {
             TelemetryBootstrap telemetry = TelemetryBootstrap.get();
@@ -828,6 +1484,9 @@ public class OperationStepExecutor {
                     ? clientRequest.getMethod().getName() : "UNKNOWN";
             String url = clientRequest.getResourceRef() != null
                     ? clientRequest.getResourceRef().toString() : "unknown";
+            String host = clientRequest.getResourceRef() != null
+                    && clientRequest.getResourceRef().getHostDomain() != null
+                            ? clientRequest.getResourceRef().getHostDomain() : "unknown";
             String namespace = clientAdapter.getHttpClientSpec().getNamespace();
 
             Span span = telemetry.startClientSpan(method, url, namespace);
@@ -839,7 +1498,12 @@ public class OperationStepExecutor {
                         .inject(io.opentelemetry.context.Context.current(), clientRequest,
                                 RestletHeaderSetter.INSTANCE);
 
-                clientAdapter.getHttpClient().handle(clientRequest, clientResponse);
+                RetryPolicy retry = clientAdapter.getRetryPolicy(clientOperation);
+                if (retry != null && RetryPolicy.isIdempotent(clientRequest.getMethod())) {
+                    sendWithRetries(retry, span, method, url, host);
+                } else {
+                    send(method + " " + url);
+                }
 
                 if (clientResponse != null && clientResponse.getStatus() != null) {
                     int statusCode = clientResponse.getStatus().getCode();
@@ -855,15 +1519,122 @@ public class OperationStepExecutor {
             } finally {
                 double clientDurationSec =
                         (System.nanoTime() - clientStartNanos) / 1_000_000_000.0;
-                String host = clientRequest.getResourceRef() != null
-                        ? clientRequest.getResourceRef().getHostDomain() : "unknown";
                 int code = clientResponse != null && clientResponse.getStatus() != null
                         ? clientResponse.getStatus().getCode() : 0;
-                telemetry.getMetrics().recordHttpClient(method, host != null ? host : "unknown",
-                        code, clientDurationSec);
+                telemetry.getMetrics().recordHttpClient(method, host, code, clientDurationSec);
                 TelemetryBootstrap.endSpan(span);
             }
         }
+
+        /**
+         * Send the call once, within the current deadline.
+         */
+        private void send(String work) {
+            Deadline deadline = Deadline.current();
+            if (deadline != null) {
+                // The connector has no per-request timeout, so the call is cut off here. An
+                // abandoned call may still be writing, so it fills a response of its own that is
+                // kept only once the call completes in time
+                Response attempt = new Response(clientRequest);
+                deadline.run(work, () -> clientAdapter.getHttpClient()
+                        .handle(clientRequest, attempt));
+                clientResponse = attempt;
+            } else {
+                clientAdapter.getHttpClient().handle(clientRequest, clientResponse);
+            }
+        }
+
+        /**
+         * Send the call until an attempt succeeds or fails for good, waiting a jittered delay
+         * before each retry. A retry is given up when the delay would outlast the deadline or the
+         * retry budget of the adapter is spent, and the last outcome is kept.
+         */
+        private void sendWithRetries(RetryPolicy retry, Span span, String method, String url,
+                String host) {
+            RetryBudget budget = clientAdapter.getRetryBudget();
+            budget.deposit();
+
+            // A streamed body cannot be sent twice, so only textual bodies are sent again
+            Representation body = clientRequest.getEntity();
+            String text = body instanceof StringRepresentation string ? string.getText() : null;
+            if (body != null && text == null) {
+                send(method + " " + url);
+                return;
+            }
+
+            for (int attempt = 1;; attempt++) {
+                RuntimeException error = null;
+                try {
+                    send(method + " " + url);
+                } catch (DeadlineExceededException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+
+                Status status = clientResponse != null ? clientResponse.getStatus() : null;
+                if (attempt >= retry.getMaxAttempts() || !retry.shouldRetry(status, error)) {
+                    rethrow(error);
+                    return;
+                }
+                long delay = retry.delayMillis(attempt);
+                Deadline deadline = Deadline.current();
+                if (deadline != null && deadline.remainingMillis() <= delay) {
+                    rethrow(error);
+                    return;
+                }
+                boolean sent = budget.tryAcquire();
+                TelemetryBootstrap.get().getMetrics().recordHttpClientRetry(method, host, sent);
+                if (!sent) {
+                    rethrow(error);
+                    return;
+                }
+                TelemetryBootstrap.recordRetry(span, attempt,
+                        error == null && status != null ? status.getCode() : 0, delay);
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting to retry "
+                            + method + " " + url, e);
+                }
+
+                if (clientResponse != null && clientResponse.getEntity() != null) {
+                    clientResponse.getEntity().release();
+                }
+                clientResponse = new Response(clientRequest);
+                if (body != null) {
+                    StringRepresentation copy =
+                            new StringRepresentation(text, body.getMediaType());
+                    copy.setCharacterSet(body.getCharacterSet());
+                    clientRequest.setEntity(copy);
+                }
+            }
+        }
+
+        private static void rethrow(RuntimeException error) {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Outcome of a single step.
+     *
+     * @param context the client call context of a call step, or null
+     * @param output the output stored under the step name, or null
+     * @param parameter true when the output is also exposed as a template parameter
+     * @param indexes the lookup indexes shared with other executions, or null
+     */
+    private record StepResult(HandlingContext context, JsonNode output, boolean parameter,
+            Map<String, Map<String, JsonNode>> indexes) {
+
+        StepResult(HandlingContext context, JsonNode output, boolean parameter) {
+            this(context, output, parameter, null);
+        }
+
     }
 
     /**
@@ -0,0 +1,455 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.naftiko.spec.OutputParameterSpec;
+
+/**
+ * Immutable, precompiled form of an {@link OutputParameterSpec} tree.
+ *
+ * <p>Compiling a plan resolves once what {@link Resolver#resolveOutputMappings} used to work out
+ * on every response: the parameter type, the parsed {@code maxLength} limit and the accessor for
+ * each mapping. Simple dotted paths such as {@code $.a.b} are read with direct field access; any
+ * other expression is evaluated through its compiled form in {@link JsonPathRegistry}.</p>
+ *
+ * <p>Plans for spec-declared parameters are built at capability load by {@link SpecPrecompiler}
+ * and held by the capability's {@link PrecompiledSpec}, so they live exactly as long as the spec
+ * they were compiled from. Specs are treated as immutable once loaded. Plans are safe to execute
+ * concurrently.</p>
+ */
+public final class OutputMappingPlan {
+
+    /**
+     * Dotted property paths made of plain identifiers, e.g. {@code $.vessel.imo_number}.
+     */
+    private static final Pattern SIMPLE_PATH = Pattern.compile("\\$(\\.[A-Za-z0-9_\\-]+)+");
+
+    private enum Kind {
+        VALUE, ARRAY, MAP, OBJECT, PRIMITIVE
+    }
+
+    private enum ItemKind {
+        PASSTHROUGH, OBJECT, MAPPED
+    }
+
+    private final Kind kind;
+    private final String value;
+    private final Extraction extraction;
+
+    // ARRAY
+    private final ItemKind itemKind;
+    private final List<Field> itemFields;
+    private final Extraction itemExtraction;
+
+    // MAP
+    private final Extraction valuesExtraction;
+
+    // OBJECT
+    private final List<Property> properties;
+
+    private OutputMappingPlan(OutputParameterSpec spec) {
+        String type = spec.getType();
+        Kind k;
+        if (spec.getValue() != null) {
+            k = Kind.VALUE;
+        } else if ("array".equalsIgnoreCase(type)) {
+            k = Kind.ARRAY;
+        } else if ("object".equalsIgnoreCase(type)) {
+            k = spec.getValues() != null && spec.getMapping() != null ? Kind.MAP : Kind.OBJECT;
+        } else {
+            k = Kind.PRIMITIVE;
+        }
+
+        this.kind = k;
+        this.value = spec.getValue();
+        this.extraction = Extraction.of(spec);
+
+        ItemKind ik = null;
+        List<Field> fields = List.of();
+        Extraction itemEx = null;
+        if (k == Kind.ARRAY) {
+            OutputParameterSpec items = spec.getItems();
+            if (items == null) {
+                ik = ItemKind.PASSTHROUGH;
+            } else if ("object".equalsIgnoreCase(items.getType())
+                    && items.getProperties() != null && !items.getProperties().isEmpty()) {
+                ik = ItemKind.OBJECT;
+                List<Field> compiled = new ArrayList<>();
+                for (OutputParameterSpec prop : items.getProperties()) {
+                    compiled.add(new Field(prop.getName(), Extraction.of(prop)));
+                }
+                fields = List.copyOf(compiled);
+            } else if (items.getMapping() != null) {
+                ik = ItemKind.MAPPED;
+                itemEx = Extraction.of(items);
+            } else {
+                ik = ItemKind.PASSTHROUGH;
+            }
+        }
+        this.itemKind = ik;
+        this.itemFields = fields;
+        this.itemExtraction = itemEx;
+
+        this.valuesExtraction = k == Kind.MAP ? Extraction.of(spec.getValues()) : null;
+
+        List<Property> props = List.of();
+        if (k == Kind.OBJECT && spec.getProperties() != null) {
+            List<Property> compiled = new ArrayList<>();
+            for (OutputParameterSpec prop : spec.getProperties()) {
+                if (prop.getMapping() == null && "object".equalsIgnoreCase(prop.getType())
+                        && prop.getProperties() != null && !prop.getProperties().isEmpty()) {
+                    compiled.add(new Property(prop.getName(), new OutputMappingPlan(prop), null));
+                } else {
+                    compiled.add(new Property(prop.getName(), null, Extraction.of(prop)));
+                }
+            }
+            props = List.copyOf(compiled);
+        }
+        this.properties = props;
+    }
+
+    /**
+     * Compile a plan.
+     *
+     * @param spec the output parameter spec, must not be null
+     * @return the compiled plan
+     */
+    public static OutputMappingPlan compile(OutputParameterSpec spec) {
+        return new OutputMappingPlan(spec);
+    }
+
+    /**
+     * Build the mapped JSON node for a client response root.
+     *
+     * @param clientRoot the client response root
+     * @param mapper Jackson mapper providing the node factory
+     * @param parameters input parameters for Mustache resolution of {@code value} (may be null)
+     * @return the mapped node, {@link NullNode} when nothing could be mapped
+     */
+    public JsonNode execute(JsonNode clientRoot, ObjectMapper mapper,
+            Map<String, Object> parameters) {
+        switch (kind) {
+            case VALUE:
+                return mapper.getNodeFactory()
+                        .textNode(Resolver.resolveMustacheTemplate(value, parameters));
+
+            case ARRAY: {
+                JsonNode arrayRoot = extraction.apply(clientRoot);
+                if (arrayRoot == null || !arrayRoot.isArray()) {
+                    return NullNode.instance;
+                }
+
+                ArrayNode outArray = mapper.createArrayNode();
+                for (JsonNode element : arrayRoot) {
+                    outArray.add(mapElement(element, mapper));
+                }
+                return outArray;
+            }
+
+            case MAP: {
+                JsonNode mapRoot = extraction.apply(clientRoot);
+                if (mapRoot == null || !mapRoot.isObject()) {
+                    return NullNode.instance;
+                }
+
+                ObjectNode outObj = mapper.createObjectNode();
+                mapRoot.properties().forEach(entry -> {
+                    JsonNode mappedVal = valuesExtraction.applyOrSelf(entry.getValue());
+                    outObj.set(entry.getKey(), mappedVal == null ? NullNode.instance : mappedVal);
+                });
+                return outObj;
+            }
+
+            case OBJECT: {
+                ObjectNode outObj = mapper.createObjectNode();
+                for (Property prop : properties) {
+                    // Nested objects are resolved without parameters, as in Resolver
+                    JsonNode val = prop.nested() != null
+                            ? prop.nested().execute(clientRoot, mapper, null)
+                            : prop.extraction().apply(clientRoot);
+                    if (val == null || val instanceof NullNode) {
+                        outObj.putNull(prop.name());
+                    } else {
+                        outObj.set(prop.name(), val);
+                    }
+                }
+                return outObj;
+            }
+
+            default: {
+                JsonNode v = extraction.apply(clientRoot);
+                return v == null ? NullNode.instance : v;
+            }
+        }
+    }
+
+    /**
+     * @return true for an array plan over the whole client response ({@code mapping: "$"}), whose
+     *         elements can be mapped one at a time with {@link #mapElement}
+     */
+    public boolean isRowStreamable() {
+        return kind == Kind.ARRAY && extraction.root;
+    }
+
+    /**
+     * Map one element of the array read by an array plan through its {@code items}.
+     *
+     * @param element the array element
+     * @param mapper Jackson mapper providing the node factory
+     * @return the mapped element, never null
+     */
+    public JsonNode mapElement(JsonNode element, ObjectMapper mapper) {
+        switch (itemKind) {
+            case OBJECT:
+                ObjectNode outObj = mapper.createObjectNode();
+                for (Field field : itemFields) {
+                    JsonNode val = field.extraction().apply(element);
+                    if (val == null) {
+                        outObj.putNull(field.name());
+                    } else {
+                        outObj.set(field.name(), val);
+                    }
+                }
+                return outObj;
+            case MAPPED:
+                JsonNode val = itemExtraction.apply(element);
+                return val == null ? NullNode.instance : val;
+            default:
+                return element;
+        }
+    }
+
+    /**
+     * Record in a streaming selection the parts of the client response this plan reads.
+     *
+     * @param root the selection for the client response root
+     * @return false when the plan uses a mapping that needs the full tree
+     */
+    boolean project(StreamingProjection.Node root) {
+        switch (kind) {
+            case VALUE:
+                return true;
+
+            case ARRAY: {
+                if (!extraction.isStreamable()) {
+                    return false;
+                }
+                StreamingProjection.Node array = extraction.target(root);
+                if (array == null) {
+                    return true;
+                }
+                StreamingProjection.Node element = array.elements();
+                switch (itemKind) {
+                    case OBJECT:
+                        for (Field field : itemFields) {
+                            if (!field.extraction().select(element)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    case MAPPED:
+                        return itemExtraction.select(element);
+                    default:
+                        element.selectAll();
+                        return true;
+                }
+            }
+
+            case MAP: {
+                if (!extraction.isStreamable()) {
+                    return false;
+                }
+                StreamingProjection.Node map = extraction.target(root);
+                if (map == null) {
+                    return true;
+                }
+                if (valuesExtraction.hasMapping) {
+                    return valuesExtraction.select(map.members());
+                }
+                map.members().selectAll();
+                return true;
+            }
+
+            case OBJECT:
+                for (Property prop : properties) {
+                    boolean streamable = prop.nested() != null ? prop.nested().project(root)
+                            : prop.extraction().select(root);
+                    if (!streamable) {
+                        return false;
+                    }
+                }
+                return true;
+
+            default:
+                return extraction.select(root);
+        }
+    }
+
+    /**
+     * Parse a {@code maxLength} declaration once.
+     *
+     * @return the limit, or -1 when absent or not a valid integer
+     */
+    static int parseMaxLength(String maxLength) {
+        if (maxLength == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(maxLength);
+        } catch (NumberFormatException nfe) {
+            // ignore invalid maxLength
+            return -1;
+        }
+    }
+
+    /**
+     * Split a simple dotted path into its field names, or return null when the mapping needs the
+     * full JsonPath engine.
+     */
+    static String[] simplePathFields(String mapping) {
+        if (!SIMPLE_PATH.matcher(mapping).matches()) {
+            return null;
+        }
+        return mapping.substring(2).split("\\.");
+    }
+
+    private record Field(String name, Extraction extraction) {
+    }
+
+    private record Property(String name, OutputMappingPlan nested, Extraction extraction) {
+    }
+
+    /**
+     * Precompiled accessor for a single mapping, followed by its {@code maxLength} limit.
+     */
+    private static final class Extraction {
+
+        private final boolean hasMapping;
+        private final boolean root;
+        private final String[] fields;
+        private final JsonPathRegistry.CompiledPath compiled;
+        private final int maxLength;
+
+        private Extraction(String mapping, int maxLength) {
+            String m = mapping != null ? mapping.trim() : "";
+            boolean usable = mapping != null && !mapping.isEmpty();
+            this.hasMapping = mapping != null;
+            this.root = usable && (m.equals("$") || m.equals("$."));
+            this.fields = usable && !root ? simplePathFields(m) : null;
+            this.compiled = usable && !root && fields == null ? JsonPathRegistry.lookup(m) : null;
+            this.maxLength = maxLength;
+        }
+
+        static Extraction of(OutputParameterSpec spec) {
+            return new Extraction(spec.getMapping(), parseMaxLength(spec.getMaxLength()));
+        }
+
+        /**
+         * @return false when the mapping needs the full JsonPath engine
+         */
+        boolean isStreamable() {
+            return compiled == null;
+        }
+
+        /**
+         * Walk a streaming selection down to the node this mapping reads.
+         *
+         * @return the target selection, or null when the mapping reads nothing
+         */
+        StreamingProjection.Node target(StreamingProjection.Node node) {
+            if (root) {
+                return node;
+            }
+            if (fields == null) {
+                return null;
+            }
+            StreamingProjection.Node current = node;
+            for (String field : fields) {
+                current = current.field(field);
+            }
+            return current;
+        }
+
+        /**
+         * Select the whole value this mapping reads.
+         *
+         * @return false when the mapping needs the full JsonPath engine
+         */
+        boolean select(StreamingProjection.Node node) {
+            if (!isStreamable()) {
+                return false;
+            }
+            StreamingProjection.Node target = target(node);
+            if (target != null) {
+                target.selectAll();
+            }
+            return true;
+        }
+
+        /**
+         * Extract the mapped node and apply the length limit.
+         */
+        JsonNode apply(JsonNode node) {
+            return truncate(read(node));
+        }
+
+        /**
+         * Same as {@link #apply(JsonNode)}, but an absent mapping selects the node itself.
+         */
+        JsonNode applyOrSelf(JsonNode node) {
+            return truncate(hasMapping ? read(node) : node);
+        }
+
+        private JsonNode read(JsonNode node) {
+            if (root) {
+                return node == null ? NullNode.instance : node;
+            }
+            if (compiled != null) {
+                return JsonPathRegistry.read(node, compiled);
+            }
+            if (fields == null) {
+                return NullNode.instance;
+            }
+
+            JsonNode current = node;
+            for (String field : fields) {
+                if (current == null || !current.isObject()) {
+                    return NullNode.instance;
+                }
+                current = current.get(field);
+            }
+            return current == null ? NullNode.instance : current;
+        }
+
+        private JsonNode truncate(JsonNode node) {
+            if (maxLength < 0 || node == null || !node.isTextual()) {
+                return node;
+            }
+            String s = node.asText();
+            return s.length() > maxLength ? TextNode.valueOf(s.substring(0, maxLength)) : node;
+        }
+
+    }
+
+}
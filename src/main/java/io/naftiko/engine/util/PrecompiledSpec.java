@@ -0,0 +1,120 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+
+/**
+ * Immutable, compiled state of one capability spec, built at load time by
+ * {@link SpecPrecompiler} and held by the capability for as long as it runs.
+ *
+ * <p>Output mapping plans, streaming projections and step dependency plans are keyed by the
+ * identity of the spec objects they were compiled from, so they are released together with the capability and never outlive
+ * the spec. Parameters and steps that were not declared in the spec (built by a test or at run
+ * time) are compiled on every lookup instead.</p>
+ *
+ * <p>It also records the templates pinned in the shared template cache on behalf of the
+ * capability, which releases them when it stops.</p>
+ */
+public final class PrecompiledSpec {
+
+    /**
+     * Compiled state of a capability without a spec: every lookup compiles on demand.
+     */
+    public static final PrecompiledSpec EMPTY =
+            new PrecompiledSpec(Map.of(), Map.of(), Map.of(), Set.of());
+
+    private final Map<OutputParameterSpec, OutputMappingPlan> plans;
+    private final Map<List<OutputParameterSpec>, StreamingProjection> projections;
+    private final Map<List<OperationStepSpec>, StepPlan> stepPlans;
+    private final Set<String> templates;
+
+    PrecompiledSpec(Map<OutputParameterSpec, OutputMappingPlan> plans,
+            Map<List<OutputParameterSpec>, StreamingProjection> projections,
+            Map<List<OperationStepSpec>, StepPlan> stepPlans, Set<String> templates) {
+        this.plans = Collections.unmodifiableMap(new IdentityHashMap<>(plans));
+        this.projections = Collections.unmodifiableMap(new IdentityHashMap<>(projections));
+        this.stepPlans = Collections.unmodifiableMap(new IdentityHashMap<>(stepPlans));
+        this.templates = Set.copyOf(templates);
+    }
+
+    /**
+     * Return the plan compiled for a declared output parameter.
+     *
+     * @param spec the output parameter spec, must not be null
+     * @return the precompiled plan, or a freshly compiled one when the spec was not declared
+     */
+    public OutputMappingPlan plan(OutputParameterSpec spec) {
+        OutputMappingPlan plan = plans.get(spec);
+        return plan != null ? plan : OutputMappingPlan.compile(spec);
+    }
+
+    /**
+     * Return the projection compiled for a declared list of output parameters.
+     *
+     * @param outputParameters the output parameter specs, as declared in the spec
+     * @return the projection, or {@code null} when the parameters need the full tree
+     */
+    public StreamingProjection projection(List<OutputParameterSpec> outputParameters) {
+        // A declared list that needs the full tree is held with a null projection
+        if (outputParameters != null && projections.containsKey(outputParameters)) {
+            return projections.get(outputParameters);
+        }
+        return StreamingProjection.of(outputParameters);
+    }
+
+    /**
+     * Return the dependency plan compiled for a declared list of steps.
+     *
+     * @param steps the steps, as declared in the spec
+     * @param index the consumed operations of the capability, used for undeclared steps (may be
+     *        null)
+     * @return the precompiled plan, or a freshly analysed one when the steps were not declared
+     */
+    StepPlan stepPlan(List<OperationStepSpec> steps, OperationIndex index) {
+        StepPlan plan = stepPlans.get(steps);
+        return plan != null ? plan : StepPlan.of(steps, index);
+    }
+
+    /**
+     * @param spec the output parameter spec
+     * @return true when a plan was compiled for this exact spec instance
+     */
+    boolean hasPlan(OutputParameterSpec spec) {
+        return spec != null && plans.containsKey(spec);
+    }
+
+    /**
+     * @param outputParameters the output parameter specs
+     * @return true when a projection was compiled for this exact list instance
+     */
+    boolean hasProjection(List<OutputParameterSpec> outputParameters) {
+        return outputParameters != null && projections.containsKey(outputParameters);
+    }
+
+    /**
+     * @return the template texts pinned in the shared template cache on behalf of this spec
+     */
+    public Set<String> getTemplates() {
+        return templates;
+    }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Incremental reader of the records of a multi-record response (delimited rows, Avro container
+ * records, length-delimited Protobuf messages), each decoded to a {@link JsonNode}.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * @return the next record, or {@code null} when the response has no more records
+     * @throws IOException if the record cannot be read or decoded
+     */
+    JsonNode next() throws IOException;
+
+}
@@ -0,0 +1,376 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.restlet.representation.Representation;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+
+/**
+ * Incremental decoding of multi-record responses into a JSON array.
+ *
+ * <p>A consumed operation produces a record stream when its {@code outputRawFormat} is delimited
+ * (CSV, TSV, PSV), or when its {@code outputFraming} declares several binary records: an Avro
+ * object container file ({@code container}) or length-delimited Protobuf messages
+ * ({@code delimited}). Records are decoded one at a time, reusing the Avro record instance and the
+ * Protobuf read buffer, so an array output mapping over the whole response ({@code mapping: "$"})
+ * can be written with memory bounded by a single record.</p>
+ */
+public final class RecordStreamer {
+
+    /**
+     * One record per response, the default.
+     */
+    public static final String FRAMING_SINGLE = "single";
+
+    /**
+     * Protobuf messages, each preceded by its length as a varint.
+     */
+    public static final String FRAMING_DELIMITED = "delimited";
+
+    /**
+     * Avro object container file.
+     */
+    public static final String FRAMING_CONTAINER = "container";
+
+    private RecordStreamer() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * @param operation the consumed operation (may be null)
+     * @return true when the operation's responses are read as a sequence of records
+     */
+    public static boolean isRecordStream(HttpClientOperationSpec operation) {
+        if (operation == null) {
+            return false;
+        }
+        if (DelimitedStreamer.separator(operation.getOutputRawFormat()) != null) {
+            return true;
+        }
+        ConversionFormat fmt = ConversionFormat.fromLabel(operation.getOutputRawFormat());
+        String framing = operation.getOutputFraming();
+        return (fmt == ConversionFormat.PROTOBUF || fmt == ConversionFormat.AVRO)
+                && framing != null && !FRAMING_SINGLE.equalsIgnoreCase(framing);
+    }
+
+    /**
+     * Check that an operation's framing applies to its format and that its schema can be loaded,
+     * so that errors surface before a streamed response is committed.
+     *
+     * @param operation the consumed operation, for which {@link #isRecordStream} is true
+     * @throws IOException if the framing does not apply to the format or the schema is missing
+     */
+    public static void validate(HttpClientOperationSpec operation) throws IOException {
+        if (DelimitedStreamer.separator(operation.getOutputRawFormat()) != null) {
+            return;
+        }
+
+        ConversionFormat fmt = ConversionFormat.fromLabel(operation.getOutputRawFormat());
+        String framing = operation.getOutputFraming();
+        String schema = operation.getOutputSchema();
+        if (fmt == ConversionFormat.PROTOBUF && FRAMING_DELIMITED.equalsIgnoreCase(framing)) {
+            if (schema == null || schema.isEmpty()) {
+                throw new IOException(
+                        "Protobuf format requires outputSchema to be specified in operation specification");
+            }
+            SchemaCache.protobuf(schema);
+        } else if (fmt == ConversionFormat.AVRO && FRAMING_CONTAINER.equalsIgnoreCase(framing)) {
+            if (schema != null && !schema.isEmpty()) {
+                SchemaCache.avro(schema);
+            }
+        } else {
+            throw new IOException("Unsupported \"" + framing + "\" framing for \"" + fmt.label
+                    + "\" format");
+        }
+    }
+
+    /**
+     * Open a record reader over a response entity.
+     *
+     * @param operation the consumed operation declaring the format, schema and framing
+     * @param entity the response entity
+     * @return the reader, or {@code null} when {@link #isRecordStream} is false
+     * @throws IOException if {@link #validate} fails or the stream header is invalid
+     */
+    public static RecordReader open(HttpClientOperationSpec operation, Representation entity)
+            throws IOException {
+        if (!isRecordStream(operation)) {
+            return null;
+        }
+        validate(operation);
+
+        DelimitedOptions options = DelimitedOptions.of(operation);
+        Character separator = DelimitedStreamer.separator(operation.getOutputRawFormat());
+        if (separator != null) {
+            return DelimitedStreamer.rows(entity.getReader(), separator, options);
+        }
+
+        String schema = operation.getOutputSchema();
+        if (ConversionFormat.fromLabel(operation.getOutputRawFormat())
+                == ConversionFormat.PROTOBUF) {
+            return limit(new ProtobufRecords(entity.getStream(),
+                    SchemaCache.protobuf(schema).reader()), options.rowLimit());
+        }
+
+        // Container files embed their writer schema; outputSchema is an optional reader schema
+        GenericDatumReader<GenericRecord> datumReader = schema == null || schema.isEmpty()
+                ? new GenericDatumReader<>()
+                : new GenericDatumReader<>(SchemaCache.avro(schema).schema());
+        return limit(new AvroContainerRecords(entity.getStream(), datumReader),
+                options.rowLimit());
+    }
+
+    /**
+     * Read and map the first record ahead of writing, so that an invalid stream header or first
+     * record fails before a response is committed.
+     *
+     * @param records the records, closed when the first one cannot be read or mapped
+     * @param plan the plan the records are written with
+     * @return a reader returning the first record again, then the following ones
+     * @throws IOException if the first record cannot be read
+     */
+    public static RecordReader prefetch(RecordReader records, OutputMappingPlan plan)
+            throws IOException {
+        JsonNode first;
+        try {
+            first = records.next();
+            if (first != null) {
+                plan.mapElement(first, FormatMappers.json());
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                records.close();
+            } catch (IOException closing) {
+                e.addSuppressed(closing);
+            }
+            throw e;
+        }
+        return new RecordReader() {
+
+            private boolean pending = true;
+
+            @Override
+            public JsonNode next() throws IOException {
+                if (pending) {
+                    pending = false;
+                    return first;
+                }
+                return first != null ? records.next() : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                records.close();
+            }
+
+        };
+    }
+
+    /**
+     * Map every record through an array plan and write the results as a JSON array. A record
+     * failing to be read leaves the array unterminated, so that a truncated stream never reads
+     * as a complete one.
+     *
+     * @param records the records, read to the end but not closed
+     * @param plan a plan for which {@link OutputMappingPlan#isRowStreamable()} is true
+     * @param writer the destination, flushed but not closed
+     * @throws IOException if a record cannot be read or the destination written
+     */
+    public static void write(RecordReader records, OutputMappingPlan plan, Writer writer)
+            throws IOException {
+        ObjectMapper mapper = FormatMappers.json();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            generator.writeStartArray();
+            JsonNode record;
+            while ((record = records.next()) != null) {
+                generator.writeTree(plan.mapElement(record, mapper));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Read every record into an array, for mappings that need the whole response.
+     *
+     * @param records the records, read to the end but not closed
+     * @return the array of records
+     * @throws IOException if a record cannot be read
+     */
+    public static ArrayNode readAll(RecordReader records) throws IOException {
+        ArrayNode array = FormatMappers.json().createArrayNode();
+        JsonNode record;
+        while ((record = records.next()) != null) {
+            array.add(record);
+        }
+        return array;
+    }
+
+    /**
+     * @param rowLimit maximum number of records, or -1 for no limit
+     * @return a reader returning at most {@code rowLimit} records
+     */
+    static RecordReader limit(RecordReader records, int rowLimit) {
+        if (rowLimit < 0) {
+            return records;
+        }
+        return new RecordReader() {
+
+            private int count;
+
+            @Override
+            public JsonNode next() throws IOException {
+                if (count >= rowLimit) {
+                    return null;
+                }
+                JsonNode record = records.next();
+                if (record != null) {
+                    count++;
+                }
+                return record;
+            }
+
+            @Override
+            public void close() throws IOException {
+                records.close();
+            }
+
+        };
+    }
+
+    /**
+     * Protobuf messages, each preceded by its length as a base 128 varint.
+     *
+     * <p>A declared length above {@link #MAX_RECORD_SIZE} fails the stream, so that a corrupt
+     * length cannot make the server allocate an arbitrary amount of memory.</p>
+     */
+    static final class ProtobufRecords implements RecordReader {
+
+        /**
+         * Largest message accepted, in bytes.
+         */
+        static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+        private final InputStream in;
+        private final ObjectReader reader;
+        private byte[] buffer = new byte[4096];
+
+        ProtobufRecords(InputStream in, ObjectReader reader) {
+            this.in = new BufferedInputStream(in);
+            this.reader = reader;
+        }
+
+        @Override
+        public JsonNode next() throws IOException {
+            int length = readLength();
+            if (length < 0) {
+                return null;
+            }
+            if (length > MAX_RECORD_SIZE) {
+                throw new IOException("Protobuf record of " + length
+                        + " bytes exceeds the maximum of " + MAX_RECORD_SIZE + " bytes");
+            }
+            if (length > buffer.length) {
+                buffer = new byte[Math.min(MAX_RECORD_SIZE, Math.max(length, buffer.length * 2))];
+            }
+            if (in.readNBytes(buffer, 0, length) < length) {
+                throw new EOFException("Truncated Protobuf record");
+            }
+            return reader.readValue(buffer, 0, length);
+        }
+
+        /**
+         * @return the length of the next message, or -1 at the end of the stream
+         */
+        private int readLength() throws IOException {
+            int length = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    if (shift == 0) {
+                        return -1;
+                    }
+                    throw new EOFException("Truncated Protobuf record length");
+                }
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (length < 0) {
+                        break;
+                    }
+                    return length;
+                }
+            }
+            throw new IOException("Invalid Protobuf record length");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+    }
+
+    /**
+     * Records of an Avro object container file, decoded into a single reused record.
+     */
+    static final class AvroContainerRecords implements RecordReader {
+
+        private final DataFileStream<GenericRecord> stream;
+        private GenericRecord reuse;
+
+        AvroContainerRecords(InputStream in, GenericDatumReader<GenericRecord> datumReader)
+                throws IOException {
+            this.stream = new DataFileStream<>(in, datumReader);
+        }
+
+        @Override
+        public JsonNode next() throws IOException {
+            try {
+                if (!stream.hasNext()) {
+                    return null;
+                }
+                reuse = stream.next(reuse);
+            } catch (AvroRuntimeException e) {
+                // Avro wraps the read failures of its iterator
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw new IOException("Invalid Avro record: " + e.getMessage(), e);
+            }
+            return Converter.convertAvroDatumToJson(reuse);
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+
+    }
+
+}
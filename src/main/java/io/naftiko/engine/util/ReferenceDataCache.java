@@ -0,0 +1,145 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+
+/**
+ * Cross-request cache of reference data fetched by call steps declaring a {@code ttl}.
+ *
+ * <p>The mapped output of such a step is kept for {@code ttl} seconds, keyed by the step call and
+ * the resolved request, together with the lookup indexes built over it, so that a lookup step
+ * using it as its index does not rebuild them on every request. Once the data is stale it is still
+ * served while a single background call refreshes it; a failed refresh keeps the stale data and is
+ * retried by the next request. Data stale for more than {@link #MAX_STALE_TTLS} times its
+ * {@code ttl} is no longer served: the request fetches it again itself, and fails if that
+ * fails.</p>
+ */
+final class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    static final int MAX_ENTRIES = 256;
+
+    static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Number of {@code ttl} periods past which stale data is no longer served.
+     */
+    static final int MAX_STALE_TTLS = 10;
+
+    static final ResponseCache<ReferenceData> CACHE =
+            new ResponseCache<>("reference", MAX_ENTRIES, MAX_BYTES);
+
+    private static final Set<String> REFRESHING = ConcurrentHashMap.newKeySet();
+
+    private static final ExecutorService REFRESH_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("naftiko-refresh-", 0).factory());
+
+    private ReferenceDataCache() {}
+
+    /**
+     * Reference data with the lookup indexes built over it.
+     *
+     * @param response the upstream response the data was read from
+     * @param output the mapped step output
+     * @param indexes the lookup indexes over the output, by match field, built on first use
+     */
+    record ReferenceData(BufferedResponse response, JsonNode output,
+            Map<String, Map<String, JsonNode>> indexes) {
+
+        ReferenceData(BufferedResponse response, JsonNode output) {
+            this(response, output, new ConcurrentHashMap<>());
+        }
+
+    }
+
+    /**
+     * Serve the reference data of a call step from the cache, or load it with the given call.
+     *
+     * <p>On a miss, {@code loader} handles {@code context} itself. On a hit, the cached response
+     * is copied into {@code context} instead, and a stale entry is refreshed in the background
+     * with a call from {@code refresh}.</p>
+     *
+     * @param key the identity of the step call
+     * @param ttl the number of seconds the data stays fresh
+     * @param context the client call of the step
+     * @param refresh builds an equivalent client call for a background refresh, on the refresh
+     *        thread
+     * @param loader handles a client call and reads its reference data, returning null when the
+     *        response cannot be cached
+     * @return the reference data, or null when {@code context} was handled but its response
+     *         cannot be cached
+     */
+    static ReferenceData fetch(String key, int ttl, HandlingContext context,
+            Supplier<HandlingContext> refresh, Function<HandlingContext, ReferenceData> loader) {
+        long now = System.currentTimeMillis();
+        ResponseCache.Entry<ReferenceData> cached = CACHE.get(key);
+        if (cached != null && now - cached.expiresAt() > ttl * 1000L * MAX_STALE_TTLS) {
+            // Background refreshes kept failing, so the data is too old to serve
+            CACHE.remove(key);
+            cached = null;
+        }
+        if (cached == null) {
+            CACHE.miss();
+            ReferenceData data = loader.apply(context);
+            store(key, ttl, data);
+            return data;
+        }
+
+        CACHE.hit();
+        if (!cached.isFresh(now) && REFRESHING.add(key)) {
+            // The refresh outlives the request, so it is not bound by its deadline
+            io.opentelemetry.context.Context background =
+                    Deadline.detach(io.opentelemetry.context.Context.current());
+            REFRESH_THREADS.execute(background.wrap(() -> {
+                try {
+                    store(key, ttl, loader.apply(refresh.get()));
+                } catch (RuntimeException e) {
+                    logger.warn("Cannot refresh reference data, serving stale data: {}",
+                            e.getMessage());
+                } finally {
+                    REFRESHING.remove(key);
+                }
+            }));
+        }
+        cached.value().response().applyTo(context.clientResponse);
+        return cached.value();
+    }
+
+    private static void store(String key, int ttl, ReferenceData data) {
+        if (data != null) {
+            CACHE.put(key, data, data.response().size(),
+                    System.currentTimeMillis() + ttl * 1000L);
+        }
+    }
+
+    /**
+     * @return true while a background refresh of the key is running
+     */
+    static boolean isRefreshing(String key) {
+        return REFRESHING.contains(key);
+    }
+
+}
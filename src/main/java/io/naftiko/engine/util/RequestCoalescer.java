@@ -0,0 +1,308 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.restlet.Request;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.Conditions;
+import org.restlet.data.Header;
+import org.restlet.data.Tag;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import io.naftiko.engine.observability.TelemetryBootstrap;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+
+/**
+ * Single-flight coalescing of identical upstream exchanges.
+ *
+ * <p>Calls to an adapter declaring {@code coalesce: true} that have the same method, resolved URI,
+ * headers, credentials and body share the first one in flight: only that call reaches the upstream
+ * API, and its {@link BufferedResponse} is copied into the responses of the calls that joined it. A
+ * failure is shared the same way. An exchange is forgotten as soon as it completes, so nothing is
+ * kept beyond the calls overlapping with it. Calls are keyed by a digest of their identity, which
+ * the HTTP cache and the reference data cache reuse.</p>
+ *
+ * <p>A call that joins an exchange waits for it no longer than its own {@link Deadline}. When the
+ * exchange fails because the deadline of the call that made it passed, a call that joined it
+ * makes the exchange again rather than share that failure.</p>
+ *
+ * <p>Only {@code GET} and {@code HEAD} calls are coalesced, unless the caller declares the whole
+ * execution safe, as an aggregate function with {@code semantics.safe: true} does.</p>
+ */
+final class RequestCoalescer {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD");
+
+    private static final Map<String, CompletableFuture<BufferedResponse>> IN_FLIGHT =
+            new ConcurrentHashMap<>();
+
+    private static final AtomicLong ORIGINATED = new AtomicLong();
+
+    private static final AtomicLong COALESCED = new AtomicLong();
+
+    private static final AtomicLong WAITING = new AtomicLong();
+
+    private RequestCoalescer() {}
+
+    /**
+     * Handle a client call, sharing an identical exchange already in flight when the call can be
+     * coalesced.
+     *
+     * @param context the client call
+     * @param safe true when the caller declares every call it makes safe to share
+     */
+    static void handle(HandlingContext context, boolean safe) {
+        String key = key(context, safe);
+        if (key == null) {
+            context.handle();
+            return;
+        }
+
+        String method = context.clientRequest.getMethod().getName();
+        String host = context.clientRequest.getResourceRef().getHostDomain();
+        while (true) {
+            CompletableFuture<BufferedResponse> flight = new CompletableFuture<>();
+            CompletableFuture<BufferedResponse> leader = IN_FLIGHT.putIfAbsent(key, flight);
+
+            if (leader == null) {
+                ORIGINATED.incrementAndGet();
+                TelemetryBootstrap.get().getMetrics().recordHttpClientCoalescing(method,
+                        host != null ? host : "unknown", false);
+                try {
+                    context.handle();
+                    flight.complete(BufferedResponse.of(context.clientResponse));
+                } catch (IOException e) {
+                    IllegalStateException failure =
+                            new IllegalStateException("Cannot buffer the upstream response", e);
+                    flight.completeExceptionally(failure);
+                    throw failure;
+                } catch (RuntimeException | Error e) {
+                    flight.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    IN_FLIGHT.remove(key, flight);
+                }
+                return;
+            }
+
+            boolean served;
+            WAITING.incrementAndGet();
+            try {
+                served = follow(leader, context);
+            } finally {
+                WAITING.decrementAndGet();
+            }
+            if (served) {
+                // Counted once, and only when the response came from the leader's exchange
+                COALESCED.incrementAndGet();
+                TelemetryBootstrap.get().getMetrics().recordHttpClientCoalescing(method,
+                        host != null ? host : "unknown", true);
+                return;
+            }
+            // The leader ran out of its own time, so this call takes over with the time it has
+            IN_FLIGHT.remove(key, leader);
+        }
+    }
+
+    /**
+     * Wait for the exchange of a leader within the current deadline, and copy its response.
+     *
+     * @return true when the response was copied, false when the leader failed because of its own
+     *         deadline and the call must be made again
+     */
+    private static boolean follow(CompletableFuture<BufferedResponse> leader,
+            HandlingContext context) {
+        Deadline deadline = Deadline.current();
+        try {
+            BufferedResponse response = deadline != null
+                    ? leader.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)
+                    : leader.get();
+            response.applyTo(context.clientResponse);
+            return true;
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(
+                    "Coalesced call was abandoned: deadline exceeded", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DeadlineExceededException) {
+                return false;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Coalesced call failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return the number of coalescable calls that reached the upstream API
+     */
+    static long getOriginated() {
+        return ORIGINATED.get();
+    }
+
+    /**
+     * @return the number of calls served by an exchange already in flight
+     */
+    static long getCoalesced() {
+        return COALESCED.get();
+    }
+
+    /**
+     * @return the number of calls currently waiting for an exchange already in flight
+     */
+    static long getWaiting() {
+        return WAITING.get();
+    }
+
+    /**
+     * @return the identity of a call, or null when it must not be coalesced
+     */
+    static String key(HandlingContext context, boolean safe) {
+        HttpClientSpec spec = context.clientAdapter != null
+                ? context.clientAdapter.getHttpClientSpec() : null;
+        Request request = context.clientRequest;
+        if (spec == null || !Boolean.TRUE.equals(spec.getCoalesce()) || request == null
+                || request.getMethod() == null) {
+            return null;
+        }
+        if (!safe && !SAFE_METHODS.contains(request.getMethod().getName())) {
+            return null;
+        }
+        return identity(request);
+    }
+
+    /**
+     * The identity of a request, as a SHA-256 digest of its canonical form, so that the
+     * coalescer and the caches keyed by it never hold credentials.
+     *
+     * @param request a client request
+     * @return the digest of its method, resolved URI, headers, conditions, credentials and body,
+     *         or null when the body cannot be read without consuming it
+     */
+    static String identity(Request request) {
+        if (request.getMethod() == null || request.getResourceRef() == null) {
+            return null;
+        }
+        String method = request.getMethod().getName();
+        String body = "";
+        Representation entity = request.getEntity();
+        if (entity instanceof StringRepresentation text) {
+            body = text.getText();
+        } else if (entity != null && entity.isAvailable()) {
+            // A streamed body can only be read once
+            return null;
+        }
+
+        MessageDigest digest = sha256();
+        StringBuilder key = new StringBuilder(method).append(' ')
+                .append(request.getResourceRef()).append('\n');
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : request.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>())
+                    .add(header.getValue());
+        }
+        headers.forEach((name, values) -> key.append(name.toLowerCase()).append(": ")
+                .append(String.join(", ", values)).append('\n'));
+        appendConditions(key, request.getConditions());
+
+        ChallengeResponse challenge = request.getChallengeResponse();
+        if (challenge != null) {
+            key.append(challenge.getScheme()).append(' ').append(challenge.getIdentifier())
+                    .append(' ');
+            digest.update(key.toString().getBytes(StandardCharsets.UTF_8));
+            key.setLength(0);
+            if (challenge.getSecret() != null) {
+                // Digest the secret without turning it into a string
+                ByteBuffer secret =
+                        StandardCharsets.UTF_8.encode(CharBuffer.wrap(challenge.getSecret()));
+                digest.update(secret);
+                Arrays.fill(secret.array(), (byte) 0);
+            }
+            key.append(' ').append(challenge.getRawValue()).append(' ')
+                    .append(challenge.getParameters()).append('\n');
+        }
+        key.append('\n').append(body);
+        digest.update(key.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Append the conditions of a request, which Restlet keeps apart from its headers, so that a
+     * revalidation and a plain call never share an exchange.
+     */
+    private static void appendConditions(StringBuilder key, Conditions conditions) {
+        if (conditions == null || !conditions.hasSome()) {
+            return;
+        }
+        key.append("if-match: ").append(tags(conditions.getMatch())).append('\n')
+                .append("if-none-match: ").append(tags(conditions.getNoneMatch())).append('\n')
+                .append("if-modified-since: ").append(time(conditions.getModifiedSince()))
+                .append('\n')
+                .append("if-unmodified-since: ").append(time(conditions.getUnmodifiedSince()))
+                .append('\n')
+                .append("if-range: ")
+                .append(conditions.getRangeTag() != null ? conditions.getRangeTag().format() : "")
+                .append(' ').append(time(conditions.getRangeDate())).append('\n');
+    }
+
+    private static String tags(List<Tag> tags) {
+        List<String> formatted = new ArrayList<>();
+        if (tags != null) {
+            for (Tag tag : tags) {
+                formatted.add(tag.format());
+            }
+        }
+        return String.join(", ", formatted);
+    }
+
+    private static String time(Date date) {
+        return date != null ? Long.toString(date.getTime()) : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
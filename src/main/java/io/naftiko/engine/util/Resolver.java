@@ -25,7 +25,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.samskivert.mustache.Mustache;
 import io.naftiko.spec.InputParameterSpec;
 import io.naftiko.spec.OutputParameterSpec;
 
@@ -36,6 +35,10 @@ public class Resolver {
 
     private static final Logger logger = LoggerFactory.getLogger(Resolver.class);
 
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private static final MustacheTemplateCache TEMPLATES = new MustacheTemplateCache();
+
     private Resolver() {
         // Utility class, no instantiation
     }
@@ -61,29 +64,64 @@ public class Resolver {
             return template;
         }
 
-        // JSON-serialize non-scalar values (arrays, maps) so that Mustache substitution
-        // produces valid JSON instead of calling toString() (e.g. [CREW-001, CREW-003]).
-        Map<String, Object> serialized = new HashMap<>();
-        ObjectMapper jsonMapper = new ObjectMapper();
+        // Plain text renders to itself, no need to look up or compile anything
+        if (!MustacheTemplateCache.isTemplate(template)) {
+            return template;
+        }
+
+        return TEMPLATES.get(template).execute(serializeCollections(parameters));
+    }
+
+    /**
+     * Compile a template ahead of time so that the request path never parses it.
+     *
+     * @param template the template text (ignored when null or free of Mustache tags)
+     * @return true when the template was pinned and must later be released with
+     *         {@link #releaseMustacheTemplate(String)}
+     */
+    public static boolean precompileMustacheTemplate(String template) {
+        return TEMPLATES.precompile(template);
+    }
+
+    /**
+     * Release a template pinned by {@link #precompileMustacheTemplate(String)}.
+     *
+     * @param template the template text
+     */
+    public static void releaseMustacheTemplate(String template) {
+        TEMPLATES.release(template);
+    }
+
+    /**
+     * @return the shared cache of compiled Mustache templates
+     */
+    static MustacheTemplateCache getTemplateCache() {
+        return TEMPLATES;
+    }
+
+    /**
+     * JSON-serialize non-scalar values (arrays, maps) so that Mustache substitution produces valid
+     * JSON instead of calling toString() (e.g. [CREW-001, CREW-003]). The parameter map is only
+     * copied when at least one value actually needs serializing.
+     */
+    private static Map<String, Object> serializeCollections(Map<String, Object> parameters) {
+        Map<String, Object> serialized = null;
+
         for (Map.Entry<String, Object> entry : parameters.entrySet()) {
             Object val = entry.getValue();
             if (val instanceof java.util.Collection || val instanceof Object[]) {
+                if (serialized == null) {
+                    serialized = new HashMap<>(parameters);
+                }
                 try {
-                    serialized.put(entry.getKey(), jsonMapper.writeValueAsString(val));
+                    serialized.put(entry.getKey(), JSON_MAPPER.writeValueAsString(val));
                 } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
                     serialized.put(entry.getKey(), val);
                 }
-            } else {
-                serialized.put(entry.getKey(), val);
             }
         }
 
-        // escapeHTML(false): JMustache escapes HTML entities by default (e.g. " → &quot;).
-        // This is desirable for HTML output, but templates here produce JSON bodies or URI strings —
-        // never HTML. Without this, serialized array values like ["CREW-001"] would be rendered
-        // as [&quot;CREW-001&quot;], producing invalid JSON.
-        return Mustache.compiler().escapeHTML(false).defaultValue("").compile(template)
-            .execute(serialized);
+        return serialized != null ? serialized : parameters;
     }
 
     /**
@@ -252,7 +290,9 @@ public class Resolver {
 
     /**
      * Build a mapped JSON node from the output parameter specification and the client response
-     * root, optionally resolving Mustache templates in {@code value} fields.
+     * root, optionally resolving Mustache templates in {@code value} fields. The spec is compiled
+     * into a fresh {@link OutputMappingPlan} on every call; request paths should reuse the plan
+     * held by the capability's {@link PrecompiledSpec} instead.
      *
      * @param parameters input parameters for Mustache resolution (may be null)
      */
@@ -262,113 +302,7 @@ public class Resolver {
             return NullNode.instance;
         }
 
-        String type = spec.getType();
-
-        // value takes precedence — used for static/mock values
-        if (spec.getValue() != null) {
-            String resolved = resolveMustacheTemplate(spec.getValue(), parameters);
-            return mapper.getNodeFactory().textNode(resolved);
-        }
-
-        if ("array".equalsIgnoreCase(type)) {
-            JsonNode arrayRoot = Converter.jsonPathExtract(clientRoot, spec.getMapping());
-
-            if (arrayRoot == null || !arrayRoot.isArray()) {
-                return NullNode.instance;
-            }
-
-            ArrayNode outArray = mapper.createArrayNode();
-            OutputParameterSpec items = spec.getItems();
-
-            for (JsonNode element : arrayRoot) {
-                if (items != null) {
-                    // If item is an object with properties, build object
-                    if ("object".equalsIgnoreCase(items.getType()) && items.getProperties() != null
-                            && !items.getProperties().isEmpty()) {
-                        ObjectNode outObj = mapper.createObjectNode();
-
-                        for (OutputParameterSpec prop : items.getProperties()) {
-                            String propName = prop.getName();
-                            String propMapping = prop.getMapping();
-                            JsonNode val = Converter.jsonPathExtract(element, propMapping);
-                            val = Converter.applyMaxLengthIfNeeded(prop, val);
-
-                            if (val == null) {
-                                outObj.putNull(propName);
-                            } else {
-                                outObj.set(propName, val);
-                            }
-                        }
-
-                        outArray.add(outObj);
-                    } else {
-                        // primitive or item-level mapping
-                        if (items.getMapping() != null) {
-                            JsonNode val = Converter.jsonPathExtract(element, items.getMapping());
-                            val = Converter.applyMaxLengthIfNeeded(items, val);
-                            outArray.add(val == null ? NullNode.instance : val);
-                        } else {
-                            outArray.add(element);
-                        }
-                    }
-                } else {
-                    outArray.add(element);
-                }
-            }
-
-            return outArray;
-        } else if ("object".equalsIgnoreCase(type)) {
-            // If this object represents a map of values, support spec.values
-            if (spec.getValues() != null && spec.getMapping() != null) {
-                JsonNode mapRoot = Converter.jsonPathExtract(clientRoot, spec.getMapping());
-
-                if (mapRoot == null || !mapRoot.isObject()) {
-                    return NullNode.instance;
-                }
-
-                ObjectNode outObj = mapper.createObjectNode();
-                OutputParameterSpec valuesSpec = spec.getValues();
-
-                mapRoot.properties().forEach(entry -> {
-                    JsonNode mappedVal = null;
-                    if (valuesSpec.getMapping() != null) {
-                        mappedVal = Converter.jsonPathExtract(entry.getValue(),
-                                valuesSpec.getMapping());
-                    } else {
-                        mappedVal = entry.getValue();
-                    }
-                    mappedVal = Converter.applyMaxLengthIfNeeded(valuesSpec, mappedVal);
-                    outObj.set(entry.getKey(), mappedVal == null ? NullNode.instance : mappedVal);
-                });
-
-                return outObj;
-            }
-
-            ObjectNode outObj = mapper.createObjectNode();
-            for (OutputParameterSpec prop : spec.getProperties()) {
-                String propName = prop.getName();
-                String propMapping = prop.getMapping();
-                JsonNode val;
-                if (propMapping == null && "object".equalsIgnoreCase(prop.getType())
-                        && prop.getProperties() != null && !prop.getProperties().isEmpty()) {
-                    val = resolveOutputMappings(prop, clientRoot, mapper);
-                } else {
-                    val = Converter.jsonPathExtract(clientRoot, propMapping);
-                    val = Converter.applyMaxLengthIfNeeded(prop, val);
-                }
-                if (val == null || val instanceof NullNode) {
-                    outObj.putNull(propName);
-                } else {
-                    outObj.set(propName, val);
-                }
-            }
-            return outObj;
-        } else {
-            // primitive/value mapping
-            JsonNode v = Converter.jsonPathExtract(clientRoot, spec.getMapping());
-            v = Converter.applyMaxLengthIfNeeded(spec, v);
-            return v == null ? NullNode.instance : v;
-        }
+        return OutputMappingPlan.compile(spec).execute(clientRoot, mapper, parameters);
     }
 
     /**
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import io.naftiko.engine.observability.TelemetryBootstrap;
+
+/**
+ * Bounded in-memory cache of responses, evicting the least recently used entries.
+ *
+ * <p>The cache holds at most a given number of entries and a given total weight, usually the
+ * number of buffered bytes. Entries keep their expiry time but are not dropped when they expire:
+ * a stale entry can still be revalidated with the upstream API and made fresh again. Hits, misses
+ * and evictions are counted here and reported to {@code EngineMetrics} under the cache name.</p>
+ *
+ * @param <V> the cached values
+ */
+public final class ResponseCache<V> {
+
+    /**
+     * A cached value.
+     *
+     * @param value the value
+     * @param weight the weight of the value, usually its size in bytes
+     * @param expiresAt the time in milliseconds since the epoch until which the value is fresh
+     */
+    public record Entry<V>(V value, long weight, long expiresAt) {
+
+        /**
+         * @param now the current time in milliseconds since the epoch
+         * @return true when the value can be served without revalidation
+         */
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param name the name reported with the metrics of the cache
+     * @param maxEntries the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     */
+    public ResponseCache(String name, int maxEntries, long maxWeight) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException(
+                    "Response cache bounds must be positive. Provided: " + maxEntries
+                            + " entries, " + maxWeight + " weight");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @param key the request identity
+     * @return the entry, fresh or stale, or null
+     */
+    public synchronized Entry<V> get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Store a value, evicting the least recently used entries as needed. A value heavier than the
+     * whole cache is not stored.
+     *
+     * @param key the request identity
+     * @param value the value
+     * @param weight the weight of the value
+     * @param expiresAt the time in milliseconds since the epoch until which the value is fresh
+     */
+    public void put(String key, V value, long weight, long expiresAt) {
+        if (weight > maxWeight) {
+            remove(key);
+            return;
+        }
+        int evicted = 0;
+        synchronized (this) {
+            Entry<V> previous = entries.put(key, new Entry<>(value, weight, expiresAt));
+            this.weight += weight - (previous != null ? previous.weight() : 0);
+            Iterator<Map.Entry<String, Entry<V>>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || this.weight > maxWeight) && eldest.hasNext()) {
+                Map.Entry<String, Entry<V>> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                this.weight -= entry.getValue().weight();
+                eldest.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictions.addAndGet(evicted);
+            TelemetryBootstrap.get().getMetrics().recordCacheEvictions(name, evicted);
+        }
+    }
+
+    /**
+     * @param key the request identity to forget
+     */
+    public synchronized void remove(String key) {
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+    }
+
+    /**
+     * Count a request served from the cache.
+     */
+    public void hit() {
+        hits.incrementAndGet();
+        TelemetryBootstrap.get().getMetrics().recordCacheHit(name);
+    }
+
+    /**
+     * Count a request that had to fetch its response.
+     */
+    public void miss() {
+        misses.incrementAndGet();
+        TelemetryBootstrap.get().getMetrics().recordCacheMiss(name);
+    }
+
+    /**
+     * Forget every entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the entries
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of requests served from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests that had to fetch their response
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of entries evicted to stay within bounds
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+}
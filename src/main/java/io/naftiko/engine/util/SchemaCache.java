@@ -0,0 +1,153 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+
+/**
+ * Cache of parsed Protobuf and Avro schemas keyed by their {@code outputSchema} name.
+ *
+ * <p>Schemas are resolved like {@link Converter#loadSchemaFile(String)}: local filesystem first,
+ * then classpath. Each entry keeps the parsed schema together with a reader bound to it (an
+ * immutable {@link ObjectReader} for Protobuf, a {@link GenericDatumReader} for Avro, which keeps
+ * its per-thread decoding state internally), so a response only pays for decoding its payload.</p>
+ *
+ * <p>Entries loaded from the filesystem remember the file's modification time and are reloaded when
+ * it changes, so schemas mounted into a running container can be updated in place. Classpath
+ * resources are immutable for the life of the process and are loaded once.</p>
+ */
+public final class SchemaCache {
+
+    static final int MAX_CACHED_SCHEMAS = 1024;
+
+    /**
+     * Stamp of entries loaded from the classpath.
+     */
+    private static final long CLASSPATH = Long.MIN_VALUE;
+
+    private static final Map<String, ProtobufEntry> PROTOBUF = new ConcurrentHashMap<>();
+    private static final Map<String, AvroEntry> AVRO = new ConcurrentHashMap<>();
+
+    private SchemaCache() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * Parsed Protobuf schema with its reader.
+     *
+     * @param stamp modification time of the source file, or {@link #CLASSPATH}
+     * @param schema the parsed schema
+     * @param reader the reader deserializing one message into a {@link JsonNode}
+     */
+    public record ProtobufEntry(long stamp, ProtobufSchema schema, ObjectReader reader) {
+    }
+
+    /**
+     * Parsed Avro schema with its datum reader.
+     *
+     * @param stamp modification time of the source file, or {@link #CLASSPATH}
+     * @param schema the parsed schema
+     * @param reader the datum reader for records of this schema
+     */
+    public record AvroEntry(long stamp, Schema schema, GenericDatumReader<GenericRecord> reader) {
+    }
+
+    /**
+     * Return the Protobuf schema for a name, loading it on first use or when its file changed.
+     *
+     * @param schemaFilename the {@code outputSchema} value
+     * @return the cached entry
+     * @throws IOException if the schema cannot be found or parsed
+     */
+    public static ProtobufEntry protobuf(String schemaFilename) throws IOException {
+        long stamp = stampOf(schemaFilename);
+        ProtobufEntry entry = PROTOBUF.get(schemaFilename);
+        if (entry == null || entry.stamp() != stamp) {
+            ProtobufSchema schema;
+            try (InputStream in = open(schemaFilename, "Proto")) {
+                schema = ProtobufSchemaLoader.std.load(in);
+            }
+            entry = new ProtobufEntry(stamp, schema, FormatMappers
+                    .mapper(ConversionFormat.PROTOBUF).readerFor(JsonNode.class).with(schema));
+            store(PROTOBUF, schemaFilename, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Return the Avro schema for a name, loading it on first use or when its file changed.
+     *
+     * @param schemaFilename the {@code outputSchema} value
+     * @return the cached entry
+     * @throws IOException if the schema cannot be found or parsed
+     */
+    public static AvroEntry avro(String schemaFilename) throws IOException {
+        long stamp = stampOf(schemaFilename);
+        AvroEntry entry = AVRO.get(schemaFilename);
+        if (entry == null || entry.stamp() != stamp) {
+            Schema schema;
+            try (InputStream in = open(schemaFilename, "Avro")) {
+                schema = new Schema.Parser().parse(in);
+            }
+            entry = new AvroEntry(stamp, schema, new GenericDatumReader<>(schema));
+            store(AVRO, schemaFilename, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Drop every cached schema.
+     */
+    public static void clear() {
+        PROTOBUF.clear();
+        AVRO.clear();
+    }
+
+    static int size() {
+        return PROTOBUF.size() + AVRO.size();
+    }
+
+    private static long stampOf(String schemaFilename) {
+        File localFile = new File(schemaFilename);
+        return localFile.isFile() ? localFile.lastModified() : CLASSPATH;
+    }
+
+    private static InputStream open(String schemaFilename, String kind) throws IOException {
+        InputStream in = Converter.loadSchemaFile(schemaFilename);
+        if (in == null) {
+            throw new IOException(kind + " schema file not found: " + schemaFilename
+                    + " (searched in current directory and classpath)");
+        }
+        return in;
+    }
+
+    private static <E> void store(Map<String, E> cache, String schemaFilename, E entry) {
+        // Replacing a stale entry never grows the map, so only new names are bounded
+        if (cache.containsKey(schemaFilename) || cache.size() < MAX_CACHED_SCHEMAS) {
+            cache.put(schemaFilename, entry);
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samskivert.mustache.MustacheException;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.spec.CapabilitySpec;
+import io.naftiko.spec.InputParameterSpec;
+import io.naftiko.spec.NaftikoSpec;
+import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.aggregates.AggregateFunctionSpec;
+import io.naftiko.spec.aggregates.AggregateSpec;
+import io.naftiko.spec.consumes.ClientSpec;
+import io.naftiko.spec.consumes.http.ApiKeyAuthenticationSpec;
+import io.naftiko.spec.consumes.http.AuthenticationSpec;
+import io.naftiko.spec.consumes.http.BasicAuthenticationSpec;
+import io.naftiko.spec.consumes.http.BearerAuthenticationSpec;
+import io.naftiko.spec.consumes.http.DigestAuthenticationSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.exposes.ServerCallSpec;
+import io.naftiko.spec.exposes.ServerSpec;
+import io.naftiko.spec.exposes.mcp.McpServerResourceSpec;
+import io.naftiko.spec.exposes.mcp.McpServerSpec;
+import io.naftiko.spec.exposes.mcp.McpServerToolSpec;
+import io.naftiko.spec.exposes.rest.RestServerOperationSpec;
+import io.naftiko.spec.exposes.rest.RestServerResourceSpec;
+import io.naftiko.spec.exposes.rest.RestServerSpec;
+import io.naftiko.spec.scripting.OperationStepScriptSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepForEachSpec;
+import io.naftiko.spec.util.OperationStepLookupSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+
+/**
+ * Walks a capability spec at load time and warms the runtime caches used on the request path, so
+ * that serving a request never has to parse a template or JsonPath mapping declared in the spec.
+ *
+ * <p>Covered templates: consumed resource URIs, input parameter values and templates, request
+ * bodies, authentication fields, {@code with} maps (adapter units, calls, steps and aggregate
+ * functions), lookup values and output parameter values. Call references are tokenized into
+ * {@link CallReference}s. Output parameter mappings are compiled into the shared
+ * {@link JsonPathRegistry}; each top-level output parameter gets its
+ * {@link OutputMappingPlan} and each list of them its {@link StreamingProjection}. Each list of
+ * steps gets its {@link StepPlan}. These are returned in the capability's
+ * {@link PrecompiledSpec}.</p>
+ *
+ * <p>Templates are pinned in the shared template cache on behalf of the capability, which
+ * releases them when it stops.</p>
+ *
+ * <p>A template that fails to compile is skipped here and reported by the request path exactly as
+ * before, so precompilation never changes which capabilities load.</p>
+ */
+public class SpecPrecompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecPrecompiler.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<OutputParameterSpec, OutputMappingPlan> plans = new IdentityHashMap<>();
+
+    private final Map<List<OutputParameterSpec>, StreamingProjection> projections =
+            new IdentityHashMap<>();
+
+    private final Map<List<OperationStepSpec>, StepPlan> stepPlans = new IdentityHashMap<>();
+
+    private final Set<String> templates = new LinkedHashSet<>();
+
+    private final OperationIndex index;
+
+    public SpecPrecompiler() {
+        this(null);
+    }
+
+    /**
+     * @param index the consumed operations of the capability, which step plans resolve their calls
+     *        against (may be null)
+     */
+    public SpecPrecompiler(OperationIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Precompile every template found in the given spec.
+     *
+     * @param spec The root Naftiko spec
+     * @return the compiled state to keep with the capability
+     */
+    public PrecompiledSpec precompile(NaftikoSpec spec) {
+        CapabilitySpec capability = spec != null ? spec.getCapability() : null;
+        if (capability == null) {
+            return PrecompiledSpec.EMPTY;
+        }
+
+        for (ClientSpec clientSpec : capability.getConsumes()) {
+            if (clientSpec instanceof HttpClientSpec httpSpec) {
+                precompileClient(httpSpec);
+            }
+        }
+
+        for (ServerSpec serverSpec : capability.getExposes()) {
+            if (serverSpec instanceof RestServerSpec restSpec) {
+                for (RestServerResourceSpec resource : restSpec.getResources()) {
+                    if (resource == null) {
+                        continue;
+                    }
+                    for (RestServerOperationSpec op : resource.getOperations()) {
+                        if (op == null) {
+                            continue;
+                        }
+                        precompileWith(op.getWith());
+                        precompileCall(op.getCall());
+                        precompileSteps(op.getSteps());
+                        precompileOutputParameters(op.getOutputParameters());
+                        precompilePlans(op.getOutputParameters());
+                    }
+                }
+            } else if (serverSpec instanceof McpServerSpec mcpSpec) {
+                for (McpServerToolSpec tool : mcpSpec.getTools()) {
+                    if (tool == null) {
+                        continue;
+                    }
+                    precompileWith(tool.getWith());
+                    precompileCall(tool.getCall());
+                    precompileSteps(tool.getSteps());
+                    precompileOutputParameters(tool.getOutputParameters());
+                    precompilePlans(tool.getOutputParameters());
+                }
+                for (McpServerResourceSpec resource : mcpSpec.getResources()) {
+                    if (resource == null) {
+                        continue;
+                    }
+                    precompileWith(resource.getWith());
+                    precompileCall(resource.getCall());
+                    precompileSteps(resource.getSteps());
+                    precompileOutputParameters(resource.getOutputParameters());
+                    precompilePlans(resource.getOutputParameters());
+                }
+            }
+        }
+
+        for (AggregateSpec aggregate : capability.getAggregates()) {
+            if (aggregate == null) {
+                continue;
+            }
+            for (AggregateFunctionSpec function : aggregate.getFunctions()) {
+                if (function == null) {
+                    continue;
+                }
+                precompileWith(function.getWith());
+                precompileCall(function.getCall());
+                precompileSteps(function.getSteps());
+                precompileOutputParameters(function.getOutputParameters());
+                precompilePlans(function.getOutputParameters());
+            }
+        }
+
+        return new PrecompiledSpec(plans, projections, stepPlans, templates);
+    }
+
+    void precompileClient(HttpClientSpec httpSpec) {
+        precompileInputParameters(httpSpec.getInputParameters());
+        precompileAuthentication(httpSpec.getAuthentication());
+
+        for (HttpClientResourceSpec resource : httpSpec.getResources()) {
+            if (resource == null) {
+                continue;
+            }
+            // Same concatenation as OperationIndex, used by findClientRequestFor
+            precompileTemplate(httpSpec.getBaseUri() + resource.getPath());
+            precompileInputParameters(resource.getInputParameters());
+
+            for (HttpClientOperationSpec op : resource.getOperations()) {
+                if (op == null) {
+                    continue;
+                }
+                precompileInputParameters(op.getInputParameters());
+                precompileBody(op.getBody());
+                precompileOutputParameters(op.getOutputParameters());
+                precompilePlans(op.getOutputParameters());
+            }
+        }
+    }
+
+    void precompileAuthentication(AuthenticationSpec authentication) {
+        if (authentication instanceof BasicAuthenticationSpec basic) {
+            precompileTemplate(basic.getUsername());
+        } else if (authentication instanceof DigestAuthenticationSpec digest) {
+            precompileTemplate(digest.getUsername());
+        } else if (authentication instanceof BearerAuthenticationSpec bearer) {
+            precompileTemplate(bearer.getToken());
+        } else if (authentication instanceof ApiKeyAuthenticationSpec apiKey) {
+            precompileTemplate(apiKey.getKey());
+            precompileTemplate(apiKey.getValue());
+        }
+    }
+
+    void precompileBody(Object body) {
+        if (body instanceof String text) {
+            precompileTemplate(text);
+        } else if (body instanceof Map<?, ?> bodyMap) {
+            // Structured bodies are serialized before resolution; precompile that exact text
+            try {
+                precompileTemplate(mapper.writeValueAsString(bodyMap.get("data")));
+            } catch (JsonProcessingException e) {
+                logger.debug("Skipping precompilation of structured body", e);
+            }
+        }
+    }
+
+    void precompileCall(ServerCallSpec call) {
+        if (call != null) {
+            CallReference.register(call.getOperation());
+            precompileWith(call.getWith());
+        }
+    }
+
+    void precompileSteps(List<OperationStepSpec> steps) {
+        if (steps == null) {
+            return;
+        }
+        if (!steps.isEmpty()) {
+            stepPlans.computeIfAbsent(steps, declared -> StepPlan.of(declared, index));
+        }
+        for (OperationStepSpec step : steps) {
+            if (step instanceof OperationStepCallSpec callStep) {
+                CallReference.register(callStep.getCall());
+                precompileWith(callStep.getWith());
+            } else if (step instanceof OperationStepForEachSpec forEachStep) {
+                CallReference.register(forEachStep.getCall());
+                precompileWith(forEachStep.getWith());
+            } else if (step instanceof OperationStepLookupSpec lookupStep) {
+                precompileTemplate(lookupStep.getLookupValue());
+            } else if (step instanceof OperationStepScriptSpec scriptStep) {
+                precompileWith(scriptStep.getWith());
+            }
+        }
+    }
+
+    void precompileWith(Map<String, Object> with) {
+        if (with == null) {
+            return;
+        }
+        for (Object value : with.values()) {
+            if (value instanceof String text) {
+                precompileTemplate(text);
+            }
+        }
+    }
+
+    void precompileInputParameters(List<InputParameterSpec> parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (InputParameterSpec parameter : parameters) {
+            if (parameter == null) {
+                continue;
+            }
+            precompileTemplate(parameter.getValue());
+            precompileTemplate(parameter.getTemplate());
+            precompileMapping(parameter.getValue() != null ? parameter.getValue()
+                    : parameter.getTemplate());
+        }
+    }
+
+    void precompileOutputParameters(List<OutputParameterSpec> parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (OutputParameterSpec parameter : parameters) {
+            precompileOutputParameter(parameter);
+        }
+    }
+
+    void precompilePlans(List<OutputParameterSpec> parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (OutputParameterSpec parameter : parameters) {
+            if (parameter != null) {
+                plans.computeIfAbsent(parameter, OutputMappingPlan::compile);
+            }
+        }
+        if (!parameters.isEmpty() && !projections.containsKey(parameters)) {
+            projections.put(parameters, StreamingProjection.of(parameters));
+        }
+    }
+
+    void precompileOutputParameter(OutputParameterSpec parameter) {
+        if (parameter == null) {
+            return;
+        }
+        precompileTemplate(parameter.getValue());
+        JsonPathRegistry.register(parameter.getMapping());
+        precompileOutputParameters(parameter.getProperties());
+        precompileOutputParameter(parameter.getItems());
+        precompileOutputParameter(parameter.getValues());
+    }
+
+    void precompileMapping(String value) {
+        // Same test as Resolver.resolveInputParameterFromRequest for body-sourced values
+        if (value != null && value.trim().startsWith("$")) {
+            JsonPathRegistry.register(value);
+        }
+    }
+
+    void precompileTemplate(String template) {
+        // Pin each template once per capability so that stopping it releases exactly its pins
+        if (template == null || templates.contains(template)) {
+            return;
+        }
+        try {
+            if (Resolver.precompileMustacheTemplate(template)) {
+                templates.add(template);
+            }
+        } catch (MustacheException e) {
+            logger.debug("Skipping precompilation of invalid template '{}'", template, e);
+        }
+    }
+
+}
@@ -31,8 +31,14 @@ public class StepExecutionContext {
      */
     private final Map<String, JsonNode> stepOutputs;
 
+    /**
+     * Maps step names to the lookup indexes built over their output, by match field
+     */
+    private final Map<String, Map<String, Map<String, JsonNode>>> lookupIndexes;
+
     public StepExecutionContext() {
         this.stepOutputs = new ConcurrentHashMap<>();
+        this.lookupIndexes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -44,6 +50,23 @@ public class StepExecutionContext {
     public void storeStepOutput(String stepName, JsonNode output) {
         if (stepName != null && output != null) {
             stepOutputs.put(stepName, output);
+            lookupIndexes.remove(stepName);
+        }
+    }
+
+    /**
+     * Store the output of a completed step along with lookup indexes shared with other executions,
+     * such as those of cached reference data. Indexes missing from the map are built into it.
+     * 
+     * @param stepName The name of the step (as declared in step definition)
+     * @param output The output result of the step execution
+     * @param indexes The lookup indexes over the output, by match field
+     */
+    public void storeStepOutput(String stepName, JsonNode output,
+            Map<String, Map<String, JsonNode>> indexes) {
+        if (stepName != null && output != null) {
+            stepOutputs.put(stepName, output);
+            lookupIndexes.put(stepName, indexes);
         }
     }
 
@@ -57,6 +80,23 @@ public class StepExecutionContext {
         return stepOutputs.get(stepName);
     }
 
+    /**
+     * Retrieve the lookup index of a step output for a match field, building it on first use.
+     * The index is dropped when the step output is replaced.
+     * 
+     * @param stepName The name of the step whose output is indexed
+     * @param matchField The field name to index
+     * @return The entries keyed by match field value, or null if the output is not an array
+     */
+    public Map<String, JsonNode> getLookupIndex(String stepName, String matchField) {
+        JsonNode output = stepName != null ? stepOutputs.get(stepName) : null;
+        if (output == null || !output.isArray() || matchField == null) {
+            return null;
+        }
+        return lookupIndexes.computeIfAbsent(stepName, name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(matchField, field -> LookupExecutor.index(output, field));
+    }
+
     /**
      * Check if a step has been executed.
      * 
@@ -81,6 +121,7 @@ public class StepExecutionContext {
      */
     public void clear() {
         stepOutputs.clear();
+        lookupIndexes.clear();
     }
 
 }
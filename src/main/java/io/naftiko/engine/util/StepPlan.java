@@ -0,0 +1,254 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.spec.InputParameterSpec;
+import io.naftiko.spec.consumes.http.ApiKeyAuthenticationSpec;
+import io.naftiko.spec.consumes.http.AuthenticationSpec;
+import io.naftiko.spec.consumes.http.BasicAuthenticationSpec;
+import io.naftiko.spec.consumes.http.BearerAuthenticationSpec;
+import io.naftiko.spec.consumes.http.DigestAuthenticationSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.scripting.OperationStepScriptSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepForEachSpec;
+import io.naftiko.spec.util.OperationStepLookupSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+
+/**
+ * Dependency graph of a list of orchestration steps.
+ *
+ * <p>A step depends on an earlier step when any text it resolves at runtime names the earlier
+ * step: its {@code with} values, the URI, input parameters, body and authentication (passwords
+ * excepted) of the consumed operation it calls, the items of a for-each, or the index and value of
+ * a lookup. Names are matched as whole words, which covers {@code {{step.field}}} templates and
+ * {@code $.step.field} paths alike and errs on the side of extra edges. A step also depends on
+ * an earlier step of the same name, so the later output still wins. Script steps can read every
+ * earlier output, so they depend on all earlier steps.</p>
+ *
+ * <p>Only safe calls overlap freely. A step calling a consumed operation whose method is not
+ * {@code GET} or {@code HEAD}, or whose operation cannot be resolved, also depends on the previous
+ * such step, so calls with side effects reach upstream APIs in declaration order.</p>
+ *
+ * <p>Each step sees the base parameters plus the outputs of its dependencies only, applied in
+ * declaration order, which is exactly what it would see when run after all earlier steps.</p>
+ */
+final class StepPlan {
+
+    private static final Pattern WORD = Pattern.compile("[\\w-]+");
+
+    private final int[][] dependencies;
+    private final boolean parallel;
+
+    private StepPlan(int[][] dependencies, boolean parallel) {
+        this.dependencies = dependencies;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Analyse a list of steps.
+     *
+     * @param steps the steps, in declaration order
+     * @param index the consumed operations of the capability (may be null)
+     * @return the plan
+     */
+    static StepPlan of(List<OperationStepSpec> steps, OperationIndex index) {
+        int size = steps.size();
+        List<Set<String>> reads = new ArrayList<>(size);
+        for (OperationStepSpec step : steps) {
+            reads.add(reads(step, index));
+        }
+
+        int[][] dependencies = new int[size][];
+        boolean parallel = false;
+        int lastWrite = -1;
+        for (int later = 0; later < size; later++) {
+            Set<String> laterReads = reads.get(later);
+            String laterName = steps.get(later).getName();
+            boolean laterWrites = writes(steps.get(later), index);
+            List<Integer> found = new ArrayList<>();
+            for (int earlier = 0; earlier < later; earlier++) {
+                String earlierName = steps.get(earlier).getName();
+                if (laterReads == null || (laterWrites && earlier == lastWrite)
+                        || (earlierName != null && (laterReads.contains(earlierName)
+                                || earlierName.equals(laterName)))) {
+                    found.add(earlier);
+                }
+            }
+            if (laterWrites) {
+                lastWrite = later;
+            }
+            dependencies[later] = found.stream().mapToInt(Integer::intValue).toArray();
+            // Any step not waiting for its predecessor can overlap with it
+            if (later > 0 && (found.isEmpty() || found.get(found.size() - 1) != later - 1)) {
+                parallel = true;
+            }
+        }
+        return new StepPlan(dependencies, parallel);
+    }
+
+    /**
+     * @return the number of steps
+     */
+    int size() {
+        return dependencies.length;
+    }
+
+    /**
+     * @param step the step position
+     * @return the positions of the earlier steps it depends on, in ascending order
+     */
+    int[] dependencies(int step) {
+        return dependencies[step];
+    }
+
+    /**
+     * @return true when at least two steps may run at the same time
+     */
+    boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * @return the words a step resolves at runtime, or null when it may read any earlier output
+     */
+    static Set<String> reads(OperationStepSpec step, OperationIndex index) {
+        if (step instanceof OperationStepScriptSpec) {
+            return null;
+        }
+
+        Set<String> words = new HashSet<>();
+        if (step instanceof OperationStepCallSpec callStep) {
+            if (!addCall(words, callStep.getCall(), callStep.getWith(), index)) {
+                return null;
+            }
+        } else if (step instanceof OperationStepForEachSpec forEachStep) {
+            addWords(words, forEachStep.getItems());
+            if (!addCall(words, forEachStep.getCall(), forEachStep.getWith(), index)) {
+                return null;
+            }
+        } else if (step instanceof OperationStepLookupSpec lookupStep) {
+            addWords(words, lookupStep.getIndex());
+            addWords(words, lookupStep.getLookupValue());
+        }
+        return words;
+    }
+
+    /**
+     * @return true when a step calls a consumed operation that is not known to be safe
+     */
+    static boolean writes(OperationStepSpec step, OperationIndex index) {
+        String call;
+        if (step instanceof OperationStepCallSpec callStep) {
+            call = callStep.getCall();
+        } else if (step instanceof OperationStepForEachSpec forEachStep) {
+            call = forEachStep.getCall();
+        } else {
+            return false;
+        }
+        CallReference reference = CallReference.parse(call);
+        OperationIndex.Entry entry = reference != null && index != null
+                ? index.find(reference.namespace(), reference.operation())
+                : null;
+        if (entry == null) {
+            return true;
+        }
+        String method = entry.operation().getMethod();
+        return !"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method);
+    }
+
+    /**
+     * Add the words resolved by a call to a consumed operation.
+     *
+     * @return false when the call cannot be resolved
+     */
+    private static boolean addCall(Set<String> words, String call, Map<String, Object> with,
+            OperationIndex index) {
+        addWith(words, with);
+        CallReference reference = CallReference.parse(call);
+        OperationIndex.Entry entry = reference != null && index != null
+                ? index.find(reference.namespace(), reference.operation())
+                : null;
+        if (entry == null) {
+            // Unresolvable calls fail at runtime; keep them in declaration order
+            return false;
+        }
+        HttpClientSpec client = entry.adapter().getHttpClientSpec();
+        HttpClientOperationSpec operation = entry.operation();
+        addWords(words, entry.resourceUri());
+        addParameters(words, client.getInputParameters());
+        if (operation.getParentResource() != null) {
+            addParameters(words, operation.getParentResource().getInputParameters());
+        }
+        addParameters(words, operation.getInputParameters());
+        if (operation.getBody() != null) {
+            addWords(words, operation.getBody().toString());
+        }
+        addAuthentication(words, client.getAuthentication());
+        return true;
+    }
+
+    private static void addWith(Set<String> words, Map<String, Object> with) {
+        if (with != null) {
+            for (Object value : with.values()) {
+                addWords(words, value != null ? value.toString() : null);
+            }
+        }
+    }
+
+    private static void addParameters(Set<String> words, List<InputParameterSpec> parameters) {
+        if (parameters != null) {
+            for (InputParameterSpec parameter : parameters) {
+                if (parameter != null) {
+                    addWords(words, parameter.getValue());
+                    addWords(words, parameter.getTemplate());
+                }
+            }
+        }
+    }
+
+    private static void addAuthentication(Set<String> words, AuthenticationSpec authentication) {
+        // Secrets do not reference step outputs, so passwords are not copied into strings to scan
+        if (authentication instanceof BasicAuthenticationSpec basic) {
+            addWords(words, basic.getUsername());
+        } else if (authentication instanceof DigestAuthenticationSpec digest) {
+            addWords(words, digest.getUsername());
+        } else if (authentication instanceof BearerAuthenticationSpec bearer) {
+            addWords(words, bearer.getToken());
+        } else if (authentication instanceof ApiKeyAuthenticationSpec apiKey) {
+            addWords(words, apiKey.getKey());
+            addWords(words, apiKey.getValue());
+        }
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            words.add(matcher.group());
+        }
+    }
+
+}
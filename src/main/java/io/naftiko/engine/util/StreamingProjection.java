@@ -0,0 +1,222 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.naftiko.spec.OutputParameterSpec;
+
+/**
+ * Streaming reader that builds only the parts of a JSON response that a set of output parameters
+ * actually reads.
+ *
+ * <p>When every mapping of the output parameters is a simple dotted path (optionally projected
+ * over array elements or map values), the response is read token by token with Jackson's
+ * {@link JsonParser}: selected values are materialized, everything else is skipped without
+ * building nodes. The resulting pruned tree is then shaped by the usual
+ * {@link OutputMappingPlan}, so the output is identical to mapping the full tree while heap use
+ * is bounded by the projected data rather than by the upstream body size.</p>
+ *
+ * <p>Output parameters using complex JsonPath expressions (filters, wildcards, deep scans) have
+ * no projection; callers then fall back to reading the full tree.</p>
+ */
+public final class StreamingProjection {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Node root;
+
+    private StreamingProjection(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile the projection for a list of output parameters. Spec-declared lists are compiled
+     * once at load time and looked up with {@link PrecompiledSpec#projection(List)}.
+     *
+     * @param outputParameters the output parameter specs
+     * @return the projection, or {@code null} when the parameters need the full tree
+     */
+    public static StreamingProjection of(List<OutputParameterSpec> outputParameters) {
+        if (outputParameters == null || outputParameters.isEmpty()) {
+            return null;
+        }
+
+        Node root = new Node();
+        for (OutputParameterSpec outputParameter : outputParameters) {
+            if (outputParameter != null
+                    && !OutputMappingPlan.compile(outputParameter).project(root)) {
+                return null;
+            }
+        }
+        // Selecting the whole document leaves nothing to skip
+        return root.all ? null : new StreamingProjection(root);
+    }
+
+    /**
+     * @param format the declared {@code outputRawFormat} (may be {@code null} for JSON)
+     * @return true when responses in this format can be read by a projection
+     */
+    public static boolean supportsFormat(String format) {
+        return format == null || ConversionFormat.fromLabel(format) == ConversionFormat.JSON;
+    }
+
+    /**
+     * Read the projected parts of a JSON document.
+     *
+     * @param reader the JSON source, consumed but not closed
+     * @return the pruned tree, {@link MissingNode} for empty content
+     * @throws IOException if the content is not valid JSON
+     */
+    public JsonNode read(Reader reader) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(reader)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Read the projected parts of a JSON document.
+     *
+     * @param text the JSON text
+     * @return the pruned tree, {@link MissingNode} for empty content
+     * @throws IOException if the content is not valid JSON
+     */
+    public JsonNode read(String text) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(text)) {
+            return read(parser);
+        }
+    }
+
+    JsonNode read(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return MissingNode.getInstance();
+        }
+        return readValue(parser, root);
+    }
+
+    private static JsonNode readValue(JsonParser parser, Node node) throws IOException {
+        if (node.all) {
+            return MAPPER.readTree(parser);
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            ObjectNode out = MAPPER.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                Node child = node.childFor(name);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    out.set(name, readValue(parser, child));
+                }
+            }
+            return out;
+        } else if (token == JsonToken.START_ARRAY) {
+            ArrayNode out = MAPPER.createArrayNode();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (node.elements == null) {
+                    parser.skipChildren();
+                } else {
+                    out.add(readValue(parser, node.elements));
+                }
+            }
+            return out;
+        }
+        return MAPPER.readTree(parser);
+    }
+
+    /**
+     * Selection tree describing which parts of a JSON value are read.
+     */
+    static final class Node {
+
+        private boolean all;
+        private final Map<String, Node> fields = new HashMap<>();
+        private Node members;
+        private Node elements;
+
+        /**
+         * Select the whole value.
+         */
+        void selectAll() {
+            all = true;
+        }
+
+        /**
+         * @return the selection for the named member of an object
+         */
+        Node field(String name) {
+            return fields.computeIfAbsent(name, n -> new Node());
+        }
+
+        /**
+         * @return the selection applied to every member of an object
+         */
+        Node members() {
+            if (members == null) {
+                members = new Node();
+            }
+            return members;
+        }
+
+        /**
+         * @return the selection applied to every element of an array
+         */
+        Node elements() {
+            if (elements == null) {
+                elements = new Node();
+            }
+            return elements;
+        }
+
+        private Node childFor(String name) {
+            Node field = fields.get(name);
+            if (field == null || members == null) {
+                return field != null ? field : members;
+            }
+            return merge(field, members);
+        }
+
+        private static Node merge(Node a, Node b) {
+            Node merged = new Node();
+            merged.all = a.all || b.all;
+            a.fields.forEach((name, child) -> merged.fields.put(name, child));
+            b.fields.forEach((name, child) -> merged.fields.merge(name, child, Node::merge));
+            merged.members = mergeNullable(a.members, b.members);
+            merged.elements = mergeNullable(a.elements, b.elements);
+            return merged;
+        }
+
+        private static Node mergeNullable(Node a, Node b) {
+            if (a == null || b == null) {
+                return a != null ? a : b;
+            }
+            return merge(a, b);
+        }
+
+    }
+
+}
@@ -48,6 +48,12 @@ public class AggregateFunctionSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile Map<String, Object> with;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer timeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer stepParallelism;
+
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private final List<OperationStepSpec> steps;
 
@@ -108,6 +114,28 @@ public class AggregateFunctionSpec {
         this.with = with != null ? new ConcurrentHashMap<>(with) : null;
     }
 
+    /**
+     * @return the time in milliseconds the function may take, from the start of its execution
+     */
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the maximum number of independent steps of the function running at once, or null
+     */
+    public Integer getStepParallelism() {
+        return stepParallelism;
+    }
+
+    public void setStepParallelism(Integer stepParallelism) {
+        this.stepParallelism = stepParallelism;
+    }
+
     public List<OperationStepSpec> getSteps() {
         return steps;
     }
@@ -22,6 +22,7 @@ public class SemanticsSpec {
     private Boolean safe;
     private Boolean idempotent;
     private Boolean cacheable;
+    private Integer ttl;
 
     public SemanticsSpec() {}
 
@@ -55,4 +56,12 @@ public class SemanticsSpec {
         this.cacheable = cacheable;
     }
 
+    public Integer getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Integer ttl) {
+        this.ttl = ttl;
+    }
+
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.spec.consumes.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Connection pool and timeout settings of the HTTP client connector used by a consumed adapter.
+ *
+ * <p>Every field is optional; omitted fields keep the connector defaults. Adapters of a capability
+ * declaring the same settings share one pooled connector. Connections are pooled per route
+ * (scheme, host and port), so the pool size is given per route.</p>
+ */
+public class HttpClientConnectorSpec {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer maxConnectionsPerRoute;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer maxQueuedRequestsPerRoute;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer connectTimeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer readTimeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer idleTimeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Boolean http2;
+
+    /**
+     * @return the maximum number of pooled connections to one route
+     */
+    public Integer getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(Integer maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * @return the maximum number of requests waiting for a connection to one route
+     */
+    public Integer getMaxQueuedRequestsPerRoute() {
+        return maxQueuedRequestsPerRoute;
+    }
+
+    public void setMaxQueuedRequestsPerRoute(Integer maxQueuedRequestsPerRoute) {
+        this.maxQueuedRequestsPerRoute = maxQueuedRequestsPerRoute;
+    }
+
+    /**
+     * @return the timeout in milliseconds to establish a connection
+     */
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * @return the timeout in milliseconds to wait for a response once the request is sent
+     */
+    public Integer getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Integer readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * @return the time in milliseconds after which an unused route and its pooled connections are
+     *         evicted
+     */
+    public Integer getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Integer idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return true to speak HTTP/2 to the upstream API instead of HTTP/1.1
+     */
+    public Boolean getHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(Boolean http2) {
+        this.http2 = http2;
+    }
+
+}
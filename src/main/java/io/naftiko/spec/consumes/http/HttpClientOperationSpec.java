@@ -13,6 +13,7 @@
  */
 package io.naftiko.spec.consumes.http;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.naftiko.spec.OperationSpec;
 
 /**
@@ -31,6 +32,41 @@ public class HttpClientOperationSpec extends OperationSpec {
      */
     private volatile Object body;
 
+    /**
+     * Maximum number of rows or records read from a delimited (csv, tsv, psv) or multi-record
+     * response. Unlimited when null.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer outputRowLimit;
+
+    /**
+     * Whether numeric and boolean cells of a delimited response are converted to JSON numbers and
+     * booleans instead of being kept as strings.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Boolean outputTypedColumns;
+
+    /**
+     * How binary records are laid out in the response: {@code single} (default),
+     * {@code container} for an Avro object container file, {@code delimited} for
+     * length-delimited Protobuf messages.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile String outputFraming;
+
+    /**
+     * Retry policy of the calls to this operation, replacing the one of the adapter.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile HttpClientRetrySpec retry;
+
+    /**
+     * Whether {@code GET} responses of this operation are cached, replacing the setting of the
+     * adapter.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Boolean cache;
+
     public HttpClientOperationSpec() {
         this(null, null, null, null, null, null, null);
     }
@@ -56,4 +92,44 @@ public class HttpClientOperationSpec extends OperationSpec {
         this.body = body;
     }
 
+    public Integer getOutputRowLimit() {
+        return outputRowLimit;
+    }
+
+    public void setOutputRowLimit(Integer outputRowLimit) {
+        this.outputRowLimit = outputRowLimit;
+    }
+
+    public Boolean getOutputTypedColumns() {
+        return outputTypedColumns;
+    }
+
+    public void setOutputTypedColumns(Boolean outputTypedColumns) {
+        this.outputTypedColumns = outputTypedColumns;
+    }
+
+    public String getOutputFraming() {
+        return outputFraming;
+    }
+
+    public void setOutputFraming(String outputFraming) {
+        this.outputFraming = outputFraming;
+    }
+
+    public HttpClientRetrySpec getRetry() {
+        return retry;
+    }
+
+    public void setRetry(HttpClientRetrySpec retry) {
+        this.retry = retry;
+    }
+
+    public Boolean getCache() {
+        return cache;
+    }
+
+    public void setCache(Boolean cache) {
+        this.cache = cache;
+    }
+
 }
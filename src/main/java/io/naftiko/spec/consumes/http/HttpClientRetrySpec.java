@@ -0,0 +1,142 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.spec.consumes.http;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Retry policy of the calls made by a consumed adapter or one of its operations.
+ *
+ * <p>Every field is optional; omitted fields keep the defaults. Only idempotent calls are retried:
+ * {@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT} and {@code DELETE} calls, and calls of
+ * any method made by an aggregate function declaring them idempotent. The budget fields are read
+ * on the adapter only, which holds one retry budget for its upstream API.</p>
+ */
+public class HttpClientRetrySpec {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer maxAttempts;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer initialDelay;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer maxDelay;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Double multiplier;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile List<Integer> retryOn;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile List<String> retryOnExceptions;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer budget;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Double budgetRatio;
+
+    /**
+     * @return the maximum number of attempts of a call, the first one included
+     */
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(Integer maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @return the upper bound in milliseconds of the delay before the first retry
+     */
+    public Integer getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Integer initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    /**
+     * @return the upper bound in milliseconds of the delay before any retry
+     */
+    public Integer getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Integer maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * @return the factor by which the delay bound grows after each retry
+     */
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(Double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * @return the response status codes that cause a retry
+     */
+    public List<Integer> getRetryOn() {
+        return retryOn;
+    }
+
+    public void setRetryOn(List<Integer> retryOn) {
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * @return the fully qualified names of the exception classes, subclasses included, that cause
+     *         a retry
+     */
+    public List<String> getRetryOnExceptions() {
+        return retryOnExceptions;
+    }
+
+    public void setRetryOnExceptions(List<String> retryOnExceptions) {
+        this.retryOnExceptions = retryOnExceptions;
+    }
+
+    /**
+     * @return the maximum number of retry tokens the adapter may save up
+     */
+    public Integer getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Integer budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return the retry tokens earned by each call of the adapter
+     */
+    public Double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(Double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+}
@@ -35,6 +35,18 @@ public class HttpClientSpec extends ClientSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile AuthenticationSpec authentication;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile HttpClientConnectorSpec connector;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile HttpClientRetrySpec retry;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Boolean coalesce;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Boolean cache;
+
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private List<HttpClientResourceSpec> resources;
 
@@ -84,6 +96,49 @@ public class HttpClientSpec extends ClientSpec {
         this.authentication = authentication;
     }
 
+    public HttpClientConnectorSpec getConnector() {
+        return connector;
+    }
+
+    public void setConnector(HttpClientConnectorSpec connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * @return the retry policy of the calls made by this adapter, and its retry budget
+     */
+    public HttpClientRetrySpec getRetry() {
+        return retry;
+    }
+
+    public void setRetry(HttpClientRetrySpec retry) {
+        this.retry = retry;
+    }
+
+    /**
+     * @return true to let concurrent identical safe calls to this adapter share one upstream
+     *         exchange
+     */
+    public Boolean getCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(Boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * @return true to cache the {@code GET} responses of this adapter as their cache headers
+     *         allow
+     */
+    public Boolean getCache() {
+        return cache;
+    }
+
+    public void setCache(Boolean cache) {
+        this.cache = cache;
+    }
+
     public List<HttpClientResourceSpec> getResources() {
         return resources;
     }
@@ -51,6 +51,12 @@ public class McpServerToolSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile Map<String, Object> with;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer timeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer stepParallelism;
+
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private final List<OperationStepSpec> steps;
 
@@ -121,6 +127,28 @@ public class McpServerToolSpec {
         this.with = with != null ? new ConcurrentHashMap<>(with) : null;
     }
 
+    /**
+     * @return the time in milliseconds the tool may take, from the start of its execution
+     */
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the maximum number of independent steps of the tool running at once, or null
+     */
+    public Integer getStepParallelism() {
+        return stepParallelism;
+    }
+
+    public void setStepParallelism(Integer stepParallelism) {
+        this.stepParallelism = stepParallelism;
+    }
+
     public List<OperationStepSpec> getSteps() {
         return steps;
     }
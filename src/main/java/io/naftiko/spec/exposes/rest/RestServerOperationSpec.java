@@ -40,6 +40,12 @@ public class RestServerOperationSpec extends OperationSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile Map<String, Object> with;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer timeout;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer stepParallelism;
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile String ref;
 
@@ -91,6 +97,28 @@ public class RestServerOperationSpec extends OperationSpec {
         this.with = with != null ? new ConcurrentHashMap<>(with) : null;
     }
 
+    /**
+     * @return the time in milliseconds the operation may take, from the start of its execution
+     */
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the maximum number of independent steps of the operation running at once, or null
+     */
+    public Integer getStepParallelism() {
+        return stepParallelism;
+    }
+
+    public void setStepParallelism(Integer stepParallelism) {
+        this.stepParallelism = stepParallelism;
+    }
+
     public String getRef() {
         return ref;
     }
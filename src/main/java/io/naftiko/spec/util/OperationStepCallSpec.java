@@ -33,6 +33,10 @@ public class OperationStepCallSpec extends OperationStepSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private volatile Map<String, Object> with;
 
+    @JsonProperty("ttl")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer ttl;
+
     public OperationStepCallSpec() {
         this(null, null, null, null);
     }
@@ -67,4 +71,16 @@ public class OperationStepCallSpec extends OperationStepSpec {
         this.with = with != null ? new ConcurrentHashMap<>(with) : null;
     }
 
+    /**
+     * @return the number of seconds the output of this step is reused across requests as
+     *         reference data, or null when it is fetched on every request
+     */
+    public Integer getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Integer ttl) {
+        this.ttl = ttl;
+    }
+
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.spec.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Operation Step For-Each Specification Element
+ * 
+ * Represents a fan-out over an array within an orchestration step: the consumed operation is
+ * called once per element, with the element bound under the {@code as} name, and the results are
+ * collected in element order into the step output.
+ */
+public class OperationStepForEachSpec extends OperationStepSpec {
+
+    @JsonProperty("items")
+    private volatile String items;
+
+    @JsonProperty("as")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile String as;
+
+    @JsonProperty("call")
+    private volatile String call;
+
+    @JsonProperty("with")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Map<String, Object> with;
+
+    @JsonProperty("parallelism")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer parallelism;
+
+    @JsonProperty("maxItems")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer maxItems;
+
+    @JsonProperty("onError")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile String onError;
+
+    public OperationStepForEachSpec() {
+        this(null, null, null, null, null);
+    }
+
+    public OperationStepForEachSpec(String name, String items, String as, String call,
+            Map<String, Object> with) {
+        super("forEach", name);
+        this.items = items;
+        this.as = as;
+        this.call = call;
+        this.with = with != null ? new ConcurrentHashMap<>(with) : null;
+    }
+
+    /**
+     * @return the JsonPath expression selecting the array to iterate, e.g. {@code $.voyages}
+     */
+    public String getItems() {
+        return items;
+    }
+
+    public void setItems(String items) {
+        this.items = items;
+    }
+
+    /**
+     * @return the name each element is bound to in {@code with} templates (default
+     *         {@code item})
+     */
+    public String getAs() {
+        return as;
+    }
+
+    public void setAs(String as) {
+        this.as = as;
+    }
+
+    public String getCall() {
+        return call;
+    }
+
+    public void setCall(String call) {
+        this.call = call;
+    }
+
+    public Map<String, Object> getWith() {
+        return with;
+    }
+
+    public void setWith(Map<String, Object> with) {
+        this.with = with != null ? new ConcurrentHashMap<>(with) : null;
+    }
+
+    /**
+     * @return the maximum number of calls in flight at once, or null for the default
+     */
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the maximum number of elements the step accepts, or null for the default
+     */
+    public Integer getMaxItems() {
+        return maxItems;
+    }
+
+    public void setMaxItems(Integer maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * @return what a failed element does: {@code fail} (default), {@code skip} or
+     *         {@code collect}
+     */
+    public String getOnError() {
+        return onError;
+    }
+
+    public void setOnError(String onError) {
+        this.onError = onError;
+    }
+
+}
@@ -13,6 +13,7 @@
  */
 package io.naftiko.spec.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -22,7 +23,7 @@ import io.naftiko.spec.scripting.OperationStepScriptSpec;
  * Base Operation Step Specification Element
  * 
  * Represents a step in an orchestrated operation. OperationStep is a discriminated union
- * with two subtypes: OperationStepCall and OperationStepLookup.
+ * of OperationStepCall, OperationStepLookup, OperationStepScript and OperationStepForEach.
  */
 @JsonTypeInfo(
     use = JsonTypeInfo.Id.NAME,
@@ -33,7 +34,8 @@ import io.naftiko.spec.scripting.OperationStepScriptSpec;
 @JsonSubTypes({
     @JsonSubTypes.Type(value = OperationStepCallSpec.class, name = "call"),
     @JsonSubTypes.Type(value = OperationStepLookupSpec.class, name = "lookup"),
-    @JsonSubTypes.Type(value = OperationStepScriptSpec.class, name = "script")
+    @JsonSubTypes.Type(value = OperationStepScriptSpec.class, name = "script"),
+    @JsonSubTypes.Type(value = OperationStepForEachSpec.class, name = "forEach")
 })
 public abstract class OperationStepSpec {
 
@@ -43,6 +45,9 @@ public abstract class OperationStepSpec {
     @JsonProperty("name")
     private volatile String name;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile Integer timeout;
+
     public OperationStepSpec() {
         this(null, null);
     }
@@ -68,4 +73,15 @@ public abstract class OperationStepSpec {
         this.name = name;
     }
 
+    /**
+     * @return the time in milliseconds the step may take, within the deadline of the operation
+     */
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
 }
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.aggregates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.util.OperationStepExecutor;
+import io.naftiko.spec.aggregates.AggregateFunctionSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+
+/**
+ * Stress test for aggregate functions of different namespaces sharing one
+ * {@link OperationStepExecutor}, as they do within a capability.
+ *
+ * Each function resolves a step-level {@code with} reference qualified by its own namespace. If
+ * the namespace leaked from one concurrent call to another, the reference would stay unresolved
+ * and the upstream call would not carry the caller's argument.
+ */
+public class AggregateFunctionConcurrencyTest {
+
+    private static final int CALLS = 400;
+
+    /**
+     * Executor answering every call from an in-memory upstream that echoes the requested id.
+     */
+    static class EchoStepExecutor extends OperationStepExecutor {
+
+        private final HttpClientAdapter adapter;
+
+        EchoStepExecutor() {
+            super(null);
+            HttpClientSpec spec = new HttpClientSpec("registry", "https://registry.example.com",
+                    null);
+            Client client = new Client(Protocol.HTTP) {
+
+                @Override
+                public void handle(Request request, Response response) {
+                    String id = request.getResourceRef().getLastSegment();
+                    response.setEntity("{\"id\":\"" + id + "\"}", MediaType.APPLICATION_JSON);
+                }
+
+            };
+            this.adapter = new HttpClientAdapter(null, spec) {
+
+                @Override
+                public Client getHttpClient() {
+                    return client;
+                }
+
+            };
+        }
+
+        @Override
+        public HandlingContext findClientRequestFor(String clientNamespace,
+                String clientOpName, Map<String, Object> parameters) {
+            HandlingContext context = new HandlingContext();
+            context.clientAdapter = adapter;
+            context.clientRequest = new Request(Method.GET,
+                    "https://registry.example.com/ships/" + parameters.get("ship-id"));
+            context.clientResponse = new Response(context.clientRequest);
+            return context;
+        }
+
+    }
+
+    private static AggregateFunction function(String namespace, OperationStepExecutor executor) {
+        AggregateFunctionSpec spec = new AggregateFunctionSpec();
+        spec.setName("get-ship");
+        spec.getSteps().add(new OperationStepCallSpec("ship", "registry.get-ship",
+                Map.of("ship-id", namespace + ".ship-id")));
+        return new AggregateFunction(spec, executor, namespace);
+    }
+
+    @Test
+    void functionsOfDifferentNamespacesShouldShareOneExecutorConcurrently() throws Exception {
+        EchoStepExecutor executor = new EchoStepExecutor();
+        List<AggregateFunction> functions = List.of(function("fleet", executor),
+                function("harbor", executor), function("crew", executor),
+                function("cargo", executor));
+        String[] namespaces = {"fleet", "harbor", "crew", "cargo"};
+
+        ExecutorService threads = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>(CALLS);
+        try {
+            for (int call = 0; call < CALLS; call++) {
+                AggregateFunction function = functions.get(call % functions.size());
+                String shipId = namespaces[call % namespaces.length] + "-" + call;
+                results.add(threads.submit(() -> {
+                    start.await();
+                    FunctionResult result = function.execute(Map.of("ship-id", shipId));
+                    return result.lastContext.clientResponse.getEntity().getText();
+                }));
+            }
+            start.countDown();
+
+            for (int call = 0; call < CALLS; call++) {
+                String shipId = namespaces[call % namespaces.length] + "-" + call;
+                assertEquals("{\"id\":\"" + shipId + "\"}",
+                        results.get(call).get(30, TimeUnit.SECONDS),
+                        "Call " + call + " should resolve its own namespace reference");
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+}
@@ -15,13 +15,25 @@ package io.naftiko.engine.aggregates;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.ChallengeScheme;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import io.naftiko.engine.util.OperationStepExecutor;
 import io.naftiko.spec.aggregates.AggregateFunctionSpec;
 import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.aggregates.SemanticsSpec;
 
 /**
  * Unit tests for {@link AggregateFunction} — namespace-qualified reference resolution
@@ -68,4 +80,66 @@ public class AggregateFunctionTest {
                 "Namespace-qualified 'with' should resolve to caller's argument, "
                         + "not the literal 'shipyard.voyage-id'");
     }
+
+    @Test
+    void executeShouldServeCacheableResultsWithinTtl() throws Exception {
+        AggregateFunctionSpec spec = new AggregateFunctionSpec();
+        spec.setName("get-voyage");
+        SemanticsSpec semantics = new SemanticsSpec(true, true, true);
+        semantics.setTtl(60);
+        spec.setSemantics(semantics);
+        OutputParameterSpec outParam = new OutputParameterSpec();
+        outParam.setName("voyage-id");
+        outParam.setType("string");
+        outParam.setValue("{{voyage-id}}");
+        spec.getOutputParameters().add(outParam);
+        AggregateFunction fn = new AggregateFunction(spec, null, "shipyard");
+
+        FunctionResult first = fn.execute(Map.of("voyage-id", "VOY-2026-042"));
+        FunctionResult second = fn.execute(Map.of("voyage-id", "VOY-2026-042"));
+        FunctionResult other = fn.execute(Map.of("voyage-id", "VOY-2026-043"));
+
+        assertSame(first.mockOutput, second.mockOutput,
+                "Identical parameters within the ttl should be served from the cache");
+        assertNotSame(first.mockOutput, other.mockOutput);
+        assertEquals("VOY-2026-043", other.mockOutput.get("voyage-id").asText());
+    }
+
+    @Test
+    void executeShouldNotCacheWithoutTtl() throws Exception {
+        AggregateFunctionSpec spec = new AggregateFunctionSpec();
+        spec.setName("get-voyage");
+        spec.setSemantics(new SemanticsSpec(true, true, true));
+        OutputParameterSpec outParam = new OutputParameterSpec();
+        outParam.setName("voyage-id");
+        outParam.setType("string");
+        outParam.setValue("{{voyage-id}}");
+        spec.getOutputParameters().add(outParam);
+        AggregateFunction fn = new AggregateFunction(spec, null, "shipyard");
+
+        FunctionResult first = fn.execute(Map.of("voyage-id", "VOY-2026-042"));
+        FunctionResult second = fn.execute(Map.of("voyage-id", "VOY-2026-042"));
+
+        assertNotSame(first.mockOutput, second.mockOutput);
+    }
+
+    @Test
+    void cachedResultShouldNotKeepTheClientRequest() throws Exception {
+        OperationStepExecutor.HandlingContext context = new OperationStepExecutor.HandlingContext();
+        context.clientRequest = new Request(Method.GET, "https://api.example.com/voyages/42");
+        context.clientRequest.setChallengeResponse(
+                new ChallengeResponse(ChallengeScheme.HTTP_BASIC, "captain", "secret"));
+        context.clientResponse = new Response(context.clientRequest);
+        context.clientResponse.setStatus(Status.SUCCESS_OK);
+        context.clientResponse.setEntity("{\"id\":\"42\"}", MediaType.APPLICATION_JSON);
+
+        AggregateFunction.CachedResult cached =
+                AggregateFunction.CachedResult.of(new FunctionResult(context, null, null));
+        assertNull(cached.call().clientRequest);
+
+        FunctionResult served = cached.toResult();
+        assertNull(served.lastContext.clientRequest);
+        assertEquals(Status.SUCCESS_OK, served.lastContext.clientResponse.getStatus());
+        assertEquals("{\"id\":\"42\"}", served.lastContext.clientResponse.getEntity().getText());
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.data.Protocol;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.naftiko.spec.consumes.http.HttpClientConnectorSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+
+public class HttpClientConnectorsTest {
+
+    private static HttpClientConnectorSpec connector(int maxConnectionsPerRoute,
+            int readTimeout) {
+        HttpClientConnectorSpec spec = new HttpClientConnectorSpec();
+        spec.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        spec.setReadTimeout(readTimeout);
+        return spec;
+    }
+
+    @Test
+    public void parametersShouldMapSettingsToConnectorParameters() throws Exception {
+        HttpClientSpec spec = new ObjectMapper(new YAMLFactory()).readValue("""
+                type: http
+                namespace: ships
+                baseUri: https://api.example.com
+                connector:
+                  maxConnectionsPerRoute: 128
+                  maxQueuedRequestsPerRoute: 256
+                  connectTimeout: 2000
+                  readTimeout: 10000
+                  idleTimeout: 60000
+                  http2: true
+                """, HttpClientSpec.class);
+
+        Map<String, String> parameters = HttpClientConnectors.parameters(spec.getConnector());
+
+        assertEquals("128", parameters.get("maxConnectionsPerDestination"));
+        assertEquals("256", parameters.get("maxRequestsQueuedPerDestination"));
+        assertEquals("2000", parameters.get("connectTimeout"));
+        assertEquals("10000", parameters.get("idleTimeout"));
+        assertEquals("60000", parameters.get("destinationIdleTimeout"));
+        assertEquals("HTTP2", parameters.get("httpClientTransportMode"));
+        assertTrue(HttpClientConnectors.parameters(null).isEmpty());
+    }
+
+    @Test
+    public void clientShouldBeSharedByIdenticalSettings() {
+        HttpClientConnectors connectors = new HttpClientConnectors();
+
+        Client first = connectors.client(connector(16, 5000));
+        Client second = connectors.client(connector(16, 5000));
+        Client other = connectors.client(connector(32, 5000));
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertSame(connectors.client(null), connectors.client(new HttpClientConnectorSpec()));
+        assertEquals(3, connectors.size());
+        assertEquals("16",
+                first.getContext().getParameters().getFirstValue("maxConnectionsPerDestination"));
+    }
+
+    @Test
+    public void clientShouldStartOnceAndStopWithLastUser() throws Exception {
+        AtomicInteger starts = new AtomicInteger();
+        AtomicInteger stops = new AtomicInteger();
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public synchronized void start() {
+                starts.incrementAndGet();
+            }
+
+            @Override
+            public synchronized void stop() {
+                stops.incrementAndGet();
+            }
+
+        };
+        HttpClientConnectors connectors = new HttpClientConnectors();
+
+        connectors.start(client);
+        connectors.start(client);
+        connectors.stop(client);
+        assertEquals(1, starts.get());
+        assertEquals(0, stops.get());
+
+        connectors.stop(client);
+        connectors.stop(client);
+        assertEquals(1, stops.get());
+    }
+
+    @Test
+    public void negativeSettingShouldBeRejected() {
+        HttpClientConnectorSpec spec = new HttpClientConnectorSpec();
+        spec.setConnectTimeout(-1);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new HttpClientConnectors().client(spec));
+        assertEquals("HTTP connector setting must not be negative. Provided connectTimeout: -1",
+                error.getMessage());
+    }
+
+}
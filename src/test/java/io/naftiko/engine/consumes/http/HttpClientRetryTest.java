@@ -0,0 +1,165 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import io.naftiko.engine.util.Deadline;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.spec.consumes.http.HttpClientRetrySpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.opentelemetry.context.Scope;
+
+public class HttpClientRetryTest {
+
+    /**
+     * Adapter whose upstream answers with the given statuses in turn, then with 200.
+     */
+    private static HttpClientAdapter adapter(HttpClientRetrySpec retry, List<String> bodies,
+            Status... statuses) {
+        HttpClientSpec spec = new HttpClientSpec("ships", "https://api.example.com", null);
+        spec.setRetry(retry);
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                int attempt = bodies.size();
+                bodies.add(request.getEntity() != null ? request.getEntityAsText() : null);
+                if (attempt < statuses.length) {
+                    response.setStatus(statuses[attempt]);
+                } else {
+                    response.setEntity("{\"ok\":true}", MediaType.APPLICATION_JSON);
+                }
+            }
+
+        };
+        return new HttpClientAdapter(null, spec) {
+
+            @Override
+            public Client getHttpClient() {
+                return client;
+            }
+
+        };
+    }
+
+    private static HttpClientRetrySpec retry(int maxAttempts) {
+        HttpClientRetrySpec retry = new HttpClientRetrySpec();
+        retry.setMaxAttempts(maxAttempts);
+        retry.setInitialDelay(1);
+        return retry;
+    }
+
+    private static HandlingContext call(HttpClientAdapter adapter, Method method, String body) {
+        HandlingContext context = new HandlingContext();
+        context.clientAdapter = adapter;
+        context.clientRequest = new Request(method, "https://api.example.com/ships");
+        if (body != null) {
+            context.clientRequest.setEntity(body, MediaType.APPLICATION_JSON);
+        }
+        context.clientResponse = new Response(context.clientRequest);
+        context.handle();
+        return context;
+    }
+
+    @Test
+    public void idempotentCallShouldBeRetriedUntilItSucceeds() throws Exception {
+        List<String> bodies = new ArrayList<>();
+        HttpClientAdapter adapter = adapter(retry(3), bodies,
+                Status.SERVER_ERROR_SERVICE_UNAVAILABLE, Status.SERVER_ERROR_BAD_GATEWAY);
+
+        HandlingContext context = call(adapter, Method.PUT, "{\"name\":\"Nautilus\"}");
+
+        assertEquals(3, bodies.size());
+        assertEquals(List.of("{\"name\":\"Nautilus\"}", "{\"name\":\"Nautilus\"}",
+                "{\"name\":\"Nautilus\"}"), bodies, "Each retry should send the body again");
+        assertEquals(Status.SUCCESS_OK, context.clientResponse.getStatus());
+        assertEquals("{\"ok\":true}", context.clientResponse.getEntityAsText());
+    }
+
+    @Test
+    public void lastFailureShouldBeKeptOnceAttemptsAreExhausted() {
+        List<String> bodies = new ArrayList<>();
+        HttpClientAdapter adapter = adapter(retry(2), bodies,
+                Status.SERVER_ERROR_SERVICE_UNAVAILABLE, Status.SERVER_ERROR_GATEWAY_TIMEOUT);
+
+        HandlingContext context = call(adapter, Method.GET, null);
+
+        assertEquals(2, bodies.size());
+        assertEquals(Status.SERVER_ERROR_GATEWAY_TIMEOUT, context.clientResponse.getStatus());
+    }
+
+    @Test
+    public void nonIdempotentCallShouldBeSentOnceUnlessDeclaredIdempotent() {
+        List<String> bodies = new ArrayList<>();
+        HttpClientAdapter adapter = adapter(retry(3), bodies,
+                Status.SERVER_ERROR_SERVICE_UNAVAILABLE);
+
+        HandlingContext context = call(adapter, Method.POST, "{}");
+        assertEquals(1, bodies.size());
+        assertEquals(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, context.clientResponse.getStatus());
+
+        bodies.clear();
+        try (Scope scope = RetryPolicy.declareIdempotent(true)) {
+            context = call(adapter, Method.POST, "{}");
+        }
+        assertEquals(2, bodies.size());
+        assertEquals(Status.SUCCESS_OK, context.clientResponse.getStatus());
+    }
+
+    @Test
+    public void spentBudgetShouldStopRetries() {
+        HttpClientRetrySpec retry = retry(3);
+        retry.setBudget(1);
+        retry.setBudgetRatio(0.0);
+        List<String> bodies = new ArrayList<>();
+        HttpClientAdapter adapter = adapter(retry, bodies, Status.SERVER_ERROR_SERVICE_UNAVAILABLE,
+                Status.SERVER_ERROR_SERVICE_UNAVAILABLE, Status.SERVER_ERROR_SERVICE_UNAVAILABLE);
+
+        HandlingContext context = call(adapter, Method.GET, null);
+
+        assertEquals(2, bodies.size(), "The single token should allow a single retry");
+        assertEquals(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, context.clientResponse.getStatus());
+    }
+
+    @Test
+    public void retryShouldNotOutlastTheDeadline() {
+        HttpClientRetrySpec retry = retry(3);
+        retry.setInitialDelay(60_000);
+        retry.setMaxDelay(60_000);
+        retry.setMultiplier(1.0);
+        List<String> bodies = new ArrayList<>();
+        HttpClientAdapter adapter = adapter(retry, bodies, Status.SERVER_ERROR_SERVICE_UNAVAILABLE);
+
+        long start = System.nanoTime();
+        try (Scope scope = Deadline.start(200)) {
+            call(adapter, Method.GET, null);
+        }
+
+        // A delay that fits the deadline is at most 200ms, any other one is never waited
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(bodies.size() <= 2);
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+
+public class OperationIndexTest {
+
+    private static HttpClientAdapter adapter(String namespace, String baseUri, String path,
+            String... operations) {
+        HttpClientSpec spec = new HttpClientSpec(namespace, baseUri, null);
+        HttpClientResourceSpec resource = new HttpClientResourceSpec(path, "items", null);
+        for (String operation : operations) {
+            resource.getOperations()
+                    .add(new HttpClientOperationSpec(resource, "GET", operation, null));
+        }
+        spec.getResources().add(resource);
+        return new HttpClientAdapter(null, spec);
+    }
+
+    @Test
+    public void findShouldReturnAdapterOperationAndResourceUri() {
+        HttpClientAdapter ships = adapter("ships", "https://ships.example.com", "/ships/{{imo}}",
+                "get-ship", "list-ships");
+        HttpClientAdapter ports = adapter("ports", "https://ports.example.com", "/ports",
+                "list-ports");
+
+        OperationIndex index = OperationIndex.of(List.of(ships, ports));
+
+        OperationIndex.Entry entry = index.find("ships", "get-ship");
+        assertSame(ships, entry.adapter());
+        assertEquals("get-ship", entry.operation().getName());
+        assertEquals("https://ships.example.com/ships/{{imo}}", entry.resourceUri());
+        assertSame(ports, index.find("ports", "list-ports").adapter());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void findShouldReturnNullForUnknownReferences() {
+        OperationIndex index = OperationIndex.of(List.of(
+                adapter("ships", "https://ships.example.com", "/ships", "list-ships")));
+
+        assertNull(index.find("ships", "get-ship"));
+        assertNull(index.find("ports", "list-ships"));
+        assertNull(index.find(null, "list-ships"));
+    }
+
+    @Test
+    public void firstDeclarationShouldWinForDuplicateNames() {
+        HttpClientAdapter first = adapter("ships", "https://a.example.com", "/ships", "list-ships");
+        HttpClientAdapter second = adapter("ships", "https://b.example.com", "/ships",
+                "list-ships", "get-ship");
+
+        OperationIndex index = OperationIndex.of(List.of(first, second));
+
+        assertSame(first, index.find("ships", "list-ships").adapter());
+        assertSame(second, index.find("ships", "get-ship").adapter());
+    }
+
+}
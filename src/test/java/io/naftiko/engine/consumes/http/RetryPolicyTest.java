@@ -0,0 +1,153 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.consumes.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.naftiko.engine.util.DeadlineExceededException;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientRetrySpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.opentelemetry.context.Scope;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void retryShouldBeReadFromTheAdapterAndItsOperations() throws Exception {
+        HttpClientSpec spec = new ObjectMapper(new YAMLFactory()).readValue("""
+                type: http
+                namespace: ships
+                baseUri: https://api.example.com
+                retry:
+                  maxAttempts: 4
+                  retryOn: [429, 503]
+                  budget: 20
+                  budgetRatio: 0.5
+                resources:
+                  - name: ships
+                    path: /ships
+                    operations:
+                      - name: list-ships
+                        method: GET
+                        retry:
+                          maxAttempts: 1
+                      - name: get-ship
+                        method: GET
+                        retry:
+                          maxAttempts: 2
+                """, HttpClientSpec.class);
+
+        assertEquals(4, spec.getRetry().getMaxAttempts());
+        assertEquals(List.of(429, 503), spec.getRetry().getRetryOn());
+        assertEquals(20, spec.getRetry().getBudget());
+        assertEquals(1, spec.getResources().get(0).getOperations().get(0).getRetry()
+                .getMaxAttempts());
+
+        HttpClientAdapter adapter = new HttpClientAdapter(null, spec);
+        assertNotNull(adapter.getRetryPolicy(null));
+        assertNull(adapter.getRetryPolicy(spec.getResources().get(0).getOperations().get(0)),
+                "A single attempt at operation level should disable retries");
+        HttpClientOperationSpec getShip = spec.getResources().get(0).getOperations().get(1);
+        assertEquals(2, adapter.getRetryPolicy(getShip).getMaxAttempts());
+        assertSame(adapter.getRetryPolicy(getShip), adapter.getRetryPolicy(getShip),
+                "Operation policies should be built once with the adapter");
+        assertEquals(20.0, adapter.getRetryBudget().tokens(), 0.0,
+                "The budget should start full");
+    }
+
+    @Test
+    public void policyShouldRetryListedStatusesAndExceptions() {
+        RetryPolicy policy = RetryPolicy.of(new HttpClientRetrySpec());
+
+        assertTrue(policy.shouldRetry(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, null));
+        assertTrue(policy.shouldRetry(Status.SERVER_ERROR_BAD_GATEWAY, null));
+        assertFalse(policy.shouldRetry(Status.SERVER_ERROR_INTERNAL, null));
+        assertFalse(policy.shouldRetry(Status.CLIENT_ERROR_NOT_FOUND, null));
+        assertFalse(policy.shouldRetry(Status.SUCCESS_OK, null));
+
+        assertTrue(policy.shouldRetry(Status.CONNECTOR_ERROR_COMMUNICATION, null),
+                "A connector error should count as an IOException");
+        assertTrue(policy.shouldRetry(new Status(Status.CONNECTOR_ERROR_CONNECTION,
+                new ConnectException("refused")), null));
+        assertTrue(policy.shouldRetry(null,
+                new IllegalStateException(new IOException("reset"))));
+        assertFalse(policy.shouldRetry(null, new IllegalArgumentException("bad")));
+        assertFalse(policy.shouldRetry(null,
+                new DeadlineExceededException("late", new IOException("reset"))));
+    }
+
+    @Test
+    public void delaysShouldBeJitteredWithinTheExponentialBound() {
+        HttpClientRetrySpec spec = new HttpClientRetrySpec();
+        spec.setInitialDelay(100);
+        spec.setMaxDelay(300);
+        RetryPolicy policy = RetryPolicy.of(spec);
+
+        boolean jittered = false;
+        for (int i = 0; i < 200; i++) {
+            long first = policy.delayMillis(1);
+            assertTrue(first >= 0 && first <= 100);
+            assertTrue(policy.delayMillis(2) <= 200);
+            assertTrue(policy.delayMillis(5) <= 300, "The bound should be capped by maxDelay");
+            jittered |= first != policy.delayMillis(1);
+        }
+        assertTrue(jittered, "Delays should be drawn at random");
+    }
+
+    @Test
+    public void onlyIdempotentMethodsShouldBeRetriedUnlessDeclared() {
+        assertTrue(RetryPolicy.isIdempotent(Method.GET));
+        assertTrue(RetryPolicy.isIdempotent(Method.PUT));
+        assertFalse(RetryPolicy.isIdempotent(Method.POST));
+        assertFalse(RetryPolicy.isIdempotent(Method.PATCH));
+        try (Scope scope = RetryPolicy.declareIdempotent(true)) {
+            assertTrue(RetryPolicy.isIdempotent(Method.POST));
+        }
+        try (Scope scope = RetryPolicy.declareIdempotent(false)) {
+            assertFalse(RetryPolicy.isIdempotent(Method.POST));
+        }
+    }
+
+    @Test
+    public void budgetShouldLimitRetriesToTheRatioOfCalls() {
+        RetryBudget budget = new RetryBudget(2, 0.5);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire(), "An empty budget should deny retries");
+
+        budget.deposit();
+        assertFalse(budget.tryAcquire());
+        budget.deposit();
+        assertTrue(budget.tryAcquire(), "Two calls should earn one retry");
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(2.0, budget.tokens(), 0.0, "Tokens should not exceed the capacity");
+    }
+
+}
@@ -132,6 +132,9 @@ public class ScriptingIntegrationTest {
         JsonNode stats = json.get("stats");
         assertEquals(0, stats.get("totalExecutions").asLong());
         assertEquals(0, stats.get("totalErrors").asLong());
+        assertTrue(stats.get("contextPool").has("size"));
+        assertTrue(stats.get("contextPool").has("hitRate"));
+        assertTrue(stats.get("contextPool").has("averageWaitMs"));
     }
 
     // ── PUT /scripting ───────────────────────────────────────────
@@ -71,8 +71,8 @@ public class StepWithNamespaceIntegrationTest {
      */
     @Test
     public void stepWithShouldResolveNamespaceQualifiedReferences() {
-        CapturingStepExecutor executor = new CapturingStepExecutor(capability);
-        executor.setExposeNamespace(mcpSpec.getNamespace());
+        CapturingStepExecutor executor =
+                new CapturingStepExecutor(capability, mcpSpec.getNamespace());
 
         OperationStepCallSpec step = new OperationStepCallSpec();
         step.setType("call");
@@ -99,8 +99,8 @@ public class StepWithNamespaceIntegrationTest {
     static class CapturingStepExecutor extends OperationStepExecutor {
         Map<String, Object> capturedParams;
 
-        CapturingStepExecutor(Capability capability) {
-            super(capability);
+        CapturingStepExecutor(Capability capability, String exposeNamespace) {
+            super(capability, exposeNamespace);
         }
 
         @Override
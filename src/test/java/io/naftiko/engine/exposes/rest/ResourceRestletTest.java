@@ -17,10 +17,27 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.restlet.Application;
@@ -32,6 +49,8 @@ import org.restlet.data.MediaType;
 import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.data.Status;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.WriterRepresentation;
 import org.restlet.routing.Router;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -396,6 +415,67 @@ public class ResourceRestletTest {
     }
   }
 
+  @Test
+  public void handleShouldServeCallModeThroughTheHttpCache() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    HttpServer upstream = HttpServer.create(new InetSocketAddress(0), 0);
+    upstream.createContext("/users", exchange -> {
+      calls.incrementAndGet();
+      byte[] body = "{\"id\":\"u-1\"}".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    upstream.start();
+    int port = upstream.getAddress().getPort();
+
+    try {
+      Capability capability = capabilityFromYaml("""
+              naftiko: "%s"
+              capability:
+                exposes:
+                  - type: "rest"
+                    address: "localhost"
+                    port: 0
+                    namespace: "test"
+                    resources:
+                      - path: "/users"
+                        operations:
+                          - method: "GET"
+                            name: "get-user"
+                            call: "upstream.get-user"
+                consumes:
+                  - type: "http"
+                    namespace: "upstream"
+                    baseUri: "http://localhost:%d"
+                    cache: true
+                    resources:
+                      - path: "/users"
+                        name: "users"
+                        operations:
+                          - method: "GET"
+                            name: "get-user"
+              """.formatted(schemaVersion, port));
+      RestServerSpec serverSpec = (RestServerSpec) capability.getServerAdapters().get(0)
+          .getSpec();
+      ResourceRestlet restlet = new ResourceRestlet(capability, serverSpec,
+          serverSpec.getResources().get(0));
+
+      for (int i = 0; i < 2; i++) {
+        Request request = new Request(Method.GET, "http://localhost/users");
+        Response response = new Response(request);
+        restlet.handle(request, response);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+      }
+
+      assertEquals(1, calls.get());
+    } finally {
+      upstream.stop(0);
+    }
+  }
+
   private static Component createHeaderEchoServer(int port) throws Exception {
     Component component = new Component();
     component.getServers().add(Protocol.HTTP, port);
@@ -520,6 +600,155 @@ public class ResourceRestletTest {
     assertEquals("Bob", payload.get(1).path("name").asText());
   }
 
+  @Test
+  public void sendResponseShouldStreamDelimitedRowsThroughArrayMapping() throws Exception {
+    Capability capability = capabilityFromYaml(minimalCapabilityYaml());
+    RestServerSpec serverSpec = (RestServerSpec) capability.getServerAdapters().get(0)
+        .getSpec();
+    ResourceRestlet restlet = new ResourceRestlet(capability, serverSpec,
+        serverSpec.getResources().get(0));
+
+    RestServerOperationSpec operation = new RestServerOperationSpec();
+    OutputParameterSpec rows = new OutputParameterSpec("users", "array", null, "$");
+    OutputParameterSpec itemSpec = new OutputParameterSpec();
+    itemSpec.setType("object");
+    itemSpec.getProperties().add(new OutputParameterSpec("id", "number", null, "$.id"));
+    rows.setItems(itemSpec);
+    operation.getOutputParameters().add(rows);
+
+    io.naftiko.spec.consumes.http.HttpClientOperationSpec clientOp =
+        new io.naftiko.spec.consumes.http.HttpClientOperationSpec();
+    clientOp.setOutputRawFormat("csv");
+    clientOp.setOutputRowLimit(2);
+    clientOp.setOutputTypedColumns(true);
+
+    OperationStepExecutor.HandlingContext handlingContext =
+        new OperationStepExecutor.HandlingContext();
+    handlingContext.clientOperation = clientOp;
+    handlingContext.clientResponse =
+        new Response(new Request(Method.GET, "http://localhost/internal"));
+    handlingContext.clientResponse.setEntity("id,name\n1,Alice\n2,Bob\n3,Carol\n",
+        MediaType.TEXT_CSV);
+
+    Response response = new Response(new Request(Method.GET, "http://localhost/test"));
+    restlet.sendResponse(operation, response, handlingContext);
+
+    assertTrue(response.getEntity() instanceof WriterRepresentation);
+    StringWriter written = new StringWriter();
+    ((WriterRepresentation) response.getEntity()).write(written);
+    assertEquals("[{\"id\":1},{\"id\":2}]", written.toString());
+  }
+
+  @Test
+  public void sendResponseShouldFailBeforeCommittingWhenStreamHeaderIsInvalid() throws Exception {
+    Capability capability = capabilityFromYaml(minimalCapabilityYaml());
+    RestServerSpec serverSpec = (RestServerSpec) capability.getServerAdapters().get(0)
+        .getSpec();
+    ResourceRestlet restlet = new ResourceRestlet(capability, serverSpec,
+        serverSpec.getResources().get(0));
+
+    io.naftiko.spec.consumes.http.HttpClientOperationSpec clientOp =
+        new io.naftiko.spec.consumes.http.HttpClientOperationSpec();
+    clientOp.setOutputRawFormat("avro");
+    clientOp.setOutputFraming("container");
+
+    OperationStepExecutor.HandlingContext handlingContext =
+        new OperationStepExecutor.HandlingContext();
+    handlingContext.clientOperation = clientOp;
+    handlingContext.clientResponse =
+        new Response(new Request(Method.GET, "http://localhost/internal"));
+    handlingContext.clientResponse.setEntity(new InputRepresentation(
+        new ByteArrayInputStream("not an avro file".getBytes(StandardCharsets.UTF_8)),
+        MediaType.APPLICATION_OCTET_STREAM));
+
+    Response response = new Response(new Request(Method.GET, "http://localhost/test"));
+    restlet.sendResponse(idArrayOperation(), response, handlingContext);
+
+    assertEquals(Status.SERVER_ERROR_INTERNAL, response.getStatus());
+    assertTrue(response.getEntity().getText().contains("Failed to map output parameters"));
+  }
+
+  @Test
+  public void sendResponseShouldAbortConnectionWhenStreamFailsMidway() throws Exception {
+    Capability capability = capabilityFromYaml(minimalCapabilityYaml());
+    RestServerSpec serverSpec = (RestServerSpec) capability.getServerAdapters().get(0)
+        .getSpec();
+    ResourceRestlet restlet = new ResourceRestlet(capability, serverSpec,
+        serverSpec.getResources().get(0));
+
+    io.naftiko.spec.consumes.http.HttpClientOperationSpec clientOp =
+        new io.naftiko.spec.consumes.http.HttpClientOperationSpec();
+    clientOp.setOutputRawFormat("avro");
+    clientOp.setOutputFraming("container");
+
+    Schema schema = SchemaBuilder.record("User").fields().requiredLong("id").endRecord();
+    ByteArrayOutputStream container = new ByteArrayOutputStream();
+    try (DataFileWriter<GenericRecord> writer =
+        new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+      writer.setSyncInterval(64);
+      writer.create(schema, container);
+      for (long id = 1; id <= 100_000; id++) {
+        GenericRecord user = new GenericData.Record(schema);
+        user.put("id", id);
+        writer.append(user);
+      }
+    }
+    // The upstream body breaks halfway through the records
+    byte[] bytes = container.toByteArray();
+    InputStream brokenBody = new InputStream() {
+
+      private int position;
+
+      @Override
+      public int read() throws IOException {
+        if (position == bytes.length / 2) {
+          throw new IOException("Connection reset by upstream");
+        }
+        return bytes[position++] & 0xFF;
+      }
+
+    };
+    OperationStepExecutor.HandlingContext handlingContext =
+        new OperationStepExecutor.HandlingContext();
+    handlingContext.clientOperation = clientOp;
+    handlingContext.clientResponse =
+        new Response(new Request(Method.GET, "http://localhost/internal"));
+    handlingContext.clientResponse.setEntity(
+        new InputRepresentation(brokenBody, MediaType.APPLICATION_OCTET_STREAM));
+
+    AtomicBoolean aborted = new AtomicBoolean();
+    Request request = new Request(Method.GET, "http://localhost/test") {
+
+      @Override
+      public boolean abort() {
+        aborted.set(true);
+        return true;
+      }
+
+    };
+    Response response = new Response(request);
+    restlet.sendResponse(idArrayOperation(), response, handlingContext);
+
+    assertEquals(Status.SUCCESS_OK, response.getStatus());
+    StringWriter written = new StringWriter();
+    assertThrows(IOException.class,
+        () -> ((WriterRepresentation) response.getEntity()).write(written));
+    assertTrue(aborted.get(), "The connection should be aborted");
+    assertTrue(written.toString().startsWith("[{\"id\":1},{\"id\":2},"));
+    assertFalse(written.toString().endsWith("]"), "A truncated array should not be closed");
+  }
+
+  private static RestServerOperationSpec idArrayOperation() {
+    RestServerOperationSpec operation = new RestServerOperationSpec();
+    OutputParameterSpec rows = new OutputParameterSpec("users", "array", null, "$");
+    OutputParameterSpec itemSpec = new OutputParameterSpec();
+    itemSpec.setType("object");
+    itemSpec.getProperties().add(new OutputParameterSpec("id", "number", null, "$.id"));
+    rows.setItems(itemSpec);
+    operation.getOutputParameters().add(rows);
+    return operation;
+  }
+
   private static OutputParameterSpec stringOutput(String name, String value) {
     OutputParameterSpec spec = new OutputParameterSpec();
     spec.setName(name);
@@ -93,6 +93,75 @@ class EngineMetricsTest {
                 "Should record naftiko.http.client.duration.seconds histogram");
     }
 
+    @Test
+    void scriptMetricsShouldRecordInFlightAndTimeouts() {
+        metrics.scriptStarted("groovy");
+        metrics.recordScriptTimeout("groovy");
+        metrics.scriptFinished("groovy");
+
+        Collection<MetricData> data = metricReader.collectAllMetrics();
+        assertTrue(hasMetric(data, "naftiko.script.inflight"),
+                "Should record naftiko.script.inflight gauge");
+        assertTrue(hasMetric(data, "naftiko.script.timeouts"),
+                "Should record naftiko.script.timeouts counter");
+    }
+
+    @Test
+    void recordHttpClientCoalescingShouldCountOriginatedAndCoalescedCalls() {
+        metrics.recordHttpClientCoalescing("GET", "api.example.com", false);
+        metrics.recordHttpClientCoalescing("GET", "api.example.com", true);
+        metrics.recordHttpClientCoalescing("GET", "api.example.com", true);
+
+        Collection<MetricData> data = metricReader.collectAllMetrics();
+        MetricData coalescing = findMetric(data, "naftiko.http.client.coalescing");
+        assertNotNull(coalescing, "Should find naftiko.http.client.coalescing metric");
+
+        long coalesced = coalescing.getLongSumData().getPoints().stream()
+                .filter(p -> "coalesced".equals(p.getAttributes()
+                        .get(io.opentelemetry.api.common.AttributeKey.stringKey(
+                                "coalescing.role"))))
+                .mapToLong(p -> p.getValue())
+                .sum();
+        assertEquals(2, coalesced, "Counter should count 2 coalesced calls");
+    }
+
+    @Test
+    void recordHttpClientRetryShouldCountRetriedAndThrottledRetries() {
+        metrics.recordHttpClientRetry("GET", "api.example.com", true);
+        metrics.recordHttpClientRetry("GET", "api.example.com", true);
+        metrics.recordHttpClientRetry("GET", "api.example.com", false);
+
+        Collection<MetricData> data = metricReader.collectAllMetrics();
+        MetricData retries = findMetric(data, "naftiko.http.client.retries");
+        assertNotNull(retries, "Should find naftiko.http.client.retries metric");
+
+        long throttled = retries.getLongSumData().getPoints().stream()
+                .filter(p -> "throttled".equals(p.getAttributes()
+                        .get(io.opentelemetry.api.common.AttributeKey.stringKey(
+                                "retry.outcome"))))
+                .mapToLong(p -> p.getValue())
+                .sum();
+        assertEquals(1, throttled, "Counter should count 1 throttled retry");
+    }
+
+    @Test
+    void recordCacheOutcomesShouldIncrementCountersPerCache() {
+        metrics.recordCacheHit("http");
+        metrics.recordCacheHit("http");
+        metrics.recordCacheMiss("http");
+        metrics.recordCacheEvictions("http", 3);
+
+        Collection<MetricData> data = metricReader.collectAllMetrics();
+        MetricData hits = findMetric(data, "naftiko.cache.hits");
+        assertNotNull(hits, "Should find naftiko.cache.hits metric");
+        assertEquals(2, hits.getLongSumData().getPoints().iterator().next().getValue());
+        assertTrue(hasMetric(data, "naftiko.cache.misses"),
+                "Should record naftiko.cache.misses counter");
+        MetricData evictions = findMetric(data, "naftiko.cache.evictions");
+        assertNotNull(evictions, "Should find naftiko.cache.evictions metric");
+        assertEquals(3, evictions.getLongSumData().getPoints().iterator().next().getValue());
+    }
+
     @Test
     void capabilityStartedShouldIncrementActiveGauge() {
         metrics.capabilityStarted("Weather Service");
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.naftiko.engine.util.StepExecutionContext;
+import io.naftiko.spec.scripting.OperationStepScriptSpec;
+
+class PolyglotContextPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ScriptStepExecutor executor = new ScriptStepExecutor();
+
+    private JsonNode run(String language, String file, List<String> dependencies,
+            Map<String, Object> parameters) {
+        OperationStepScriptSpec step = new OperationStepScriptSpec("pooled", language,
+                tempDir.toUri().toString(),
+                file, dependencies, null);
+        return executor.execute(step, parameters, new StepExecutionContext());
+    }
+
+    @Test
+    void javaScriptContextShouldBeReusedWithGlobalsReset() throws Exception {
+        Files.writeString(tempDir.resolve("lib.js"), "function twice(x) { return x * 2; }");
+        Files.writeString(tempDir.resolve("count.js"), """
+                counter = (typeof counter === 'undefined' ? 0 : counter) + 1;
+                let doubled = twice(context.value);
+                var result = { counter: counter, doubled: doubled };
+                """);
+        PolyglotContextPool pool = PolyglotContextPool.get();
+        long hits = pool.getHits();
+
+        for (int value = 1; value <= 3; value++) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("value", value);
+            JsonNode result = run("javascript", "count.js", List.of("lib.js"), parameters);
+            assertEquals(1, result.get("counter").asInt());
+            assertEquals(value * 2, result.get("doubled").asInt());
+        }
+
+        assertEquals(hits + 2, pool.getHits());
+        assertTrue(pool.getIdle() >= 1);
+        assertTrue(pool.getHitRate() > 0);
+    }
+
+    @Test
+    void dependencyStateShouldNotLeakBetweenRuns() throws Exception {
+        Files.writeString(tempDir.resolve("store.js"), """
+                var store = { items: [] };
+                let calls = 0;
+                """);
+        Files.writeString(tempDir.resolve("mutate.js"), """
+                var seen = { items: store.items.length, calls: calls,
+                    patched: typeof Array.prototype.leak, polluted: typeof Object.leak };
+                try { store.items.push(1); } catch (e) { }
+                try { calls++; } catch (e) { }
+                Array.prototype.leak = true;
+                Object.leak = true;
+                var result = seen;
+                """);
+        PolyglotContextPool pool = PolyglotContextPool.get();
+        int size = pool.getSize();
+
+        for (int run = 0; run < 3; run++) {
+            JsonNode result = run("javascript", "mutate.js", List.of("store.js"),
+                    new HashMap<>());
+            assertEquals(0, result.get("items").asInt());
+            assertEquals(0, result.get("calls").asInt());
+            assertEquals("undefined", result.get("patched").asText());
+            assertEquals("undefined", result.get("polluted").asText());
+        }
+
+        assertEquals(size, pool.getSize());
+    }
+
+    @Test
+    void pythonContextShouldNotBeReused() throws Exception {
+        Files.writeString(tempDir.resolve("seen.py"), """
+                import sys
+                result = {"seen": hasattr(sys, 'marker'), "name": context["name"]}
+                sys.marker = True
+                """);
+        PolyglotContextPool pool = PolyglotContextPool.get();
+        long hits = pool.getHits();
+        int size = pool.getSize();
+
+        for (String name : List.of("first", "second")) {
+            JsonNode result = run("python", "seen.py", null, new HashMap<>(Map.of("name", name)));
+            assertEquals(false, result.get("seen").asBoolean());
+            assertEquals(name, result.get("name").asText());
+        }
+
+        assertEquals(hits, pool.getHits());
+        assertEquals(size, pool.getSize());
+    }
+
+    @Test
+    void keysShouldOnlyRetireEarlierVersionsOfTheSameScript() {
+        Source main = Source.create("js", "1");
+        PolyglotContextPool.Key key = new PolyglotContextPool.Key("js", 1000, main,
+                List.of(Source.newBuilder("js", "var a = 1", "lib.js").buildLiteral()));
+
+        assertTrue(key.sameScript(new PolyglotContextPool.Key("js", 1000, Source.create("js", "2"),
+                List.of(Source.newBuilder("js", "var a = 2", "lib.js").buildLiteral()))));
+        assertFalse(key.sameScript(new PolyglotContextPool.Key("js", 2000, main,
+                key.dependencies())));
+        assertFalse(key.sameScript(new PolyglotContextPool.Key("js", 1000, main, List.of())));
+    }
+
+    @Test
+    void javaScriptWithoutResultShouldReturnNull() throws Exception {
+        Files.writeString(tempDir.resolve("none.js"), "var other = 1;");
+
+        assertNull(run("javascript", "none.js", null, new HashMap<>()));
+        assertNull(run("javascript", "none.js", null, new HashMap<>()));
+    }
+
+    @Test
+    void leaseShouldTimeOutWhenAllContextsAreInUse() throws Exception {
+        PolyglotContextPool pool = new PolyglotContextPool();
+        PolyglotContextPool.Key key = new PolyglotContextPool.Key("js", 1000,
+                Source.create("js", "1"), List.of());
+        List<PolyglotContextPool.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < PolyglotContextPool.MAX_CONTEXTS_PER_SCRIPT; i++) {
+            leases.add(pool.lease(key, 100, () -> Context.create("js")));
+        }
+
+        assertThrows(TimeoutException.class, () -> pool.lease(key, 10, () -> null));
+        assertEquals(PolyglotContextPool.MAX_CONTEXTS_PER_SCRIPT, pool.getSize());
+
+        leases.forEach(lease -> pool.release(lease, false));
+        assertEquals(0, pool.getSize());
+        assertEquals(0, pool.getIdle());
+    }
+
+}
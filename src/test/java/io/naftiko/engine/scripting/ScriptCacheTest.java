@@ -0,0 +1,116 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.scripting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScriptCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sourceShouldBeReusedUntilFileChanges() throws Exception {
+        Path script = tempDir.resolve("transform.js");
+        Files.writeString(script, "var result = 1;");
+
+        Source first = ScriptCache.source("js", script);
+        assertSame(first, ScriptCache.source("js", script));
+        assertEquals("var result = 1;", ScriptCache.text(script));
+
+        Files.writeString(script, "var result = 22;");
+        Files.setLastModifiedTime(script, FileTime.fromMillis(
+                Files.getLastModifiedTime(script).toMillis() + 1000));
+
+        Source second = ScriptCache.source("js", script);
+        assertNotSame(first, second);
+        assertEquals("var result = 22;", second.getCharacters().toString());
+    }
+
+    @Test
+    void engineShouldBeSharedPerLanguage() {
+        assertSame(ScriptCache.engine("js"), ScriptCache.engine("js"));
+    }
+
+    @Test
+    void groovyScriptShouldCompileOnceUntilContentChanges() throws Exception {
+        Path script = tempDir.resolve("double.groovy");
+        Files.writeString(script, "result = context * 2");
+        CompilerConfiguration config = new CompilerConfiguration();
+
+        Class<? extends Script> first = ScriptCache.groovy(script, config);
+        assertSame(first, ScriptCache.groovy(script, config));
+
+        Files.setLastModifiedTime(script, FileTime.fromMillis(
+                Files.getLastModifiedTime(script).toMillis() + 1000));
+        assertSame(first, ScriptCache.groovy(script, config));
+
+        Files.writeString(script, "result = context * 3");
+        Files.setLastModifiedTime(script, FileTime.fromMillis(
+                Files.getLastModifiedTime(script).toMillis() + 2000));
+        Class<? extends Script> second = ScriptCache.groovy(script, config);
+        assertNotSame(first, second);
+
+        Binding binding = new Binding();
+        binding.setVariable("context", 7);
+        second.getConstructor(Binding.class).newInstance(binding).run();
+        assertEquals(21, binding.getVariable("result"));
+    }
+
+    @Test
+    void leastRecentlyUsedGroovyScriptShouldBeEvictedOnceFull() throws Exception {
+        ScriptCache.clear();
+        CompilerConfiguration config = new CompilerConfiguration();
+        Path first = tempDir.resolve("script-0.groovy");
+        Files.writeString(first, "result = 0");
+        Path second = tempDir.resolve("script-1.groovy");
+        Files.writeString(second, "result = 1");
+        Class<? extends Script> firstType = ScriptCache.groovy(first, config);
+        Class<? extends Script> secondType = ScriptCache.groovy(second, config);
+
+        for (int i = 2; i <= ScriptCache.MAX_GROOVY_SCRIPTS; i++) {
+            // Keep the second script recently used
+            assertSame(secondType, ScriptCache.groovy(second, config));
+            Path script = tempDir.resolve("script-" + i + ".groovy");
+            Files.writeString(script, "result = " + i);
+            ScriptCache.groovy(script, config);
+        }
+
+        assertEquals(ScriptCache.MAX_GROOVY_SCRIPTS, ScriptCache.groovySize());
+        assertSame(secondType, ScriptCache.groovy(second, config));
+        assertNotSame(firstType, ScriptCache.groovy(first, config),
+                "The least recently used script should have been evicted");
+        assertEquals(ScriptCache.MAX_GROOVY_SCRIPTS, ScriptCache.groovySize());
+        ScriptCache.clear();
+    }
+
+    @Test
+    void missingFileShouldFail() {
+        assertThrows(IOException.class, () -> ScriptCache.text(tempDir.resolve("missing.js")));
+    }
+
+}
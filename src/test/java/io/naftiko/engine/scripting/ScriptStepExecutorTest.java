@@ -230,6 +230,27 @@ class ScriptStepExecutorTest {
         assertEquals(90.0, result.get(0).get("discounted").asDouble(), 0.001);
     }
 
+    @Test
+    void executeShouldRunGroovyDependenciesWithFreshBindingEachTime() {
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "label", "groovy", scriptsLocationUri, "label-products.groovy",
+                List.of("lib/labels.groovy"), null);
+
+        com.fasterxml.jackson.databind.ObjectMapper mapper =
+                new com.fasterxml.jackson.databind.ObjectMapper();
+        for (String name : List.of("Widget", "Gadget")) {
+            StepExecutionContext stepContext = new StepExecutionContext();
+            com.fasterxml.jackson.databind.node.ArrayNode products = mapper.createArrayNode();
+            products.add(mapper.createObjectNode().put("name", name));
+            stepContext.storeStepOutput("fetch-products", products);
+
+            JsonNode result = executor.execute(step, new HashMap<>(), stepContext);
+
+            assertEquals(1, result.size());
+            assertEquals(name.toUpperCase(), result.get(0).asText());
+        }
+    }
+
     // ── Security ─────────────────────────────────────────────────
 
     @Test
@@ -241,6 +262,39 @@ class ScriptStepExecutorTest {
                 executor.execute(step, new HashMap<>(), new StepExecutionContext()));
     }
 
+    @Test
+    void executeShouldStopGroovyScriptAfterTimeout() {
+        ScriptingManagementSpec spec = new ScriptingManagementSpec();
+        spec.setTimeout(200);
+        executor.setScriptingSpec(spec);
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "infinite", "groovy", scriptsLocationUri, "groovy-infinite-loop.groovy");
+        long timeouts = ScriptThreads.getTimeouts();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                executor.execute(step, new HashMap<>(), new StepExecutionContext()));
+
+        assertTrue(ex.getMessage().contains("exceeded the timeout limit (200 ms)"));
+        assertTrue(ScriptThreads.getTimeouts() > timeouts);
+    }
+
+    @Test
+    void executeShouldCancelJavaScriptAfterTimeout() {
+        ScriptingManagementSpec spec = new ScriptingManagementSpec();
+        spec.setTimeout(200);
+        spec.setStatementLimit(Long.MAX_VALUE);
+        executor.setScriptingSpec(spec);
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "infinite", "javascript", scriptsLocationUri, "infinite-loop.js");
+        long timeouts = ScriptThreads.getTimeouts();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                executor.execute(step, new HashMap<>(), new StepExecutionContext()));
+
+        assertTrue(ex.getMessage().contains("exceeded the timeout limit (200 ms)"));
+        assertTrue(ScriptThreads.getTimeouts() > timeouts);
+    }
+
     @Test
     void executeShouldDenyHostAccess() {
         OperationStepScriptSpec step = new OperationStepScriptSpec(
@@ -401,6 +455,60 @@ class ScriptStepExecutorTest {
         assertNotNull(bindings.get("step-a"));
     }
 
+    @Test
+    void executeShouldReturnStepOutputNodesWithoutCopying() {
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "filter-by-threshold", "javascript", scriptsLocationUri,
+                "filter-by-threshold.js", null, Map.of("threshold", 10));
+
+        StepExecutionContext stepContext = new StepExecutionContext();
+        com.fasterxml.jackson.databind.ObjectMapper mapper =
+                new com.fasterxml.jackson.databind.ObjectMapper();
+        com.fasterxml.jackson.databind.node.ArrayNode items = mapper.createArrayNode();
+        items.add(mapper.createObjectNode().put("name", "Widget").put("stock", 5));
+        items.add(mapper.createObjectNode().put("name", "Gadget").put("stock", 15));
+        stepContext.storeStepOutput("fetch-items", items);
+
+        JsonNode result = executor.execute(step, new HashMap<>(), stepContext);
+
+        assertEquals(1, result.size());
+        assertSame(items.get(0), result.get(0));
+    }
+
+    @Test
+    void executeShouldRejectWritesToContextInJavaScript() {
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "write-context", "javascript", scriptsLocationUri, "write-context.js");
+
+        StepExecutionContext stepContext = new StepExecutionContext();
+        com.fasterxml.jackson.databind.ObjectMapper mapper =
+                new com.fasterxml.jackson.databind.ObjectMapper();
+        com.fasterxml.jackson.databind.node.ArrayNode items = mapper.createArrayNode();
+        items.add(mapper.createObjectNode().put("name", "Widget").put("stock", 5));
+        stepContext.storeStepOutput("fetch-items", items);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                executor.execute(step, new HashMap<>(), stepContext));
+        assertEquals(5, items.get(0).get("stock").asInt());
+    }
+
+    @Test
+    void executeShouldRejectWritesToContextInPython() {
+        OperationStepScriptSpec step = new OperationStepScriptSpec(
+                "write-context", "python", scriptsLocationUri, "write-context.py");
+
+        StepExecutionContext stepContext = new StepExecutionContext();
+        com.fasterxml.jackson.databind.ObjectMapper mapper =
+                new com.fasterxml.jackson.databind.ObjectMapper();
+        com.fasterxml.jackson.databind.node.ArrayNode items = mapper.createArrayNode();
+        items.add(mapper.createObjectNode().put("name", "Widget").put("stock", 5));
+        stepContext.storeStepOutput("fetch-items", items);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                executor.execute(step, new HashMap<>(), stepContext));
+        assertEquals(5, items.get(0).get("stock").asInt());
+    }
+
     // ── Python execution ─────────────────────────────────────────
 
     @Test
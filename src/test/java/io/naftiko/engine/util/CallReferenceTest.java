@@ -0,0 +1,42 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+public class CallReferenceTest {
+
+    @Test
+    public void parseShouldSplitNamespaceAndOperation() {
+        CallReference reference = CallReference.parse("ships.get-ship");
+
+        assertEquals("ships", reference.namespace());
+        assertEquals("get-ship", reference.operation());
+        assertSame(reference, CallReference.parse("ships.get-ship"));
+    }
+
+    @Test
+    public void parseShouldRejectOtherSegmentCounts() {
+        CallReference.register("ships.items.get-ship");
+
+        assertNull(CallReference.parse("ships.items.get-ship"));
+        assertNull(CallReference.parse("ships"));
+        assertNull(CallReference.parse("ships."));
+        assertNull(CallReference.parse(null));
+    }
+
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+public class DeadlineTest {
+
+    /**
+     * Executor answering every call after the delay given by the {@code delay} parameter.
+     */
+    static class SlowStepExecutor extends OperationStepExecutor {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private final HttpClientAdapter adapter;
+
+        SlowStepExecutor() {
+            super(null);
+            HttpClientSpec spec = new HttpClientSpec("slow", "https://slow.example.com", null);
+            Client client = new Client(Protocol.HTTP) {
+
+                @Override
+                public void handle(Request request, Response response) {
+                    calls.incrementAndGet();
+                    try {
+                        Thread.sleep(Long.parseLong(request.getResourceRef().getLastSegment()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    response.setEntity("{\"done\":true}", MediaType.APPLICATION_JSON);
+                }
+
+            };
+            this.adapter = new HttpClientAdapter(null, spec) {
+
+                @Override
+                public Client getHttpClient() {
+                    return client;
+                }
+
+            };
+        }
+
+        @Override
+        public HandlingContext findClientRequestFor(String clientNamespace,
+                String clientOpName, Map<String, Object> parameters) {
+            HandlingContext context = new HandlingContext();
+            context.clientAdapter = adapter;
+            context.clientRequest = new Request(Method.GET,
+                    "https://slow.example.com/" + clientOpName + "/" + parameters.get("delay"));
+            context.clientResponse = new Response(context.clientRequest);
+            return context;
+        }
+
+    }
+
+    private static OperationStepSpec step(String name, String delay, Integer timeout) {
+        OperationStepCallSpec step =
+                new OperationStepCallSpec(name, "slow." + name, Map.of("delay", delay));
+        step.setTimeout(timeout);
+        return step;
+    }
+
+    @Test
+    public void nestedDeadlineShouldNeverExtendTheEnclosingOne() {
+        assertNull(Deadline.current());
+        try (Scope outer = Deadline.start(50)) {
+            Deadline operation = Deadline.current();
+            assertNotNull(operation);
+            assertTrue(operation.remainingMillis() <= 50);
+
+            assertSame(operation, Deadline.within(10_000));
+            assertSame(operation, Deadline.within(null));
+            try (Scope inner = Deadline.start(5)) {
+                assertTrue(Deadline.current().remainingMillis() <= 5);
+            }
+            assertSame(operation, Deadline.current());
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void detachedContextShouldCarryNoDeadline() throws Exception {
+        try (Scope scope = Deadline.start(1_000)) {
+            assertNull(Deadline.detach(Context.current()).wrap(Deadline::current).call());
+        }
+    }
+
+    @Test
+    public void runShouldInterruptWorkOutlivingTheDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (Scope scope = Deadline.start(200)) {
+            long start = System.nanoTime();
+            assertThrows(DeadlineExceededException.class,
+                    () -> Deadline.current().run("Slow work", () -> {
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                        }
+                    }));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void abandonedCallShouldNotWriteIntoTheResponse() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                // Ignores interruption, like a connector blocked in a socket write
+                boolean done = false;
+                while (!done) {
+                    try {
+                        done = release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // keep waiting
+                    }
+                }
+                response.setEntity("{\"late\":true}", MediaType.APPLICATION_JSON);
+                written.countDown();
+            }
+
+        };
+        HttpClientAdapter adapter = new HttpClientAdapter(null,
+                new HttpClientSpec("stuck", "https://stuck.example.com", null)) {
+
+            @Override
+            public Client getHttpClient() {
+                return client;
+            }
+
+        };
+        OperationStepExecutor.HandlingContext context = new OperationStepExecutor.HandlingContext();
+        context.clientAdapter = adapter;
+        context.clientRequest = new Request(Method.GET, "https://stuck.example.com/ships");
+        context.clientResponse = new Response(context.clientRequest);
+        Response original = context.clientResponse;
+
+        try (Scope scope = Deadline.start(100)) {
+            assertThrows(DeadlineExceededException.class, context::handle);
+        }
+        release.countDown();
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+
+        assertSame(original, context.clientResponse);
+        assertNull(context.clientResponse.getEntity());
+    }
+
+    @Test
+    public void stepTimeoutShouldCancelTheRunningCall() {
+        SlowStepExecutor executor = new SlowStepExecutor();
+        List<OperationStepSpec> steps = List.of(step("fetch", "10000", 50));
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+                () -> executor.executeSteps(steps, Map.of()));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void operationDeadlineShouldStopLaterSteps() {
+        SlowStepExecutor executor = new SlowStepExecutor();
+        // Warm up, so that the first call starts well within the deadline
+        executor.executeSteps(List.of(step("warm-up", "0", null)), Map.of());
+        executor.calls.set(0);
+        // The second step reads the first, so the steps run in sequence
+        List<OperationStepSpec> steps = List.of(step("first", "400", null),
+                step("second", "{{first.done}}", null));
+
+        try (Scope scope = Deadline.start(200)) {
+            assertThrows(DeadlineExceededException.class,
+                    () -> executor.executeSteps(steps, Map.of()));
+        }
+        assertEquals(1, executor.calls.get());
+    }
+
+}
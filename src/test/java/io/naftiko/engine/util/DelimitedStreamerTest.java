@@ -0,0 +1,141 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+
+public class DelimitedStreamerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SHIPS = """
+            imo,name,tonnage,registry,active
+            1001,Northern Star,52000.5,00042,true
+            1002,Southern Cross,48000,00043,false
+            1003,Eastern Wind,,00044,true
+            """;
+
+    private static OutputParameterSpec shipsArray() {
+        OutputParameterSpec imo = new OutputParameterSpec("imo", "number", null, "$.imo");
+        OutputParameterSpec name = new OutputParameterSpec("name", "string", null, "$.name");
+        name.setMaxLength("8");
+        OutputParameterSpec tonnage =
+                new OutputParameterSpec("tonnage", "number", null, "$.tonnage");
+        OutputParameterSpec items = new OutputParameterSpec();
+        items.setType("object");
+        items.getProperties().addAll(List.of(imo, name, tonnage));
+        OutputParameterSpec ships = new OutputParameterSpec("ships", "array", null, "$");
+        ships.setItems(items);
+        return ships;
+    }
+
+    private static String stream(OutputParameterSpec spec, DelimitedOptions options)
+            throws Exception {
+        StringWriter writer = new StringWriter();
+        DelimitedStreamer.write(new StringReader(SHIPS), ',', OutputMappingPlan.compile(spec), options,
+                writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void writeShouldMatchMappingOfFullTree() throws Exception {
+        OutputParameterSpec spec = shipsArray();
+        JsonNode full = Converter.convertDelimitedToJson(new StringReader(SHIPS), ',');
+
+        JsonNode streamed = MAPPER.readTree(stream(spec, DelimitedOptions.DEFAULT));
+
+        assertEquals(OutputMappingPlan.compile(spec).execute(full, MAPPER, null), streamed);
+        assertEquals("Northern", streamed.get(0).get("name").asText());
+    }
+
+    @Test
+    public void writeShouldStopAtRowLimit() throws Exception {
+        JsonNode streamed = MAPPER.readTree(stream(shipsArray(), new DelimitedOptions(2, false)));
+
+        assertEquals(2, streamed.size());
+        assertEquals("1002", streamed.get(1).get("imo").asText());
+        assertEquals(0, MAPPER.readTree(stream(shipsArray(), new DelimitedOptions(0, false)))
+                .size());
+    }
+
+    @Test
+    public void typedColumnsShouldConvertNumbersAndBooleansOnly() throws Exception {
+        JsonNode rows = Converter.convertDelimitedToJson(new StringReader(SHIPS), ',',
+                new DelimitedOptions(-1, true));
+
+        JsonNode first = rows.get(0);
+        assertTrue(first.get("imo").isIntegralNumber());
+        assertEquals(1001L, first.get("imo").longValue());
+        assertEquals(52000.5, first.get("tonnage").doubleValue());
+        assertTrue(first.get("active").isBoolean());
+        assertEquals("00042", first.get("registry").textValue());
+        assertEquals("", rows.get(2).get("tonnage").textValue());
+    }
+
+    @Test
+    public void isRowStreamableShouldOnlyAcceptArraysOverWholeResponse() {
+        assertTrue(OutputMappingPlan.compile(shipsArray()).isRowStreamable());
+        assertFalse(OutputMappingPlan
+                .of(new OutputParameterSpec("ships", "array", null, "$.rows"))
+                .isRowStreamable());
+        assertFalse(OutputMappingPlan.compile(new OutputParameterSpec("name", "string", null, "$"))
+                .isRowStreamable());
+    }
+
+    @Test
+    public void separatorShouldOnlyResolveDelimitedFormats() {
+        assertEquals(',', DelimitedStreamer.separator("CSV"));
+        assertEquals('\t', DelimitedStreamer.separator("tsv"));
+        assertEquals('|', DelimitedStreamer.separator("psv"));
+        assertNull(DelimitedStreamer.separator("json"));
+        assertNull(DelimitedStreamer.separator(null));
+    }
+
+    @Test
+    public void optionsShouldBeReadFromClientOperation() {
+        HttpClientOperationSpec operation = new HttpClientOperationSpec();
+        assertEquals(DelimitedOptions.DEFAULT, DelimitedOptions.of(operation));
+        assertEquals(DelimitedOptions.DEFAULT, DelimitedOptions.of(null));
+
+        operation.setOutputRowLimit(500);
+        operation.setOutputTypedColumns(true);
+
+        assertEquals(new DelimitedOptions(500, true), DelimitedOptions.of(operation));
+    }
+
+    @Test
+    public void applyOutputMappingsShouldStreamDelimitedRows() throws Exception {
+        OperationStepExecutor executor = new OperationStepExecutor(null);
+
+        String mapped = executor.applyOutputMappings(SHIPS, List.of(shipsArray()), "csv", null,
+                new DelimitedOptions(1, true));
+
+        JsonNode payload = MAPPER.readTree(mapped);
+        assertEquals(1, payload.size());
+        assertEquals(1001L, payload.get(0).get("imo").longValue());
+        assertEquals(52000.5, payload.get(0).get("tonnage").doubleValue());
+    }
+
+}
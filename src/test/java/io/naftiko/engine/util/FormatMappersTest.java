@@ -0,0 +1,64 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.naftiko.spec.OutputParameterSpec;
+
+public class FormatMappersTest {
+
+    @Test
+    public void mapperShouldBeSharedPerFormat() {
+        for (ConversionFormat format : ConversionFormat.values()) {
+            assertNotNull(FormatMappers.mapper(format), format.label);
+            assertSame(FormatMappers.mapper(format), FormatMappers.mapper(format));
+        }
+        assertInstanceOf(XmlMapper.class, FormatMappers.mapper(ConversionFormat.XML));
+        assertSame(FormatMappers.json(), FormatMappers.mapper(ConversionFormat.HTML));
+    }
+
+    @Test
+    public void delimitedReaderShouldBeCachedPerSeparator() {
+        assertSame(FormatMappers.delimitedReader(';'), FormatMappers.delimitedReader(';'));
+    }
+
+    @Test
+    public void sharedMappersShouldKeepConversionsIndependent() throws Exception {
+        JsonNode first = Converter.convertYamlToJson(new StringReader("name: Northern Star\n"));
+        JsonNode second = Converter.convertYamlToJson(new StringReader("name: Southern Cross\n"));
+
+        assertEquals("Northern Star", first.get("name").asText());
+        assertEquals("Southern Cross", second.get("name").asText());
+    }
+
+    @Test
+    public void applyMaxLengthIfNeededShouldTruncateWithoutMapper() {
+        OutputParameterSpec spec = new OutputParameterSpec("name", "string", null, "$.name");
+        spec.setMaxLength("8");
+
+        JsonNode truncated =
+                Converter.applyMaxLengthIfNeeded(spec, TextNode.valueOf("Northern Star"));
+
+        assertEquals(TextNode.valueOf("Northern"), truncated);
+    }
+
+}
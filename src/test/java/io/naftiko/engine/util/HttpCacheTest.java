@@ -0,0 +1,249 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Header;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.StringRepresentation;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+
+public class HttpCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @BeforeEach
+    public void clearCache() {
+        HttpCache.CACHE.clear();
+    }
+
+    private static HttpClientAdapter adapter(BiConsumer<Request, Response> upstream) {
+        return adapter(true, upstream);
+    }
+
+    private static HttpClientAdapter adapter(Boolean cache,
+            BiConsumer<Request, Response> upstream) {
+        HttpClientSpec spec = new HttpClientSpec("ships", "https://api.example.com", null);
+        spec.setCache(cache);
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                upstream.accept(request, response);
+            }
+
+        };
+        return new HttpClientAdapter(null, spec) {
+
+            @Override
+            public Client getHttpClient() {
+                return client;
+            }
+
+        };
+    }
+
+    private static HandlingContext call(HttpClientAdapter adapter, String uri) {
+        HandlingContext context = new HandlingContext();
+        context.clientAdapter = adapter;
+        context.clientRequest = new Request(Method.GET, uri);
+        context.clientResponse = new Response(context.clientRequest);
+        return context;
+    }
+
+    @Test
+    public void freshResponsesShouldBeServedWithoutCallingUpstream() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpClientAdapter adapter = adapter((request, response) -> {
+            upstreamCalls.incrementAndGet();
+            response.getHeaders().add("Cache-Control", "max-age=60");
+            response.setEntity("{\"name\":\"Voyager\"}", MediaType.APPLICATION_JSON);
+        });
+        String uri = "https://api.example.com/ships/fresh";
+
+        HandlingContext first = call(adapter, uri);
+        HttpCache.handle(first, false);
+        HandlingContext second = call(adapter, uri);
+        HttpCache.handle(second, false);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("{\"name\":\"Voyager\"}", first.clientResponse.getEntity().getText());
+        assertEquals("{\"name\":\"Voyager\"}", second.clientResponse.getEntity().getText());
+        assertEquals(MediaType.APPLICATION_JSON,
+                second.clientResponse.getEntity().getMediaType());
+    }
+
+    @Test
+    public void staleResponsesShouldBeRevalidatedWithTheirEtag() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpClientAdapter adapter = adapter((request, response) -> {
+            upstreamCalls.incrementAndGet();
+            response.getHeaders().add("ETag", "\"v1\"");
+            if (!request.getConditions().getNoneMatch().isEmpty()
+                    && "v1".equals(request.getConditions().getNoneMatch().get(0).getName())) {
+                response.setStatus(Status.REDIRECTION_NOT_MODIFIED);
+                return;
+            }
+            response.setEntity("{\"name\":\"Voyager\"}", MediaType.APPLICATION_JSON);
+        });
+        String uri = "https://api.example.com/ships/etag";
+        long hitsBefore = HttpCache.CACHE.getHits();
+
+        HttpCache.handle(call(adapter, uri), false);
+        HandlingContext second = call(adapter, uri);
+        HttpCache.handle(second, false);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(hitsBefore + 1, HttpCache.CACHE.getHits());
+        assertEquals(Status.SUCCESS_OK, second.clientResponse.getStatus());
+        assertEquals("{\"name\":\"Voyager\"}", second.clientResponse.getEntity().getText());
+    }
+
+    @Test
+    public void noStoreResponsesShouldNotBeCached() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpClientAdapter adapter = adapter((request, response) -> {
+            upstreamCalls.incrementAndGet();
+            response.getHeaders().add("Cache-Control", "max-age=60, no-store");
+            response.setEntity("{}", MediaType.APPLICATION_JSON);
+        });
+        String uri = "https://api.example.com/ships/private";
+
+        HttpCache.handle(call(adapter, uri), false);
+        HttpCache.handle(call(adapter, uri), false);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, HttpCache.CACHE.getSize());
+    }
+
+    @Test
+    public void cachingShouldBeOptIn() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        BiConsumer<Request, Response> upstream = (request, response) -> {
+            upstreamCalls.incrementAndGet();
+            response.getHeaders().add("Cache-Control", "max-age=60");
+            response.setEntity("{}", MediaType.APPLICATION_JSON);
+        };
+        HttpClientAdapter undeclared = adapter(null, upstream);
+        HttpClientAdapter declared = adapter(true, upstream);
+        HttpClientOperationSpec optedOut = new HttpClientOperationSpec(null, "GET", "get-ship",
+                null);
+        optedOut.setCache(false);
+
+        HttpCache.handle(call(undeclared, "https://api.example.com/ships/a"), false);
+        HttpCache.handle(call(undeclared, "https://api.example.com/ships/a"), false);
+        for (int i = 0; i < 2; i++) {
+            HandlingContext context = call(declared, "https://api.example.com/ships/b");
+            context.clientOperation = optedOut;
+            HttpCache.handle(context, false);
+        }
+
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(0, HttpCache.CACHE.getSize());
+    }
+
+    @Test
+    public void streamedOperationsShouldNotBeCached() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpClientAdapter adapter = adapter((request, response) -> {
+            upstreamCalls.incrementAndGet();
+            response.getHeaders().add("ETag", "\"v1\"");
+            response.setEntity("imo,name\nIMO-1,Voyager\n", MediaType.TEXT_CSV);
+        });
+        HttpClientOperationSpec export = new HttpClientOperationSpec(null, "GET", "export", null,
+                null, null, "csv");
+
+        for (int i = 0; i < 2; i++) {
+            HandlingContext context = call(adapter, "https://api.example.com/ships.csv");
+            context.clientOperation = export;
+            HttpCache.handle(context, false);
+        }
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, HttpCache.CACHE.getSize());
+    }
+
+    @Test
+    public void responsesOfUnknownOrLargeSizeShouldNotBeBuffered() throws Exception {
+        HttpClientAdapter adapter = adapter((request, response) -> {
+            response.getHeaders().add("Cache-Control", "max-age=60");
+            if (request.getResourceRef().getPath().endsWith("chunked")) {
+                response.setEntity(new InputRepresentation(
+                        new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)),
+                        MediaType.APPLICATION_JSON));
+            } else {
+                StringRepresentation large =
+                        new StringRepresentation("{}", MediaType.APPLICATION_JSON);
+                large.setSize(HttpCache.MAX_ENTRY_BYTES + 1);
+                response.setEntity(large);
+            }
+        });
+
+        HandlingContext chunked = call(adapter, "https://api.example.com/ships/chunked");
+        HttpCache.handle(chunked, false);
+        HttpCache.handle(call(adapter, "https://api.example.com/ships/large"), false);
+
+        assertEquals(0, HttpCache.CACHE.getSize());
+        assertTrue(chunked.clientResponse.getEntity() instanceof InputRepresentation);
+    }
+
+    @Test
+    public void freshnessShouldFollowCacheHeaders() {
+        HttpCache.Freshness maxAge = HttpCache.freshness(
+                List.of(new Header("Cache-Control", "public, max-age=60"),
+                        new Header("Age", "20")),
+                NOW);
+        assertTrue(maxAge.store());
+        assertEquals(NOW + 40_000, maxAge.expiresAt());
+
+        HttpCache.Freshness shared = HttpCache.freshness(
+                List.of(new Header("Cache-Control", "max-age=60, s-maxage=10")), NOW);
+        assertEquals(NOW + 10_000, shared.expiresAt());
+
+        HttpCache.Freshness expires = HttpCache.freshness(
+                List.of(new Header("Date", "Tue, 14 Nov 2023 22:13:20 GMT"),
+                        new Header("Expires", "Tue, 14 Nov 2023 22:15:20 GMT")),
+                NOW);
+        assertEquals(NOW + 120_000, expires.expiresAt());
+
+        HttpCache.Freshness noCache =
+                HttpCache.freshness(List.of(new Header("Cache-Control", "no-cache")), NOW);
+        assertTrue(noCache.store());
+        assertEquals(NOW, noCache.expiresAt());
+
+        assertFalse(HttpCache.freshness(List.of(new Header("Vary", "*")), NOW).store());
+        assertNull(HttpCache.freshness(List.of(), NOW).expiresAt());
+    }
+
+}
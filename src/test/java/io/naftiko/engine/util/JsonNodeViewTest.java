@@ -0,0 +1,89 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonNodeViewTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SHIP = "{\"name\":\"Voyager\",\"tonnage\":1200,\"active\":true,"
+            + "\"captain\":null,\"crew\":[{\"id\":\"CREW-001\"},{\"id\":\"CREW-003\"}]}";
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void viewShouldReadLikeConvertedValues() throws Exception {
+        JsonNode ship = MAPPER.readTree(SHIP);
+        Map<String, Object> view = (Map<String, Object>) JsonNodeView.of(ship);
+
+        assertEquals("Voyager", view.get("name"));
+        assertEquals(1200, view.get("tonnage"));
+        assertEquals(true, view.get("active"));
+        assertTrue(view.containsKey("captain"));
+        assertNull(view.get("captain"));
+        assertFalse(view.containsKey("flag"));
+        assertEquals(5, view.size());
+        assertEquals(MAPPER.convertValue(ship, Object.class), view);
+
+        List<Object> crew = (List<Object>) view.get("crew");
+        assertEquals(2, crew.size());
+        assertEquals("CREW-003", ((Map<String, Object>) crew.get(1)).get("id"));
+    }
+
+    @Test
+    public void viewShouldBeReadOnly() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> view = (Map<String, Object>) JsonNodeView.of(MAPPER.readTree(SHIP));
+
+        assertThrows(UnsupportedOperationException.class, () -> view.put("name", "Enterprise"));
+    }
+
+    @Test
+    public void viewShouldSerializeAsItsNode() throws Exception {
+        JsonNode ship = MAPPER.readTree(SHIP);
+        Object view = JsonNodeView.of(ship);
+
+        assertSame(ship, JsonNodeView.nodeOf(view));
+        assertEquals(ship, MAPPER.readTree(MAPPER.writeValueAsString(view)));
+        assertEquals(ship.get("crew"), MAPPER.valueToTree(JsonNodeView.of(ship.get("crew"))));
+    }
+
+    @Test
+    public void templatesShouldReadViewsLikeMaps() throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("ship", JsonNodeView.of(MAPPER.readTree(SHIP)));
+        parameters.put("crew", JsonNodeView.of(MAPPER.readTree(SHIP).get("crew")));
+
+        assertEquals("Voyager/1200", Resolver.resolveMustacheTemplate(
+                "{{ship.name}}/{{ship.tonnage}}", parameters));
+        assertEquals("CREW-001,CREW-003,", Resolver.resolveMustacheTemplate(
+                "{{#ship.crew}}{{id}},{{/ship.crew}}", parameters));
+        assertEquals("[{\"id\":\"CREW-001\"},{\"id\":\"CREW-003\"}]",
+                Resolver.resolveMustacheTemplate("{{crew}}", parameters));
+    }
+
+}
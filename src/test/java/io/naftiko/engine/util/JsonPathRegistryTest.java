@@ -0,0 +1,123 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.naftiko.spec.NaftikoSpec;
+import io.naftiko.util.VersionHelper;
+
+public class JsonPathRegistryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void lookupShouldReturnSameCompiledPathForSameMapping() {
+        JsonPathRegistry.CompiledPath first = JsonPathRegistry.lookup("$.registry.ships[0].imo");
+        JsonPathRegistry.CompiledPath second = JsonPathRegistry.lookup("$.registry.ships[0].imo");
+
+        assertSame(first, second);
+        assertNotNull(first.path());
+    }
+
+    @Test
+    public void compileShouldRewritePropertiesWithSpacesOnce() throws Exception {
+        JsonPathRegistry.CompiledPath compiled = JsonPathRegistry.compile("$.user details.email");
+
+        assertEquals("$.['user details'].email", compiled.expression());
+        assertNotNull(compiled.path());
+
+        JsonNode root = mapper.readTree("{\"user details\":{\"email\":\"crew@example.com\"}}");
+        assertEquals("crew@example.com",
+                JsonPathRegistry.read(root, "$.user details.email").asText());
+    }
+
+    @Test
+    public void invalidMappingShouldBeRememberedAndReadAsNull() throws Exception {
+        JsonPathRegistry.CompiledPath compiled = JsonPathRegistry.lookup("$.ships[?(@.imo ==");
+
+        assertNull(compiled.path());
+        assertTrue(JsonPathRegistry.read(mapper.readTree("{}"), "$.ships[?(@.imo ==").isNull());
+    }
+
+    @Test
+    public void readShouldHandleRootAndMissingPaths() throws Exception {
+        JsonNode root = mapper.readTree("{\"a\":{\"b\":1}}");
+
+        assertSame(root, JsonPathRegistry.read(root, " $ "));
+        assertTrue(JsonPathRegistry.read(null, "$.a").isNull());
+        assertTrue(JsonPathRegistry.read(root, "$.a.missing").isNull());
+        assertEquals(1, JsonPathRegistry.read(root, "$.a.b").asInt());
+    }
+
+    @Test
+    public void specPrecompilerShouldRegisterOutputMappings() throws Exception {
+        String yaml = """
+                naftiko: "%s"
+                capability:
+                  exposes:
+                    - type: "rest"
+                      address: "localhost"
+                      port: 0
+                      namespace: "registry-paths"
+                      resources:
+                        - path: "/ships"
+                          operations:
+                            - method: "GET"
+                              name: "list-ships"
+                              call:
+                                operation: "registry.list-ships"
+                              outputParameters:
+                                - type: "array"
+                                  mapping: "$.registryPaths.data"
+                                  items:
+                                    type: "object"
+                                    properties:
+                                      imo:
+                                        type: "string"
+                                        mapping: "$.registryPaths.imo_number"
+                  consumes:
+                    - type: "http"
+                      namespace: "registry"
+                      baseUri: "http://localhost:8080/v1"
+                      resources:
+                        - path: "/ships"
+                          name: "ships"
+                          operations:
+                            - method: "GET"
+                              name: "list-ships"
+                """.formatted(VersionHelper.getSchemaVersion());
+
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        yamlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        NaftikoSpec spec = yamlMapper.readValue(yaml, NaftikoSpec.class);
+
+        assertFalse(JsonPathRegistry.isRegistered("$.registryPaths.data"));
+
+        new SpecPrecompiler().precompile(spec);
+
+        assertTrue(JsonPathRegistry.isRegistered("$.registryPaths.data"));
+        assertTrue(JsonPathRegistry.isRegistered("$.registryPaths.imo_number"));
+    }
+
+}
@@ -17,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -115,4 +116,41 @@ public class LookupExecutorTest {
         assertInstanceOf(ObjectNode.class, target.get("meta"));
         assertEquals("eu", ((JsonNode) target.get("meta")).path("region").asText());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void indexedLookupShouldMatchScanAndKeepFirstDuplicate() throws Exception {
+        JsonNode indexData = MAPPER.readTree("""
+                [
+                  {"imo":9321483,"name":"Northern Star"},
+                  {"imo":"9321484","name":"Southern Cross"},
+                  {"imo":9321483,"name":"Duplicate"},
+                  "not-an-object"
+                ]
+                """);
+
+        Map<String, JsonNode> index = LookupExecutor.index(indexData, "imo");
+
+        assertEquals(2, index.size());
+        for (String value : List.of("9321483", "9321484", "0")) {
+            assertEquals(LookupExecutor.executeLookup(indexData, "imo", value, List.of("name")),
+                    LookupExecutor.executeLookup(index, value, List.of("name")));
+        }
+        assertEquals("Northern Star",
+                LookupExecutor.executeLookup(index, "9321483", List.of("name"))
+                        .path("name").asText());
+        assertNull(LookupExecutor.index(MAPPER.readTree("{\"imo\":1}"), "imo"));
+    }
+
+    @Test
+    public void stepContextShouldCacheLookupIndexUntilOutputIsReplaced() throws Exception {
+        StepExecutionContext context = new StepExecutionContext();
+        context.storeStepOutput("ships", MAPPER.readTree("[{\"imo\":\"1\"}]"));
+
+        Map<String, JsonNode> index = context.getLookupIndex("ships", "imo");
+        assertSame(index, context.getLookupIndex("ships", "imo"));
+
+        context.storeStepOutput("ships", MAPPER.readTree("[{\"imo\":\"2\"}]"));
+        assertTrue(context.getLookupIndex("ships", "imo").containsKey("2"));
+        assertNull(context.getLookupIndex("crew", "imo"));
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.samskivert.mustache.Template;
+import io.naftiko.spec.NaftikoSpec;
+import io.naftiko.util.VersionHelper;
+
+public class MustacheTemplateCacheTest {
+
+    @Test
+    public void getShouldReturnSameCompiledTemplateForSameText() {
+        MustacheTemplateCache cache = new MustacheTemplateCache();
+
+        Template first = cache.get("hello {{name}}");
+        Template second = cache.get("hello {{name}}");
+
+        assertSame(first, second);
+        assertEquals("hello alice", first.execute(Map.of("name", "alice")));
+    }
+
+    @Test
+    public void getShouldNotEscapeHtmlAndRenderMissingAsEmpty() {
+        MustacheTemplateCache cache = new MustacheTemplateCache();
+
+        assertEquals("[\"A\"]/", cache.get("{{ids}}/{{missing}}")
+                .execute(Map.of("ids", "[\"A\"]")));
+    }
+
+    @Test
+    public void dynamicEntriesShouldStayWithinBound() {
+        MustacheTemplateCache cache = new MustacheTemplateCache(2);
+
+        cache.get("{{a}}");
+        cache.get("{{b}}");
+        cache.get("{{c}}");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains("{{c}}"));
+    }
+
+    @Test
+    public void precompiledEntriesShouldNeverBeEvicted() {
+        MustacheTemplateCache cache = new MustacheTemplateCache(1);
+
+        cache.precompile("{{pinned}}");
+        cache.get("{{a}}");
+        cache.get("{{b}}");
+
+        assertTrue(cache.contains("{{pinned}}"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void precompileShouldIgnorePlainText() {
+        MustacheTemplateCache cache = new MustacheTemplateCache();
+
+        assertFalse(cache.precompile(null));
+        assertFalse(cache.precompile("https://api.example.com/v1/ships"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void pinnedEntriesShouldStayWithinBound() {
+        MustacheTemplateCache cache = new MustacheTemplateCache(2, 1);
+
+        assertTrue(cache.precompile("{{first}}"));
+        assertFalse(cache.precompile("{{second}}"));
+
+        assertTrue(cache.isPinned("{{first}}"));
+        assertFalse(cache.isPinned("{{second}}"));
+        assertTrue(cache.contains("{{second}}"));
+    }
+
+    @Test
+    public void releasedEntriesShouldBeDroppedOnceNoOwnerRemains() {
+        MustacheTemplateCache cache = new MustacheTemplateCache();
+
+        assertTrue(cache.precompile("{{shared}}"));
+        assertTrue(cache.precompile("{{shared}}"));
+
+        cache.release("{{shared}}");
+        assertTrue(cache.isPinned("{{shared}}"));
+
+        cache.release("{{shared}}");
+        assertFalse(cache.contains("{{shared}}"));
+
+        cache.release("{{shared}}");
+        cache.release(null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void constructorShouldRejectNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MustacheTemplateCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new MustacheTemplateCache(1, -1));
+    }
+
+    @Test
+    public void resolveMustacheTemplateShouldSerializeCollectionsAsJson() {
+        String rendered = Resolver.resolveMustacheTemplate("{\"ids\": {{ids}}, \"ship\": \"{{ship}}\"}",
+                Map.of("ids", List.of("CREW-001", "CREW-003"), "ship", "IMO-1"));
+
+        assertEquals("{\"ids\": [\"CREW-001\",\"CREW-003\"], \"ship\": \"IMO-1\"}", rendered);
+    }
+
+    @Test
+    public void specPrecompilerShouldCompileTemplatesDeclaredInSpec() throws Exception {
+        String yaml = """
+                naftiko: "%s"
+                capability:
+                  exposes:
+                    - type: "rest"
+                      address: "localhost"
+                      port: 0
+                      namespace: "precompile"
+                      resources:
+                        - path: "/ships/{imo}"
+                          operations:
+                            - method: "GET"
+                              name: "get-ship"
+                              call:
+                                operation: "registry.get-ship"
+                                with:
+                                  imo_number: "{{precompile-imo}}"
+                  consumes:
+                    - type: "http"
+                      namespace: "registry"
+                      baseUri: "http://localhost:8080/v1"
+                      resources:
+                        - path: "/ships/{{precompile-imo_number}}"
+                          name: "ships"
+                          operations:
+                            - method: "GET"
+                              name: "get-ship"
+                              inputParameters:
+                                - name: "X-Precompile"
+                                  in: "header"
+                                  value: "{{precompile-tenant}}"
+                """.formatted(VersionHelper.getSchemaVersion());
+
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        NaftikoSpec spec = mapper.readValue(yaml, NaftikoSpec.class);
+
+        MustacheTemplateCache cache = Resolver.getTemplateCache();
+        assertFalse(cache.contains("{{precompile-imo}}"));
+
+        PrecompiledSpec first = new SpecPrecompiler().precompile(spec);
+        PrecompiledSpec second = new SpecPrecompiler().precompile(spec);
+
+        assertTrue(cache.isPinned("{{precompile-imo}}"));
+        assertTrue(cache.isPinned("http://localhost:8080/v1/ships/{{precompile-imo_number}}"));
+        assertTrue(cache.isPinned("{{precompile-tenant}}"));
+        assertEquals(Set.of("{{precompile-imo}}",
+                "http://localhost:8080/v1/ships/{{precompile-imo_number}}",
+                "{{precompile-tenant}}"), first.getTemplates());
+
+        first.getTemplates().forEach(Resolver::releaseMustacheTemplate);
+        assertTrue(cache.isPinned("{{precompile-imo}}"));
+
+        second.getTemplates().forEach(Resolver::releaseMustacheTemplate);
+        assertFalse(cache.isPinned("{{precompile-imo}}"));
+        assertFalse(cache.isPinned("{{precompile-tenant}}"));
+    }
+
+}
@@ -223,6 +223,7 @@ class OperationStepExecutorBranchTest {
         Map<String, Object> runtime = new HashMap<>();
         executor.addStepOutputToParameters(runtime, "step1", raw);
         assertTrue(runtime.containsKey("step1"));
+        assertEquals("Alice", ((Map<?, ?>) runtime.get("step1")).get("name"));
 
         executor.addStepOutputToParameters(null, "step", raw);
         executor.addStepOutputToParameters(runtime, null, raw);
@@ -338,7 +339,6 @@ class OperationStepExecutorBranchTest {
         }
 
         CapturingExecutor executor = new CapturingExecutor(capability);
-        executor.setExposeNamespace("shipyard-tools");
 
         OperationStepCallSpec step = new OperationStepCallSpec();
         step.setType("call");
@@ -348,7 +348,8 @@ class OperationStepExecutorBranchTest {
 
         // The HTTP call will fail (no server), but parameters are captured before the call
         try {
-            executor.executeSteps(List.of(step), Map.of("voyageId", "VOY-2026-042"));
+            executor.executeSteps(List.of(step), Map.of("voyageId", "VOY-2026-042"),
+                    "shipyard-tools", false);
         } catch (RuntimeException expected) {
             // HTTP connection failure expected
         }
@@ -0,0 +1,208 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+import io.opentelemetry.context.Scope;
+
+public class OperationStepExecutorConcurrencyTest {
+
+    /**
+     * Executor answering every call from an in-memory registry that echoes the requested ship
+     * after the delay set for it, fails for ships whose name starts with "wreck" and records the
+     * ships it was asked for and how many calls overlap.
+     */
+    static class RegistryStepExecutor extends OperationStepExecutor {
+
+        final Map<String, Long> delays = new ConcurrentHashMap<>();
+        final Set<String> started = ConcurrentHashMap.newKeySet();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        private final HttpClientAdapter adapter;
+        private final OperationIndex index;
+
+        RegistryStepExecutor() {
+            super(null);
+            HttpClientSpec spec = new HttpClientSpec("registry", "https://registry.example.com",
+                    null);
+            HttpClientResourceSpec ships = new HttpClientResourceSpec("/ships/{{ship}}", "ships",
+                    null);
+            ships.getOperations().add(new HttpClientOperationSpec(ships, "GET", "get-ship",
+                    null));
+            spec.getResources().add(ships);
+            Client client = new Client(Protocol.HTTP) {
+
+                @Override
+                public void handle(Request request, Response response) {
+                    String ship = request.getResourceRef().getLastSegment();
+                    pause(ship);
+                    response.setEntity("{\"name\":\"" + ship + "\"}",
+                            MediaType.APPLICATION_JSON);
+                }
+
+            };
+            this.adapter = new HttpClientAdapter(null, spec) {
+
+                @Override
+                public Client getHttpClient() {
+                    return client;
+                }
+
+            };
+            this.index = OperationIndex.of(List.of(adapter));
+        }
+
+        private void pause(String ship) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delays.getOrDefault(ship, 20L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        StepPlan stepPlan(List<OperationStepSpec> steps) {
+            return StepPlan.of(steps, index);
+        }
+
+        @Override
+        public HandlingContext findClientRequestFor(String clientNamespace,
+                String clientOpName, Map<String, Object> parameters) {
+            String ship = String.valueOf(parameters.get("ship"));
+            started.add(ship);
+            if (ship.startsWith("wreck")) {
+                pause(ship);
+                throw new IllegalArgumentException("No ship named " + ship);
+            }
+            HandlingContext context = new HandlingContext();
+            context.clientAdapter = adapter;
+            context.clientRequest = new Request(Method.GET,
+                    "https://registry.example.com/ships/" + ship);
+            context.clientResponse = new Response(context.clientRequest);
+            return context;
+        }
+
+    }
+
+    private static OperationStepCallSpec call(String name, String ship) {
+        return new OperationStepCallSpec(name, "registry.get-ship", Map.of("ship", ship));
+    }
+
+    @Test
+    public void concurrentOutputsShouldMatchSequentialExecution() {
+        List<OperationStepSpec> steps = List.of(
+                call("ship", "voyager"),
+                call("other", "enterprise"),
+                call("sister", "{{ship.name}}-sister"),
+                call("escort", "{{other.name}}-escort"));
+        RegistryStepExecutor concurrent = new RegistryStepExecutor();
+        RegistryStepExecutor sequential = new RegistryStepExecutor();
+
+        OperationStepExecutor.StepExecutionResult expected;
+        try (Scope scope = OperationStepExecutor.limitStepParallelism(1)) {
+            expected = sequential.executeSteps(steps, Map.of());
+        }
+        OperationStepExecutor.StepExecutionResult actual = concurrent.executeSteps(steps,
+                Map.of());
+
+        assertEquals(expected.stepContext.getAllStepOutputs(),
+                actual.stepContext.getAllStepOutputs());
+        assertEquals("voyager-sister",
+                actual.stepContext.getStepOutput("sister").get("name").asText());
+        assertEquals(1, sequential.maxInFlight.get());
+        assertTrue(concurrent.maxInFlight.get() > 1, "Independent steps should overlap");
+    }
+
+    @Test
+    public void stepParallelismShouldBoundRunningSteps() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        List<OperationStepSpec> steps = List.of(call("a", "a"), call("b", "b"), call("c", "c"),
+                call("d", "d"), call("e", "e"), call("f", "f"));
+
+        try (Scope scope = OperationStepExecutor.limitStepParallelism(2)) {
+            executor.executeSteps(steps, Map.of());
+        }
+
+        assertEquals(2, executor.maxInFlight.get());
+    }
+
+    @Test
+    public void earliestFailureShouldBeRethrown() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        executor.delays.put("wreck-slow", 200L);
+        executor.delays.put("wreck-fast", 10L);
+        List<OperationStepSpec> steps = List.of(call("first", "wreck-slow"),
+                call("second", "wreck-fast"));
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> executor.executeSteps(steps, Map.of()));
+
+        assertTrue(failure.getMessage().contains("wreck-slow"), failure.getMessage());
+    }
+
+    @Test
+    public void noStepShouldStartAfterAFailure() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        executor.delays.put("slow", 200L);
+        List<OperationStepSpec> steps = List.of(
+                call("wreck", "wreck"),
+                call("slow", "slow"),
+                call("after-slow", "{{slow.name}}-next"),
+                call("waiting", "waiting"));
+
+        try (Scope scope = OperationStepExecutor.limitStepParallelism(2)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> executor.executeSteps(steps, Map.of()));
+        }
+
+        assertEquals(Set.of("wreck", "slow"), executor.started);
+    }
+
+    @Test
+    public void lastContextShouldBeTheLastDeclaredCall() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        executor.delays.put("slow", 200L);
+        executor.delays.put("fast", 10L);
+        List<OperationStepSpec> steps = List.of(call("slow", "slow"), call("fast", "fast"));
+
+        OperationStepExecutor.StepExecutionResult result = executor.executeSteps(steps, Map.of());
+
+        assertEquals("fast", result.lastContext.clientRequest.getResourceRef().getLastSegment());
+    }
+
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.util.OperationStepForEachSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+
+public class OperationStepExecutorForEachTest {
+
+    /**
+     * Executor answering every call from an in-memory registry that echoes the requested ship,
+     * fails for ships named "wreck" and records how many calls overlap.
+     */
+    static class RegistryStepExecutor extends OperationStepExecutor {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        private final HttpClientAdapter adapter;
+
+        RegistryStepExecutor() {
+            super(null);
+            HttpClientSpec spec = new HttpClientSpec("registry", "https://registry.example.com",
+                    null);
+            Client client = new Client(Protocol.HTTP) {
+
+                @Override
+                public void handle(Request request, Response response) {
+                    calls.incrementAndGet();
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    String ship = request.getResourceRef().getLastSegment();
+                    if (ship.equals("wreck")) {
+                        response.setStatus(Status.SERVER_ERROR_INTERNAL);
+                        return;
+                    }
+                    response.setEntity("{\"name\":\"" + ship + "\"}",
+                            MediaType.APPLICATION_JSON);
+                }
+
+            };
+            this.adapter = new HttpClientAdapter(null, spec) {
+
+                @Override
+                public Client getHttpClient() {
+                    return client;
+                }
+
+            };
+        }
+
+        @Override
+        public HandlingContext findClientRequestFor(String clientNamespace,
+                String clientOpName, Map<String, Object> parameters) {
+            HandlingContext context = new HandlingContext();
+            context.clientAdapter = adapter;
+            context.clientRequest = new Request(Method.GET,
+                    "https://registry.example.com/ships/" + parameters.get("ship"));
+            context.clientResponse = new Response(context.clientRequest);
+            return context;
+        }
+
+    }
+
+    private static OperationStepForEachSpec forEach(String onError) {
+        OperationStepForEachSpec step = new OperationStepForEachSpec("ships", "$.names", "entry",
+                "registry.get-ship", Map.of("ship", "{{entry}}"));
+        step.setOnError(onError);
+        return step;
+    }
+
+    private static JsonNode run(RegistryStepExecutor executor, OperationStepForEachSpec step,
+            List<String> names) {
+        List<OperationStepSpec> steps = List.of(step);
+        return executor.executeSteps(steps, Map.of("names", names)).stepContext
+                .getStepOutput("ships");
+    }
+
+    @Test
+    public void forEachShouldCollectResultsInOrderWithBoundedParallelism() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        OperationStepForEachSpec step = forEach(null);
+        step.setParallelism(4);
+        List<String> names = List.of("voyager-0", "voyager-1", "voyager-2", "voyager-3",
+                "voyager-4", "voyager-5", "voyager-6", "voyager-7", "voyager-8", "voyager-9",
+                "voyager-10", "voyager-11");
+
+        JsonNode output = run(executor, step, names);
+
+        assertEquals(names.size(), output.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(names.get(i), output.get(i).get("name").asText());
+        }
+        assertTrue(executor.maxInFlight.get() > 1, "Calls should overlap");
+        assertTrue(executor.maxInFlight.get() <= 4, "At most 4 calls should be in flight");
+    }
+
+    @Test
+    public void forEachShouldFailFastByDefault() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        OperationStepForEachSpec step = forEach(null);
+        step.setParallelism(1);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> run(executor, step, List.of("voyager", "wreck", "enterprise", "defiant")));
+
+        assertTrue(failure.getMessage().contains("item 1"), failure.getMessage());
+        assertTrue(executor.calls.get() < 4, "No call should start after the failure");
+    }
+
+    @Test
+    public void forEachShouldSkipOrCollectFailedItems() {
+        List<String> names = List.of("voyager", "wreck", "enterprise");
+
+        JsonNode skipped = run(new RegistryStepExecutor(), forEach("skip"), names);
+        assertEquals(2, skipped.size());
+        assertEquals("enterprise", skipped.get(1).get("name").asText());
+
+        JsonNode collected = run(new RegistryStepExecutor(), forEach("collect"), names);
+        assertEquals(3, collected.size());
+        assertEquals(1, collected.get(1).get("index").asInt());
+        assertTrue(collected.get(1).get("error").asText().contains("500"));
+        assertEquals("enterprise", collected.get(2).get("name").asText());
+    }
+
+    @Test
+    public void forEachShouldRejectTooManyItemsBeforeCalling() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        OperationStepForEachSpec step = forEach(null);
+        step.setMaxItems(2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> run(executor, step, List.of("voyager", "enterprise", "defiant")));
+        assertEquals(0, executor.calls.get());
+    }
+
+    @Test
+    public void forEachShouldRejectItemsThatDoNotResolve() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+        OperationStepForEachSpec step = new OperationStepForEachSpec("ships", "$.nmaes", "entry",
+                "registry.get-ship", Map.of("ship", "{{entry}}"));
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> run(executor, step, List.of("voyager")));
+        assertTrue(failure.getMessage().contains("$.nmaes"), failure.getMessage());
+        assertEquals(0, executor.calls.get());
+    }
+
+    @Test
+    public void forEachShouldAcceptAnEmptyArray() {
+        RegistryStepExecutor executor = new RegistryStepExecutor();
+
+        JsonNode output = run(executor, forEach(null), List.of());
+
+        assertTrue(output.isArray());
+        assertEquals(0, output.size());
+        assertEquals(0, executor.calls.get());
+    }
+
+}
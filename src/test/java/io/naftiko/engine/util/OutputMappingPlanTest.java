@@ -0,0 +1,166 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.naftiko.spec.NaftikoSpec;
+import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.exposes.rest.RestServerSpec;
+import io.naftiko.util.VersionHelper;
+
+public class OutputMappingPlanTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void simplePathFieldsShouldOnlyAcceptDottedIdentifiers() {
+        assertArrayEquals(new String[] {"vessel", "imo_number"},
+                OutputMappingPlan.simplePathFields("$.vessel.imo_number"));
+        assertArrayEquals(new String[] {"flag-code"},
+                OutputMappingPlan.simplePathFields("$.flag-code"));
+        assertNull(OutputMappingPlan.simplePathFields("$.ships[0].imo"));
+        assertNull(OutputMappingPlan.simplePathFields("$..imo"));
+        assertNull(OutputMappingPlan.simplePathFields("$.user details.email"));
+        assertNull(OutputMappingPlan.simplePathFields("$.ships.length()"));
+    }
+
+    @Test
+    public void parseMaxLengthShouldIgnoreInvalidValues() {
+        assertEquals(5, OutputMappingPlan.parseMaxLength("5"));
+        assertEquals(-1, OutputMappingPlan.parseMaxLength("five"));
+        assertEquals(-1, OutputMappingPlan.parseMaxLength(null));
+    }
+
+    @Test
+    public void executeShouldMatchJsonPathForDirectAndCompiledAccessors() throws Exception {
+        JsonNode root = MAPPER.readTree("""
+                {
+                  "vessel": {"name": "Northern Star", "flag": null, "tags": ["ice", "cargo"]},
+                  "crew": [{"id": "C-1"}, {"id": "C-2"}]
+                }
+                """);
+
+        for (String mapping : List.of("$.vessel.name", "$.vessel.flag", "$.vessel.missing",
+                "$.vessel.name.first", "$.crew.id", "$.vessel.tags", "$.crew[1].id",
+                "$.crew[*].id")) {
+            OutputParameterSpec spec = new OutputParameterSpec("v", "string", null, mapping);
+
+            JsonNode planned = OutputMappingPlan.compile(spec).execute(root, MAPPER, null);
+            JsonNode extracted = Converter.jsonPathExtract(root, mapping);
+
+            assertEquals(extracted, planned, mapping);
+        }
+    }
+
+    @Test
+    public void executeShouldApplyPreParsedMaxLength() throws Exception {
+        JsonNode root = MAPPER.readTree("{\"rows\":[{\"name\":\"Northern Star\"}]}");
+
+        OutputParameterSpec name = new OutputParameterSpec("name", "string", null, "$.name");
+        name.setMaxLength("8");
+        OutputParameterSpec items = new OutputParameterSpec();
+        items.setType("object");
+        items.getProperties().add(name);
+        OutputParameterSpec rows = new OutputParameterSpec("rows", "array", null, "$.rows");
+        rows.setItems(items);
+
+        JsonNode mapped = OutputMappingPlan.compile(rows).execute(root, MAPPER, null);
+
+        assertEquals("Northern", mapped.get(0).get("name").asText());
+    }
+
+    @Test
+    public void undeclaredSpecsShouldBeCompiledWithoutBeingRetained() throws Exception {
+        OutputParameterSpec spec = new OutputParameterSpec("imo", "string", null, "$.imo");
+
+        JsonNode mapped = PrecompiledSpec.EMPTY.plan(spec)
+                .execute(MAPPER.readTree("{\"imo\":\"IMO-1\"}"), MAPPER, null);
+
+        assertEquals("IMO-1", mapped.asText());
+        assertFalse(PrecompiledSpec.EMPTY.hasPlan(spec));
+    }
+
+    @Test
+    public void specPrecompilerShouldKeepPlansForDeclaredOutputParameters() throws Exception {
+        String yaml = """
+                naftiko: "%s"
+                capability:
+                  exposes:
+                    - type: "rest"
+                      address: "localhost"
+                      port: 0
+                      namespace: "plans"
+                      resources:
+                        - path: "/ships"
+                          operations:
+                            - method: "GET"
+                              name: "list-ships"
+                              call:
+                                operation: "registry.list-ships"
+                              outputParameters:
+                                - type: "array"
+                                  mapping: "$.data"
+                                  items:
+                                    type: "object"
+                                    properties:
+                                      imo:
+                                        type: "string"
+                                        mapping: "$.imo_number"
+                  consumes:
+                    - type: "http"
+                      namespace: "registry"
+                      baseUri: "http://localhost:8080/v1"
+                      resources:
+                        - path: "/ships"
+                          name: "ships"
+                          operations:
+                            - method: "GET"
+                              name: "list-ships"
+                """.formatted(VersionHelper.getSchemaVersion());
+
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        yamlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        NaftikoSpec spec = yamlMapper.readValue(yaml, NaftikoSpec.class);
+        OutputParameterSpec declared = ((RestServerSpec) spec.getCapability().getExposes().get(0))
+                .getResources().get(0).getOperations().get(0).getOutputParameters().get(0);
+        NaftikoSpec reloaded = yamlMapper.readValue(yaml, NaftikoSpec.class);
+        OutputParameterSpec redeclared =
+                ((RestServerSpec) reloaded.getCapability().getExposes().get(0)).getResources()
+                        .get(0).getOperations().get(0).getOutputParameters().get(0);
+
+        PrecompiledSpec precompiled = new SpecPrecompiler().precompile(spec);
+
+        assertTrue(precompiled.hasPlan(declared));
+        assertSame(precompiled.plan(declared), precompiled.plan(declared));
+        assertFalse(precompiled.hasPlan(redeclared));
+        assertFalse(PrecompiledSpec.EMPTY.hasPlan(declared));
+        assertTrue(precompiled.hasProjection(((RestServerSpec) spec.getCapability().getExposes()
+                .get(0)).getResources().get(0).getOperations().get(0).getOutputParameters()));
+        JsonNode mapped = precompiled.plan(declared).execute(
+                MAPPER.readTree("{\"data\":[{\"imo_number\":\"IMO-1\"}]}"), MAPPER, null);
+        assertEquals("IMO-1", mapped.get(0).get("imo").asText());
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.restlet.data.MediaType;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.Representation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import io.naftiko.spec.OutputParameterSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+
+public class RecordStreamerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Schema SHIP_SCHEMA = new Schema.Parser().parse("""
+            {"type": "record", "name": "Ship", "fields": [
+              {"name": "imo", "type": "long"},
+              {"name": "name", "type": "string"},
+              {"name": "flag", "type": ["null", "string"], "default": null},
+              {"name": "tags", "type": {"type": "array", "items": "string"}},
+              {"name": "crew", "type": {"type": "map", "values": "int"}}
+            ]}
+            """);
+
+    private static final String SHIP_PROTO = """
+            syntax = "proto2";
+
+            message Ship {
+              required string imo = 1;
+              required string name = 2;
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private static OutputParameterSpec shipsArray() {
+        OutputParameterSpec imo = new OutputParameterSpec("imo", "string", null, "$.imo");
+        OutputParameterSpec name = new OutputParameterSpec("name", "string", null, "$.name");
+        OutputParameterSpec items = new OutputParameterSpec();
+        items.setType("object");
+        items.getProperties().addAll(List.of(imo, name));
+        OutputParameterSpec ships = new OutputParameterSpec("ships", "array", null, "$");
+        ships.setItems(items);
+        return ships;
+    }
+
+    private static HttpClientOperationSpec operation(String format, String framing,
+            String schema) {
+        HttpClientOperationSpec operation = new HttpClientOperationSpec();
+        operation.setOutputRawFormat(format);
+        operation.setOutputFraming(framing);
+        operation.setOutputSchema(schema);
+        return operation;
+    }
+
+    private static Representation entity(byte[] content) {
+        return new InputRepresentation(new ByteArrayInputStream(content),
+                MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static byte[] avroContainer(int count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer =
+                new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SHIP_SCHEMA))) {
+            writer.create(SHIP_SCHEMA, out);
+            for (int i = 1; i <= count; i++) {
+                GenericRecord ship = new GenericData.Record(SHIP_SCHEMA);
+                ship.put("imo", 1000L + i);
+                ship.put("name", "Ship " + i);
+                ship.put("flag", i % 2 == 0 ? "NO" : null);
+                ship.put("tags", List.of("ice"));
+                ship.put("crew", Map.of("deck", i));
+                writer.append(ship);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] protobufStream(Path schemaFile, String... names) throws IOException {
+        ProtobufSchema schema = SchemaCache.protobuf(schemaFile.toString()).schema();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < names.length; i++) {
+            byte[] message = FormatMappers.mapper(ConversionFormat.PROTOBUF).writer(schema)
+                    .writeValueAsBytes(MAPPER.createObjectNode().put("imo", "IMO-" + i)
+                            .put("name", names[i]));
+            int length = message.length;
+            while ((length & ~0x7F) != 0) {
+                out.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+            out.write(message);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void avroContainerShouldDecodeEveryRecord() throws Exception {
+        HttpClientOperationSpec operation = operation("avro", "container", null);
+
+        ArrayNode records;
+        try (RecordReader reader = RecordStreamer.open(operation, entity(avroContainer(3)))) {
+            records = RecordStreamer.readAll(reader);
+        }
+
+        assertEquals(3, records.size());
+        JsonNode second = records.get(1);
+        assertEquals(1002L, second.get("imo").longValue());
+        assertEquals("Ship 2", second.get("name").asText());
+        assertEquals("NO", second.get("flag").asText());
+        assertTrue(records.get(0).get("flag").isNull());
+        assertEquals("ice", second.get("tags").get(0).asText());
+        assertEquals(2, second.get("crew").get("deck").intValue());
+    }
+
+    @Test
+    public void writeShouldMapAvroRecordsUpToRowLimit() throws Exception {
+        HttpClientOperationSpec operation = operation("avro", "container", null);
+        operation.setOutputRowLimit(2);
+
+        StringWriter writer = new StringWriter();
+        try (RecordReader reader = RecordStreamer.open(operation, entity(avroContainer(5)))) {
+            RecordStreamer.write(reader, OutputMappingPlan.compile(shipsArray()), writer);
+        }
+
+        assertEquals("[{\"imo\":1001,\"name\":\"Ship 1\"},{\"imo\":1002,\"name\":\"Ship 2\"}]",
+                writer.toString());
+    }
+
+    @Test
+    public void convertToJsonShouldReadLengthDelimitedProtobufMessages() throws Exception {
+        Path schemaFile = tempDir.resolve("ship.proto");
+        Files.writeString(schemaFile, SHIP_PROTO);
+        HttpClientOperationSpec operation =
+                operation("protobuf", "delimited", schemaFile.toString());
+
+        JsonNode records = Converter.convertToJson(operation,
+                entity(protobufStream(schemaFile, "Northern Star", "Southern Cross")));
+
+        assertEquals(2, records.size());
+        assertEquals("IMO-1", records.get(1).get("imo").asText());
+        assertEquals("Southern Cross", records.get(1).get("name").asText());
+    }
+
+    @Test
+    public void truncatedProtobufStreamShouldFail() throws Exception {
+        Path schemaFile = tempDir.resolve("ship.proto");
+        Files.writeString(schemaFile, SHIP_PROTO);
+        byte[] stream = protobufStream(schemaFile, "Northern Star");
+        byte[] truncated = Arrays.copyOf(stream, stream.length - 3);
+
+        try (RecordReader reader = RecordStreamer.open(
+                operation("protobuf", "delimited", schemaFile.toString()), entity(truncated))) {
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void prefetchShouldFailOnATruncatedFirstRecord() throws Exception {
+        Path schemaFile = tempDir.resolve("ship.proto");
+        Files.writeString(schemaFile, SHIP_PROTO);
+        byte[] stream = protobufStream(schemaFile, "Northern Star");
+        byte[] truncated = Arrays.copyOf(stream, stream.length - 3);
+        RecordReader reader = RecordStreamer.open(
+                operation("protobuf", "delimited", schemaFile.toString()), entity(truncated));
+
+        assertThrows(EOFException.class,
+                () -> RecordStreamer.prefetch(reader, OutputMappingPlan.compile(shipsArray())));
+    }
+
+    @Test
+    public void writeShouldLeaveTheArrayOpenWhenARecordFails() throws Exception {
+        Path schemaFile = tempDir.resolve("ship.proto");
+        Files.writeString(schemaFile, SHIP_PROTO);
+        byte[] stream = protobufStream(schemaFile, "Northern Star", "Southern Cross");
+        byte[] truncated = Arrays.copyOf(stream, stream.length - 3);
+        OutputMappingPlan plan = OutputMappingPlan.compile(shipsArray());
+
+        StringWriter writer = new StringWriter();
+        try (RecordReader reader = RecordStreamer.prefetch(RecordStreamer.open(
+                operation("protobuf", "delimited", schemaFile.toString()), entity(truncated)),
+                plan)) {
+            assertThrows(EOFException.class, () -> RecordStreamer.write(reader, plan, writer));
+        }
+
+        assertEquals("[{\"imo\":\"IMO-0\",\"name\":\"Northern Star\"}", writer.toString());
+    }
+
+    @Test
+    public void oversizedProtobufRecordShouldFailBeforeAllocating() throws Exception {
+        Path schemaFile = tempDir.resolve("ship.proto");
+        Files.writeString(schemaFile, SHIP_PROTO);
+        // Varint length of 0x7FFFFFFF, followed by no message
+        byte[] stream = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        try (RecordReader reader = RecordStreamer.open(
+                operation("protobuf", "delimited", schemaFile.toString()), entity(stream))) {
+            IOException error = assertThrows(IOException.class, reader::next);
+            assertTrue(error.getMessage().contains("exceeds the maximum"));
+        }
+    }
+
+    @Test
+    public void isRecordStreamShouldRequireMultiRecordFraming() {
+        assertTrue(RecordStreamer.isRecordStream(operation("csv", null, null)));
+        assertTrue(RecordStreamer.isRecordStream(operation("avro", "container", null)));
+        assertFalse(RecordStreamer.isRecordStream(operation("avro", null, "ship.avsc")));
+        assertFalse(RecordStreamer.isRecordStream(operation("protobuf", "single", "ship.proto")));
+        assertFalse(RecordStreamer.isRecordStream(operation("json", "delimited", null)));
+        assertFalse(RecordStreamer.isRecordStream(null));
+    }
+
+    @Test
+    public void validateShouldRejectFramingOfAnotherFormat() throws Exception {
+        IOException error = assertThrows(IOException.class,
+                () -> RecordStreamer.validate(operation("protobuf", "container", "ship.proto")));
+        assertEquals("Unsupported \"container\" framing for \"protobuf\" format",
+                error.getMessage());
+
+        assertThrows(IOException.class,
+                () -> RecordStreamer.validate(operation("protobuf", "delimited", null)));
+        assertNull(RecordStreamer.open(operation("xml", null, null), entity(new byte[0])));
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.engine.util.ReferenceDataCache.ReferenceData;
+
+public class ReferenceDataCacheTest {
+
+    private static final String PORTS = "[{\"code\":\"SIN\"},{\"code\":\"RTM\"}]";
+
+    @BeforeEach
+    public void clearCache() {
+        ReferenceDataCache.CACHE.clear();
+    }
+
+    private static HandlingContext call() {
+        HandlingContext context = new HandlingContext();
+        context.clientRequest = new Request(Method.GET, "https://api.example.com/ports");
+        context.clientResponse = new Response(context.clientRequest);
+        return context;
+    }
+
+    private static Function<HandlingContext, ReferenceData> loader(AtomicInteger loads) {
+        return context -> {
+            loads.incrementAndGet();
+            try {
+                BufferedResponse response = new BufferedResponse(Status.SUCCESS_OK, List.of(),
+                        PORTS.getBytes(StandardCharsets.UTF_8), MediaType.APPLICATION_JSON,
+                        null);
+                response.applyTo(context.clientResponse);
+                return new ReferenceData(response, new ObjectMapper().readTree(PORTS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @Test
+    public void freshDataShouldBeSharedAcrossCalls() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        ReferenceData first = ReferenceDataCache.fetch("ports-fresh", 60, call(),
+                ReferenceDataCacheTest::call, loader(loads));
+        HandlingContext second = call();
+        ReferenceData cached = ReferenceDataCache.fetch("ports-fresh", 60, second,
+                ReferenceDataCacheTest::call, loader(loads));
+
+        assertEquals(1, loads.get());
+        assertSame(first.output(), cached.output());
+        assertSame(first.indexes(), cached.indexes());
+        assertEquals(PORTS, second.clientResponse.getEntity().getText());
+    }
+
+    @Test
+    public void staleDataShouldBeServedWhileRefreshedInTheBackground() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceData stale = loader(loads).apply(call());
+        ReferenceDataCache.CACHE.put("ports-stale", stale, stale.response().size(),
+                System.currentTimeMillis() - 1000);
+
+        ReferenceData served = ReferenceDataCache.fetch("ports-stale", 60, call(),
+                ReferenceDataCacheTest::call, loader(loads));
+        assertSame(stale, served);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ReferenceDataCache.isRefreshing("ports-stale")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, loads.get());
+        assertTrue(ReferenceDataCache.CACHE.get("ports-stale")
+                .isFresh(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void dataStaleForTooLongShouldBeFetchedAgainSynchronously() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceData stale = loader(loads).apply(call());
+        long tooOld = System.currentTimeMillis()
+                - 60_000L * ReferenceDataCache.MAX_STALE_TTLS - 1000;
+        ReferenceDataCache.CACHE.put("ports-expired", stale, stale.response().size(), tooOld);
+
+        ReferenceData served = ReferenceDataCache.fetch("ports-expired", 60, call(),
+                ReferenceDataCacheTest::call, loader(loads));
+
+        assertNotSame(stale, served);
+        assertEquals(2, loads.get());
+        assertFalse(ReferenceDataCache.isRefreshing("ports-expired"));
+        assertTrue(ReferenceDataCache.CACHE.get("ports-expired")
+                .isFresh(System.currentTimeMillis()));
+
+        ReferenceDataCache.CACHE.put("ports-expired", stale, stale.response().size(), tooOld);
+        assertThrows(IllegalStateException.class,
+                () -> ReferenceDataCache.fetch("ports-expired", 60, call(),
+                        ReferenceDataCacheTest::call, context -> {
+                            throw new IllegalStateException("Upstream down");
+                        }));
+        assertNull(ReferenceDataCache.CACHE.get("ports-expired"));
+    }
+
+    @Test
+    public void uncacheableDataShouldNotBeStored() {
+        ReferenceData data = ReferenceDataCache.fetch("ports-failed", 60, call(),
+                ReferenceDataCacheTest::call, context -> null);
+
+        assertNull(data);
+        assertNull(ReferenceDataCache.CACHE.get("ports-failed"));
+    }
+
+    @Test
+    public void sharedLookupIndexesShouldBeBuiltOnce() throws Exception {
+        JsonNode ports = new ObjectMapper().readTree(PORTS);
+        ReferenceData data = new ReferenceData(null, ports);
+        StepExecutionContext first = new StepExecutionContext();
+        first.storeStepOutput("ports", ports, data.indexes());
+        StepExecutionContext second = new StepExecutionContext();
+        second.storeStepOutput("ports", ports, data.indexes());
+
+        Map<String, JsonNode> index = first.getLookupIndex("ports", "code");
+
+        assertSame(index, second.getLookupIndex("ports", "code"));
+        assertEquals("RTM", index.get("RTM").get("code").asText());
+    }
+
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.ChallengeScheme;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.util.OperationStepExecutor.HandlingContext;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.opentelemetry.context.Scope;
+
+public class RequestCoalescerTest {
+
+    private static HttpClientAdapter adapter(Boolean coalesce, Client client) {
+        HttpClientSpec spec = new HttpClientSpec("ships", "https://api.example.com", null);
+        spec.setCoalesce(coalesce);
+        return new HttpClientAdapter(null, spec) {
+
+            @Override
+            public Client getHttpClient() {
+                return client;
+            }
+
+        };
+    }
+
+    private static HandlingContext call(HttpClientAdapter adapter, Method method, String uri) {
+        HandlingContext context = new HandlingContext();
+        context.clientAdapter = adapter;
+        context.clientRequest = new Request(method, uri);
+        context.clientResponse = new Response(context.clientRequest);
+        return context;
+    }
+
+    @Test
+    public void concurrentIdenticalCallsShouldShareOneUpstreamExchange() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                upstreamCalls.incrementAndGet();
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setStatus(Status.SUCCESS_OK);
+                response.setEntity("{\"name\":\"Voyager\"}", MediaType.APPLICATION_JSON);
+            }
+
+        };
+        HttpClientAdapter adapter = adapter(true, client);
+        HandlingContext first = call(adapter, Method.GET, "https://api.example.com/ships/1");
+        HandlingContext second = call(adapter, Method.GET, "https://api.example.com/ships/1");
+        long coalescedBefore = RequestCoalescer.getCoalesced();
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = threads.submit(() -> RequestCoalescer.handle(first, false));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            Future<?> follower = threads.submit(() -> RequestCoalescer.handle(second, false));
+            awaitFollower();
+            release.countDown();
+            leader.get(10, TimeUnit.SECONDS);
+            follower.get(10, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(coalescedBefore + 1, RequestCoalescer.getCoalesced());
+        assertEquals(Status.SUCCESS_OK, second.clientResponse.getStatus());
+        assertEquals("{\"name\":\"Voyager\"}", first.clientResponse.getEntity().getText());
+        assertEquals("{\"name\":\"Voyager\"}", second.clientResponse.getEntity().getText());
+        assertEquals(MediaType.APPLICATION_JSON,
+                second.clientResponse.getEntity().getMediaType());
+    }
+
+    @Test
+    public void sequentialCallsShouldEachReachUpstream() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Client client = new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                upstreamCalls.incrementAndGet();
+                response.setEntity("{}", MediaType.APPLICATION_JSON);
+            }
+
+        };
+        HttpClientAdapter adapter = adapter(true, client);
+
+        RequestCoalescer.handle(call(adapter, Method.GET, "https://api.example.com/ships"), false);
+        RequestCoalescer.handle(call(adapter, Method.GET, "https://api.example.com/ships"), false);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    public void keyShouldOnlyCoverSafeCallsToCoalescingAdapters() {
+        HttpClientAdapter coalescing = adapter(true, null);
+        String uri = "https://api.example.com/ships";
+
+        assertNotNull(RequestCoalescer.key(call(coalescing, Method.GET, uri), false));
+        assertNull(RequestCoalescer.key(call(coalescing, Method.POST, uri), false));
+        assertNotNull(RequestCoalescer.key(call(coalescing, Method.POST, uri), true));
+        assertNull(RequestCoalescer.key(call(adapter(null, null), Method.GET, uri), false));
+        assertNull(RequestCoalescer.key(call(adapter(false, null), Method.GET, uri), true));
+    }
+
+    @Test
+    public void keyShouldDistinguishHeadersAndBodies() {
+        HttpClientAdapter coalescing = adapter(true, null);
+        String uri = "https://api.example.com/ships";
+
+        HandlingContext plain = call(coalescing, Method.POST, uri);
+        HandlingContext withHeader = call(coalescing, Method.POST, uri);
+        withHeader.clientRequest.getHeaders().set("X-Tenant", "blue");
+        HandlingContext withBody = call(coalescing, Method.POST, uri);
+        withBody.clientRequest.setEntity("{\"class\":\"scout\"}", MediaType.APPLICATION_JSON);
+        HandlingContext sameBody = call(coalescing, Method.POST, uri);
+        sameBody.clientRequest.setEntity("{\"class\":\"scout\"}", MediaType.APPLICATION_JSON);
+
+        String plainKey = RequestCoalescer.key(plain, true);
+        assertNotEquals(plainKey, RequestCoalescer.key(withHeader, true));
+        assertNotEquals(plainKey, RequestCoalescer.key(withBody, true));
+        assertEquals(RequestCoalescer.key(withBody, true), RequestCoalescer.key(sameBody, true));
+    }
+
+    @Test
+    public void keyShouldDistinguishConditionalCalls() {
+        HttpClientAdapter coalescing = adapter(true, null);
+        String uri = "https://api.example.com/ships";
+
+        HandlingContext plain = call(coalescing, Method.GET, uri);
+        HandlingContext revalidation = call(coalescing, Method.GET, uri);
+        revalidation.clientRequest.getConditions().setNoneMatch(List.of(new Tag("v1")));
+        HandlingContext otherTag = call(coalescing, Method.GET, uri);
+        otherTag.clientRequest.getConditions().setNoneMatch(List.of(new Tag("v2")));
+        HandlingContext modifiedSince = call(coalescing, Method.GET, uri);
+        modifiedSince.clientRequest.getConditions().setModifiedSince(new Date(0));
+
+        String plainKey = RequestCoalescer.key(plain, false);
+        String revalidationKey = RequestCoalescer.key(revalidation, false);
+        assertNotEquals(plainKey, revalidationKey);
+        assertNotEquals(revalidationKey, RequestCoalescer.key(otherTag, false));
+        assertNotEquals(plainKey, RequestCoalescer.key(modifiedSince, false));
+    }
+
+    @Test
+    public void keyShouldDigestCredentialsInsteadOfHoldingThem() {
+        HttpClientAdapter coalescing = adapter(true, null);
+        String uri = "https://api.example.com/ships";
+
+        HandlingContext alice = call(coalescing, Method.GET, uri);
+        alice.clientRequest.setChallengeResponse(
+                new ChallengeResponse(ChallengeScheme.HTTP_BASIC, "alice", "s3cr3t-alice"));
+        HandlingContext bob = call(coalescing, Method.GET, uri);
+        bob.clientRequest.setChallengeResponse(
+                new ChallengeResponse(ChallengeScheme.HTTP_BASIC, "alice", "s3cr3t-bob"));
+
+        String key = RequestCoalescer.key(alice, false);
+        assertEquals(64, key.length(), "The key should be a SHA-256 digest");
+        assertFalse(key.contains("s3cr3t"));
+        assertNotEquals(key, RequestCoalescer.key(bob, false));
+    }
+
+    /**
+     * Client answering once released, counting the calls it receives.
+     */
+    private static Client slowClient(AtomicInteger upstreamCalls, CountDownLatch entered,
+            CountDownLatch release) {
+        return new Client(Protocol.HTTP) {
+
+            @Override
+            public void handle(Request request, Response response) {
+                upstreamCalls.incrementAndGet();
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                response.setEntity("{\"name\":\"Voyager\"}", MediaType.APPLICATION_JSON);
+            }
+
+        };
+    }
+
+    private static void awaitFollower() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (RequestCoalescer.getWaiting() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void followerShouldStopWaitingAtItsOwnDeadline() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpClientAdapter adapter =
+                adapter(true, slowClient(new AtomicInteger(), entered, release));
+        HandlingContext first = call(adapter, Method.GET, "https://api.example.com/ships/2");
+        HandlingContext second = call(adapter, Method.GET, "https://api.example.com/ships/2");
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = threads.submit(() -> RequestCoalescer.handle(first, false));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            Future<?> follower = threads.submit(() -> {
+                try (Scope scope = Deadline.start(100)) {
+                    RequestCoalescer.handle(second, false);
+                }
+            });
+
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> follower.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof DeadlineExceededException);
+            release.countDown();
+            leader.get(10, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(Status.SUCCESS_OK, first.clientResponse.getStatus());
+    }
+
+    @Test
+    public void followerShouldTakeOverWhenTheLeaderRanOutOfTime() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpClientAdapter adapter = adapter(true, slowClient(upstreamCalls, entered, release));
+        HandlingContext first = call(adapter, Method.GET, "https://api.example.com/ships/3");
+        HandlingContext second = call(adapter, Method.GET, "https://api.example.com/ships/3");
+        long coalescedBefore = RequestCoalescer.getCoalesced();
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = threads.submit(() -> {
+                try (Scope scope = Deadline.start(300)) {
+                    RequestCoalescer.handle(first, false);
+                }
+            });
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            Future<?> follower = threads.submit(() -> RequestCoalescer.handle(second, false));
+            awaitFollower();
+
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> leader.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof DeadlineExceededException);
+            release.countDown();
+            follower.get(10, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(2, upstreamCalls.get(), "The follower should make the exchange again");
+        assertEquals(coalescedBefore, RequestCoalescer.getCoalesced(),
+                "A call that made its own exchange should not be counted as coalesced");
+        assertEquals(Status.SUCCESS_OK, second.clientResponse.getStatus());
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void putShouldEvictLeastRecentlyUsedEntriesBeyondMaxEntries() {
+        ResponseCache<String> cache = new ResponseCache<>("test", 2, 1000);
+        cache.put("a", "A", 1, Long.MAX_VALUE);
+        cache.put("b", "B", 1, Long.MAX_VALUE);
+        cache.get("a");
+        cache.put("c", "C", 1, Long.MAX_VALUE);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void putShouldEvictEntriesBeyondMaxWeight() {
+        ResponseCache<String> cache = new ResponseCache<>("test", 10, 100);
+        cache.put("a", "A", 40, Long.MAX_VALUE);
+        cache.put("b", "B", 40, Long.MAX_VALUE);
+        cache.put("c", "C", 40, Long.MAX_VALUE);
+
+        assertNull(cache.get("a"));
+        assertEquals(80, cache.getWeight());
+
+        cache.put("d", "D", 500, Long.MAX_VALUE);
+        assertNull(cache.get("d"), "A value heavier than the cache should not be stored");
+        assertEquals(80, cache.getWeight());
+    }
+
+    @Test
+    public void entriesShouldKeepTheirExpiry() {
+        ResponseCache<String> cache = new ResponseCache<>("test", 10, 100);
+        cache.put("a", "A", 1, 1000);
+
+        assertTrue(cache.get("a").isFresh(999));
+        assertFalse(cache.get("a").isFresh(1000));
+    }
+
+    @Test
+    public void constructorShouldRejectNonPositiveBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache<>("test", 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache<>("test", 10, 0));
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SchemaCacheTest {
+
+    private static final String SHIP_SCHEMA =
+            "{\"type\":\"record\",\"name\":\"Ship\",\"fields\":[{\"name\":\"imo\",\"type\":\"string\"}]}";
+
+    private static final String VESSEL_SCHEMA =
+            "{\"type\":\"record\",\"name\":\"Vessel\",\"fields\":[{\"name\":\"imo\",\"type\":\"string\"}]}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void avroShouldReuseParsedSchemaAndReader() throws Exception {
+        SchemaCache.AvroEntry first = SchemaCache.avro("schemas/test-records.avsc");
+        SchemaCache.AvroEntry second = SchemaCache.avro("schemas/test-records.avsc");
+
+        assertSame(first, second);
+        assertSame(first.schema(), first.reader().getSchema());
+    }
+
+    @Test
+    public void avroShouldReloadWhenFileModificationTimeChanges() throws Exception {
+        Path file = tempDir.resolve("ship.avsc");
+        Files.writeString(file, SHIP_SCHEMA);
+        file.toFile().setLastModified(1_000_000L);
+
+        SchemaCache.AvroEntry original = SchemaCache.avro(file.toString());
+        assertSame(original, SchemaCache.avro(file.toString()));
+
+        Files.writeString(file, VESSEL_SCHEMA);
+        file.toFile().setLastModified(2_000_000L);
+
+        SchemaCache.AvroEntry reloaded = SchemaCache.avro(file.toString());
+        assertNotSame(original, reloaded);
+        assertEquals("Vessel", reloaded.schema().getName());
+    }
+
+    @Test
+    public void cachedAvroReaderShouldDecodeSuccessiveRecords() throws Exception {
+        Path file = tempDir.resolve("ship.avsc");
+        Files.writeString(file, SHIP_SCHEMA);
+        Schema schema = new Schema.Parser().parse(SHIP_SCHEMA);
+
+        for (String imo : new String[] {"IMO-1", "IMO-2"}) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("imo", imo);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+            encoder.flush();
+
+            GenericRecord decoded = SchemaCache.avro(file.toString()).reader().read(null,
+                    DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+
+            assertEquals(imo, decoded.get("imo").toString());
+        }
+    }
+
+    @Test
+    public void missingSchemaShouldNotBeCached() {
+        int size = SchemaCache.size();
+
+        IOException error = assertThrows(IOException.class,
+                () -> SchemaCache.protobuf("schemas/does-not-exist.proto"));
+
+        assertTrue(error.getMessage().startsWith("Proto schema file not found"));
+        assertEquals(size, SchemaCache.size());
+    }
+
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.naftiko.engine.consumes.http.HttpClientAdapter;
+import io.naftiko.engine.consumes.http.OperationIndex;
+import io.naftiko.spec.InputParameterSpec;
+import io.naftiko.spec.NaftikoSpec;
+import io.naftiko.spec.consumes.http.BasicAuthenticationSpec;
+import io.naftiko.spec.consumes.http.HttpClientOperationSpec;
+import io.naftiko.spec.consumes.http.HttpClientResourceSpec;
+import io.naftiko.spec.consumes.http.HttpClientSpec;
+import io.naftiko.spec.exposes.mcp.McpServerSpec;
+import io.naftiko.spec.scripting.OperationStepScriptSpec;
+import io.naftiko.spec.util.OperationStepCallSpec;
+import io.naftiko.spec.util.OperationStepForEachSpec;
+import io.naftiko.spec.util.OperationStepLookupSpec;
+import io.naftiko.spec.util.OperationStepSpec;
+
+public class StepPlanTest {
+
+    private static OperationIndex index() {
+        HttpClientSpec spec = new HttpClientSpec("registry", "https://registry.example.com", null);
+        HttpClientResourceSpec ships = new HttpClientResourceSpec("/ships/{{imo}}", "ships", null);
+        ships.getOperations().add(new HttpClientOperationSpec(ships, "GET", "get-ship", null));
+        ships.getOperations().add(new HttpClientOperationSpec(ships, "POST", "update-ship",
+                null));
+        HttpClientResourceSpec crew = new HttpClientResourceSpec("/crew", "crew", null);
+        HttpClientOperationSpec listCrew = new HttpClientOperationSpec(crew, "GET", "list-crew",
+                null);
+        InputParameterSpec vessel = new InputParameterSpec();
+        vessel.setName("vessel");
+        vessel.setIn("query");
+        vessel.setValue("{{ship.imo}}");
+        listCrew.getInputParameters().add(vessel);
+        crew.getOperations().add(listCrew);
+        spec.getResources().add(ships);
+        spec.getResources().add(crew);
+        return OperationIndex.of(List.of(new HttpClientAdapter(null, spec)));
+    }
+
+    @Test
+    public void independentCallsShouldHaveNoDependencies() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("other", "registry.get-ship",
+                        Map.of("imo", "{{otherImo}}")));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertTrue(plan.isParallel());
+        assertArrayEquals(new int[0], plan.dependencies(0));
+        assertArrayEquals(new int[0], plan.dependencies(1));
+    }
+
+    @Test
+    public void forEachShouldDependOnTheStepOfItsItems() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("fleet", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("other", "registry.get-ship",
+                        Map.of("imo", "{{otherImo}}")),
+                new OperationStepForEachSpec("ships", "$.fleet.sisters", "sister",
+                        "registry.get-ship", Map.of("imo", "{{sister.imo}}")));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertArrayEquals(new int[] {0}, plan.dependencies(2));
+    }
+
+    @Test
+    public void referencedStepShouldBecomeDependency() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("other", "registry.get-ship",
+                        Map.of("imo", "{{otherImo}}")),
+                new OperationStepCallSpec("sister", "registry.get-ship",
+                        Map.of("imo", "{{other.sisterImo}}")),
+                new OperationStepLookupSpec("flag", "ship", "imo", "$.sister.imo"));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertArrayEquals(new int[] {1}, plan.dependencies(2));
+        assertArrayEquals(new int[] {0, 2}, plan.dependencies(3));
+    }
+
+    @Test
+    public void operationParametersShouldBeReadFromConsumedOperation() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("crew", "registry.list-crew"));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertFalse(plan.isParallel());
+        assertArrayEquals(new int[] {0}, plan.dependencies(1));
+    }
+
+    @Test
+    public void passwordsShouldNotBeScannedForStepNames() {
+        HttpClientSpec spec = new HttpClientSpec("vault", "https://vault.example.com",
+                new BasicAuthenticationSpec("{{tenant}}", "ship".toCharArray()));
+        HttpClientResourceSpec secrets = new HttpClientResourceSpec("/secrets", "secrets", null);
+        secrets.getOperations().add(new HttpClientOperationSpec(secrets, "GET", "get-secret",
+                null));
+        spec.getResources().add(secrets);
+        OperationIndex index = OperationIndex.of(List.of(new HttpClientAdapter(null, spec)));
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "vault.get-secret"),
+                new OperationStepCallSpec("secret", "vault.get-secret"));
+
+        StepPlan plan = StepPlan.of(steps, index);
+
+        assertArrayEquals(new int[0], plan.dependencies(1));
+    }
+
+    @Test
+    public void scriptsAndUnknownCallsShouldDependOnAllEarlierSteps() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("other", "registry.get-ship",
+                        Map.of("imo", "{{otherImo}}")),
+                new OperationStepScriptSpec("merge", "javascript", "file:///scripts",
+                        "merge.js"),
+                new OperationStepCallSpec("port", "ports.get-port"));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertArrayEquals(new int[] {0, 1}, plan.dependencies(2));
+        assertArrayEquals(new int[] {0, 1, 2}, plan.dependencies(3));
+        assertNull(StepPlan.reads(steps.get(2), index()));
+        assertNull(StepPlan.reads(steps.get(3), index()));
+    }
+
+    @Test
+    public void unsafeCallsShouldKeepDeclarationOrder() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("first", "registry.update-ship",
+                        Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("second", "registry.update-ship",
+                        Map.of("imo", "{{otherImo}}")),
+                new OperationStepForEachSpec("sisters", "$.sisterImos", "sister",
+                        "registry.update-ship", Map.of("imo", "{{sister}}")));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertTrue(plan.isParallel());
+        assertArrayEquals(new int[0], plan.dependencies(1));
+        assertArrayEquals(new int[] {0}, plan.dependencies(2));
+        assertArrayEquals(new int[] {2}, plan.dependencies(3));
+        assertFalse(StepPlan.writes(steps.get(1), index()));
+        assertTrue(StepPlan.writes(steps.get(3), index()));
+    }
+
+    @Test
+    public void sameNameShouldKeepDeclarationOrder() {
+        List<OperationStepSpec> steps = List.of(
+                new OperationStepCallSpec("ship", "registry.get-ship", Map.of("imo", "{{imo}}")),
+                new OperationStepCallSpec("ship", "registry.get-ship",
+                        Map.of("imo", "{{otherImo}}")));
+
+        StepPlan plan = StepPlan.of(steps, index());
+
+        assertFalse(plan.isParallel());
+        assertArrayEquals(new int[] {0}, plan.dependencies(1));
+    }
+
+    @Test
+    public void specPrecompilerShouldKeepStepPlansForDeclaredSteps() throws Exception {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        NaftikoSpec spec;
+        try (InputStream yaml = getClass()
+                .getResourceAsStream("/mcp/mcp-step-with-namespace-capability.yaml")) {
+            spec = mapper.readValue(yaml, NaftikoSpec.class);
+        }
+        HttpClientSpec registry = (HttpClientSpec) spec.getCapability().getConsumes().get(0);
+        List<OperationStepSpec> declared = ((McpServerSpec) spec.getCapability().getExposes()
+                .get(0)).getTools().get(0).getSteps();
+
+        PrecompiledSpec precompiled = new SpecPrecompiler(
+                OperationIndex.of(List.of(new HttpClientAdapter(null, registry))))
+                .precompile(spec);
+
+        assertSame(precompiled.stepPlan(declared, null), precompiled.stepPlan(declared, null));
+        assertFalse(precompiled.stepPlan(declared, null).isParallel());
+        assertNotSame(PrecompiledSpec.EMPTY.stepPlan(declared, null),
+                PrecompiledSpec.EMPTY.stepPlan(declared, null));
+    }
+
+}
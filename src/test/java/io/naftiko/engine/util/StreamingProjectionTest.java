@@ -0,0 +1,159 @@
+/**
+ * Copyright 2025-2026 Naftiko
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.naftiko.engine.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.naftiko.spec.OutputParameterSpec;
+
+public class StreamingProjectionTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String RESPONSE = """
+            {
+              "meta": {"total": 2, "cursor": null},
+              "padding": {"blob": [1, 2, {"deep": ["x", "y"]}], "note": "ignored"},
+              "data": [
+                {"imo_number": "IMO-1", "name": "Northern Star", "extra": {"a": 1}},
+                {"imo_number": "IMO-2", "name": "Southern Cross", "tags": ["ice"]}
+              ],
+              "fleet": {
+                "north": {"id": 10, "skipped": true},
+                "south": {"other": 20}
+              }
+            }
+            """;
+
+    private static OutputParameterSpec shipsArray() {
+        OutputParameterSpec imo = new OutputParameterSpec("imo", "string", null, "$.imo_number");
+        OutputParameterSpec name = new OutputParameterSpec("name", "string", null, "$.name");
+        name.setMaxLength("8");
+        OutputParameterSpec items = new OutputParameterSpec();
+        items.setType("object");
+        items.getProperties().addAll(List.of(imo, name));
+        OutputParameterSpec ships = new OutputParameterSpec("ships", "array", null, "$.data");
+        ships.setItems(items);
+        return ships;
+    }
+
+    private static OutputParameterSpec summaryObject() {
+        OutputParameterSpec total = new OutputParameterSpec("total", "number", null, "$.meta.total");
+        OutputParameterSpec cursor =
+                new OutputParameterSpec("cursor", "string", null, "$.meta.cursor");
+        OutputParameterSpec missing =
+                new OutputParameterSpec("missing", "string", null, "$.meta.absent.value");
+        OutputParameterSpec fleetIds = new OutputParameterSpec();
+        fleetIds.setName("fleet");
+        fleetIds.setType("object");
+        fleetIds.setMapping("$.fleet");
+        fleetIds.setValues(new OutputParameterSpec(null, "number", null, "$.id"));
+        OutputParameterSpec summary = new OutputParameterSpec();
+        summary.setType("object");
+        summary.getProperties().addAll(List.of(total, cursor, missing, fleetIds));
+        return summary;
+    }
+
+    @Test
+    public void projectedTreeShouldProduceSameOutputAsFullTree() throws Exception {
+        JsonNode full = MAPPER.readTree(RESPONSE);
+
+        for (OutputParameterSpec spec : List.of(shipsArray(), summaryObject())) {
+            StreamingProjection projection = StreamingProjection.of(List.of(spec));
+            assertNotNull(projection);
+
+            JsonNode pruned = projection.read(RESPONSE);
+            OutputMappingPlan plan = OutputMappingPlan.compile(spec);
+
+            assertEquals(plan.execute(full, MAPPER, null), plan.execute(pruned, MAPPER, null));
+        }
+    }
+
+    @Test
+    public void readShouldSkipUnselectedValues() throws Exception {
+        StreamingProjection projection = StreamingProjection.of(List.of(shipsArray()));
+
+        JsonNode pruned = projection.read(RESPONSE);
+
+        assertFalse(pruned.has("padding"));
+        assertFalse(pruned.has("meta"));
+        assertFalse(pruned.get("data").get(0).has("extra"));
+        assertEquals("Northern Star", pruned.get("data").get(0).get("name").asText());
+    }
+
+    @Test
+    public void ofShouldReturnNullForComplexJsonPath() {
+        OutputParameterSpec filtered =
+                new OutputParameterSpec("ids", "array", null, "$.data[?(@.name)].imo_number");
+
+        assertNull(StreamingProjection.of(List.of(filtered)));
+        assertNull(StreamingProjection.of(List.of(new OutputParameterSpec("all", "string", null,
+                "$"))));
+        assertNull(StreamingProjection.of(List.of()));
+    }
+
+    @Test
+    public void precompiledProjectionsShouldBeKeyedByListIdentity() {
+        List<OutputParameterSpec> declared = new ArrayList<>(List.of(shipsArray()));
+        List<OutputParameterSpec> complex = new ArrayList<>(List.of(
+                new OutputParameterSpec("ids", "array", null, "$.data[?(@.name)].imo_number")));
+        Map<List<OutputParameterSpec>, StreamingProjection> projections = new HashMap<>();
+        projections.put(declared, StreamingProjection.of(declared));
+        projections.put(complex, null);
+        PrecompiledSpec precompiled = new PrecompiledSpec(Map.of(), projections, Map.of(),
+                Set.of());
+
+        assertSame(precompiled.projection(declared), precompiled.projection(declared));
+        assertTrue(precompiled.hasProjection(complex));
+        assertNull(precompiled.projection(complex));
+
+        declared.add(new OutputParameterSpec("count", "string", null, "$.count"));
+
+        assertTrue(precompiled.hasProjection(declared));
+        assertFalse(precompiled.hasProjection(new ArrayList<>(declared)));
+        assertNotNull(PrecompiledSpec.EMPTY.projection(declared));
+        assertFalse(PrecompiledSpec.EMPTY.hasProjection(declared));
+    }
+
+    @Test
+    public void supportsFormatShouldOnlyAcceptJson() {
+        assertTrue(StreamingProjection.supportsFormat(null));
+        assertTrue(StreamingProjection.supportsFormat("json"));
+        assertFalse(StreamingProjection.supportsFormat("xml"));
+        assertFalse(StreamingProjection.supportsFormat("csv"));
+    }
+
+    @Test
+    public void readShouldRejectInvalidJsonAndAcceptEmptyContent() throws Exception {
+        StreamingProjection projection = StreamingProjection.of(List.of(shipsArray()));
+
+        assertThrows(JsonParseException.class, () -> projection.read("<ships/>"));
+        assertTrue(projection.read("").isMissingNode());
+    }
+
+}
@@ -0,0 +1,5 @@
+// groovy-infinite-loop.groovy — intentionally loops forever to test the timeout
+def count = 0
+while (true) {
+    count++
+}
@@ -0,0 +1,2 @@
+// label-products.groovy — uses the label closure defined by lib/labels.groovy
+result = context['fetch-products'].collect { product -> label(product) }
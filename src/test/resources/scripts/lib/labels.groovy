@@ -0,0 +1,2 @@
+// labels.groovy — reusable label helpers shared through the binding
+label = { product -> product.name.toUpperCase() }
@@ -0,0 +1,4 @@
+// write-context.js — tries to modify a step output through the read-only context
+'use strict';
+context['fetch-items'][0].stock = 0;
+result = context['fetch-items'];
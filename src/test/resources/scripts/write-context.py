@@ -0,0 +1,3 @@
+# write-context.py — tries to modify a step output through the read-only context
+context['fetch-items'][0]['stock'] = 0
+result = context['fetch-items']